@@ -0,0 +1,237 @@
+package ta.nemahuta.neo4j.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The transaction local part of a {@link HierarchicalJCache}, holding its values strongly while their estimated weight
+ * stays within a bound. When the bound is exceeded, either the least recently used value or the new value is evicted,
+ * depending on which of them has been accessed less frequently recently (TinyLFU admission). Values which have only been
+ * loaded are dropped on eviction, so the fallback provides them again. The keys of evicted values which have been changed
+ * (dirty values) are remembered, since the value of the parent cache is outdated for them.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@Slf4j
+public class BoundedChildCache<K, V> {
+
+    /**
+     * the maximum estimated weight of all values
+     */
+    @Getter
+    private final long maxWeight;
+
+    private final ToIntFunction<? super V> weigher;
+
+    private final FrequencySketch sketch;
+
+    /**
+     * the maximum number of keys the sketch is sized for
+     */
+    private final int maxSketchSize;
+
+    /**
+     * the values with their weights in the order of their last access
+     */
+    private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Set<K> evictedKeys = new HashSet<>();
+
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    private long weight;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxWeight the maximum estimated weight of all values
+     * @param weigher   the function estimating the weight of a value
+     */
+    public BoundedChildCache(final long maxWeight, @Nonnull final ToIntFunction<? super V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        // The sketch grows with the number of values, so small sessions do not allocate it for the maximum weight
+        this.maxSketchSize = (int) Math.min(Integer.MAX_VALUE, maxWeight / 256);
+        this.sketch = new FrequencySketch(16);
+    }
+
+    /**
+     * Get the value for a key, using the fallback for keys which are not held and whose dirty value has not been evicted.
+     *
+     * @param key      the key
+     * @param fallback the function providing the value for unknown keys
+     * @return the value or {@code null} if the value is not present or its dirty value has been evicted
+     */
+    @Nullable
+    public V get(@Nonnull final K key, @Nonnull final Function<? super K, ? extends V> fallback) {
+        synchronized (this) {
+            sketch.increment(key);
+            final Weighted<V> entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return entry.value;
+            }
+            misses.increment();
+            if (evictedKeys.contains(key)) {
+                return null;
+            }
+        }
+        return fallback.apply(key);
+    }
+
+    /**
+     * Put a value which has been changed, evicting values if the maximum weight is exceeded.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(@Nonnull final K key, @Nonnull final V value) {
+        put(key, value, true);
+    }
+
+    /**
+     * Put a value which has been loaded, evicting values if the maximum weight is exceeded. The value stays dirty if it
+     * has been changed before.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void putLoaded(@Nonnull final K key, @Nonnull final V value) {
+        put(key, value, false);
+    }
+
+    private synchronized void put(@Nonnull final K key, @Nonnull final V value, final boolean dirty) {
+        sketch.increment(key);
+        final Weighted<V> previous = entries.get(key);
+        // Loading the value again does not make the parent cache up to date
+        final boolean evictedDirty = evictedKeys.remove(key);
+        final boolean stillDirty = dirty || evictedDirty || (previous != null && previous.dirty);
+        final Weighted<V> entry = new Weighted<>(value, weigher.applyAsInt(value), stillDirty);
+        entries.put(key, entry);
+        weight += entry.weight - (previous != null ? previous.weight : 0);
+        sketch.ensureCapacity(Math.min(entries.size(), maxSketchSize));
+        while (weight > maxWeight && !entries.isEmpty()) {
+            final Iterator<Map.Entry<K, Weighted<V>>> eldest = entries.entrySet().iterator();
+            final Map.Entry<K, Weighted<V>> victim = eldest.next();
+            if (!victim.getKey().equals(key) && sketch.frequency(key) < sketch.frequency(victim.getKey())) {
+                // The new value is less popular than the one to be replaced, so it is not admitted
+                evict(key, entries.remove(key));
+            } else {
+                eldest.remove();
+                evict(victim.getKey(), victim.getValue());
+            }
+        }
+    }
+
+    private void evict(@Nonnull final K key, @Nonnull final Weighted<V> entry) {
+        log.trace("Evicting {} with weight {}", key, entry.weight);
+        weight -= entry.weight;
+        if (entry.dirty) {
+            evictedKeys.add(key);
+        }
+        evictions.increment();
+    }
+
+    /**
+     * Remove the value for a key, so the fallback is used for it afterwards.
+     *
+     * @param key the key
+     * @return {@code true} if a value has been removed
+     */
+    public synchronized boolean remove(@Nonnull final K key) {
+        evictedKeys.remove(key);
+        final Weighted<V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        weight -= entry.weight;
+        return true;
+    }
+
+    /**
+     * Remove all values and evicted keys.
+     *
+     * @return the values which have been held
+     */
+    @Nonnull
+    public synchronized Map<K, V> clear() {
+        final ImmutableMap.Builder<K, V> result = ImmutableMap.builder();
+        entries.forEach((key, entry) -> result.put(key, entry.value));
+        entries.clear();
+        evictedKeys.clear();
+        weight = 0;
+        return result.build();
+    }
+
+    /**
+     * @return the keys of the dirty values which have been evicted since the last {@link #clear()}
+     */
+    @Nonnull
+    public synchronized Set<K> getEvictedKeys() {
+        return ImmutableSet.copyOf(evictedKeys);
+    }
+
+    /**
+     * @return the keys of the values being held and the ones of the evicted dirty values
+     */
+    @Nonnull
+    public synchronized List<K> getKeys() {
+        return ImmutableList.<K>builder().addAll(entries.keySet()).addAll(evictedKeys).build();
+    }
+
+    /**
+     * @return the current estimated weight of all values
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of lookups which found a value
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which did not find a value
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of values which have been evicted
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @RequiredArgsConstructor
+    private static class Weighted<V> {
+
+        private final V value;
+        private final int weight;
+        private final boolean dirty;
+
+    }
+
+}
@@ -18,7 +18,7 @@ public class DefaultSessionCache implements SessionCache {
 
     @Getter(onMethod = @__(@Nonnull))
     @NonNull
-    private final IdCache<Long> knownEdgeIds;
+    private final IdCache knownEdgeIds;
 
     @Getter(onMethod = @__(@Nonnull))
     @NonNull
@@ -26,6 +26,6 @@ public class DefaultSessionCache implements SessionCache {
 
     @Getter(onMethod = @__(@Nonnull))
     @NonNull
-    private final IdCache<Long> knownVertexIds;
+    private final IdCache knownVertexIds;
 
 }
@@ -0,0 +1,65 @@
+package ta.nemahuta.neo4j.cache;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+import ta.nemahuta.neo4j.state.Neo4JElementState;
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Estimates the number of bytes an {@link Neo4JElementState} occupies on the heap, which is used as its weight in the
+ * {@link BoundedChildCache}. The estimate only has to be proportional to the actual size.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ElementStateWeigher implements ToIntFunction<Neo4JElementState> {
+
+    public static final ElementStateWeigher INSTANCE = new ElementStateWeigher();
+
+    private static final int OBJECT_WEIGHT = 16;
+    private static final int ENTRY_WEIGHT = 32;
+    private static final int STATE_WEIGHT = 64;
+
+    @Override
+    public int applyAsInt(final Neo4JElementState state) {
+        int result = STATE_WEIGHT + weigh(state.getProperties());
+        if (state instanceof Neo4JVertexState) {
+            final Neo4JVertexState vertexState = (Neo4JVertexState) state;
+            result += weigh(vertexState.getLabels()) +
+                    ENTRY_WEIGHT * (int) (vertexState.getIncomingEdgeIds().getAllKnown().count() + vertexState.getOutgoingEdgeIds().getAllKnown().count());
+        } else if (state instanceof Neo4JEdgeState) {
+            result += weigh(((Neo4JEdgeState) state).getLabel());
+        }
+        return result;
+    }
+
+    private static int weigh(@Nullable final Object value) {
+        if (value instanceof String) {
+            return OBJECT_WEIGHT + 24 + 2 * ((String) value).length();
+        } else if (value instanceof Collection) {
+            int result = OBJECT_WEIGHT;
+            for (final Object element : (Collection<?>) value) {
+                result += ENTRY_WEIGHT + weigh(element);
+            }
+            return result;
+        } else if (value instanceof Map) {
+            int result = OBJECT_WEIGHT;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                result += ENTRY_WEIGHT + weigh(entry.getKey()) + weigh(entry.getValue());
+            }
+            return result;
+        } else if (value != null && value.getClass().isArray()) {
+            return OBJECT_WEIGHT + 8 * Array.getLength(value);
+        } else {
+            return OBJECT_WEIGHT;
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package ta.nemahuta.neo4j.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Count-min sketch estimating how often keys have been accessed recently, using four saturating counters per key which
+ * are halved periodically, so the estimates age and old popularity does not stick forever (as in TinyLFU).
+ * The sketch is not thread safe, callers have to synchronize the access.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+class FrequencySketch {
+
+    private static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private int[] table;
+    private int sampleSize;
+    private int additions;
+
+    /**
+     * Create a new sketch.
+     *
+     * @param expectedSize the expected number of keys held by the cache
+     */
+    FrequencySketch(final int expectedSize) {
+        this.table = new int[tableSizeFor(expectedSize)];
+        this.sampleSize = 10 * table.length;
+    }
+
+    /**
+     * Grow the sketch if it is too small for the expected number of keys, which resets the estimates.
+     *
+     * @param expectedSize the expected number of keys held by the cache
+     */
+    void ensureCapacity(final int expectedSize) {
+        final int size = tableSizeFor(expectedSize);
+        if (size > table.length) {
+            table = new int[size];
+            sampleSize = 10 * size;
+            additions = 0;
+        }
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        return Integer.highestOneBit(Math.max(16, Math.min(expectedSize, 1 << 24)) - 1) << 1;
+    }
+
+    /**
+     * Record an access of a key.
+     *
+     * @param key the key
+     */
+    void increment(@Nonnull final Object key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int index = indexOf(hash, i);
+            if (table[index] < MAX_FREQUENCY) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated number of recent accesses of the key
+     */
+    int frequency(@Nonnull final Object key) {
+        final int hash = spread(key.hashCode());
+        int result = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            result = Math.min(result, table[indexOf(hash, i)]);
+        }
+        return result;
+    }
+
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(final int hash, final int i) {
+        long result = (hash + SEEDS[i]) * SEEDS[i];
+        result += result >>> 32;
+        return (int) result & (table.length - 1);
+    }
+
+    private static int spread(final int hash) {
+        final int result = hash * 0x9E3779B9;
+        return result ^ (result >>> 16);
+    }
+
+}
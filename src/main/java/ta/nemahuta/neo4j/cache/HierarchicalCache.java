@@ -26,6 +26,15 @@ public interface HierarchicalCache<K, V> {
      */
     void put(@Nonnull K key, @Nonnull V value);
 
+    /**
+     * Put an element to the cache which has been loaded and not been changed, so it can be taken from the parent cache
+     * again in case it is evicted.
+     *
+     * @param key   the key of the element
+     * @param value the loaded value
+     */
+    void putLoaded(@Nonnull K key, @Nonnull V value);
+
     /**
      * Remove an element from the cache.
      *
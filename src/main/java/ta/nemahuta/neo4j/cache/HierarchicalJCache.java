@@ -1,17 +1,14 @@
 package ta.nemahuta.neo4j.cache;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
 import javax.cache.Cache;
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -27,35 +24,25 @@ public class HierarchicalJCache<K, V> implements HierarchicalCache<K, V> {
     final Cache<K, V> parent;
 
     /**
-     * The local cache for the session
+     * The local cache for the session, bounded by the estimated weight of its values
      */
-    final Map<K, Reference<V>> child;
+    @Getter(onMethod = @__(@Nonnull))
+    final BoundedChildCache<K, V> child;
 
-    public HierarchicalJCache(@Nonnull final Cache<K, V> parent) {
-        this(parent, new ConcurrentHashMap<>());
-    }
-
-    HierarchicalJCache(@Nonnull final Cache<K, V> parent, @Nonnull final Map<K, Reference<V>> child) {
+    public HierarchicalJCache(@Nonnull final Cache<K, V> parent,
+                              @Nonnull final BoundedChildCache<K, V> child) {
         this.parent = parent;
         this.child = child;
     }
 
     @Override
     public void commit() {
-        long counter = 0;
-        for (final Map.Entry<K, Reference<V>> e : child.entrySet()) {
-            final V value = e.getValue().get();
-            if (value != null) {
-                // The state is still in the cache
-                parent.put(e.getKey(), value);
-            } else {
-                // The state has been removed from the cache, so we need to clear out the parent's state
-                parent.remove(e.getKey());
-            }
-            child.remove(e.getKey());
-            counter++;
-        }
-        log.debug("Committed {} elements in cache", counter);
+        // The evicted values have been changed in the session, so the ones of the parent are outdated
+        final Set<K> evicted = child.getEvictedKeys();
+        final Map<K, V> values = child.clear();
+        parent.putAll(values);
+        parent.removeAll(evicted);
+        log.debug("Committed {} elements in cache, {} evicted changed elements have been removed", values.size(), evicted.size());
     }
 
     @Override
@@ -66,22 +53,22 @@ public class HierarchicalJCache<K, V> implements HierarchicalCache<K, V> {
 
     @Override
     public V get(final K key) {
-        final Reference<V> ref = child.get(key);
-        if (ref != null) {
-            return ref.get();
-        } else {
-            return parent.get(key);
-        }
+        return child.get(key, parent::get);
     }
 
     @Override
     public void put(final K key, final V value) {
-        child.put(key, new SoftReference<>(value));
+        child.put(key, value);
+    }
+
+    @Override
+    public void putLoaded(final K key, final V value) {
+        child.putLoaded(key, value);
     }
 
     @Override
     public boolean remove(final K key) {
-        return Optional.ofNullable(child.remove(key)).map(Reference::get).isPresent();
+        return child.remove(key);
     }
 
     @Override
@@ -95,7 +82,7 @@ public class HierarchicalJCache<K, V> implements HierarchicalCache<K, V> {
         return Stream.concat(StreamSupport.stream(
                 Spliterators.spliteratorUnknownSize(parent.iterator(), Spliterator.NONNULL | Spliterator.IMMUTABLE),
                 false).map(Cache.Entry::getKey),
-                child.keySet().stream());
+                child.getKeys().stream());
     }
 
 }
@@ -2,7 +2,9 @@ package ta.nemahuta.neo4j.cache;
 
 import ta.nemahuta.neo4j.config.Neo4JConfiguration;
 import ta.nemahuta.neo4j.scope.IdCache;
+import ta.nemahuta.neo4j.scope.LongIdSet;
 import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+import ta.nemahuta.neo4j.state.Neo4JElementState;
 import ta.nemahuta.neo4j.state.Neo4JVertexState;
 
 import javax.annotation.Nonnull;
@@ -14,9 +16,8 @@ import javax.cache.expiry.AccessedExpiryPolicy;
 import javax.cache.expiry.EternalExpiryPolicy;
 import javax.cache.expiry.ExpiryPolicy;
 import javax.cache.spi.CachingProvider;
-import java.util.HashSet;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class JCacheSessionCacheManager implements SessionCacheManager {
@@ -24,11 +25,18 @@ public class JCacheSessionCacheManager implements SessionCacheManager {
     public static final String CACHE_NAME_EDGE_GLOBAL = "edge-global";
     public static final String CACHE_NAME_VERTEX_GLOBAL = "vertex-global";
 
+    /**
+     * the estimated number of bytes of the states held by each session cache, if not configured
+     */
+    public static final long DEFAULT_SESSION_CACHE_MAX_WEIGHT = 64L * 1024 * 1024;
+
     protected final CacheManager cacheManager;
     protected final Cache<Long, Neo4JEdgeState> globalEdgeCache;
-    protected final AtomicReference<Set<Long>> globalKnownEdgeIds = new AtomicReference<>(null);
+    protected final AtomicReference<LongIdSet> globalKnownEdgeIds = new AtomicReference<>(null);
+    protected final AtomicLong globalKnownEdgeIdsRefreshedAt = new AtomicLong();
     protected final Cache<Long, Neo4JVertexState> globalVertexCache;
-    protected final AtomicReference<Set<Long>> globalKnownVertexIds = new AtomicReference<>(null);
+    protected final AtomicReference<LongIdSet> globalKnownVertexIds = new AtomicReference<>(null);
+    protected final AtomicLong globalKnownVertexIdsRefreshedAt = new AtomicLong();
 
     private final Neo4JConfiguration configuration;
     private final Factory<? extends ExpiryPolicy> expiryFactory;
@@ -62,13 +70,19 @@ public class JCacheSessionCacheManager implements SessionCacheManager {
     }
 
 
+    @Nonnull
+    private <V extends Neo4JElementState> BoundedChildCache<Long, V> createChildCache() {
+        final long maxWeight = configuration.getSessionCacheMaxWeight() > 0 ? configuration.getSessionCacheMaxWeight() : DEFAULT_SESSION_CACHE_MAX_WEIGHT;
+        return new BoundedChildCache<>(maxWeight, ElementStateWeigher.INSTANCE);
+    }
+
     @Override
     public SessionCache createSessionCache(final Object id) {
         return new DefaultSessionCache(
-                new HierarchicalJCache<>(globalEdgeCache),
-                new IdCache<>(globalKnownEdgeIds),
-                new HierarchicalJCache<>(globalVertexCache),
-                new IdCache<>(globalKnownVertexIds)
+                new HierarchicalJCache<>(globalEdgeCache, createChildCache()),
+                new IdCache(globalKnownEdgeIds, globalKnownEdgeIdsRefreshedAt, configuration.getKnownIdsRefreshInterval()),
+                new HierarchicalJCache<>(globalVertexCache, createChildCache()),
+                new IdCache(globalKnownVertexIds, globalKnownVertexIdsRefreshedAt, configuration.getKnownIdsRefreshInterval())
         );
     }
 
@@ -17,7 +17,7 @@ public interface SessionCache {
     /**
      * @return the known ids for the edges
      */
-    IdCache<Long> getKnownEdgeIds();
+    IdCache getKnownEdgeIds();
 
     /**
      * @return the {@link HierarchicalCache} for {@link Neo4JVertexState}s
@@ -27,6 +27,6 @@ public interface SessionCache {
     /**
      * @return the known ids for the vertexes
      */
-    IdCache<Long> getKnownVertexIds();
+    IdCache getKnownVertexIds();
 
 }
@@ -0,0 +1,23 @@
+package ta.nemahuta.neo4j.cache.ehcache;
+
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link Neo4JStateSerializer} for {@link Neo4JEdgeState}s.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JEdgeStateSerializer extends Neo4JStateSerializer<Neo4JEdgeState> {
+
+    /**
+     * Constructor used by Ehcache.
+     *
+     * @param classLoader the class loader of the cache
+     */
+    public Neo4JEdgeStateSerializer(@Nonnull final ClassLoader classLoader) {
+        super(Neo4JEdgeState.class);
+    }
+
+}
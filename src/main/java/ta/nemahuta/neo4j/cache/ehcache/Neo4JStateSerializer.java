@@ -0,0 +1,55 @@
+package ta.nemahuta.neo4j.cache.ehcache;
+
+import lombok.RequiredArgsConstructor;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import ta.nemahuta.neo4j.state.Neo4JElementState;
+import ta.nemahuta.neo4j.state.Neo4JStateCodec;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * Ehcache {@link Serializer} for {@link Neo4JElementState}s using the {@link Neo4JStateCodec}, to be used for the global
+ * caches when they are stored outside of the heap.
+ *
+ * @param <S> the type of the states
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public abstract class Neo4JStateSerializer<S extends Neo4JElementState> implements Serializer<S> {
+
+    @Nonnull
+    private final Class<S> stateClass;
+
+    @Override
+    public ByteBuffer serialize(final S state) throws SerializerException {
+        try {
+            return ByteBuffer.wrap(Neo4JStateCodec.encode(state));
+        } catch (final RuntimeException e) {
+            throw new SerializerException("Could not serialize state: " + state, e);
+        }
+    }
+
+    @Override
+    public S read(final ByteBuffer binary) throws SerializerException {
+        final byte[] bytes = new byte[binary.remaining()];
+        binary.get(bytes);
+        final Neo4JElementState result;
+        try {
+            result = Neo4JStateCodec.decode(bytes);
+        } catch (final RuntimeException e) {
+            throw new SerializerException("Could not deserialize state.", e);
+        }
+        if (!stateClass.isInstance(result)) {
+            throw new SerializerException("Expected " + stateClass.getName() + " but got " + result.getClass().getName());
+        }
+        return stateClass.cast(result);
+    }
+
+    @Override
+    public boolean equals(final S state, final ByteBuffer binary) throws SerializerException {
+        return state.equals(read(binary));
+    }
+
+}
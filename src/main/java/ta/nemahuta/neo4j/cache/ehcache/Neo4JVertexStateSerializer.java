@@ -0,0 +1,23 @@
+package ta.nemahuta.neo4j.cache.ehcache;
+
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link Neo4JStateSerializer} for {@link Neo4JVertexState}s.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JVertexStateSerializer extends Neo4JStateSerializer<Neo4JVertexState> {
+
+    /**
+     * Constructor used by Ehcache.
+     *
+     * @param classLoader the class loader of the cache
+     */
+    public Neo4JVertexStateSerializer(@Nonnull final ClassLoader classLoader) {
+        super(Neo4JVertexState.class);
+    }
+
+}
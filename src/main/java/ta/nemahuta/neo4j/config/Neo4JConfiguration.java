@@ -96,6 +96,85 @@ public class Neo4JConfiguration {
     @ConfigurationKey
     private final URI cacheConfiguration;
 
+    /**
+     * the maximum estimated number of bytes of the states held by the session caches for the vertices and the edges each,
+     * {@code 0} uses the default of 64 MiB
+     */
+    @Getter
+    @ConfigurationKey
+    private final long sessionCacheMaxWeight;
+
+    /**
+     * the maximum degree of a vertex for its relation ids to be loaded together with the vertex,
+     * {@code 0} disables loading the relation ids eagerly
+     */
+    @Getter
+    @ConfigurationKey
+    private final int eagerRelationsMaxDegree;
+
+    /**
+     * the number of elements queried per page when scanning all vertices or edges,
+     * {@code 0} disables scanning and loads all the elements at once
+     */
+    @Getter
+    @ConfigurationKey
+    private final int scanPageSize;
+
+    /**
+     * the initial number of ids loaded per statement, adapted to the observed latency afterwards,
+     * {@code 0} loads all the ids in a single statement
+     */
+    @Getter
+    @ConfigurationKey
+    private final int loadChunkSize;
+
+    /**
+     * the number of vertices deleted per statement when dropping the vertices of a traversal on the server side,
+     * {@code 0} uses the default of 10000
+     */
+    @Getter
+    @ConfigurationKey
+    private final int dropChunkSize;
+
+    /**
+     * the number of milliseconds after which the known vertex and edge ids are refreshed incrementally before a full scan,
+     * {@code 0} disables the periodic refresh
+     */
+    @Getter
+    @ConfigurationKey
+    private final long knownIdsRefreshInterval;
+
+    /**
+     * the number of updates and deletions buffered in a transaction before they are sent to the session,
+     * {@code 0} sends every change immediately
+     */
+    @Getter
+    @ConfigurationKey
+    private final int writeBehindThreshold;
+
+    /**
+     * the name of the property holding client generated vertex ids, backed by a unique constraint,
+     * {@code null} uses the internal ids of Neo4J which are assigned by the server
+     */
+    @Getter(onMethod = @__(@Nullable))
+    @ConfigurationKey
+    private final String vertexIdProperty;
+
+    /**
+     * the label of all the vertices with a client generated id, on which the unique constraint of the ids is created,
+     * {@code null} uses {@value ta.nemahuta.neo4j.id.SnowflakeVertexIdStrategy#DEFAULT_LABEL}
+     */
+    @Getter(onMethod = @__(@Nullable))
+    @ConfigurationKey
+    private final String vertexIdLabel;
+
+    /**
+     * the worker number for client generated vertex ids, unique for each process writing to the graph
+     */
+    @Getter
+    @ConfigurationKey
+    private final int vertexIdWorker;
+
     @Nonnull
     public Configuration toApacheConfiguration() {
         final Configuration result = new BaseConfiguration();
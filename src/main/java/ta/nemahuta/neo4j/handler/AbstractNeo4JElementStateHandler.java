@@ -1,5 +1,9 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,38 +13,139 @@ import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.StatementBuilder;
+import ta.nemahuta.neo4j.query.operation.UpdatePropertiesOperation;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryBuilder;
+import ta.nemahuta.neo4j.scope.LongIdSet;
 import ta.nemahuta.neo4j.session.StatementExecutor;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
 @Slf4j
 public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementState, Q extends AbstractQueryBuilder>
         implements Neo4JElementStateHandler<S, Q> {
 
+    /**
+     * the maximum number of rows unwound by a single statement
+     */
+    protected static final int MAX_ROWS_PER_STATEMENT = 10000;
+
+    /**
+     * the number of identifiers sampled for each range when splitting the identifiers
+     */
+    protected static final int SAMPLES_PER_RANGE = 100;
+
     @NonNull
     protected final StatementExecutor statementExecutor;
 
+    /**
+     * the number of ids to be loaded per statement
+     */
+    @NonNull
+    private final AdaptiveChunkSize chunkSize;
+
+    protected AbstractNeo4JElementStateHandler(@Nonnull final StatementExecutor statementExecutor) {
+        this(statementExecutor, AdaptiveChunkSize.disabled());
+    }
+
     @Nonnull
     @Override
     public Set<Long> retrieveAllIds() {
-        return statementExecutor.executeStatement(createLoadAllIdsCommand()).stream().map(r -> r.get(0).asLong()).collect(Collectors.toSet());
+        return LongIdSet.of(statementExecutor.executeStatement(createLoadAllIdsCommand()).stream().mapToLong(r -> r.get(0).asLong()));
+    }
+
+    @Nonnull
+    @Override
+    public Set<Long> retrieveIdsAfter(final long afterId) {
+        return LongIdSet.of(statementExecutor.retrieveRecords(createLoadIdsAfterCommand(afterId)).mapToLong(r -> r.get(0).asLong()));
+    }
+
+    @Override
+    public long countAll() {
+        return queryLong(createCountAllCommand());
+    }
+
+    @Override
+    public long maxId() {
+        return queryLong(createMaxIdCommand());
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> splitIds(final int parts) {
+        final long count = countAll();
+        final double ratio = count > 0 ? Math.min(1d, (double) parts * SAMPLES_PER_RANGE / count) : 1d;
+        final long[] sample = statementExecutor.retrieveRecords(createSampleIdsCommand(ratio)).mapToLong(r -> r.get(0).asLong()).sorted().toArray();
+        log.debug("Sampled {} of {} ids to split them into {} ranges", sample.length, count, parts);
+        final ImmutableList.Builder<Long> result = ImmutableList.builder();
+        long last = -1;
+        for (int part = 1; part < parts; part++) {
+            final int index = (int) ((long) part * sample.length / parts) - 1;
+            // Skip the empty ranges for small samples
+            if (index >= 0 && sample[index] > last) {
+                last = sample[index];
+                result.add(last);
+            }
+        }
+        return result.add(Long.MAX_VALUE).build();
+    }
+
+    /**
+     * Execute a statement returning a single number.
+     *
+     * @param statement the statement to be executed
+     * @return the number returned, {@code 0} if there is none
+     */
+    protected long queryLong(@Nonnull final Statement statement) {
+        return statementExecutor.retrieveRecords(statement).findAny()
+                .flatMap(this::recordToLong)
+                .orElse(0l);
     }
 
     @Nonnull
     @Override
     public Map<Long, S> getAll(@Nonnull final Set<Long> idsToBeLoaded) {
-        return statementExecutor.retrieveRecords(createLoadCommand(idsToBeLoaded))
-                .map(this::getIdAndConvertToState)
-                .collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
+        return streamAll(idsToBeLoaded).collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Pair<Long, S>> streamAll(@Nonnull final Set<Long> idsToBeLoaded) {
+        if (idsToBeLoaded.size() <= chunkSize.get()) {
+            return statementExecutor.retrieveRecords(createLoadCommand(idsToBeLoaded))
+                    .map(this::getIdAndConvertToState);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ChunkedRecordIterator(idsToBeLoaded.iterator()),
+                Spliterator.NONNULL | Spliterator.IMMUTABLE), false)
+                .map(this::getIdAndConvertToState);
+    }
+
+    @Nonnull
+    @Override
+    public CompletionStage<Map<Long, S>> getAllAsync(@Nonnull final Set<Long> idsToBeLoaded) {
+        return statementExecutor.retrieveRecordsAsync(createLoadCommand(idsToBeLoaded))
+                .thenApply(records -> records.stream()
+                        .map(this::getIdAndConvertToState)
+                        .collect(Collectors.toMap(Pair::getValue0, Pair::getValue1)));
     }
 
     @Nonnull
@@ -64,6 +169,32 @@ public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementSta
         statementExecutor.executeStatement(createDeleteCommand(id));
     }
 
+    @Override
+    public void updateAll(@Nonnull final Map<Long, Pair<S, S>> updates) {
+        // Updates of the same shape only differ by their id and properties, so they are unwound in a single statement
+        updates.entrySet().stream()
+                .collect(Collectors.groupingBy(e -> getUpdateShape(e.getValue().getValue0(), e.getValue().getValue1()),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(group -> {
+                    final Pair<S, S> states = group.get(0).getValue();
+                    final List<Map<String, Object>> rows = group.stream()
+                            .map(e -> ImmutableMap.<String, Object>of(AbstractQueryBuilder.ROW_ID, e.getKey(),
+                                    AbstractQueryBuilder.ROW_PROPERTIES, UpdatePropertiesOperation.delta(
+                                            e.getValue().getValue0().getProperties(), e.getValue().getValue1().getProperties())))
+                            .collect(ImmutableList.toImmutableList());
+                    log.debug("Updating {} elements in a single statement", rows.size());
+                    statementExecutor.executeStatement(createBulkUpdateCommand(states.getValue0(), states.getValue1(), rows));
+                });
+    }
+
+    @Override
+    public void deleteAll(@Nonnull final Set<Long> ids) {
+        if (!ids.isEmpty()) {
+            statementExecutor.executeStatement(createBulkDeleteCommand(ids));
+        }
+    }
+
     @Override
     public long create(@Nonnull final S state) {
         return statementExecutor.retrieveRecords(createInsertCommand(state))
@@ -72,6 +203,44 @@ public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementSta
                 .orElseThrow(() -> new IllegalStateException("The statement executed returned a non single long record."));
     }
 
+    @Nonnull
+    @Override
+    public List<Long> createAll(@Nonnull final List<S> states) {
+        final Long[] result = new Long[states.size()];
+        forEachCreateBatch(states, (batch, batchStates) -> {
+            final List<Long> ids = statementExecutor.retrieveRecords(createBulkInsertCommand(batchStates))
+                    .map(r -> recordToLong(r).orElseThrow(() -> new IllegalStateException("The statement executed returned a non long record.")))
+                    .collect(ImmutableList.toImmutableList());
+            if (ids.size() != batch.size()) {
+                throw new IllegalStateException("Created " + ids.size() + " elements instead of " + batch.size());
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                result[batch.get(i)] = ids.get(i);
+            }
+        });
+        return ImmutableList.copyOf(result);
+    }
+
+    /**
+     * Split the states to be created into batches of the same {@link #getCreateShape(Neo4JElementState) shape}, so each
+     * of them can be created using a single statement.
+     *
+     * @param states        the states to be created
+     * @param batchConsumer the consumer for the indices of each batch in the states and the states of the batch
+     */
+    protected void forEachCreateBatch(@Nonnull final List<S> states,
+                                      @Nonnull final BiConsumer<List<Integer>, List<S>> batchConsumer) {
+        // Elements of the same shape only differ by their rows, so they are unwound in a single statement per batch
+        IntStream.range(0, states.size()).boxed()
+                .collect(Collectors.groupingBy(i -> getCreateShape(states.get(i)), LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(group -> Lists.partition(group, MAX_ROWS_PER_STATEMENT).forEach(batch -> {
+                    final List<S> batchStates = batch.stream().map(states::get).collect(ImmutableList.toImmutableList());
+                    log.debug("Creating {} elements in a single statement", batchStates.size());
+                    batchConsumer.accept(batch, batchStates);
+                }));
+    }
+
     private Optional<Long> recordToLong(final Record record) {
         final Optional<Long> result = recordToOptional(record).flatMap(this::valueAsLong);
         if (!result.isPresent()) {
@@ -127,6 +296,61 @@ public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementSta
     @Nonnull
     protected abstract Statement createUpdateCommand(long id, final S currentState, S state);
 
+    /**
+     * Provides the shape of an update, which has to be the same for all the updates processed by a single bulk update statement.
+     * By default, updates only differ by the id and the properties, so all of them share the same shape.
+     *
+     * @param currentState the current state
+     * @param newState     the new state to update to
+     * @return the shape of the update
+     */
+    @Nonnull
+    protected Object getUpdateShape(@Nonnull final S currentState, @Nonnull final S newState) {
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Create an update statement for multiple elements of the same shape, using rows of the id and the changed properties.
+     *
+     * @param currentState the current state of one of the elements, providing the shape of the update
+     * @param newState     the new state of the same element
+     * @param rows         the rows for the elements to be updated
+     * @return the statement to be processed
+     */
+    @Nonnull
+    protected abstract Statement createBulkUpdateCommand(@Nonnull S currentState, @Nonnull S newState,
+                                                         @Nonnull List<Map<String, Object>> rows);
+
+    /**
+     * Create a delete statement for multiple elements.
+     *
+     * @param ids the ids to be deleted
+     * @return the statement to be processed
+     */
+    @Nonnull
+    protected abstract Statement createBulkDeleteCommand(@Nonnull Set<Long> ids);
+
+    /**
+     * Provides the shape of a new element, which has to be the same for all the elements created by a single bulk insert statement.
+     * By default, new elements only differ by their properties, so all of them share the same shape.
+     *
+     * @param state the state of the new element
+     * @return the shape of the element
+     */
+    @Nonnull
+    protected Object getCreateShape(@Nonnull final S state) {
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Create an insert statement for multiple elements of the same shape, returning their ids in the order of the states.
+     *
+     * @param states the states to be inserted
+     * @return the statement to be processed
+     */
+    @Nonnull
+    protected abstract Statement createBulkInsertCommand(@Nonnull List<S> states);
+
     /**
      * Create an insert statement to be processed.
      *
@@ -153,6 +377,40 @@ public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementSta
     @Nonnull
     protected abstract Statement createLoadAllIdsCommand();
 
+    /**
+     * Create a load command returning the ids of the elements in the graph which are greater than the provided one.
+     *
+     * @param afterId the id to be exceeded
+     * @return the command
+     */
+    @Nonnull
+    protected abstract Statement createLoadIdsAfterCommand(long afterId);
+
+    /**
+     * Create a command returning the number of elements in the graph.
+     *
+     * @return the command
+     */
+    @Nonnull
+    protected abstract Statement createCountAllCommand();
+
+    /**
+     * Create a command returning the greatest id of the elements in the graph.
+     *
+     * @return the command
+     */
+    @Nonnull
+    protected abstract Statement createMaxIdCommand();
+
+    /**
+     * Create a command returning a random sample of the ids of the elements in the graph.
+     *
+     * @param ratio the probability of each id to be part of the sample
+     * @return the command
+     */
+    @Nonnull
+    protected abstract Statement createSampleIdsCommand(double ratio);
+
     /**
      * Create a command which creates an index for the property of all elements which match the provided labels.
      *
@@ -177,4 +435,90 @@ public abstract class AbstractNeo4JElementStateHandler<S extends Neo4JElementSta
                 .orElseGet(Collections::emptyMap);
     }
 
+    @Override
+    public long count(@Nonnull final Function<Q, Q> query) {
+        return query.apply(this.query()).build()
+                .flatMap(statement -> statementExecutor.retrieveRecords(statement).findAny())
+                .flatMap(this::recordToLong)
+                .orElse(0l);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Map<String, Object>> queryProperties(@Nonnull final Function<Q, Q> query) {
+        return query.apply(this.query()).build()
+                .map(statementExecutor::retrieveRecords)
+                .map(records -> records.sequential().map(r -> r.get(0).asMap()))
+                .orElseGet(Stream::empty);
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Pair<Long, S>> queryInOrder(@Nonnull final StatementBuilder statementBuilder) {
+        return statementBuilder.build()
+                .map(statementExecutor::retrieveRecords)
+                .map(records -> records.sequential().map(this::getIdAndConvertToState))
+                .orElseGet(Stream::empty);
+    }
+
+    /**
+     * Iterator for the records of the ids loaded in chunks, sending the statement for the next chunk as soon as the
+     * first record of the current one is consumed, so the next chunk is processed on the server side while the current
+     * one is still being received.
+     */
+    private class ChunkedRecordIterator extends AbstractIterator<Record> {
+
+        private final Iterator<Long> remainingIds;
+
+        private Iterator<Record> current = Collections.emptyIterator(), next;
+
+        private int nextSize;
+
+        private long nextSent;
+
+        private ChunkedRecordIterator(@Nonnull final Iterator<Long> remainingIds) {
+            this.remainingIds = remainingIds;
+            sendNext();
+        }
+
+        @Override
+        protected Record computeNext() {
+            while (!current.hasNext()) {
+                if (next == null) {
+                    return endOfData();
+                }
+                current = next;
+                next = null;
+                final int size = nextSize;
+                // Waits for the first record, so the latency does not include the time the consumer takes
+                if (!current.hasNext()) {
+                    log.trace("None of the {} ids of the chunk exist", size);
+                }
+                final long latency = System.nanoTime() - nextSent;
+                // The next chunk is sent even if this one is empty, since the remaining ids may still exist
+                sendNext();
+                chunkSize.record(size, latency);
+            }
+            return current.next();
+        }
+
+        private void sendNext() {
+            if (!remainingIds.hasNext()) {
+                return;
+            }
+            final Set<Long> chunk = new HashSet<>();
+            final int size = chunkSize.get();
+            while (chunk.size() < size && remainingIds.hasNext()) {
+                chunk.add(remainingIds.next());
+            }
+            log.trace("Loading chunk of {} ids", chunk.size());
+            nextSent = System.nanoTime();
+            next = Optional.ofNullable(statementExecutor.executeStatement(createLoadCommand(chunk)))
+                    .map(r -> (Iterator<Record>) r)
+                    .orElseGet(Collections::emptyIterator);
+            nextSize = chunk.size();
+        }
+
+    }
+
 }
@@ -0,0 +1,84 @@
+package ta.nemahuta.neo4j.handler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The number of ids to be loaded in a single statement, which is adapted to the observed latency of the statements:
+ * the size is doubled for chunks completing faster than half of the target latency and halved for chunks exceeding it,
+ * staying within 1/16 and 16 times the initial size.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@Slf4j
+public class AdaptiveChunkSize {
+
+    /**
+     * the latency a single chunk should not exceed
+     */
+    public static final long TARGET_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final int ADAPTION_FACTOR = 16;
+
+    private final int min, max;
+
+    private final AtomicInteger current;
+
+    /**
+     * Create a new chunk size.
+     *
+     * @param initial the initial number of ids per chunk, {@code 0} to load all ids in a single chunk
+     */
+    public AdaptiveChunkSize(final int initial) {
+        this.min = Math.max(1, initial / ADAPTION_FACTOR);
+        this.max = initial > Integer.MAX_VALUE / ADAPTION_FACTOR ? Integer.MAX_VALUE : initial * ADAPTION_FACTOR;
+        this.current = new AtomicInteger(Math.max(0, initial));
+    }
+
+    /**
+     * @return a chunk size which loads all ids in a single chunk
+     */
+    public static AdaptiveChunkSize disabled() {
+        return new AdaptiveChunkSize(0);
+    }
+
+    /**
+     * @return {@code true} if the ids should be loaded in chunks, {@code false} if they should be loaded at once
+     */
+    public boolean isEnabled() {
+        return current.get() > 0;
+    }
+
+    /**
+     * @return the number of ids for the next chunk
+     */
+    public int get() {
+        return isEnabled() ? current.get() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Record the latency of a chunk, adapting the size for the next chunks.
+     *
+     * @param chunkSize    the number of ids in the chunk
+     * @param latencyNanos the time the chunk took to be loaded in nanoseconds
+     */
+    public void record(final int chunkSize, final long latencyNanos) {
+        if (!isEnabled() || chunkSize < current.get()) {
+            // Disabled, or the remainder of the ids, which does not tell anything about a full chunk
+            return;
+        }
+        final int adapted = current.updateAndGet(size -> {
+            if (latencyNanos > TARGET_LATENCY_NANOS) {
+                return Math.max(min, size / 2);
+            } else if (latencyNanos < TARGET_LATENCY_NANOS / 2) {
+                return size > max / 2 ? max : size * 2;
+            } else {
+                return size;
+            }
+        });
+        log.trace("Chunk of {} ids loaded in {}ns, next chunk size: {}", chunkSize, latencyNanos, adapted);
+    }
+
+}
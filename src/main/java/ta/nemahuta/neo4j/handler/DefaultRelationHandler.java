@@ -1,5 +1,6 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import lombok.NonNull;
@@ -17,7 +18,10 @@ import ta.nemahuta.neo4j.state.VertexEdgeReferences;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -37,7 +41,8 @@ public class DefaultRelationHandler implements RelationHandler {
     @Override
     public Stream<Long> getRelationIdsOf(final long vertexId, @Nonnull final Direction direction, @Nonnull final Set<String> labels) {
         if (direction == Direction.BOTH) {
-            // In case this queries both directions, concat the both direction streams
+            // In case this queries both directions, resolve them at once and concat the both direction streams from the references
+            resolveRelationsOf(Collections.singleton(vertexId), Direction.BOTH, labels);
             return Stream.concat(getRelationIdsOf(vertexId, Direction.IN, labels), getRelationIdsOf(vertexId, Direction.OUT, labels));
         }
         return new VertexEdgeReferenceQuery(vertexId, direction, labels).relationIds();
@@ -62,6 +67,72 @@ public class DefaultRelationHandler implements RelationHandler {
         }
     }
 
+    @Override
+    public void registerEdges(@Nonnull final Map<Long, Neo4JEdgeState> edges) {
+        final Map<Long, Neo4JVertexState> newStates = new HashMap<>();
+        edges.forEach((edgeId, edge) -> {
+            addEdge(newStates, edge.getOutVertexId(), Direction.OUT, edge.getLabel(), edgeId);
+            addEdge(newStates, edge.getInVertexId(), Direction.IN, edge.getLabel(), edgeId);
+        });
+        // Only update the vertices whose references changed
+        newStates.forEach((vertexId, state) -> {
+            if (state != vertexCache.get(vertexId)) {
+                vertexScope.update(vertexId, state);
+            }
+        });
+    }
+
+    private void addEdge(@Nonnull final Map<Long, Neo4JVertexState> newStates, final long vertexId,
+                         @Nonnull final Direction direction, @Nonnull final String label, final long edgeId) {
+        Optional.ofNullable(newStates.containsKey(vertexId) ? newStates.get(vertexId) : vertexCache.get(vertexId))
+                .ifPresent(state -> {
+                    final VertexEdgeReferences references = state.getEdgeIds(direction);
+                    final VertexEdgeReferences newReferences = references.withNewEdge(label, edgeId);
+                    newStates.put(vertexId, newReferences != references ? state.withEdgeIds(direction, newReferences) : state);
+                });
+    }
+
+    @Override
+    public void resolveRelationsOf(@Nonnull final Set<Long> vertexIds, @Nonnull final Direction direction, @Nonnull final Set<String> labels) {
+        if (vertexIds.isEmpty()) {
+            return;
+        }
+        // Both directions are resolved using a single undirected query, whose relations are split up afterwards
+        final List<Direction> directions = direction == Direction.BOTH ? ImmutableList.of(Direction.IN, Direction.OUT) : ImmutableList.of(direction);
+        final Map<Long, Neo4JVertexState> unresolved = vertexScope.getAll(vertexIds).entrySet().stream()
+                .filter(e -> directions.stream().anyMatch(d -> !isResolved(e.getValue().getEdgeIds(d), labels)))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        // Every queried label is known afterwards, even if a vertex does not have any relation for it
+        final Map<Direction, Map<Long, Map<String, Set<Long>>>> results = new EnumMap<>(Direction.class);
+        directions.forEach(d -> results.put(d, unresolved.keySet().stream()
+                .collect(Collectors.toMap(id -> id, id -> labels.stream().collect(Collectors.toMap(l -> l, l -> new HashSet<>()))))));
+        // Use a single query for all the vertices
+        edgeScope.queryAndCache(q -> q.labels(labels.isEmpty() ? null : ImmutableSet.copyOf(labels))
+                .direction(direction)
+                .where(b -> b.getLhs().idsInSet(unresolved.keySet()))
+                .andThen(EdgeQueryFactory::returnEdge))
+                .forEach((edgeId, edge) -> directions.forEach(d ->
+                        Optional.ofNullable(results.get(d).get(d == Direction.IN ? edge.getInVertexId() : edge.getOutVertexId()))
+                                .ifPresent(references -> references.computeIfAbsent(edge.getLabel(), l -> new HashSet<>()).add(edgeId))));
+        // Finally update the references of the vertices, once for each of them
+        unresolved.forEach((id, state) -> {
+            Neo4JVertexState newState = state;
+            for (final Direction d : directions) {
+                final VertexEdgeReferences references = state.getEdgeIds(d);
+                newState = newState.withEdgeIds(d, labels.isEmpty() ?
+                        references.withAllResolvedEdges(results.get(d).get(id)) : references.withPartialResolvedEdges(results.get(d).get(id)));
+            }
+            vertexScope.update(id, newState);
+        });
+    }
+
+    private static boolean isResolved(@Nonnull final VertexEdgeReferences references, @Nonnull final Set<String> labels) {
+        return references.getLabels() != null || (!labels.isEmpty() && labels.stream().allMatch(l -> references.get(l) != null));
+    }
+
     protected class VertexEdgeReferenceQuery {
 
         private final long vertexId;
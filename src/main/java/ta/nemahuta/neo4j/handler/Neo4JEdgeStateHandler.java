@@ -1,12 +1,16 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.types.Relationship;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
 import ta.nemahuta.neo4j.query.edge.EdgeQueryBuilder;
 import ta.nemahuta.neo4j.query.edge.EdgeQueryFactory;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryBuilder;
@@ -15,16 +19,37 @@ import ta.nemahuta.neo4j.state.Neo4JEdgeState;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4JEdgeState, EdgeQueryBuilder> {
 
     private final Neo4JGraphPartition readPartition;
 
+    /**
+     * the strategy for the identifiers of the vertices
+     */
+    private final Neo4JVertexIdStrategy idStrategy;
+
     public Neo4JEdgeStateHandler(@Nonnull final StatementExecutor statementExecutor,
                                  @Nonnull final Neo4JGraphPartition readPartition) {
-        super(statementExecutor);
+        this(statementExecutor, readPartition, AdaptiveChunkSize.disabled());
+    }
+
+    public Neo4JEdgeStateHandler(@Nonnull final StatementExecutor statementExecutor,
+                                 @Nonnull final Neo4JGraphPartition readPartition,
+                                 @Nonnull final AdaptiveChunkSize chunkSize) {
+        this(statementExecutor, readPartition, chunkSize, NativeVertexIdStrategy.INSTANCE);
+    }
+
+    public Neo4JEdgeStateHandler(@Nonnull final StatementExecutor statementExecutor,
+                                 @Nonnull final Neo4JGraphPartition readPartition,
+                                 @Nonnull final AdaptiveChunkSize chunkSize,
+                                 @Nonnull final Neo4JVertexIdStrategy idStrategy) {
+        super(statementExecutor, chunkSize);
         this.readPartition = readPartition;
+        this.idStrategy = idStrategy;
     }
 
 
@@ -32,8 +57,10 @@ public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4
     @Override
     protected Neo4JEdgeState convertToState(@Nonnull final Record r) {
         final Relationship relationship = r.get(0).asRelationship();
-        final long inId = relationship.endNodeId();
-        final long outId = relationship.startNodeId();
+        // Client generated ids of the nodes are returned after the relationship
+        final boolean nodeIdsReturned = r.size() > 2;
+        final long inId = nodeIdsReturned ? r.get(2).asLong() : relationship.endNodeId();
+        final long outId = nodeIdsReturned ? r.get(1).asLong() : relationship.startNodeId();
         return new Neo4JEdgeState(relationship.type(), ImmutableMap.copyOf(relationship.asMap()), inId, outId);
     }
 
@@ -65,6 +92,29 @@ public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4
                 .build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Statement createBulkUpdateCommand(@Nonnull final Neo4JEdgeState currentState,
+                                                @Nonnull final Neo4JEdgeState newState,
+                                                @Nonnull final List<Map<String, Object>> rows) {
+        return query()
+                .unwind(rows)
+                .direction(Direction.OUT)
+                .where(EdgeQueryFactory::whereRowId)
+                .andThen(EdgeQueryFactory::rowProperties)
+                .build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createBulkDeleteCommand(@Nonnull final Set<Long> ids) {
+        return query()
+                .direction(Direction.OUT)
+                .where(b -> b.whereIds(ImmutableSet.copyOf(ids)))
+                .andThen(b -> b.deleteEdge())
+                .build().get();
+    }
+
     @Nonnull
     @Override
     protected Statement createInsertCommand(@Nonnull final Neo4JEdgeState state) {
@@ -74,6 +124,28 @@ public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4
                 .build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Object getCreateShape(@Nonnull final Neo4JEdgeState state) {
+        // The label is part of the statement
+        return state.getLabel();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createBulkInsertCommand(@Nonnull final List<Neo4JEdgeState> states) {
+        return query()
+                .unwind(states.stream()
+                        .map(state -> ImmutableMap.<String, Object>of(
+                                AbstractQueryBuilder.ROW_OUT_ID, state.getOutVertexId(),
+                                AbstractQueryBuilder.ROW_IN_ID, state.getInVertexId(),
+                                AbstractQueryBuilder.ROW_PROPERTIES, state.getProperties()))
+                        .collect(ImmutableList.toImmutableList()))
+                .where(b -> b.getLhs().rowId(AbstractQueryBuilder.ROW_OUT_ID).and(b.getRhs().rowId(AbstractQueryBuilder.ROW_IN_ID)))
+                .andThen(b -> b.createEdgeFromRow(Direction.OUT, states.get(0).getLabel()))
+                .build().get();
+    }
+
     @Nonnull
     @Override
     protected Statement createLoadCommand(@Nonnull final Set<Long> ids) {
@@ -92,6 +164,43 @@ public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4
                 .andThen(EdgeQueryFactory::returnId).build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Statement createLoadIdsAfterCommand(final long afterId) {
+        return query()
+                .direction(Direction.OUT)
+                .where(b -> b.whereIdGreaterThan(afterId))
+                .andThen(EdgeQueryFactory::returnId).build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createCountAllCommand() {
+        return query()
+                .direction(Direction.OUT)
+                .andThen(b -> b.returnCount(0, -1)).build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createMaxIdCommand() {
+        return query()
+                .direction(Direction.OUT)
+                .andThen(EdgeQueryFactory::returnId)
+                .orderBy(b -> b.orderById(true))
+                .limit(1)
+                .build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createSampleIdsCommand(final double ratio) {
+        return query()
+                .direction(Direction.OUT)
+                .where(b -> b.whereSampled(ratio))
+                .andThen(EdgeQueryFactory::returnId).build().get();
+    }
+
     @Nonnull
     @Override
     protected Statement createCreateIndexCommand(@Nonnull final String label,
@@ -106,7 +215,7 @@ public class Neo4JEdgeStateHandler extends AbstractNeo4JElementStateHandler<Neo4
      */
     @Override
     protected EdgeQueryBuilder query() {
-        return new EdgeQueryBuilder(readPartition);
+        return new EdgeQueryBuilder(readPartition, idStrategy);
     }
 
 }
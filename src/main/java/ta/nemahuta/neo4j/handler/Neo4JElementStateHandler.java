@@ -1,12 +1,17 @@
 package ta.nemahuta.neo4j.handler;
 
+import org.javatuples.Pair;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.StatementBuilder;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends AbstractQueryBuilder> {
 
@@ -18,6 +23,36 @@ public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends
     @Nonnull
     Set<Long> retrieveAllIds();
 
+    /**
+     * Retrieve the identifiers in the graph which are greater than the provided one.
+     *
+     * @param afterId the identifier to be exceeded
+     * @return the greater identifiers in the graph
+     */
+    @Nonnull
+    Set<Long> retrieveIdsAfter(long afterId);
+
+    /**
+     * @return the number of elements in the graph
+     */
+    long countAll();
+
+    /**
+     * @return the greatest identifier in the graph, {@code 0} if there are no elements
+     */
+    long maxId();
+
+    /**
+     * Split the identifiers in the graph into ranges holding about the same number of elements, using the boundaries of a
+     * random sample of the identifiers, so the ranges are balanced even if the identifiers are not distributed evenly.
+     *
+     * @param parts the number of ranges to split into
+     * @return the ascending inclusive upper bounds of the ranges, the last one being {@link Long#MAX_VALUE}; there may be
+     * less ranges than requested for small graphs
+     */
+    @Nonnull
+    List<Long> splitIds(int parts);
+
     /**
      * Loads the {@link Neo4JElementState} of the ids to be loaded.
      *
@@ -27,6 +62,24 @@ public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends
     @Nonnull
     Map<Long, S> getAll(@Nonnull Set<Long> idsToBeLoaded);
 
+    /**
+     * Loads the {@link Neo4JElementState} of the ids to be loaded, providing each of them as soon as it has been received.
+     *
+     * @param idsToBeLoaded the elements to be loaded
+     * @return the lazily loaded pairs of the id and the state of the elements found
+     */
+    @Nonnull
+    Stream<Pair<Long, S>> streamAll(@Nonnull Set<Long> idsToBeLoaded);
+
+    /**
+     * Loads the {@link Neo4JElementState} of the ids to be loaded without blocking the calling thread.
+     *
+     * @param idsToBeLoaded the elements to be loaded
+     * @return the stage providing the {@link Map} of the elements found
+     */
+    @Nonnull
+    CompletionStage<Map<Long, S>> getAllAsync(@Nonnull Set<Long> idsToBeLoaded);
+
     /**
      * Query elements and return the found elements.
      *
@@ -35,6 +88,33 @@ public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends
      */
     Map<Long, S> query(@Nonnull Function<Q, Q> query);
 
+    /**
+     * Count elements using a query which returns a single number, without loading any of them.
+     *
+     * @param query the query to be processed
+     * @return the number returned by the query
+     */
+    long count(@Nonnull Function<Q, Q> query);
+
+    /**
+     * Query the properties of elements using a query which returns a map of properties in the first column of each record,
+     * without converting the elements to states.
+     *
+     * @param query the query to be processed
+     * @return the lazily retrieved property maps in the order of the records, missing properties are mapped to {@code null}
+     */
+    @Nonnull
+    Stream<Map<String, Object>> queryProperties(@Nonnull Function<Q, Q> query);
+
+    /**
+     * Query elements using a statement which returns the element in the first column of each record.
+     *
+     * @param statementBuilder the builder for the statement to be processed
+     * @return the lazily converted elements in the order of the records, an element is contained once for each record returning it
+     */
+    @Nonnull
+    Stream<Pair<Long, S>> queryInOrder(@Nonnull StatementBuilder statementBuilder);
+
     /**
      * Update an element.
      *
@@ -51,6 +131,20 @@ public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends
      */
     void delete(long id);
 
+    /**
+     * Update multiple elements at once, using a single statement for all the updates of the same shape.
+     *
+     * @param updates the pairs of the current and the new state by the id of the element
+     */
+    void updateAll(@Nonnull Map<Long, Pair<S, S>> updates);
+
+    /**
+     * Deletes the elements with the provided ids using a single statement.
+     *
+     * @param ids the ids of the elements
+     */
+    void deleteAll(@Nonnull Set<Long> ids);
+
     /**
      * Create a new element with the state.
      *
@@ -59,6 +153,15 @@ public interface Neo4JElementStateHandler<S extends Neo4JElementState, Q extends
      */
     long create(@Nonnull S state);
 
+    /**
+     * Create new elements with the states, using a single statement for all the elements of the same shape.
+     *
+     * @param states the states of the elements
+     * @return the persisted ids in the order of the states
+     */
+    @Nonnull
+    List<Long> createAll(@Nonnull List<S> states);
+
     /**
      * Create an index for the element with the provided labels.
      *
@@ -1,44 +1,129 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.javatuples.Pair;
+import org.javatuples.Triplet;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryBuilder;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryFactory;
+import ta.nemahuta.neo4j.query.vertex.operation.ReturnVertexWithRelationsOperation;
 import ta.nemahuta.neo4j.session.StatementExecutor;
 import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.state.VertexEdgeReferences;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class Neo4JVertexStateHandler extends AbstractNeo4JElementStateHandler<Neo4JVertexState, VertexQueryBuilder> {
 
     private final Neo4JGraphPartition readPartition;
 
+    /**
+     * the read partition restricted to the vertices having the label of the identifiers
+     */
+    private final Neo4JGraphPartition vertexPartition;
+
+    /**
+     * the maximum degree of a vertex for its relation ids to be loaded with it, {@code 0} if they should never be loaded eagerly
+     */
+    private final int eagerRelationsMaxDegree;
+
+    /**
+     * the strategy for the identifiers of the vertices
+     */
+    private final Neo4JVertexIdStrategy idStrategy;
+
     public Neo4JVertexStateHandler(@Nonnull final StatementExecutor statementExecutor,
                                    @Nonnull final Neo4JGraphPartition readPartition) {
-        super(statementExecutor);
+        this(statementExecutor, readPartition, 0);
+    }
+
+    public Neo4JVertexStateHandler(@Nonnull final StatementExecutor statementExecutor,
+                                   @Nonnull final Neo4JGraphPartition readPartition,
+                                   final int eagerRelationsMaxDegree) {
+        this(statementExecutor, readPartition, eagerRelationsMaxDegree, AdaptiveChunkSize.disabled());
+    }
+
+    public Neo4JVertexStateHandler(@Nonnull final StatementExecutor statementExecutor,
+                                   @Nonnull final Neo4JGraphPartition readPartition,
+                                   final int eagerRelationsMaxDegree,
+                                   @Nonnull final AdaptiveChunkSize chunkSize) {
+        this(statementExecutor, readPartition, eagerRelationsMaxDegree, chunkSize, NativeVertexIdStrategy.INSTANCE);
+    }
+
+    public Neo4JVertexStateHandler(@Nonnull final StatementExecutor statementExecutor,
+                                   @Nonnull final Neo4JGraphPartition readPartition,
+                                   final int eagerRelationsMaxDegree,
+                                   @Nonnull final AdaptiveChunkSize chunkSize,
+                                   @Nonnull final Neo4JVertexIdStrategy idStrategy) {
+        super(statementExecutor, chunkSize);
         this.readPartition = readPartition;
+        this.vertexPartition = idStrategy.restrict(readPartition);
+        this.eagerRelationsMaxDegree = eagerRelationsMaxDegree;
+        this.idStrategy = idStrategy;
+    }
+
+    @Nonnull
+    @Override
+    public Stream<Map<String, Object>> queryProperties(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query) {
+        // The client generated identifier is not exposed as a property, even if it has been requested explicitly
+        return idStrategy.getPropertyName()
+                .map(idProperty -> super.queryProperties(query).map(p -> Maps.filterKeys(p, k -> !idProperty.equals(k))))
+                .orElseGet(() -> super.queryProperties(query));
     }
 
     @Nonnull
     @Override
     protected Neo4JVertexState convertToState(@Nonnull final Record r) {
         final Node n = r.get(0).asNode();
-        return new Neo4JVertexState(
-                ImmutableSet.copyOf(readPartition.ensurePartitionLabelsNotSet(n.labels())),
-                ImmutableMap.copyOf(n.asMap()));
+        final ImmutableSet<String> labels = ImmutableSet.copyOf(vertexPartition.ensurePartitionLabelsNotSet(n.labels()));
+        // The client generated identifier is not exposed as a property
+        final ImmutableMap<String, Object> properties = idStrategy.getPropertyName()
+                .map(idProperty -> ImmutableMap.copyOf(Maps.filterKeys(n.asMap(), k -> !idProperty.equals(k))))
+                .orElseGet(() -> ImmutableMap.copyOf(n.asMap()));
+        if (r.size() < 2 || r.get(1).isNull()) {
+            // No relations have been loaded with the vertex
+            return new Neo4JVertexState(labels, properties);
+        }
+        final Map<String, Set<Long>> incoming = new HashMap<>(), outgoing = new HashMap<>();
+        for (final Object relation : r.get(1).asList()) {
+            final Map<?, ?> map = (Map<?, ?>) relation;
+            final String type = (String) map.get(ReturnVertexWithRelationsOperation.TYPE);
+            final Long id = ((Number) map.get(ReturnVertexWithRelationsOperation.ID)).longValue();
+            if (Boolean.TRUE.equals(map.get(ReturnVertexWithRelationsOperation.IN))) {
+                incoming.computeIfAbsent(type, t -> new HashSet<>()).add(id);
+            }
+            if (Boolean.TRUE.equals(map.get(ReturnVertexWithRelationsOperation.OUT))) {
+                outgoing.computeIfAbsent(type, t -> new HashSet<>()).add(id);
+            }
+        }
+        return new Neo4JVertexState(labels, properties,
+                new VertexEdgeReferences().withAllResolvedEdges(incoming), new VertexEdgeReferences().withAllResolvedEdges(outgoing));
     }
 
     @Nonnull
     @Override
     protected Long getId(@Nonnull final Record r) {
         final Node n = r.get(0).asNode();
-        return n.id();
+        return idStrategy.idOf(n);
     }
 
     @Nonnull
@@ -62,6 +147,114 @@ public class Neo4JVertexStateHandler extends AbstractNeo4JElementStateHandler<Ne
                 .build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Object getUpdateShape(@Nonnull final Neo4JVertexState currentState, @Nonnull final Neo4JVertexState newState) {
+        // The labels to be set and removed are part of the statement
+        return new Pair<>(currentState.getLabels(), newState.getLabels());
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createBulkUpdateCommand(@Nonnull final Neo4JVertexState currentState,
+                                                @Nonnull final Neo4JVertexState newState,
+                                                @Nonnull final List<Map<String, Object>> rows) {
+        return query()
+                .unwind(rows)
+                .match(b -> b.labelsMatch(Collections.emptySet()))
+                .where(VertexQueryFactory::rowId)
+                .andThen(b -> b.labels(currentState.getLabels(), newState.getLabels()))
+                .andThen(VertexQueryFactory::rowProperties)
+                .build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createBulkDeleteCommand(@Nonnull final Set<Long> ids) {
+        return query()
+                .match(b -> b.labelsMatch(Collections.emptySet()))
+                .where(b -> b.idsInSet(ids))
+                .andThen(VertexQueryFactory::delete)
+                .build().get();
+    }
+
+    @Override
+    public long create(@Nonnull final Neo4JVertexState state) {
+        if (!idStrategy.isClientGenerated()) {
+            return super.create(state);
+        }
+        final long id = idStrategy.generateId();
+        // The id is known in advance, so the result is not awaited and the statement is pipelined with the following ones
+        statementExecutor.executeStatement(createInsertCommand(withId(state, id)));
+        return id;
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> createAll(@Nonnull final List<Neo4JVertexState> states) {
+        if (!idStrategy.isClientGenerated()) {
+            return super.createAll(states);
+        }
+        final List<Long> ids = states.stream().map(state -> idStrategy.generateId()).collect(ImmutableList.toImmutableList());
+        final List<Neo4JVertexState> statesWithIds = IntStream.range(0, states.size())
+                .mapToObj(i -> withId(states.get(i), ids.get(i)))
+                .collect(ImmutableList.toImmutableList());
+        forEachCreateBatch(statesWithIds, (batch, batchStates) -> statementExecutor.executeStatement(createBulkInsertCommand(batchStates)));
+        return ids;
+    }
+
+    @Nonnull
+    private Neo4JVertexState withId(@Nonnull final Neo4JVertexState state, final long id) {
+        final String idProperty = idStrategy.getPropertyName().orElseThrow(IllegalStateException::new);
+        if (state.getProperties().containsKey(idProperty)) {
+            throw new IllegalArgumentException("The property '" + idProperty + "' is reserved for the identifier of the vertex.");
+        }
+        return state.withProperties(ImmutableMap.<String, Object>builder().putAll(state.getProperties()).put(idProperty, id).build());
+    }
+
+    /**
+     * Deletes a chunk of the vertices matching the query together with their relations using a single statement.
+     *
+     * @param query     the function which sets the MATCH and WHERE clauses on the query builder
+     * @param chunkSize the maximum number of vertices to be deleted
+     * @return the ids of the deleted vertices, the ids of their deleted relations and the ids of the vertices adjacent to those
+     */
+    @Nonnull
+    public Triplet<Set<Long>, Set<Long>, Set<Long>> drop(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query,
+                                                        final int chunkSize) {
+        final Set<Long> vertexIds = new HashSet<>(), edgeIds = new HashSet<>(), adjacentIds = new HashSet<>();
+        query.apply(query()).andThen(b -> b.drop(chunkSize)).build()
+                .map(statementExecutor::retrieveRecords)
+                .ifPresent(records -> records.sequential().forEach(r -> {
+                    vertexIds.add(r.get(0).asLong());
+                    edgeIds.addAll(r.get(1).asList(Value::asLong));
+                    adjacentIds.addAll(r.get(2).asList(Value::asLong));
+                }));
+        return new Triplet<>(vertexIds, edgeIds, adjacentIds);
+    }
+
+    /**
+     * Create the unique constraint for the client generated identifiers on the label of the identifiers, which also indexes them.
+     */
+    public void createIdConstraint() {
+        statementExecutor.executeStatement(query().andThen(VertexQueryFactory::createIdConstraint).build().get());
+    }
+
+    /**
+     * Check for vertices of the partition which lack a client generated identifier, for instance because they have been
+     * created before the identifiers were configured. Those vertices cannot be read, as they are not matched by the queries.
+     *
+     * @return {@code true} if there is at least one vertex lacking an identifier
+     */
+    public boolean hasVerticesWithoutId() {
+        // The query is not restricted to the vertices having the label of the identifiers
+        return queryLong(new VertexQueryBuilder(readPartition)
+                .match(b -> b.labelsMatch(Collections.emptySet()))
+                .where(b -> b.lacksId(idStrategy))
+                .andThen(b -> b.returnCount(0, 1))
+                .build().get()) > 0;
+    }
+
     @Nonnull
     @Override
     protected Statement createInsertCommand(@Nonnull final Neo4JVertexState state) {
@@ -70,13 +263,31 @@ public class Neo4JVertexStateHandler extends AbstractNeo4JElementStateHandler<Ne
                 .build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Object getCreateShape(@Nonnull final Neo4JVertexState state) {
+        // The labels are part of the statement
+        return state.getLabels();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createBulkInsertCommand(@Nonnull final List<Neo4JVertexState> states) {
+        return query()
+                .unwind(states.stream()
+                        .map(state -> ImmutableMap.<String, Object>of(AbstractQueryBuilder.ROW_PROPERTIES, state.getProperties()))
+                        .collect(ImmutableList.toImmutableList()))
+                .andThen(b -> b.createFromRow(states.get(0).getLabels()))
+                .build().get();
+    }
+
     @Nonnull
     @Override
     protected Statement createLoadCommand(@Nonnull final Set<Long> ids) {
         return query()
                 .match(b -> b.labelsMatch(readPartition.ensurePartitionLabelsSet(Collections.emptySet())))
                 .where(b -> b.idsInSet(ids))
-                .andThen(VertexQueryFactory::returnVertex)
+                .andThen(b -> eagerRelationsMaxDegree > 0 ? b.returnVertexWithRelations(eagerRelationsMaxDegree) : b.returnVertex())
                 .build().get();
     }
 
@@ -88,6 +299,43 @@ public class Neo4JVertexStateHandler extends AbstractNeo4JElementStateHandler<Ne
                 .andThen(VertexQueryFactory::returnId).build().get();
     }
 
+    @Nonnull
+    @Override
+    protected Statement createLoadIdsAfterCommand(final long afterId) {
+        return query()
+                .match(b -> b.labelsMatch(readPartition.ensurePartitionLabelsSet(Collections.emptySet())))
+                .where(b -> b.idGreaterThan(afterId))
+                .andThen(VertexQueryFactory::returnId).build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createCountAllCommand() {
+        return query()
+                .match(b -> b.labelsMatch(readPartition.ensurePartitionLabelsSet(Collections.emptySet())))
+                .andThen(b -> b.returnCount(0, -1)).build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createMaxIdCommand() {
+        return query()
+                .match(b -> b.labelsMatch(readPartition.ensurePartitionLabelsSet(Collections.emptySet())))
+                .andThen(VertexQueryFactory::returnId)
+                .orderBy(b -> b.orderById(true))
+                .limit(1)
+                .build().get();
+    }
+
+    @Nonnull
+    @Override
+    protected Statement createSampleIdsCommand(final double ratio) {
+        return query()
+                .match(b -> b.labelsMatch(readPartition.ensurePartitionLabelsSet(Collections.emptySet())))
+                .where(b -> b.sampled(ratio))
+                .andThen(VertexQueryFactory::returnId).build().get();
+    }
+
     @Nonnull
     @Override
     protected Statement createCreateIndexCommand(@Nonnull final String label,
@@ -99,6 +347,6 @@ public class Neo4JVertexStateHandler extends AbstractNeo4JElementStateHandler<Ne
 
     @Override
     protected VertexQueryBuilder query() {
-        return new VertexQueryBuilder(readPartition);
+        return new VertexQueryBuilder(readPartition, idStrategy);
     }
 }
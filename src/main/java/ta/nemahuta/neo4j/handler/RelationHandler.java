@@ -2,7 +2,10 @@ package ta.nemahuta.neo4j.handler;
 
 import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+
 import javax.annotation.Nonnull;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -18,4 +21,21 @@ public interface RelationHandler extends RelationProvider {
      */
     void registerEdge(long vertexId, @Nonnull Direction direction, @Nonnull String label, long edgeId);
 
+    /**
+     * Registers multiple new edges for their in and outbound vertices, updating each of the vertices once.
+     *
+     * @param edges the states of the edges by their ids
+     */
+    void registerEdges(@Nonnull Map<Long, Neo4JEdgeState> edges);
+
+    /**
+     * Resolves the relations of multiple vertices at once, so {@link #getRelationIdsOf(long, Direction, Set)} can be answered
+     * from the references of the vertex states afterwards. The vertices whose references are already known are skipped.
+     *
+     * @param vertexIds the ids of the vertices
+     * @param direction the direction of the relations
+     * @param labels    the labels of the relations to be resolved (or an empty set if all are being resolved)
+     */
+    void resolveRelationsOf(@Nonnull Set<Long> vertexIds, @Nonnull Direction direction, @Nonnull Set<String> labels);
+
 }
@@ -0,0 +1,49 @@
+package ta.nemahuta.neo4j.id;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.query.QueryUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * {@link Neo4JVertexIdStrategy} using the internal identifiers of Neo4J, which are assigned by the server on creation.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NativeVertexIdStrategy implements Neo4JVertexIdStrategy {
+
+    public static final NativeVertexIdStrategy INSTANCE = new NativeVertexIdStrategy();
+
+    @Nonnull
+    @Override
+    public String idOperand(@Nonnull final String alias) {
+        return QueryUtils.idOperand(alias);
+    }
+
+    @Override
+    public long idOf(@Nonnull final Node node) {
+        return node.id();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<String> getPropertyName() {
+        return Optional.empty();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<String> getLabel() {
+        return Optional.empty();
+    }
+
+    @Override
+    public long generateId() {
+        throw new UnsupportedOperationException("The internal identifiers are assigned by the server.");
+    }
+
+}
@@ -0,0 +1,74 @@
+package ta.nemahuta.neo4j.id;
+
+import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * A strategy defining the identifiers of the {@link ta.nemahuta.neo4j.structure.Neo4JVertex}es, either the internal ones of
+ * Neo4J or ones which are generated on the client and stored in a property of the nodes.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public interface Neo4JVertexIdStrategy {
+
+    /**
+     * Create the operand for the identifier of a node.
+     *
+     * @param alias the alias of the node from the MATCH clause, or an expression resolving to a node
+     * @return the operand to be used in a query
+     */
+    @Nonnull
+    String idOperand(@Nonnull String alias);
+
+    /**
+     * Read the identifier of a node.
+     *
+     * @param node the node to read the identifier from
+     * @return the identifier
+     */
+    long idOf(@Nonnull Node node);
+
+    /**
+     * @return the {@link Optional} of the name of the property holding the identifier, empty for the internal identifiers
+     */
+    @Nonnull
+    Optional<String> getPropertyName();
+
+    /**
+     * @return the {@link Optional} of the label of all the nodes holding an identifier in the {@link #getPropertyName() property},
+     * empty for the internal identifiers
+     */
+    @Nonnull
+    Optional<String> getLabel();
+
+    /**
+     * Restrict a partition to the nodes having the {@link #getLabel() label} of the identifiers, so the lookups of the
+     * identifiers name the label of their unique constraint.
+     *
+     * @param partition the partition to be restricted
+     * @return the partition requiring the label of the identifiers, or the partition itself for the internal identifiers
+     */
+    @Nonnull
+    default Neo4JGraphPartition restrict(@Nonnull final Neo4JGraphPartition partition) {
+        return getLabel().map(partition::withMinimumLabel).orElse(partition);
+    }
+
+    /**
+     * @return {@code true} if the identifiers are generated on the client, so creating a node does not have to wait for the server
+     */
+    default boolean isClientGenerated() {
+        return getPropertyName().isPresent();
+    }
+
+    /**
+     * Generate the identifier for a new node.
+     *
+     * @return the new identifier
+     * @throws UnsupportedOperationException in case the identifiers are not {@link #isClientGenerated() generated on the client}
+     */
+    long generateId();
+
+}
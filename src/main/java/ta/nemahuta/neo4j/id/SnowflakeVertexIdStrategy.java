@@ -0,0 +1,129 @@
+package ta.nemahuta.neo4j.id;
+
+import lombok.NonNull;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.query.QueryUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link Neo4JVertexIdStrategy} generating snowflake identifiers on the client, which are stored in a property of the nodes.
+ * An identifier consists of the milliseconds since {@link #EPOCH} (41 bits), the worker (10 bits) and a sequence within the
+ * millisecond (12 bits). All the nodes holding an identifier have a common label, which is backed by the unique constraint
+ * of the property. The sequence is shared by all the strategies of the class loader, so each process generating
+ * identifiers for the same graph has to use a different worker.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class SnowflakeVertexIdStrategy implements Neo4JVertexIdStrategy {
+
+    /**
+     * the start of the timestamps (2019-01-01T00:00:00Z)
+     */
+    public static final long EPOCH = 1546300800000L;
+
+    /**
+     * the maximum worker number (exclusive)
+     */
+    public static final int MAX_WORKERS = 1 << 10;
+
+    /**
+     * the label of the nodes holding an identifier, unless configured otherwise
+     */
+    public static final String DEFAULT_LABEL = "Neo4JVertex";
+
+    private static final int SEQUENCE_BITS = 12, WORKER_BITS = 10;
+
+    private static final AtomicLong LAST_TICK = new AtomicLong();
+
+    @NonNull
+    private final String propertyName;
+
+    @NonNull
+    private final String label;
+
+    private final long worker;
+
+    @NonNull
+    private final LongSupplier clock;
+
+    /**
+     * the last timestamp and sequence used, combined to a single value so both are updated atomically
+     */
+    @NonNull
+    private final AtomicLong lastTick;
+
+    /**
+     * Create a new strategy using the {@link #DEFAULT_LABEL}.
+     *
+     * @param propertyName the name of the property holding the identifiers
+     * @param worker       the worker number, unique for each process generating identifiers for the graph
+     */
+    public SnowflakeVertexIdStrategy(@Nonnull final String propertyName, final int worker) {
+        this(propertyName, DEFAULT_LABEL, worker);
+    }
+
+    /**
+     * Create a new strategy.
+     *
+     * @param propertyName the name of the property holding the identifiers
+     * @param label        the label of the nodes holding an identifier
+     * @param worker       the worker number, unique for each process generating identifiers for the graph
+     */
+    public SnowflakeVertexIdStrategy(@Nonnull final String propertyName, @Nonnull final String label, final int worker) {
+        this(propertyName, label, worker, System::currentTimeMillis, LAST_TICK);
+    }
+
+    SnowflakeVertexIdStrategy(@Nonnull final String propertyName, @Nonnull final String label, final int worker,
+                              @Nonnull final LongSupplier clock, @Nonnull final AtomicLong lastTick) {
+        if (worker < 0 || worker >= MAX_WORKERS) {
+            throw new IllegalArgumentException("The worker has to be between 0 and " + (MAX_WORKERS - 1) + ", got: " + worker);
+        }
+        this.propertyName = propertyName;
+        this.label = label;
+        this.worker = worker;
+        this.clock = clock;
+        this.lastTick = lastTick;
+    }
+
+    @Nonnull
+    @Override
+    public String idOperand(@Nonnull final String alias) {
+        return QueryUtils.propertyOperand(alias, propertyName);
+    }
+
+    @Override
+    public long idOf(@Nonnull final Node node) {
+        final Value value = node.get(propertyName);
+        if (value.isNull()) {
+            throw new IllegalStateException("The node " + node.id() + " has no identifier in the property: " + propertyName);
+        }
+        return value.asLong();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<String> getPropertyName() {
+        return Optional.of(propertyName);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<String> getLabel() {
+        return Optional.of(label);
+    }
+
+    @Override
+    public long generateId() {
+        final long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        // An exhausted sequence overflows into the next millisecond instead of waiting for the clock
+        final long tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+        final long timestamp = tick >>> SEQUENCE_BITS, sequence = tick & ((1 << SEQUENCE_BITS) - 1);
+        return (timestamp << (WORKER_BITS + SEQUENCE_BITS)) | (worker << SEQUENCE_BITS) | sequence;
+    }
+
+}
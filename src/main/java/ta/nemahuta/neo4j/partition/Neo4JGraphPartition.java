@@ -29,6 +29,15 @@ public interface Neo4JGraphPartition {
      */
     Set<String> ensurePartitionLabelsNotSet(@Nonnull Iterable<String> labels);
 
+    /**
+     * Create a partition which additionally requires a label.
+     *
+     * @param label the label to be required
+     * @return the partition requiring the label and the ones of this partition
+     */
+    @Nonnull
+    Neo4JGraphPartition withMinimumLabel(@Nonnull String label);
+
     /**
      * Create a new predicate to match the orLabelsAnd of the partitions for the provided alias in a where clause.
      *
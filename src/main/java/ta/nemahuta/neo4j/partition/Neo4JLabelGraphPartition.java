@@ -31,6 +31,13 @@ public class Neo4JLabelGraphPartition implements Neo4JGraphPartition {
         return ImmutableSet.copyOf(StreamSupport.stream(labels.spliterator(), true).filter(l -> !minimumLabels.contains(l)).iterator());
     }
 
+    @Nonnull
+    @Override
+    public Neo4JGraphPartition withMinimumLabel(@Nonnull final String label) {
+        return minimumLabels.contains(label) ? this :
+                new Neo4JLabelGraphPartition(ImmutableSet.<String>builder().addAll(minimumLabels).add(label).build());
+    }
+
     @Override
     public Optional<WherePredicate> vertexWhereLabelPredicate(@Nonnull final String alias) {
         if (minimumLabels.isEmpty()) {
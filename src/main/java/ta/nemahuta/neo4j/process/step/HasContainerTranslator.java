@@ -0,0 +1,127 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import ta.nemahuta.neo4j.query.WherePredicate;
+import ta.nemahuta.neo4j.query.edge.EdgeQueryFactory;
+import ta.nemahuta.neo4j.query.predicate.PredicateTranslator;
+import ta.nemahuta.neo4j.query.vertex.VertexQueryPredicateFactory;
+import ta.nemahuta.neo4j.structure.Neo4JVertex;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Translates {@link HasContainer}s to {@link WherePredicate}s for the steps pushing them down to the server.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class HasContainerTranslator {
+
+    /**
+     * Checks whether a container can be evaluated on the server side.
+     *
+     * @param container    the container to be checked
+     * @param elementClass the class of the elements the container is applied to
+     * @return {@code true} if the container can be translated, {@code false} otherwise
+     */
+    static boolean isTranslatable(@Nonnull final HasContainer container,
+                                  @Nonnull final Class<? extends Element> elementClass) {
+        if (isLabel(container)) {
+            return Vertex.class.isAssignableFrom(elementClass) ?
+                    !labelAlternatives(container.getPredicate()).isEmpty() :
+                    PredicateTranslator.isTranslatable(container.getPredicate());
+        }
+        return !Graph.Hidden.isHidden(container.getKey()) && PredicateTranslator.isTranslatable(container.getPredicate());
+    }
+
+    /**
+     * Translates {@link #isTranslatable(HasContainer, Class) translatable} containers for vertices.
+     *
+     * @param factory    the factory for the vertex predicates
+     * @param containers the containers to be translated
+     * @return the conjunction of the translated containers
+     */
+    @Nonnull
+    static WherePredicate vertexWhere(@Nonnull final VertexQueryPredicateFactory factory,
+                                      @Nonnull final List<HasContainer> containers) {
+        return containers.stream()
+                .map(c -> isLabel(c) ? factory.whereLabels(labelAlternatives(c.getPredicate())) : factory.whereProperty(c.getKey(), c.getPredicate()))
+                .reduce(WherePredicate.EMPTY, WherePredicate::and);
+    }
+
+    /**
+     * Translates {@link #isTranslatable(HasContainer, Class) translatable} containers for edges.
+     *
+     * @param factory    the factory for the edge predicates
+     * @param containers the containers to be translated
+     * @return the conjunction of the translated containers
+     */
+    @Nonnull
+    static WherePredicate edgeWhere(@Nonnull final EdgeQueryFactory factory,
+                                    @Nonnull final List<HasContainer> containers) {
+        return containers.stream()
+                .map(c -> isLabel(c) ? factory.whereLabel(c.getPredicate()) : factory.whereProperty(c.getKey(), c.getPredicate()))
+                .reduce(WherePredicate.EMPTY, WherePredicate::and);
+    }
+
+    /**
+     * Filter the elements which do not match the containers.
+     *
+     * @param source     the source elements
+     * @param containers the containers to be tested on the client side
+     * @param <X>        the type of the elements
+     * @return the filtered elements
+     */
+    @Nonnull
+    static <X extends Element> Iterator<X> filter(@Nonnull final Iterator<X> source,
+                                                  @Nonnull final List<HasContainer> containers) {
+        return containers.isEmpty() ? source : IteratorUtils.filter(source, e -> HasContainer.testAll(e, containers));
+    }
+
+    private static boolean isLabel(@Nonnull final HasContainer container) {
+        return Objects.equals(T.label.getAccessor(), container.getKey());
+    }
+
+    /**
+     * Converts a label predicate of a vertex to the alternative sets of labels to be matched.
+     *
+     * @param predicate the predicate for the label
+     * @return the label alternatives or an empty list if the predicate cannot be translated
+     */
+    @Nonnull
+    private static Collection<Set<String>> labelAlternatives(@Nonnull final P<?> predicate) {
+        final Collection<?> values;
+        if (predicate.getBiPredicate() == Compare.eq) {
+            values = Collections.singleton(predicate.getValue());
+        } else if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            values = (Collection<?>) predicate.getValue();
+        } else {
+            return Collections.emptyList();
+        }
+        if (!values.stream().allMatch(String.class::isInstance)) {
+            return Collections.emptyList();
+        }
+        return values.stream()
+                .map(v -> ImmutableSet.copyOf(((String) v).split(Neo4JVertex.LABEL_DELIMITER)))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,139 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Start step for the {@link Neo4JGraph} which replaces a {@link Neo4JGraphStep} (optionally followed by a {@link VertexStep})
+ * and a count, so the number of elements is determined on the server side without loading any of them.
+ *
+ * @param <S> the type of the incoming traverser objects
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JCountGlobalStep<S> extends AbstractStep<S, Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Class<? extends Element> elementClass;
+    private final Set<Long> ids;
+    private final List<HasContainer> elementContainers;
+    @Nullable
+    private final Direction direction;
+    private final Set<String> edgeLabels;
+    private final List<HasContainer> adjacentContainers;
+    private final long low, high;
+
+    private boolean done = false;
+
+    /**
+     * Create a new count step.
+     *
+     * @param traversal  the traversal of the step
+     * @param graphStep  the graph step providing the elements, whose containers have to be pushed down completely
+     * @param vertexStep the optional step following the graph step, which is either returning edges or is a {@link Neo4JVertexStep}
+     *                   whose containers are pushed down completely
+     * @param low        the number of elements to be skipped
+     * @param high       the index after the last element to be counted, or a negative value for no limit
+     */
+    public Neo4JCountGlobalStep(@Nonnull final Traversal.Admin<?, ?> traversal,
+                                @Nonnull final Neo4JGraphStep<?, ?> graphStep,
+                                @Nullable final VertexStep<?> vertexStep,
+                                final long low, final long high) {
+        super(traversal);
+        this.elementClass = graphStep.getReturnClass();
+        this.ids = Stream.of(graphStep.getIds()).map(Neo4JCountGlobalStep::toLongId).collect(ImmutableSet.toImmutableSet());
+        this.elementContainers = graphStep.pushedDown();
+        this.direction = vertexStep != null ? vertexStep.getDirection() : null;
+        this.edgeLabels = vertexStep != null ? ImmutableSet.copyOf(vertexStep.getEdgeLabels()) : Collections.emptySet();
+        this.adjacentContainers = vertexStep instanceof Neo4JVertexStep ? ((Neo4JVertexStep) vertexStep).pushedDown() : ImmutableList.of();
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Checks whether an identifier provided to a {@link Neo4JGraphStep} can be used for counting.
+     *
+     * @param id the identifier
+     * @return {@code true} if the identifier can be used, {@code false} otherwise
+     */
+    public static boolean isSupportedId(@Nullable final Object id) {
+        return id instanceof Long || (id instanceof Element && ((Element) id).id() instanceof Long);
+    }
+
+    static Long toLongId(@Nonnull final Object id) {
+        return id instanceof Element ? (Long) ((Element) id).id() : (Long) id;
+    }
+
+    @Override
+    protected Traverser.Admin<Long> processNextStart() throws NoSuchElementException {
+        if (done) {
+            throw FastNoSuchElementException.instance();
+        }
+        done = true;
+        final Neo4JGraph graph = (Neo4JGraph) getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("No graph for the traversal."));
+        @SuppressWarnings("unchecked") // the step starts the traversal, so the count is generated as its start
+        final Step<Long, ?> startStep = (Step<Long, ?>) (Step<?, ?>) this;
+        return getTraversal().getTraverserGenerator().generate(count(graph), startStep, 1l);
+    }
+
+    private long count(@Nonnull final Neo4JGraph graph) {
+        if (direction != null) {
+            // Count the relations leading to the adjacent vertices
+            return graph.countEdges(q -> {
+                q.direction(direction)
+                        .where(e -> e.getLhs().idsInSet(ids)
+                                .and(HasContainerTranslator.vertexWhere(e.getLhs(), elementContainers))
+                                .and(HasContainerTranslator.vertexWhere(e.getRhs(), adjacentContainers)));
+                return edgeLabels.isEmpty() ? q : q.labels(edgeLabels);
+            }, low, high);
+        } else if (Vertex.class.isAssignableFrom(elementClass)) {
+            return graph.countVertices(q -> q
+                    .match(v -> v.labelsMatch(Collections.emptySet()))
+                    .where(v -> v.idsInSet(ids).and(HasContainerTranslator.vertexWhere(v, elementContainers))), low, high);
+        } else {
+            return graph.countEdges(q -> q
+                    .direction(Direction.OUT)
+                    .where(e -> e.whereIds(ids).and(HasContainerTranslator.edgeWhere(e, elementContainers))), low, high);
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, elementClass.getSimpleName().toLowerCase(), ids, elementContainers,
+                direction, edgeLabels, adjacentContainers, low, high);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ elementClass.hashCode() ^ ids.hashCode() ^ elementContainers.hashCode() ^
+                (direction != null ? direction.hashCode() : 0) ^ edgeLabels.hashCode() ^ adjacentContainers.hashCode() ^
+                Long.hashCode(low) ^ Long.hashCode(high);
+    }
+
+}
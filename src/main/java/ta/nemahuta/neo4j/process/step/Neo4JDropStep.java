@@ -0,0 +1,77 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Start step for the {@link Neo4JGraph} which replaces a {@link Neo4JGraphStep} for vertices followed by a drop, so the
+ * vertices are deleted on the server side in chunks without loading any of them.
+ *
+ * @param <S> the type of the traverser objects
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JDropStep<S> extends AbstractStep<S, S> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<Long> ids;
+    private final List<HasContainer> containers;
+
+    private boolean done = false;
+
+    /**
+     * Create a new drop step.
+     *
+     * @param traversal the traversal of the step
+     * @param graphStep the graph step providing the vertices, whose containers have to be pushed down completely
+     */
+    public Neo4JDropStep(@Nonnull final Traversal.Admin<?, ?> traversal,
+                         @Nonnull final Neo4JGraphStep<?, ?> graphStep) {
+        super(traversal);
+        this.ids = Stream.of(graphStep.getIds()).map(Neo4JCountGlobalStep::toLongId).collect(ImmutableSet.toImmutableSet());
+        this.containers = graphStep.pushedDown();
+    }
+
+    @Override
+    protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
+        if (!done) {
+            done = true;
+            final Neo4JGraph graph = (Neo4JGraph) getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("No graph for the traversal."));
+            graph.dropVertices(q -> q
+                    .match(v -> v.labelsMatch(Collections.emptySet()))
+                    .where(v -> v.idsInSet(ids).and(HasContainerTranslator.vertexWhere(v, containers))));
+        }
+        // Dropping elements does not emit any traversers
+        throw FastNoSuchElementException.instance();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, ids, containers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ ids.hashCode() ^ containers.hashCode();
+    }
+
+}
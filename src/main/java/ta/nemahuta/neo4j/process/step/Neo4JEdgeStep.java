@@ -0,0 +1,78 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+import ta.nemahuta.neo4j.structure.Neo4JVertex;
+
+import javax.annotation.Nonnull;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * {@link VertexStep} for the {@link Neo4JGraph} emitting edges, which resolves the relations for a batch of incoming vertices
+ * at once, instead of querying them for each of the vertices on its own.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JEdgeStep extends VertexStep<Edge> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the maximum number of incoming traversers whose relations are resolved in a single query
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    /**
+     * the ids of the vertices in the current batch
+     */
+    private Set<Long> batch = new HashSet<>();
+
+    public Neo4JEdgeStep(@Nonnull final VertexStep<Edge> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), Edge.class, originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected Iterator<Edge> flatMap(@Nonnull final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        if (vertex instanceof Neo4JVertex && !batch.contains(vertex.id())) {
+            resolveBatch((Neo4JVertex) vertex);
+        }
+        return super.flatMap(traverser);
+    }
+
+    /**
+     * Take the next incoming traversers and resolve the relations for all of their vertices.
+     *
+     * @param vertex the vertex of the current traverser
+     */
+    private void resolveBatch(@Nonnull final Neo4JVertex vertex) {
+        batch = VertexBatch.take(vertex, this.starts, BATCH_SIZE);
+        ((Neo4JGraph) vertex.graph()).resolveRelationsOf(batch, getDirection(), ImmutableSet.copyOf(getEdgeLabels()));
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.batch.clear();
+    }
+
+    @Override
+    public void close() {
+        closeIterator();
+    }
+
+    @Override
+    public Neo4JEdgeStep clone() {
+        final Neo4JEdgeStep clone = (Neo4JEdgeStep) super.clone();
+        clone.batch = new HashSet<>();
+        return clone;
+    }
+
+}
@@ -0,0 +1,236 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.javatuples.Pair;
+import ta.nemahuta.neo4j.query.edge.EdgeQueryBuilder;
+import ta.nemahuta.neo4j.query.vertex.VertexQueryBuilder;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * {@link GraphStep} for the {@link Neo4JGraph} which evaluates the {@link HasContainer}s on the server side,
+ * as far as they can be translated to a query, as well as the order and range pushed down into it.
+ *
+ * @param <S> the type of the incoming traverser objects
+ * @param <E> the type of the elements being emitted
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+
+    /**
+     * the keys to be ordered by (property keys or {@link T#id}), with {@code true} for a descending order
+     */
+    private final List<Pair<String, Boolean>> orders = new ArrayList<>();
+
+    private long low = 0, high = -1;
+
+    public Neo4JGraphStep(@Nonnull final GraphStep<S, E> originalGraphStep) {
+        super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
+        originalGraphStep.getLabels().forEach(this::addLabel);
+        this.setIteratorSupplier(this::elements);
+    }
+
+    @Nonnull
+    private Iterator<E> elements() {
+        final Iterator<? extends Element> elements = Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges();
+        return Iterators.transform(elements, this.returnClass::cast);
+    }
+
+    @Nonnull
+    private Iterator<? extends Vertex> vertices() {
+        final Neo4JGraph graph = getGraph();
+        if (ids.length > 0 || !isQueryRequired()) {
+            return filterRemaining(graph.vertices(ids));
+        }
+        return filterRemaining(graph.queryVertices(this::vertexQuery));
+    }
+
+    /**
+     * Sets the MATCH, WHERE, ORDER BY, SKIP and LIMIT clauses for the pushed down containers, order and range on a vertex query.
+     *
+     * @param q the query builder
+     * @return the query builder
+     */
+    @Nonnull
+    VertexQueryBuilder vertexQuery(@Nonnull final VertexQueryBuilder q) {
+        q.match(v -> v.labelsMatch(Collections.emptySet()))
+                .where(v -> HasContainerTranslator.vertexWhere(v, pushedDown()));
+        orders.forEach(o -> q.orderBy(v -> isId(o) ? v.orderById(o.getValue1()) : v.orderByProperty(o.getValue0(), o.getValue1())));
+        return q.skip(low).limit(limit());
+    }
+
+    @Nonnull
+    private Iterator<? extends Edge> edges() {
+        final Neo4JGraph graph = getGraph();
+        if (ids.length > 0 || !isQueryRequired()) {
+            return filterRemaining(graph.edges(ids));
+        }
+        return filterRemaining(graph.queryEdges(this::edgeQuery));
+    }
+
+    /**
+     * Sets the relation, WHERE, ORDER BY, SKIP and LIMIT clauses for the pushed down containers, order and range on an edge query.
+     *
+     * @param q the query builder
+     * @return the query builder
+     */
+    @Nonnull
+    EdgeQueryBuilder edgeQuery(@Nonnull final EdgeQueryBuilder q) {
+        q.direction(Direction.OUT)
+                .where(e -> HasContainerTranslator.edgeWhere(e, pushedDown()));
+        orders.forEach(o -> q.orderBy(e -> isId(o) ? e.orderById(o.getValue1()) : e.orderByProperty(o.getValue0(), o.getValue1())));
+        return q.skip(low).limit(limit());
+    }
+
+    private boolean isQueryRequired() {
+        return !pushedDown().isEmpty() || !orders.isEmpty() || low > 0 || high >= 0;
+    }
+
+    private long limit() {
+        return high < 0 ? -1 : Math.max(0, high - low);
+    }
+
+    private static boolean isId(@Nonnull final Pair<String, Boolean> order) {
+        return Objects.equals(T.id.getAccessor(), order.getValue0());
+    }
+
+    /**
+     * Push down the comparators of an order step, so the elements are ordered on the server side. This is only done
+     * if all of the comparators are ordering by a property or the id in ascending or descending order.
+     *
+     * @param comparators the comparators of the order step
+     * @return {@code true} if the comparators have been pushed down, {@code false} otherwise
+     */
+    public boolean addOrder(@Nonnull final List<? extends Pair<? extends Traversal.Admin<?, ?>, ?>> comparators) {
+        final List<Pair<String, Boolean>> translated = new ArrayList<>();
+        for (final Pair<? extends Traversal.Admin<?, ?>, ?> comparator : comparators) {
+            final String key;
+            if (comparator.getValue0() instanceof ElementValueTraversal) {
+                key = ((ElementValueTraversal<?>) comparator.getValue0()).getPropertyKey();
+            } else if (comparator.getValue0() instanceof TokenTraversal && ((TokenTraversal<?, ?>) comparator.getValue0()).getToken() == T.id) {
+                key = T.id.getAccessor();
+            } else {
+                return false;
+            }
+            final Optional<Boolean> descending = isDescending(comparator.getValue1());
+            if (!descending.isPresent()) {
+                return false;
+            }
+            translated.add(new Pair<>(key, descending.get()));
+        }
+        this.orders.addAll(translated);
+        return true;
+    }
+
+    /**
+     * @param order the order of a comparator
+     * @return {@code true} for a descending and {@code false} for an ascending order, empty for any other comparator
+     */
+    @Nonnull
+    @SuppressWarnings("deprecation") // incr and decr are still accepted by the order step, so they are translated as well
+    private static Optional<Boolean> isDescending(final Object order) {
+        if (order == Order.asc || order == Order.incr) {
+            return Optional.of(false);
+        } else if (order == Order.desc || order == Order.decr) {
+            return Optional.of(true);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Push down the range of a range step, so only the elements in the range are queried.
+     *
+     * @param low  the number of elements to be skipped
+     * @param high the index after the last element to be returned, or a negative value for no limit
+     */
+    public void setRange(final long low, final long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    @Nonnull
+    private <X extends Element> Iterator<X> filterRemaining(@Nonnull final Iterator<X> source) {
+        return HasContainerTranslator.filter(source, ids.length > 0 ? hasContainers : remaining());
+    }
+
+    /**
+     * @return the {@link HasContainer}s which are evaluated on the server side
+     */
+    @Nonnull
+    public List<HasContainer> pushedDown() {
+        return hasContainers.stream().filter(c -> HasContainerTranslator.isTranslatable(c, returnClass)).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * @return the {@link HasContainer}s which have to be evaluated on the client side
+     */
+    @Nonnull
+    public List<HasContainer> remaining() {
+        return hasContainers.stream().filter(c -> !HasContainerTranslator.isTranslatable(c, returnClass)).collect(ImmutableList.toImmutableList());
+    }
+
+    @Nonnull
+    private Neo4JGraph getGraph() {
+        return (Neo4JGraph) getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("No graph for the traversal."));
+    }
+
+    @Override
+    public String toString() {
+        if (!isQueryRequired()) {
+            return super.toString();
+        }
+        return 0 == this.ids.length ?
+                StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), this.hasContainers, this.orders, this.low, this.high) :
+                StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(@Nonnull final HasContainer hasContainer) {
+        if (hasContainer.getPredicate() instanceof AndP) {
+            // Split up the conjunctions, so each of the predicates can be pushed down on its own
+            ((AndP<?>) hasContainer.getPredicate()).getPredicates()
+                    .forEach(predicate -> addHasContainer(new HasContainer(hasContainer.getKey(), predicate)));
+        } else {
+            this.hasContainers.add(hasContainer);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.hasContainers.hashCode() ^ this.orders.hashCode() ^ Long.hashCode(low) ^ Long.hashCode(high);
+    }
+
+}
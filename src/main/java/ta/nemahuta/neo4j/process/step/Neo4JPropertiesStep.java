@@ -0,0 +1,142 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Start step for the {@link Neo4JGraph} which replaces a {@link Neo4JGraphStep} followed by a {@link PropertiesStep} or
+ * {@link PropertyMapStep} for the values, so only the requested properties are queried on the server side.
+ * The elements themselves are neither loaded nor cached.
+ *
+ * @param <S> the type of the incoming traverser objects
+ * @param <E> the type of the emitted values
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JPropertiesStep<S, E> extends AbstractStep<S, E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Neo4JGraphStep<?, ?> graphStep;
+    private final List<String> keys;
+    private final boolean valueMap;
+
+    @Nullable
+    private Iterator<E> values;
+
+    /**
+     * Create a new properties step.
+     *
+     * @param traversal the traversal of the step
+     * @param graphStep the graph step providing the elements, whose containers have to be pushed down completely
+     * @param keys      the keys of the properties to be emitted, all properties are emitted if empty
+     * @param valueMap  {@code true} if a map of the values is emitted for each element, {@code false} if the values themselves are emitted
+     */
+    public Neo4JPropertiesStep(@Nonnull final Traversal.Admin<?, ?> traversal,
+                               @Nonnull final Neo4JGraphStep<?, ?> graphStep,
+                               @Nonnull final String[] keys,
+                               final boolean valueMap) {
+        super(traversal);
+        this.graphStep = graphStep;
+        this.keys = ImmutableList.copyOf(keys);
+        this.valueMap = valueMap;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (values == null) {
+            values = queryValues((Neo4JGraph) getTraversal().getGraph().orElseThrow(() -> new IllegalStateException("No graph for the traversal.")));
+        }
+        if (!values.hasNext()) {
+            throw FastNoSuchElementException.instance();
+        }
+        @SuppressWarnings("unchecked") // the step starts the traversal, so the values are generated as its starts
+        final Step<E, ?> startStep = (Step<E, ?>) (Step<?, ?>) this;
+        return getTraversal().getTraverserGenerator().generate(values.next(), startStep, 1l);
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked") // the values or value maps are emitted as the type of the replaced step
+    private Iterator<E> queryValues(@Nonnull final Neo4JGraph graph) {
+        final boolean vertices = Vertex.class.isAssignableFrom(graphStep.getReturnClass());
+        final Iterator<Map<String, Object>> properties = vertices ?
+                graph.queryVertexProperties(graphStep::vertexQuery, keys) :
+                graph.queryEdgeProperties(graphStep::edgeQuery, keys);
+        if (valueMap) {
+            return IteratorUtils.map(properties, p -> (E) toValueMap(p, vertices));
+        }
+        return IteratorUtils.flatMap(properties, p -> (Iterator<E>) existing(p).values().iterator());
+    }
+
+    /**
+     * Removes the missing properties from the returned map and orders them like the requested keys.
+     *
+     * @param properties the properties returned by the query
+     * @return the existing properties
+     */
+    @Nonnull
+    private Map<String, Object> existing(@Nonnull final Map<String, Object> properties) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        (keys.isEmpty() ? properties.keySet() : keys).forEach(k -> {
+            final Object value = properties.get(k);
+            if (value != null) {
+                result.put(k, value);
+            }
+        });
+        return result;
+    }
+
+    @Nonnull
+    private Map<String, Object> toValueMap(@Nonnull final Map<String, Object> properties,
+                                           final boolean vertex) {
+        final Map<String, Object> result = existing(properties);
+        if (vertex) {
+            // Vertex properties may have multiple values, so they are provided as a list for the value map
+            result.replaceAll((k, v) -> Collections.singletonList(v));
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.values = null;
+    }
+
+    @Override
+    public Neo4JPropertiesStep<S, E> clone() {
+        final Neo4JPropertiesStep<S, E> clone = (Neo4JPropertiesStep<S, E>) super.clone();
+        clone.values = null;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, graphStep.getReturnClass().getSimpleName().toLowerCase(), graphStep.getHasContainers(),
+                keys, valueMap ? "valueMap" : "values");
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ graphStep.hashCode() ^ keys.hashCode() ^ Boolean.hashCode(valueMap);
+    }
+
+}
@@ -0,0 +1,187 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+import ta.nemahuta.neo4j.structure.Neo4JVertex;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link VertexStep} for the {@link Neo4JGraph} which queries the adjacent vertices in a single query
+ * and evaluates the {@link HasContainer}s for them on the server side, as far as they can be translated.
+ * Unless the number of adjacent vertices is limited per incoming vertex, the adjacent vertices are queried for a batch of
+ * incoming vertices at once, instead of querying them for each of the vertices on its own.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class Neo4JVertexStep extends VertexStep<Vertex> implements HasContainerHolder {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the maximum number of incoming traversers whose adjacent vertices are queried at once
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private final List<HasContainer> hasContainers = new ArrayList<>();
+
+    private long limit = -1;
+
+    /**
+     * the ids of the vertices in the current batch
+     */
+    private Set<Long> batch = new HashSet<>();
+
+    /**
+     * the ids of the adjacent vertices of the current batch, which match the {@link HasContainer}s being pushed down
+     */
+    private Set<Long> matching = new HashSet<>();
+
+    public Neo4JVertexStep(@Nonnull final VertexStep<Vertex> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), Vertex.class, originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected Iterator<Vertex> flatMap(@Nonnull final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        if (!(vertex instanceof Neo4JVertex)) {
+            return HasContainerTranslator.filter(super.flatMap(traverser), hasContainers);
+        }
+        if (limit < 0 && !batch.contains(vertex.id())) {
+            resolveBatch((Neo4JVertex) vertex);
+        }
+        if (batch.contains(vertex.id())) {
+            // The relations and the matching adjacent vertices are cached already, so this does not query them again
+            final Object[] adjacentIds = ((Neo4JVertex) vertex).adjacentVertexIds(getDirection(), getEdgeLabels())
+                    .filter(matching::contains).toArray();
+            return HasContainerTranslator.filter(adjacentIds.length > 0 ? vertex.graph().vertices(adjacentIds) : Collections.emptyIterator(), remaining());
+        }
+        final Neo4JGraph graph = (Neo4JGraph) vertex.graph();
+        final List<HasContainer> pushedDown = pushedDown();
+        return HasContainerTranslator.filter(graph.queryAdjacentVertices(q -> {
+            q.direction(getDirection())
+                    .where(e -> e.getLhs().id((Long) vertex.id()).and(HasContainerTranslator.vertexWhere(e.getRhs(), pushedDown)))
+                    .limit(limit);
+            return getEdgeLabels().length > 0 ? q.labels(ImmutableSet.copyOf(getEdgeLabels())) : q;
+        }), remaining());
+    }
+
+    /**
+     * Take the next incoming traversers, resolve the relations for all of their vertices and query the adjacent vertices
+     * which match the pushed down {@link HasContainer}s. A single vertex is left to the query of its own, which takes a single
+     * statement instead of two.
+     *
+     * @param vertex the vertex of the current traverser
+     */
+    private void resolveBatch(@Nonnull final Neo4JVertex vertex) {
+        final Set<Long> vertexIds = VertexBatch.take(vertex, this.starts, BATCH_SIZE);
+        if (vertexIds.size() < 2) {
+            batch.clear();
+            return;
+        }
+        final Neo4JGraph graph = (Neo4JGraph) vertex.graph();
+        final Set<String> labels = ImmutableSet.copyOf(getEdgeLabels());
+        final List<HasContainer> pushedDown = pushedDown();
+        graph.resolveRelationsOf(vertexIds, getDirection(), labels);
+        final Set<Long> adjacent = new HashSet<>();
+        graph.queryAdjacentVertices(q -> {
+            q.direction(getDirection())
+                    .where(e -> e.getLhs().idsInSet(vertexIds).and(HasContainerTranslator.vertexWhere(e.getRhs(), pushedDown)));
+            return labels.isEmpty() ? q : q.labels(labels);
+        }).forEachRemaining(v -> adjacent.add((Long) v.id()));
+        batch = vertexIds;
+        matching = adjacent;
+    }
+
+    /**
+     * Set the maximum number of adjacent vertices to be queried for each incoming vertex. This does not replace
+     * a range step following this step, as the range applies to all the incoming vertices.
+     *
+     * @param limit the maximum number of adjacent vertices or a negative value for no limit
+     */
+    public void setLimit(final long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return the {@link HasContainer}s which are evaluated on the server side
+     */
+    @Nonnull
+    public List<HasContainer> pushedDown() {
+        return hasContainers.stream().filter(c -> HasContainerTranslator.isTranslatable(c, Vertex.class)).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * @return the {@link HasContainer}s which have to be evaluated on the client side
+     */
+    @Nonnull
+    public List<HasContainer> remaining() {
+        return hasContainers.stream().filter(c -> !HasContainerTranslator.isTranslatable(c, Vertex.class)).collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public String toString() {
+        if (this.hasContainers.isEmpty()) {
+            return super.toString();
+        }
+        return StringFactory.stepString(this, getDirection(), Arrays.asList(getEdgeLabels()), getReturnClass().getSimpleName().toLowerCase(), this.hasContainers);
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(@Nonnull final HasContainer hasContainer) {
+        if (hasContainer.getPredicate() instanceof AndP) {
+            // Split up the conjunctions, so each of the predicates can be pushed down on its own
+            ((AndP<?>) hasContainer.getPredicate()).getPredicates()
+                    .forEach(predicate -> addHasContainer(new HasContainer(hasContainer.getKey(), predicate)));
+        } else {
+            this.hasContainers.add(hasContainer);
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.batch.clear();
+        this.matching.clear();
+    }
+
+    @Override
+    public void close() {
+        closeIterator();
+    }
+
+    @Override
+    public Neo4JVertexStep clone() {
+        final Neo4JVertexStep clone = (Neo4JVertexStep) super.clone();
+        clone.batch = new HashSet<>();
+        clone.matching = new HashSet<>();
+        return clone;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.hasContainers.hashCode() ^ Long.hashCode(limit);
+    }
+
+}
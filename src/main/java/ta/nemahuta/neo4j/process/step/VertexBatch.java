@@ -0,0 +1,49 @@
+package ta.nemahuta.neo4j.process.step;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ExpandableStepIterator;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import ta.nemahuta.neo4j.structure.Neo4JVertex;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the vertices of the traversers waiting for a step, so their adjacent elements can be queried at once.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+final class VertexBatch {
+
+    private VertexBatch() {
+    }
+
+    /**
+     * Take the next incoming traversers, collect the ids of their vertices and put them back, so they are processed as usual.
+     * The number of traversers being taken is bounded, regardless of how many of them share the same vertex.
+     *
+     * @param vertex  the vertex of the current traverser
+     * @param starts  the incoming traversers of the step
+     * @param maxSize the maximum number of traversers in the batch
+     * @return the ids of the vertices in the batch, including the current one
+     */
+    @Nonnull
+    static Set<Long> take(@Nonnull final Neo4JVertex vertex, @Nonnull final ExpandableStepIterator<Vertex> starts, final int maxSize) {
+        final Set<Long> result = new HashSet<>();
+        result.add(vertex.id());
+        final List<Traverser.Admin<Vertex>> traversers = new ArrayList<>();
+        while (traversers.size() < maxSize - 1 && starts.hasNext()) {
+            final Traverser.Admin<Vertex> next = starts.next();
+            traversers.add(next);
+            if (next.get() instanceof Neo4JVertex) {
+                result.add((Long) next.get().id());
+            }
+        }
+        traversers.forEach(starts::add);
+        return result;
+    }
+
+}
@@ -0,0 +1,103 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import ta.nemahuta.neo4j.process.step.Neo4JCountGlobalStep;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+import ta.nemahuta.neo4j.process.step.Neo4JVertexStep;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which replaces traversals like {@code g.V().count()},
+ * {@code g.E().hasLabel('x').count()} or {@code g.V(id).outE('a').count()} with a {@link Neo4JCountGlobalStep},
+ * so the elements are counted on the server side.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JCountStrategy INSTANCE = new Neo4JCountStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS =
+            ImmutableSet.of(Neo4JGraphStepStrategy.class, Neo4JVertexStepStrategy.class);
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        @SuppressWarnings("rawtypes") // the steps of a traversal are provided as raw types and only read here
+        final List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof Neo4JGraphStep)) {
+            return;
+        }
+        final Neo4JGraphStep<?, ?> graphStep = (Neo4JGraphStep<?, ?>) steps.get(0);
+        if (!graphStep.isStartStep() || !graphStep.getLabels().isEmpty() || !graphStep.remaining().isEmpty() ||
+                !Stream.of(graphStep.getIds()).allMatch(Neo4JCountGlobalStep::isSupportedId)) {
+            return;
+        }
+        int idx = 1;
+        VertexStep<?> vertexStep = null;
+        if (idx < steps.size() && steps.get(idx) instanceof VertexStep && Vertex.class.isAssignableFrom(graphStep.getReturnClass())) {
+            vertexStep = (VertexStep<?>) steps.get(idx++);
+            if (!vertexStep.getLabels().isEmpty() || !(vertexStep instanceof Neo4JVertexStep ?
+                    ((Neo4JVertexStep) vertexStep).remaining().isEmpty() : vertexStep.returnsEdge())) {
+                return;
+            }
+        }
+        while (idx < steps.size() && (steps.get(idx) instanceof NoOpBarrierStep || steps.get(idx) instanceof IdentityStep) &&
+                steps.get(idx).getLabels().isEmpty()) {
+            idx++;
+        }
+        long low = 0, high = -1;
+        if (idx < steps.size() && steps.get(idx) instanceof RangeGlobalStep && steps.get(idx).getLabels().isEmpty()) {
+            low = ((RangeGlobalStep<?>) steps.get(idx)).getLowRange();
+            high = ((RangeGlobalStep<?>) steps.get(idx)).getHighRange();
+            idx++;
+        }
+        if (idx >= steps.size() || !(steps.get(idx) instanceof CountGlobalStep)) {
+            return;
+        }
+        final Neo4JCountGlobalStep<?> countStep = new Neo4JCountGlobalStep<>(traversal, graphStep, vertexStep, low, high);
+        TraversalHelper.copyLabels(steps.get(idx), countStep, false);
+        for (int i = idx; i >= 0; i--) {
+            traversal.removeStep(i);
+        }
+        traversal.addStep(0, countStep);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JCountStrategy instance() {
+        return INSTANCE;
+    }
+
+}
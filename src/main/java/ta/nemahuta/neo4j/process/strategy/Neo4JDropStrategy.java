@@ -0,0 +1,86 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DropStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import ta.nemahuta.neo4j.process.step.Neo4JCountGlobalStep;
+import ta.nemahuta.neo4j.process.step.Neo4JDropStep;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which replaces traversals like {@code g.V().hasLabel('x').drop()}
+ * with a {@link Neo4JDropStep}, so the vertices are deleted on the server side without loading them.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JDropStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JDropStrategy INSTANCE = new Neo4JDropStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = ImmutableSet.of(Neo4JGraphStepStrategy.class);
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        @SuppressWarnings("rawtypes") // the steps of a traversal are provided as raw types and only read here
+        final List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof Neo4JGraphStep)) {
+            return;
+        }
+        final Neo4JGraphStep<?, ?> graphStep = (Neo4JGraphStep<?, ?>) steps.get(0);
+        if (!graphStep.isStartStep() || !Vertex.class.isAssignableFrom(graphStep.getReturnClass()) ||
+                !graphStep.getLabels().isEmpty() || !graphStep.remaining().isEmpty() ||
+                !Stream.of(graphStep.getIds()).allMatch(Neo4JCountGlobalStep::isSupportedId)) {
+            return;
+        }
+        int idx = 1;
+        while (idx < steps.size() && (steps.get(idx) instanceof NoOpBarrierStep || steps.get(idx) instanceof IdentityStep) &&
+                steps.get(idx).getLabels().isEmpty()) {
+            idx++;
+        }
+        if (idx >= steps.size() || !(steps.get(idx) instanceof DropStep)) {
+            return;
+        }
+        final Neo4JDropStep<?> dropStep = new Neo4JDropStep<>(traversal, graphStep);
+        TraversalHelper.copyLabels(steps.get(idx), dropStep, false);
+        for (int i = idx; i >= 0; i--) {
+            traversal.removeStep(i);
+        }
+        traversal.addStep(0, dropStep);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JDropStrategy instance() {
+        return INSTANCE;
+    }
+
+}
@@ -0,0 +1,73 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which replaces the {@link GraphStep}s with {@link Neo4JGraphStep}s
+ * and folds the subsequent {@link HasStep}s into them, so they can be evaluated on the server side.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JGraphStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JGraphStepStrategy INSTANCE = new Neo4JGraphStepStrategy();
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        for (final GraphStep<?, ?> originalGraphStep : TraversalHelper.getStepsOfClass(GraphStep.class, traversal)) {
+            final Neo4JGraphStep<?, ?> neo4jGraphStep = replace(originalGraphStep, traversal);
+            Step<?, ?> currentStep = neo4jGraphStep.getNextStep();
+            while (currentStep instanceof HasStep || currentStep instanceof NoOpBarrierStep) {
+                if (currentStep instanceof HasStep) {
+                    for (final HasContainer hasContainer : ((HasContainerHolder) currentStep).getHasContainers()) {
+                        if (!GraphStep.processHasContainerIds(neo4jGraphStep, hasContainer)) {
+                            neo4jGraphStep.addHasContainer(hasContainer);
+                        }
+                    }
+                    TraversalHelper.copyLabels(currentStep, currentStep.getPreviousStep(), false);
+                    traversal.removeStep(currentStep);
+                }
+                currentStep = currentStep.getNextStep();
+            }
+        }
+    }
+
+    @Nonnull
+    private static <S, E extends Element> Neo4JGraphStep<S, E> replace(@Nonnull final GraphStep<S, E> originalGraphStep,
+                                                                      @Nonnull final Traversal.Admin<?, ?> traversal) {
+        final Neo4JGraphStep<S, E> neo4jGraphStep = new Neo4JGraphStep<>(originalGraphStep);
+        TraversalHelper.replaceStep(originalGraphStep, neo4jGraphStep, traversal);
+        return neo4jGraphStep;
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JGraphStepStrategy instance() {
+        return INSTANCE;
+    }
+
+}
@@ -0,0 +1,89 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+import ta.nemahuta.neo4j.process.step.Neo4JVertexStep;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which pushes {@code order().by(key)}, {@code range()},
+ * {@code limit()} and {@code skip()} down into the {@link Neo4JGraphStep}s they follow, so only the requested elements are queried.
+ * For the {@link Neo4JVertexStep}s the range is used as an upper bound for the number of adjacent vertices queried per vertex.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JOrderAndRangeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JOrderAndRangeStrategy INSTANCE = new Neo4JOrderAndRangeStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS =
+            ImmutableSet.of(Neo4JGraphStepStrategy.class, Neo4JVertexStepStrategy.class, Neo4JCountStrategy.class);
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        for (final Neo4JGraphStep<?, ?> graphStep : TraversalHelper.getStepsOfClass(Neo4JGraphStep.class, traversal)) {
+            if (!graphStep.isStartStep() || graphStep.getIds().length > 0 || !graphStep.remaining().isEmpty()) {
+                continue;
+            }
+            Step<?, ?> currentStep = skipBarriers(graphStep.getNextStep());
+            if (currentStep instanceof OrderGlobalStep && graphStep.addOrder(((OrderGlobalStep<?, ?>) currentStep).getComparators())) {
+                TraversalHelper.copyLabels(currentStep, graphStep, false);
+                traversal.removeStep(currentStep);
+                currentStep = skipBarriers(graphStep.getNextStep());
+            }
+            if (currentStep instanceof RangeGlobalStep) {
+                graphStep.setRange(((RangeGlobalStep<?>) currentStep).getLowRange(), ((RangeGlobalStep<?>) currentStep).getHighRange());
+                TraversalHelper.copyLabels(currentStep, graphStep, false);
+                traversal.removeStep(currentStep);
+            }
+        }
+        for (final Neo4JVertexStep vertexStep : TraversalHelper.getStepsOfClass(Neo4JVertexStep.class, traversal)) {
+            final Step<?, ?> currentStep = skipBarriers(vertexStep.getNextStep());
+            if (vertexStep.remaining().isEmpty() && currentStep instanceof RangeGlobalStep) {
+                vertexStep.setLimit(((RangeGlobalStep<?>) currentStep).getHighRange());
+            }
+        }
+    }
+
+    @Nonnull
+    private static Step<?, ?> skipBarriers(@Nonnull final Step<?, ?> step) {
+        Step<?, ?> currentStep = step;
+        while (currentStep instanceof NoOpBarrierStep) {
+            currentStep = currentStep.getNextStep();
+        }
+        return currentStep;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JOrderAndRangeStrategy instance() {
+        return INSTANCE;
+    }
+
+}
@@ -0,0 +1,110 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.PropertyType;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+import ta.nemahuta.neo4j.process.step.Neo4JPropertiesStep;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which replaces traversals like {@code g.V().hasLabel('x').values('name')}
+ * or {@code g.E().valueMap('a', 'b')} with a {@link Neo4JPropertiesStep}, so only the requested properties are queried
+ * instead of loading and caching the complete elements.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JPropertiesStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JPropertiesStrategy INSTANCE = new Neo4JPropertiesStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS =
+            ImmutableSet.of(Neo4JGraphStepStrategy.class, Neo4JOrderAndRangeStrategy.class);
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        @SuppressWarnings("rawtypes") // the steps of a traversal are provided as raw types and only read here
+        final List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof Neo4JGraphStep)) {
+            return;
+        }
+        final Neo4JGraphStep<?, ?> graphStep = (Neo4JGraphStep<?, ?>) steps.get(0);
+        if (!graphStep.isStartStep() || !graphStep.getLabels().isEmpty() || graphStep.getIds().length > 0 ||
+                !graphStep.remaining().isEmpty()) {
+            return;
+        }
+        int idx = 1;
+        while (idx < steps.size() && (steps.get(idx) instanceof NoOpBarrierStep || steps.get(idx) instanceof IdentityStep) &&
+                steps.get(idx).getLabels().isEmpty()) {
+            idx++;
+        }
+        if (idx >= steps.size()) {
+            return;
+        }
+        final Step<?, ?> step = steps.get(idx);
+        final Neo4JPropertiesStep<?, ?> propertiesStep;
+        if (isValuesStep(step)) {
+            propertiesStep = new Neo4JPropertiesStep<>(traversal, graphStep, ((PropertiesStep<?>) step).getPropertyKeys(), false);
+        } else if (isValueMapStep(step)) {
+            propertiesStep = new Neo4JPropertiesStep<>(traversal, graphStep, ((PropertyMapStep<?, ?>) step).getPropertyKeys(), true);
+        } else {
+            return;
+        }
+        TraversalHelper.copyLabels(step, propertiesStep, false);
+        for (int i = idx; i >= 0; i--) {
+            traversal.removeStep(i);
+        }
+        traversal.addStep(0, propertiesStep);
+    }
+
+    private static boolean isValuesStep(@Nonnull final Step<?, ?> step) {
+        return step.getClass() == PropertiesStep.class &&
+                ((PropertiesStep<?>) step).getReturnType() == PropertyType.VALUE &&
+                ((PropertiesStep<?>) step).getParameters().getRaw().isEmpty();
+    }
+
+    private static boolean isValueMapStep(@Nonnull final Step<?, ?> step) {
+        if (step.getClass() != PropertyMapStep.class) {
+            return false;
+        }
+        final PropertyMapStep<?, ?> mapStep = (PropertyMapStep<?, ?>) step;
+        // Neither tokens nor by() modulations can be provided from the returned properties
+        return mapStep.getReturnType() == PropertyType.VALUE && mapStep.getIncludedTokens() == 0 &&
+                mapStep.getLocalChildren().isEmpty() && mapStep.getParameters().getRaw().isEmpty();
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JPropertiesStrategy instance() {
+        return INSTANCE;
+    }
+
+}
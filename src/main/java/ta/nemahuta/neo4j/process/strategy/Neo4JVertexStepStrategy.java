@@ -0,0 +1,72 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import ta.nemahuta.neo4j.process.step.Neo4JEdgeStep;
+import ta.nemahuta.neo4j.process.step.Neo4JVertexStep;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link TraversalStrategy.ProviderOptimizationStrategy} which replaces the {@link VertexStep}s emitting vertices with
+ * {@link Neo4JVertexStep}s and folds the subsequent {@link HasStep}s into them, so each hop is a single query.
+ * The ones emitting edges are replaced with {@link Neo4JEdgeStep}s, resolving the relations for batches of vertices.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JVertexStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy>
+        implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Neo4JVertexStepStrategy INSTANCE = new Neo4JVertexStepStrategy();
+
+    @Override
+    public void apply(@Nonnull final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal)) {
+            return;
+        }
+        for (final VertexStep<?> originalVertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!originalVertexStep.returnsVertex()) {
+                @SuppressWarnings("unchecked") // a vertex step not returning vertices returns edges
+                final VertexStep<Edge> originalEdgeStep = (VertexStep<Edge>) originalVertexStep;
+                TraversalHelper.replaceStep(originalEdgeStep, new Neo4JEdgeStep(originalEdgeStep), traversal);
+                continue;
+            }
+            @SuppressWarnings("unchecked") // checked by returnsVertex()
+            final VertexStep<Vertex> originalStep = (VertexStep<Vertex>) originalVertexStep;
+            final Neo4JVertexStep neo4jVertexStep = new Neo4JVertexStep(originalStep);
+            TraversalHelper.replaceStep(originalStep, neo4jVertexStep, traversal);
+            Step<?, ?> currentStep = neo4jVertexStep.getNextStep();
+            while (currentStep instanceof HasStep || currentStep instanceof NoOpBarrierStep) {
+                if (currentStep instanceof HasStep) {
+                    ((HasContainerHolder) currentStep).getHasContainers().forEach(neo4jVertexStep::addHasContainer);
+                    TraversalHelper.copyLabels(currentStep, currentStep.getPreviousStep(), false);
+                    traversal.removeStep(currentStep);
+                }
+                currentStep = currentStep.getNextStep();
+            }
+        }
+    }
+
+    /**
+     * @return the singleton instance of the strategy
+     */
+    @Nonnull
+    public static Neo4JVertexStepStrategy instance() {
+        return INSTANCE;
+    }
+
+}
@@ -2,9 +2,9 @@ package ta.nemahuta.neo4j.query;
 
 import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.neo4j.driver.v1.Statement;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
 
 import javax.annotation.Nonnull;
@@ -15,21 +15,84 @@ import java.util.*;
  *
  * @author Christian Heike (christian.heike@icloud.com)
  */
-@RequiredArgsConstructor
 public abstract class AbstractQueryBuilder implements StatementBuilder {
 
+    /**
+     * the alias of the current row of the UNWIND clause
+     */
+    public static final String ROW = "row";
+    /**
+     * the key of the element id in a row of the UNWIND clause
+     */
+    public static final String ROW_ID = "id";
+    /**
+     * the key of the element properties in a row of the UNWIND clause
+     */
+    public static final String ROW_PROPERTIES = "properties";
+    /**
+     * the key of the id of the outbound vertex of an edge in a row of the UNWIND clause
+     */
+    public static final String ROW_OUT_ID = "outId";
+    /**
+     * the key of the id of the inbound vertex of an edge in a row of the UNWIND clause
+     */
+    public static final String ROW_IN_ID = "inId";
+
     /**
      * the partition for the statement
      */
-    @NonNull
     protected final Neo4JGraphPartition partition;
 
+    /**
+     * the strategy for the identifiers of the vertices
+     */
+    protected final Neo4JVertexIdStrategy idStrategy;
+
+    /**
+     * Create a new builder using the internal identifiers of the vertices.
+     *
+     * @param partition the partition for the statement
+     */
+    protected AbstractQueryBuilder(@Nonnull final Neo4JGraphPartition partition) {
+        this(partition, NativeVertexIdStrategy.INSTANCE);
+    }
+
+    /**
+     * Create a new builder, which {@link Neo4JVertexIdStrategy#restrict(Neo4JGraphPartition) restricts} the partition to the
+     * nodes having the label of the identifiers.
+     *
+     * @param partition  the partition for the statement
+     * @param idStrategy the strategy for the identifiers of the vertices
+     */
+    protected AbstractQueryBuilder(@Nonnull final Neo4JGraphPartition partition,
+                                   @Nonnull final Neo4JVertexIdStrategy idStrategy) {
+        this.partition = idStrategy.restrict(partition);
+        this.idStrategy = idStrategy;
+    }
+
+    @Getter(value = AccessLevel.PROTECTED)
+    private List<Map<String, Object>> unwindRows;
     @Getter(value = AccessLevel.PROTECTED)
     private MatchPredicate match;
     @Getter(value = AccessLevel.PROTECTED)
     private WherePredicate where;
     @Getter(value = AccessLevel.PROTECTED)
     private final List<Operation> operations = new ArrayList<>();
+    @Getter(value = AccessLevel.PROTECTED)
+    private final List<OrderPredicate> orderBy = new ArrayList<>();
+    @Getter(value = AccessLevel.PROTECTED)
+    private long skip = 0;
+    @Getter(value = AccessLevel.PROTECTED)
+    private long limit = -1;
+
+    /**
+     * Set the rows for an UNWIND clause preceding the MATCH clause, so the statement is processed once for each row.
+     *
+     * @param rows the rows to be unwound
+     */
+    protected void setUnwindRows(@Nonnull final List<Map<String, Object>> rows) {
+        this.unwindRows = rows;
+    }
 
     /**
      * Set the {@link MatchPredicate} for the MATCH clause.
@@ -58,13 +121,44 @@ public abstract class AbstractQueryBuilder implements StatementBuilder {
         this.operations.add(operation);
     }
 
+    /**
+     * Add an {@link OrderPredicate} for the ORDER BY clause.
+     *
+     * @param order the order predicate to be added
+     */
+    protected void addOrderBy(@Nonnull final OrderPredicate order) {
+        this.orderBy.add(order);
+    }
+
+    /**
+     * Set the number of results to be skipped.
+     *
+     * @param skip the number of results to be skipped
+     */
+    protected void setSkip(final long skip) {
+        this.skip = skip;
+    }
+
+    /**
+     * Set the maximum number of results.
+     *
+     * @param limit the maximum number of results or a negative value for no limit
+     */
+    protected void setLimit(final long limit) {
+        this.limit = limit;
+    }
+
     @Override
     @Nonnull
     public Optional<Statement> build() {
         final StringBuilder sb = new StringBuilder();
         final Map<String, Object> parameters = new HashMap<>();
+        Optional.ofNullable(getUnwindRows()).ifPresent(rows -> {
+            sb.append("UNWIND {unwindRows} AS ").append(ROW);
+            parameters.put("unwindRows", rows);
+        });
         Optional.ofNullable(getMatch()).ifPresent(m -> {
-            sb.append("MATCH ");
+            sb.append(sb.length() > 0 ? " MATCH " : "MATCH ");
             m.append(sb, parameters);
         });
         Optional.ofNullable(getWhere())
@@ -82,6 +176,23 @@ public abstract class AbstractQueryBuilder implements StatementBuilder {
                 needsOperation = true;
             }
         }
+        if (!orderBy.isEmpty()) {
+            sb.append(" ORDER BY ");
+            for (int i = 0; i < orderBy.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                orderBy.get(i).append(sb, parameters);
+            }
+        }
+        if (skip > 0) {
+            sb.append(" SKIP {querySkip}");
+            parameters.put("querySkip", skip);
+        }
+        if (limit >= 0) {
+            sb.append(" LIMIT {queryLimit}");
+            parameters.put("queryLimit", limit);
+        }
         return needsOperation ? Optional.of(new Statement(sb.toString().trim(), parameters)) : Optional.empty();
     }
 
@@ -0,0 +1,9 @@
+package ta.nemahuta.neo4j.query;
+
+/**
+ * Marker interface for a {@link QueryPredicate} to be used in an ORDER BY clause.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public interface OrderPredicate extends QueryPredicate {
+}
@@ -37,6 +37,30 @@ public class QueryUtils {
         sb.append(":`").append(label).append("`");
     }
 
+    /**
+     * Create the operand for a property of an element, escaping the key.
+     *
+     * @param alias the alias of the element from the MATCH clause
+     * @param key   the key of the property
+     * @return the operand to be used in a query
+     */
+    @Nonnull
+    public static String propertyOperand(@Nonnull final String alias,
+                                         @Nonnull final String key) {
+        return alias + ".`" + key.replace("`", "``") + "`";
+    }
+
+    /**
+     * Create the operand for the internal identifier of an element.
+     *
+     * @param alias the alias of the element from the MATCH clause
+     * @return the operand to be used in a query
+     */
+    @Nonnull
+    public static String idOperand(@Nonnull final String alias) {
+        return "ID(" + alias + ")";
+    }
+
     /**
      * Append the relation prefix to a {@link StringBuilder}
      *
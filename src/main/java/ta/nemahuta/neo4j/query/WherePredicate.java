@@ -69,6 +69,20 @@ public interface WherePredicate extends QueryPredicate {
         };
     }
 
+    /**
+     * Negates this predicate, wrapping it in brackets.
+     *
+     * @return the new predicate
+     */
+    @Nonnull
+    default WherePredicate negate() {
+        final WherePredicate inner = this.inBrackets();
+        return (queryBuilder, parameters) -> {
+            queryBuilder.append("NOT ");
+            inner.append(queryBuilder, parameters);
+        };
+    }
+
     @Nonnull
     static WherePredicate orOp(@Nonnull final WherePredicate w1,
                                @Nonnull final WherePredicate w2) {
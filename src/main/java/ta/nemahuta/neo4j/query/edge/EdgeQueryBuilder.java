@@ -3,15 +3,19 @@ package ta.nemahuta.neo4j.query.edge;
 import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
 import ta.nemahuta.neo4j.query.MatchPredicate;
+import ta.nemahuta.neo4j.query.OrderPredicate;
 import ta.nemahuta.neo4j.query.UniqueParamNameGenerator;
 import ta.nemahuta.neo4j.query.WherePredicate;
 import ta.nemahuta.neo4j.query.edge.predicate.MatchRelationPredicate;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryFactory;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -61,6 +65,12 @@ public class EdgeQueryBuilder extends AbstractQueryBuilder {
         protected Neo4JGraphPartition getPartition() {
             return EdgeQueryBuilder.this.partition;
         }
+
+        @Nonnull
+        @Override
+        protected Neo4JVertexIdStrategy getIdStrategy() {
+            return EdgeQueryBuilder.this.idStrategy;
+        }
     };
 
     private final MatchRelationPredicate relationPredicate = new MatchRelationPredicate(VERTEX_ALIAS_LHS, RELATION_ALIAS, VERTEX_ALIAS_RHS, partition);
@@ -75,6 +85,18 @@ public class EdgeQueryBuilder extends AbstractQueryBuilder {
         setMatch(relationPredicate);
     }
 
+    /**
+     * Create a new builder using the provided parameters.
+     *
+     * @param partition  the {@link Neo4JGraphPartition} being operated on
+     * @param idStrategy the strategy for the identifiers of the vertices
+     */
+    public EdgeQueryBuilder(@Nonnull final Neo4JGraphPartition partition,
+                            @Nonnull final Neo4JVertexIdStrategy idStrategy) {
+        super(partition, idStrategy);
+        setMatch(relationPredicate);
+    }
+
     /**
      * Add a {@link MatchPredicate} to the lhs node.
      *
@@ -133,6 +155,54 @@ public class EdgeQueryBuilder extends AbstractQueryBuilder {
         return this;
     }
 
+    /**
+     * Add an {@link OrderPredicate} to the ORDER BY clause.
+     *
+     * @param orderBuilder a function which builds the predicate from the {@link EdgeQueryFactory}
+     * @return {@code this}
+     */
+    @Nonnull
+    public EdgeQueryBuilder orderBy(@Nonnull final Function<EdgeQueryFactory, OrderPredicate> orderBuilder) {
+        addOrderBy(orderBuilder.apply(factory));
+        return this;
+    }
+
+    /**
+     * Skip a number of results.
+     *
+     * @param skip the number of results to be skipped
+     * @return {@code this}
+     */
+    @Nonnull
+    public EdgeQueryBuilder skip(final long skip) {
+        setSkip(skip);
+        return this;
+    }
+
+    /**
+     * Unwind the provided rows, so the statement is processed once for each of them.
+     *
+     * @param rows the rows providing the values for the relations to be processed
+     * @return {@code this}
+     */
+    @Nonnull
+    public EdgeQueryBuilder unwind(@Nonnull final List<Map<String, Object>> rows) {
+        setUnwindRows(rows);
+        return this;
+    }
+
+    /**
+     * Limit the number of results.
+     *
+     * @param limit the maximum number of results
+     * @return {@code this}
+     */
+    @Nonnull
+    public EdgeQueryBuilder limit(final long limit) {
+        setLimit(limit);
+        return this;
+    }
+
     /**
      * Add an operation to be executed with the query.
      *
@@ -1,21 +1,38 @@
 package ta.nemahuta.neo4j.query.edge;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.OrderPredicate;
+import ta.nemahuta.neo4j.query.QueryUtils;
 import ta.nemahuta.neo4j.query.UniqueParamNameGenerator;
 import ta.nemahuta.neo4j.query.WherePredicate;
 import ta.nemahuta.neo4j.query.edge.operation.CreateEdgeOperation;
+import ta.nemahuta.neo4j.query.edge.operation.CreateRowEdgeOperation;
 import ta.nemahuta.neo4j.query.edge.operation.ReturnEdgeOperation;
+import ta.nemahuta.neo4j.query.edge.operation.ReturnNodeOperation;
 import ta.nemahuta.neo4j.query.operation.CreatePropertyIndex;
 import ta.nemahuta.neo4j.query.operation.DeleteOperation;
+import ta.nemahuta.neo4j.query.operation.ReturnCountOperation;
 import ta.nemahuta.neo4j.query.operation.ReturnIdOperation;
+import ta.nemahuta.neo4j.query.operation.ReturnPropertiesOperation;
+import ta.nemahuta.neo4j.query.operation.SetRowPropertiesOperation;
 import ta.nemahuta.neo4j.query.operation.UpdatePropertiesOperation;
+import ta.nemahuta.neo4j.query.predicate.OrderByOperandPredicate;
+import ta.nemahuta.neo4j.query.predicate.PredicateTranslator;
+import ta.nemahuta.neo4j.query.predicate.WhereComparisonPredicate;
 import ta.nemahuta.neo4j.query.predicate.WhereIdInPredicate;
+import ta.nemahuta.neo4j.query.predicate.WhereRowIdPredicate;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryFactory;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 
@@ -50,6 +67,13 @@ public abstract class EdgeQueryFactory {
     @Nonnull
     protected abstract Neo4JGraphPartition getPartition();
 
+    /**
+     * @return the strategy for the identifiers of the nodes
+     */
+    @Nonnull
+    protected Neo4JVertexIdStrategy getIdStrategy() {
+        return NativeVertexIdStrategy.INSTANCE;
+    }
 
     @Getter(onMethod = @__(@Nonnull))
     private final VertexQueryFactory lhs = new VertexQueryFactory() {
@@ -66,6 +90,12 @@ public abstract class EdgeQueryFactory {
             return EdgeQueryFactory.this.getPartition();
         }
 
+        @Nonnull
+        @Override
+        protected Neo4JVertexIdStrategy getIdStrategy() {
+            return EdgeQueryFactory.this.getIdStrategy();
+        }
+
         @Nonnull
         @Override
         protected UniqueParamNameGenerator getParamNameGenerator() {
@@ -88,6 +118,12 @@ public abstract class EdgeQueryFactory {
             return EdgeQueryFactory.this.getRhsAlias();
         }
 
+        @Nonnull
+        @Override
+        protected Neo4JVertexIdStrategy getIdStrategy() {
+            return EdgeQueryFactory.this.getIdStrategy();
+        }
+
         @Nonnull
         @Override
         protected UniqueParamNameGenerator getParamNameGenerator() {
@@ -115,7 +151,98 @@ public abstract class EdgeQueryFactory {
     @Nonnull
     public WherePredicate whereIds(@Nonnull final Set<Long> ids) {
         return ids.isEmpty() ? WherePredicate.EMPTY :
-                new WhereIdInPredicate(ids, getRelationAlias(), getParamNameGenerator().generate("edgeId"));
+                new WhereIdInPredicate(ids, QueryUtils.idOperand(getRelationAlias()), getParamNameGenerator().generate("edgeId"));
+    }
+
+    /**
+     * Construct a predicate which matches the identifier of the relation to the one of the current row of an UNWIND clause.
+     *
+     * @return the predicate matching the id of the row
+     */
+    @Nonnull
+    public WherePredicate whereRowId() {
+        return new WhereRowIdPredicate(QueryUtils.idOperand(getRelationAlias()), AbstractQueryBuilder.ROW_ID);
+    }
+
+    /**
+     * Construct a predicate which matches the relations with an identifier greater than the given one in a WHERE clause.
+     *
+     * @param id the identifier to be exceeded
+     * @return the predicate matching the greater ids
+     */
+    @Nonnull
+    public WherePredicate whereIdGreaterThan(final long id) {
+        return new WhereComparisonPredicate(QueryUtils.idOperand(getRelationAlias()), ">", id, getParamNameGenerator().generate("edgeIdAfter"));
+    }
+
+    /**
+     * Construct a predicate which matches the relations with an identifier up to the given one in a WHERE clause.
+     *
+     * @param id the greatest identifier to be matched
+     * @return the predicate matching the lower or equal ids
+     */
+    @Nonnull
+    public WherePredicate whereIdAtMost(final long id) {
+        return new WhereComparisonPredicate(QueryUtils.idOperand(getRelationAlias()), "<=", id, getParamNameGenerator().generate("edgeIdUpTo"));
+    }
+
+    /**
+     * Construct a predicate matching a random sample of the relations in a WHERE clause.
+     *
+     * @param ratio the probability of each relation to be matched
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate whereSampled(final double ratio) {
+        return new WhereComparisonPredicate("rand()", "<", ratio, getParamNameGenerator().generate("edgeSample"));
+    }
+
+    /**
+     * Construct a predicate which tests the label of the relation in a WHERE clause.
+     *
+     * @param predicate the predicate to be applied, which has to be {@link PredicateTranslator#isTranslatable(P) translatable}
+     * @return the predicate testing the label
+     */
+    @Nonnull
+    public WherePredicate whereLabel(@Nonnull final P<?> predicate) {
+        return PredicateTranslator.translate("type(" + getRelationAlias() + ")", predicate,
+                () -> getParamNameGenerator().generate("edgeLabel"));
+    }
+
+    /**
+     * Construct a predicate which tests a property of the relation in a WHERE clause.
+     *
+     * @param key       the key of the property
+     * @param predicate the predicate to be applied, which has to be {@link PredicateTranslator#isTranslatable(P) translatable}
+     * @return the predicate testing the property
+     */
+    @Nonnull
+    public WherePredicate whereProperty(@Nonnull final String key, @Nonnull final P<?> predicate) {
+        return PredicateTranslator.translate(QueryUtils.propertyOperand(getRelationAlias(), key), predicate,
+                () -> getParamNameGenerator().generate("edgeProperty"));
+    }
+
+    /**
+     * Construct a predicate ordering the relations by a property in an ORDER BY clause.
+     *
+     * @param key        the key of the property
+     * @param descending {@code true} for a descending order, {@code false} for an ascending one
+     * @return the predicate
+     */
+    @Nonnull
+    public OrderPredicate orderByProperty(@Nonnull final String key, final boolean descending) {
+        return new OrderByOperandPredicate(QueryUtils.propertyOperand(getRelationAlias(), key), descending);
+    }
+
+    /**
+     * Construct a predicate ordering the relations by their id in an ORDER BY clause.
+     *
+     * @param descending {@code true} for a descending order, {@code false} for an ascending one
+     * @return the predicate
+     */
+    @Nonnull
+    public OrderPredicate orderById(final boolean descending) {
+        return new OrderByOperandPredicate(QueryUtils.idOperand(getRelationAlias()), descending);
     }
 
     /**
@@ -123,7 +250,15 @@ public abstract class EdgeQueryFactory {
      */
     @Nonnull
     public EdgeOperation returnEdge() {
-        return new ReturnEdgeOperation(getLhsAlias(), getRelationAlias(), getRhsAlias());
+        return new ReturnEdgeOperation(getLhsAlias(), getRelationAlias(), getRhsAlias(), getIdStrategy());
+    }
+
+    /**
+     * @return an {@link EdgeOperation} which returns the rhs node, once for each relation matched
+     */
+    @Nonnull
+    public EdgeOperation returnRhs() {
+        return new ReturnNodeOperation(getRhsAlias());
     }
 
     /**
@@ -131,7 +266,32 @@ public abstract class EdgeQueryFactory {
      */
     @Nonnull
     public EdgeOperation returnId() {
-        return new ReturnIdOperation(getRelationAlias());
+        return new ReturnIdOperation(QueryUtils.idOperand(getRelationAlias()));
+    }
+
+    /**
+     * Create an {@link EdgeOperation} which returns the requested properties of the relation as a map, without the relation itself.
+     *
+     * @param keys the keys of the properties to be returned, all properties are returned if empty
+     * @return the operation
+     */
+    @Nonnull
+    public EdgeOperation returnProperties(@Nonnull final Collection<String> keys) {
+        return new ReturnPropertiesOperation(getRelationAlias(), ImmutableList.copyOf(keys));
+    }
+
+    /**
+     * Create an {@link EdgeOperation} which returns the number of relations in the range of the matches.
+     *
+     * @param low  the number of relations to be skipped
+     * @param high the index after the last relation to be counted, or a negative value for no limit
+     * @return the operation
+     */
+    @Nonnull
+    public EdgeOperation returnCount(final long low, final long high) {
+        return new ReturnCountOperation(getRelationAlias(), low, high < 0 ? -1 : Math.max(0, high - low),
+                low > 0 ? getParamNameGenerator().generate("countSkip") : null,
+                high >= 0 ? getParamNameGenerator().generate("countLimit") : null);
     }
 
     /**
@@ -150,6 +310,19 @@ public abstract class EdgeQueryFactory {
                 getParamNameGenerator().generate("edgeProps"));
     }
 
+    /**
+     * Create an operation which will create an edge for each row of an UNWIND clause, using the properties of the row.
+     *
+     * @param direction the direction of the edges
+     * @param label     the label of the edges
+     * @return the {@link EdgeOperation} which creates the edges
+     */
+    @Nonnull
+    public EdgeOperation createEdgeFromRow(@Nonnull final Direction direction,
+                                           @Nonnull final String label) {
+        return new CreateRowEdgeOperation(getLhsAlias(), getRelationAlias(), getRhsAlias(), label, direction);
+    }
+
     /**
      * @return an {@link EdgeOperation} which deletes all edges matching the query
      */
@@ -171,6 +344,14 @@ public abstract class EdgeQueryFactory {
         return new UpdatePropertiesOperation(committedProperties, currentProperties, getRelationAlias(), getParamNameGenerator().generate("edgeProps"));
     }
 
+    /**
+     * @return an {@link EdgeOperation} which merges the properties of the current row of an UNWIND clause into the relation
+     */
+    @Nonnull
+    public EdgeOperation rowProperties() {
+        return new SetRowPropertiesOperation(getRelationAlias());
+    }
+
     /**
      * Create a new property index for edge with the provided label.
      *
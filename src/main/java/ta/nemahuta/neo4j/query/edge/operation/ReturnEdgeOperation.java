@@ -2,13 +2,15 @@ package ta.nemahuta.neo4j.query.edge.operation;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.query.edge.EdgeOperation;
 
 import javax.annotation.Nonnull;
 import java.util.Map;
 
 /**
- * An operation which returns the node ids and the edge itself.
+ * An operation which returns the edge itself, followed by the ids of its start and end node in case they are
+ * {@link Neo4JVertexIdStrategy#isClientGenerated() generated on the client}.
  *
  * @author Christian Heike (christian.heike@icloud.com)
  */
@@ -30,6 +32,11 @@ public class ReturnEdgeOperation implements EdgeOperation {
      */
     @NonNull
     private final String rhsAlias;
+    /**
+     * the strategy for the identifiers of the nodes
+     */
+    @NonNull
+    private final Neo4JVertexIdStrategy idStrategy;
 
     @Override
     public boolean isNeedsStatement() {
@@ -40,6 +47,10 @@ public class ReturnEdgeOperation implements EdgeOperation {
     public void append(@Nonnull final StringBuilder queryBuilder,
                        @Nonnull final Map<String, Object> parameters) {
         queryBuilder.append("RETURN ").append(relationAlias);
+        if (idStrategy.isClientGenerated()) {
+            queryBuilder.append(", ").append(idStrategy.idOperand("startNode(" + relationAlias + ")"))
+                    .append(", ").append(idStrategy.idOperand("endNode(" + relationAlias + ")"));
+        }
     }
 
 }
@@ -0,0 +1,35 @@
+package ta.nemahuta.neo4j.query.edge.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.edge.EdgeOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * An operation which returns one of the nodes at the end of the relation.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class ReturnNodeOperation implements EdgeOperation {
+
+    /**
+     * the alias for the node to be returned
+     */
+    @NonNull
+    private final String nodeAlias;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("RETURN ").append(nodeAlias);
+    }
+
+}
@@ -0,0 +1,37 @@
+package ta.nemahuta.neo4j.query.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link VertexOperation} which creates a unique constraint, and thereby an index, for a property of the nodes with a label.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class CreateUniqueConstraint implements VertexOperation {
+
+    @NonNull
+    private final String label;
+
+    @NonNull
+    private final String propertyName;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder, @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.replace(0, queryBuilder.length(), "CREATE CONSTRAINT ON (c");
+        QueryUtils.appendLabels(queryBuilder, Collections.singleton(label));
+        queryBuilder.append(") ASSERT ").append(QueryUtils.propertyOperand("c", propertyName)).append(" IS UNIQUE");
+    }
+}
@@ -0,0 +1,69 @@
+package ta.nemahuta.neo4j.query.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.edge.EdgeOperation;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * {@link EdgeOperation} and {@link VertexOperation} which returns the number of matches, optionally restricted to a range.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class ReturnCountOperation implements EdgeOperation, VertexOperation {
+
+    /**
+     * the alias of the MATCH clause to be counted
+     */
+    @NonNull
+    private final String alias;
+
+    /**
+     * the number of matches to be skipped
+     */
+    private final long skip;
+
+    /**
+     * the maximum number of matches to be counted, or a negative value for no limit
+     */
+    private final long limit;
+
+    /**
+     * the name of the parameter for the skipped matches, only used if there are any
+     */
+    @Nullable
+    private final String skipParamName;
+
+    /**
+     * the name of the parameter for the limit, only used if there is one
+     */
+    @Nullable
+    private final String limitParamName;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        if (skip > 0 || limit >= 0) {
+            queryBuilder.append("WITH ").append(alias).append(" ");
+            if (skip > 0) {
+                queryBuilder.append("SKIP {").append(skipParamName).append("} ");
+                parameters.put(skipParamName, skip);
+            }
+            if (limit >= 0) {
+                queryBuilder.append("LIMIT {").append(limitParamName).append("} ");
+                parameters.put(limitParamName, limit);
+            }
+        }
+        queryBuilder.append("RETURN count(").append(alias).append(")");
+    }
+}
@@ -17,10 +17,10 @@ import java.util.Map;
 public class ReturnIdOperation implements EdgeOperation, VertexOperation {
 
     /**
-     * the alias of the MATCH clause to return the id from
+     * the operand of the identifier of the element from the MATCH clause
      */
     @NonNull
-    private final String alias;
+    private final String idOperand;
 
     @Override
     public boolean isNeedsStatement() {
@@ -30,6 +30,6 @@ public class ReturnIdOperation implements EdgeOperation, VertexOperation {
     @Override
     public void append(@Nonnull final StringBuilder queryBuilder,
                        @Nonnull final Map<String, Object> parameters) {
-        queryBuilder.append("RETURN ID(").append(alias).append(")");
+        queryBuilder.append("RETURN ").append(idOperand);
     }
 }
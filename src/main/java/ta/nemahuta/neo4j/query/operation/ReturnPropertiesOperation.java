@@ -0,0 +1,50 @@
+package ta.nemahuta.neo4j.query.operation;
+
+import com.google.common.collect.ImmutableList;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.edge.EdgeOperation;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@link EdgeOperation} and {@link VertexOperation} which returns a map of the requested properties only, instead of the whole element.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class ReturnPropertiesOperation implements EdgeOperation, VertexOperation {
+
+    /**
+     * the alias of the MATCH clause to return the properties from
+     */
+    @NonNull
+    private final String alias;
+
+    /**
+     * the keys of the properties to be returned, all properties are returned if empty
+     */
+    @NonNull
+    private final ImmutableList<String> keys;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("RETURN ");
+        if (keys.isEmpty()) {
+            queryBuilder.append("properties(").append(alias).append(")");
+        } else {
+            queryBuilder.append(alias).append(" {")
+                    .append(keys.stream().map(k -> ".`" + k.replace("`", "``") + "`").collect(Collectors.joining(", ")))
+                    .append("}");
+        }
+    }
+}
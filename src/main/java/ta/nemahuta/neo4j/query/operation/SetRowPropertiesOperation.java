@@ -0,0 +1,39 @@
+package ta.nemahuta.neo4j.query.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.edge.EdgeOperation;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * {@link VertexOperation} and {@link EdgeOperation} which merges the properties of the current row of an UNWIND clause into
+ * the properties of an element, removing the ones which are {@code null} in the row.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class SetRowPropertiesOperation implements VertexOperation, EdgeOperation {
+
+    /**
+     * the alias of the MATCH the properties should be set on
+     */
+    @NonNull
+    private final String alias;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("SET ").append(alias).append("+=")
+                .append(AbstractQueryBuilder.ROW).append(".").append(AbstractQueryBuilder.ROW_PROPERTIES);
+    }
+
+}
@@ -2,14 +2,21 @@ package ta.nemahuta.neo4j.query.operation;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.QueryUtils;
 import ta.nemahuta.neo4j.query.edge.EdgeOperation;
 import ta.nemahuta.neo4j.query.vertex.VertexOperation;
 
 import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
- * {@link VertexOperation} which updates the properties of a {@link ta.nemahuta.neo4j.structure.Neo4JVertex}.
+ * {@link VertexOperation} which updates the properties of a {@link ta.nemahuta.neo4j.structure.Neo4JVertex}, sending only the
+ * properties which have been changed and removing the ones which do not exist anymore.
  *
  * @author Christian Heike (christian.heike@icloud.com)
  */
@@ -37,6 +44,22 @@ public class UpdatePropertiesOperation implements VertexOperation, EdgeOperation
     @NonNull
     private final String paramName;
 
+    /**
+     * Compute the properties to be merged into the committed properties to get the current ones, mapping the removed properties
+     * to {@code null}, which removes them when being merged.
+     *
+     * @param committedProperties the currently committed properties
+     * @param currentProperties   the current properties to be committed
+     * @return the changed properties
+     */
+    @Nonnull
+    public static Map<String, Object> delta(@Nonnull final Map<String, Object> committedProperties,
+                                            @Nonnull final Map<String, Object> currentProperties) {
+        final Map<String, Object> result = new LinkedHashMap<>(changedProperties(committedProperties, currentProperties));
+        removedKeys(committedProperties, currentProperties).forEach(key -> result.put(key, null));
+        return Collections.unmodifiableMap(result);
+    }
+
     @Override
     public boolean isNeedsStatement() {
         return !committedProperties.equals(currentProperties);
@@ -45,7 +68,35 @@ public class UpdatePropertiesOperation implements VertexOperation, EdgeOperation
     @Override
     public void append(@Nonnull final StringBuilder queryBuilder,
                        @Nonnull final Map<String, Object> parameters) {
-        queryBuilder.append("SET ").append(alias).append("={").append(paramName).append("}");
-        parameters.put(paramName, currentProperties);
+        final Map<String, Object> changed = changedProperties(committedProperties, currentProperties);
+        final List<String> removed = removedKeys(committedProperties, currentProperties);
+        if (!changed.isEmpty()) {
+            queryBuilder.append("SET ").append(alias).append("+={").append(paramName).append("}");
+            parameters.put(paramName, changed);
+        }
+        if (!removed.isEmpty()) {
+            queryBuilder.append(changed.isEmpty() ? "REMOVE " : " REMOVE ")
+                    .append(removed.stream().map(key -> QueryUtils.propertyOperand(alias, key)).collect(Collectors.joining(", ")));
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Object> changedProperties(@Nonnull final Map<String, Object> committedProperties,
+                                                         @Nonnull final Map<String, Object> currentProperties) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        currentProperties.forEach((key, value) -> {
+            if (!Objects.equals(committedProperties.get(key), value)) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    @Nonnull
+    private static List<String> removedKeys(@Nonnull final Map<String, Object> committedProperties,
+                                            @Nonnull final Map<String, Object> currentProperties) {
+        return committedProperties.keySet().stream()
+                .filter(key -> !currentProperties.containsKey(key))
+                .collect(Collectors.toList());
     }
 }
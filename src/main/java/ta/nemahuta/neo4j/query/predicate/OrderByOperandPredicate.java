@@ -0,0 +1,35 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.OrderPredicate;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * {@link OrderPredicate} which orders by an operand, e.g. a property or the id of an element.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class OrderByOperandPredicate implements OrderPredicate {
+
+    /**
+     * the operand to be ordered by
+     */
+    @NonNull
+    private final String operand;
+
+    /**
+     * {@code true} for a descending order, {@code false} for an ascending one
+     */
+    private final boolean descending;
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append(operand).append(descending ? " DESC" : " ASC");
+    }
+
+}
@@ -0,0 +1,119 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
+import ta.nemahuta.neo4j.query.WherePredicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Translates gremlin {@link P}redicates to {@link WherePredicate}s, so they can be evaluated by the server.
+ * The values are always passed as parameters, so the server is able to use range and string indexes.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PredicateTranslator {
+
+    /**
+     * the Cypher operators for the comparisons
+     */
+    private static final Map<BiPredicate<?, ?>, String> COMPARISONS = ImmutableMap.<BiPredicate<?, ?>, String>builder()
+            .put(Compare.eq, "=")
+            .put(Compare.neq, "<>")
+            .put(Compare.lt, "<")
+            .put(Compare.lte, "<=")
+            .put(Compare.gt, ">")
+            .put(Compare.gte, ">=")
+            .build();
+
+    /**
+     * the Cypher operators for the text predicates, the negated ones are translated using the operator of their negation
+     */
+    private static final Map<BiPredicate<?, ?>, String> TEXTS = ImmutableMap.<BiPredicate<?, ?>, String>builder()
+            .put(Text.startingWith, "STARTS WITH")
+            .put(Text.endingWith, "ENDS WITH")
+            .put(Text.containing, "CONTAINS")
+            .build();
+
+    /**
+     * Checks whether a predicate can be translated to a {@link WherePredicate} with the same semantics.
+     *
+     * @param predicate the predicate to be checked
+     * @return {@code true} if the predicate can be translated, {@code false} otherwise
+     */
+    public static boolean isTranslatable(@Nonnull final P<?> predicate) {
+        if (predicate instanceof AndP || predicate instanceof OrP) {
+            final Collection<? extends P<?>> predicates = ((ConnectiveP<?>) predicate).getPredicates();
+            return !predicates.isEmpty() && predicates.stream().allMatch(PredicateTranslator::isTranslatable);
+        }
+        final BiPredicate<?, ?> biPredicate = predicate.getBiPredicate();
+        if (COMPARISONS.containsKey(biPredicate)) {
+            return isParameterValue(predicate.getValue());
+        } else if (biPredicate instanceof Text) {
+            return predicate.getValue() instanceof String;
+        } else if (biPredicate == Contains.within || biPredicate == Contains.without) {
+            return predicate.getValue() instanceof Collection &&
+                    ((Collection<?>) predicate.getValue()).stream().allMatch(PredicateTranslator::isParameterValue);
+        }
+        return false;
+    }
+
+    /**
+     * Translate the predicate to a {@link WherePredicate} for the provided operand.
+     *
+     * @param operand            the operand to be tested by the predicate
+     * @param predicate          the predicate to be translated
+     * @param paramNameGenerator the generator for the parameter names
+     * @return the translated predicate
+     * @throws IllegalArgumentException if the predicate is not {@link #isTranslatable(P) translatable}
+     */
+    @Nonnull
+    public static WherePredicate translate(@Nonnull final String operand,
+                                           @Nonnull final P<?> predicate,
+                                           @Nonnull final Supplier<String> paramNameGenerator) {
+        if (!isTranslatable(predicate)) {
+            throw new IllegalArgumentException("Cannot translate predicate: " + predicate);
+        }
+        if (predicate instanceof ConnectiveP) {
+            // inside(), outside() and between() end up here, as well as the explicit conjunctions and disjunctions
+            final boolean and = predicate instanceof AndP;
+            return ((ConnectiveP<?>) predicate).getPredicates().stream()
+                    .map(p -> translate(operand, p, paramNameGenerator))
+                    .reduce(WherePredicate.EMPTY, and ? WherePredicate::and : WherePredicate::or)
+                    .inBrackets();
+        }
+        final BiPredicate<?, ?> biPredicate = predicate.getBiPredicate();
+        if (COMPARISONS.containsKey(biPredicate)) {
+            return new WhereComparisonPredicate(operand, COMPARISONS.get(biPredicate), predicate.getValue(), paramNameGenerator.get());
+        } else if (biPredicate == Contains.within) {
+            return new WhereComparisonPredicate(operand, "IN", predicate.getValue(), paramNameGenerator.get());
+        } else if (biPredicate == Contains.without) {
+            return new WhereComparisonPredicate(operand, "IN", predicate.getValue(), paramNameGenerator.get()).negate();
+        } else if (TEXTS.containsKey(biPredicate)) {
+            return new WhereComparisonPredicate(operand, TEXTS.get(biPredicate), predicate.getValue(), paramNameGenerator.get());
+        } else {
+            return new WhereComparisonPredicate(operand, TEXTS.get(biPredicate.negate()), predicate.getValue(), paramNameGenerator.get()).negate();
+        }
+    }
+
+    private static boolean isParameterValue(@Nullable final Object value) {
+        return value instanceof String || value instanceof Boolean ||
+                value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ||
+                value instanceof Double || value instanceof Float;
+    }
+
+}
@@ -0,0 +1,49 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.WherePredicate;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * {@link WherePredicate} which compares an operand (i.e. a property of an element) to a parameter value.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class WhereComparisonPredicate implements WherePredicate {
+
+    /**
+     * the operand on the left hand side of the comparison
+     */
+    @NonNull
+    private final String operand;
+
+    /**
+     * the Cypher comparison operator
+     */
+    @NonNull
+    private final String operator;
+
+    /**
+     * the value to compare the operand to
+     */
+    @NonNull
+    private final Object value;
+
+    /**
+     * the parameter name to be used
+     */
+    @NonNull
+    private final String paramName;
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append(operand).append(" ").append(operator).append(" {").append(paramName).append("}");
+        parameters.put(paramName, value);
+    }
+
+}
@@ -0,0 +1,48 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.WherePredicate;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link WherePredicate} which matches a node having exactly the provided labels (plus the ones of the partition).
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class WhereExactLabelsPredicate implements WherePredicate {
+
+    /**
+     * the labels the node should have
+     */
+    @NonNull
+    private final Set<String> labels;
+
+    /**
+     * the partition to be used
+     */
+    @NonNull
+    private final Neo4JGraphPartition partition;
+
+    /**
+     * the alias of the node from the MATCH clause
+     */
+    @NonNull
+    private final String alias;
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        final Set<String> allLabels = partition.ensurePartitionLabelsSet(labels);
+        queryBuilder.append("(").append(alias);
+        QueryUtils.appendLabels(queryBuilder, allLabels);
+        queryBuilder.append(" AND size(labels(").append(alias).append(")) = ").append(allLabels.size()).append(")");
+    }
+
+}
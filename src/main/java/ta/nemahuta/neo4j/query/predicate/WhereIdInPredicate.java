@@ -23,10 +23,10 @@ public class WhereIdInPredicate implements WherePredicate {
     @NonNull
     private final Set<Long> ids;
     /**
-     * the alias of the element from the MATCH clause
+     * the operand of the identifier of the element from the MATCH clause
      */
     @NonNull
-    private final String alias;
+    private final String idOperand;
 
     /**
      * the parameter name to be used
@@ -38,7 +38,7 @@ public class WhereIdInPredicate implements WherePredicate {
     public void append(@Nonnull final StringBuilder queryBuilder,
                        @Nonnull final Map<String, Object> parameters) {
         // First append the match predicate, in case the partition is limited
-        queryBuilder.append("ID(").append(alias).append(")").append(" IN {").append(paramName).append("}");
+        queryBuilder.append(idOperand).append(" IN {").append(paramName).append("}");
         parameters.put(paramName, ids);
     }
 
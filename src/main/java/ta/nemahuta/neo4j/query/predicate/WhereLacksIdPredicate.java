@@ -0,0 +1,46 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.WherePredicate;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link WherePredicate} which matches the nodes lacking the label or the property of the client generated identifiers.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class WhereLacksIdPredicate implements WherePredicate {
+
+    /**
+     * the alias of the node from the MATCH clause
+     */
+    @NonNull
+    private final String alias;
+
+    /**
+     * the label of the nodes holding an identifier
+     */
+    @NonNull
+    private final String label;
+
+    /**
+     * the operand of the identifier of the node
+     */
+    @NonNull
+    private final String idOperand;
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("(NOT ").append(alias);
+        QueryUtils.appendLabels(queryBuilder, Collections.singleton(label));
+        queryBuilder.append(" OR NOT exists(").append(idOperand).append("))");
+    }
+
+}
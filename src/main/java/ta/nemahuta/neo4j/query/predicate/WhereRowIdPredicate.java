@@ -0,0 +1,37 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.WherePredicate;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * {@link WherePredicate} which matches the identifier of an element to a value of the current row of an UNWIND clause.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class WhereRowIdPredicate implements WherePredicate {
+
+    /**
+     * the operand of the identifier of the element from the MATCH clause
+     */
+    @NonNull
+    private final String idOperand;
+    /**
+     * the key of the id in the row
+     */
+    @NonNull
+    private final String rowKey;
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append(idOperand).append(" = ")
+                .append(AbstractQueryBuilder.ROW).append(".").append(rowKey);
+    }
+
+}
@@ -2,10 +2,13 @@ package ta.nemahuta.neo4j.query.vertex;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
 import ta.nemahuta.neo4j.query.*;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -36,6 +39,12 @@ public class VertexQueryBuilder extends AbstractQueryBuilder {
             return VertexQueryBuilder.this.partition;
         }
 
+        @Nonnull
+        @Override
+        protected Neo4JVertexIdStrategy getIdStrategy() {
+            return VertexQueryBuilder.this.idStrategy;
+        }
+
     };
 
     /**
@@ -47,6 +56,17 @@ public class VertexQueryBuilder extends AbstractQueryBuilder {
         super(partition);
     }
 
+    /**
+     * Create a new builder for the provided parameters.
+     *
+     * @param partition  the readPartition to be used
+     * @param idStrategy the strategy for the identifiers of the vertices
+     */
+    public VertexQueryBuilder(@Nonnull final Neo4JGraphPartition partition,
+                              @Nonnull final Neo4JVertexIdStrategy idStrategy) {
+        super(partition, idStrategy);
+    }
+
     /**
      * Set the {@link MatchPredicate}.
      *
@@ -71,6 +91,54 @@ public class VertexQueryBuilder extends AbstractQueryBuilder {
         return this;
     }
 
+    /**
+     * Add an {@link OrderPredicate} to the ORDER BY clause.
+     *
+     * @param orderBuilder a function which builds the predicate from the {@link VertexQueryFactory}
+     * @return {@code this}
+     */
+    @Nonnull
+    public VertexQueryBuilder orderBy(@Nonnull final Function<VertexQueryFactory, OrderPredicate> orderBuilder) {
+        addOrderBy(orderBuilder.apply(factory));
+        return this;
+    }
+
+    /**
+     * Skip a number of results.
+     *
+     * @param skip the number of results to be skipped
+     * @return {@code this}
+     */
+    @Nonnull
+    public VertexQueryBuilder skip(final long skip) {
+        setSkip(skip);
+        return this;
+    }
+
+    /**
+     * Unwind the provided rows, so the statement is processed once for each of them.
+     *
+     * @param rows the rows providing the values for the vertices to be processed
+     * @return {@code this}
+     */
+    @Nonnull
+    public VertexQueryBuilder unwind(@Nonnull final List<Map<String, Object>> rows) {
+        setUnwindRows(rows);
+        return this;
+    }
+
+    /**
+     * Limit the number of results.
+     *
+     * @param limit the maximum number of results
+     * @return {@code this}
+     */
+    @Nonnull
+    public VertexQueryBuilder limit(final long limit) {
+        setLimit(limit);
+        return this;
+    }
+
     /**
      * Add an operation to be executed.
      *
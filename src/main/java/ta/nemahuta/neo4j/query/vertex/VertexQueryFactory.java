@@ -1,14 +1,23 @@
 package ta.nemahuta.neo4j.query.vertex;
 
+import com.google.common.collect.ImmutableList;
 import ta.nemahuta.neo4j.query.operation.CreatePropertyIndex;
+import ta.nemahuta.neo4j.query.operation.CreateUniqueConstraint;
 import ta.nemahuta.neo4j.query.operation.DeleteOperation;
+import ta.nemahuta.neo4j.query.operation.ReturnCountOperation;
 import ta.nemahuta.neo4j.query.operation.ReturnIdOperation;
+import ta.nemahuta.neo4j.query.operation.ReturnPropertiesOperation;
+import ta.nemahuta.neo4j.query.operation.SetRowPropertiesOperation;
 import ta.nemahuta.neo4j.query.operation.UpdateLabelsOperation;
 import ta.nemahuta.neo4j.query.operation.UpdatePropertiesOperation;
+import ta.nemahuta.neo4j.query.vertex.operation.CreateRowVertexOperation;
 import ta.nemahuta.neo4j.query.vertex.operation.CreateVertexOperation;
+import ta.nemahuta.neo4j.query.vertex.operation.DropVertexOperation;
 import ta.nemahuta.neo4j.query.vertex.operation.ReturnVertexOperation;
+import ta.nemahuta.neo4j.query.vertex.operation.ReturnVertexWithRelationsOperation;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -27,6 +36,18 @@ public abstract class VertexQueryFactory extends VertexQueryPredicateFactory {
         return new DeleteOperation(getAlias());
     }
 
+    /**
+     * Create an operation which deletes a chunk of the matched vertices with their relations, returning the ids of the
+     * deleted vertices, of their relations and of the adjacent vertices.
+     *
+     * @param limit the maximum number of vertices to be deleted
+     * @return the operation
+     */
+    @Nonnull
+    public VertexOperation drop(final long limit) {
+        return new DropVertexOperation(getAlias(), getIdStrategy(), limit, getParamNameGenerator().generate("dropLimit"));
+    }
+
     /**
      * @return an operation which returns the vertex
      */
@@ -35,6 +56,17 @@ public abstract class VertexQueryFactory extends VertexQueryPredicateFactory {
         return new ReturnVertexOperation(getAlias());
     }
 
+    /**
+     * Create an operation which returns the vertex and the ids of its relations, if the vertex does not exceed the maximum degree.
+     *
+     * @param maxDegree the maximum degree of a vertex for its relations to be returned
+     * @return the operation
+     */
+    @Nonnull
+    public VertexOperation returnVertexWithRelations(final long maxDegree) {
+        return new ReturnVertexWithRelationsOperation(getAlias(), getPartition(), maxDegree, getParamNameGenerator().generate("maxDegree"));
+    }
+
     /**
      * Set/unset the orLabelsAnd so they match with the current ones.
      *
@@ -62,6 +94,14 @@ public abstract class VertexQueryFactory extends VertexQueryPredicateFactory {
         return new UpdatePropertiesOperation(committedProperties, currentProperties, getAlias(), getParamNameGenerator().generate("vertexProps"));
     }
 
+    /**
+     * @return an operation which merges the properties of the current row of an UNWIND clause into the vertex
+     */
+    @Nonnull
+    public VertexOperation rowProperties() {
+        return new SetRowPropertiesOperation(getAlias());
+    }
+
     /**
      * Create a vertex using the provided parameters.
      *
@@ -76,9 +116,45 @@ public abstract class VertexQueryFactory extends VertexQueryPredicateFactory {
                 getAlias(), getParamNameGenerator().generate("vertexProps"));
     }
 
+    /**
+     * Create a vertex for each row of an UNWIND clause, using the properties of the row.
+     *
+     * @param labels the labels for the vertices
+     * @return the operation
+     */
+    @Nonnull
+    public VertexOperation createFromRow(@Nonnull final Set<String> labels) {
+        return new CreateRowVertexOperation(getPartition().ensurePartitionLabelsSet(labels), getAlias());
+    }
+
+    /**
+     * Create an operation which returns the number of vertices in the range of the matches.
+     *
+     * @param low  the number of vertices to be skipped
+     * @param high the index after the last vertex to be counted, or a negative value for no limit
+     * @return the operation
+     */
+    @Nonnull
+    public VertexOperation returnCount(final long low, final long high) {
+        return new ReturnCountOperation(getAlias(), low, high < 0 ? -1 : Math.max(0, high - low),
+                low > 0 ? getParamNameGenerator().generate("countSkip") : null,
+                high >= 0 ? getParamNameGenerator().generate("countLimit") : null);
+    }
+
+    /**
+     * Create an operation which returns the requested properties of the vertex as a map, without the vertex itself.
+     *
+     * @param keys the keys of the properties to be returned, all properties are returned if empty
+     * @return the operation
+     */
+    @Nonnull
+    public VertexOperation returnProperties(@Nonnull final Collection<String> keys) {
+        return new ReturnPropertiesOperation(getAlias(), ImmutableList.copyOf(keys));
+    }
+
     @Nonnull
     public VertexOperation returnId() {
-        return new ReturnIdOperation(getAlias());
+        return new ReturnIdOperation(getIdStrategy().idOperand(getAlias()));
     }
 
     /**
@@ -94,4 +170,18 @@ public abstract class VertexQueryFactory extends VertexQueryPredicateFactory {
         return new CreatePropertyIndex(label, propertyNames);
     }
 
+    /**
+     * Create a unique constraint for the property holding the client generated identifiers of the vertices with the label
+     * of the identifiers.
+     *
+     * @return the operation
+     * @throws IllegalStateException in case the identifiers are not generated on the client
+     */
+    @Nonnull
+    public VertexOperation createIdConstraint() {
+        return new CreateUniqueConstraint(
+                getIdStrategy().getLabel().orElseThrow(() -> new IllegalStateException("The internal identifiers do not need a constraint.")),
+                getIdStrategy().getPropertyName().orElseThrow(IllegalStateException::new));
+    }
+
 }
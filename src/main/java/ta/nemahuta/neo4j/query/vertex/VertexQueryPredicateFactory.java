@@ -1,13 +1,26 @@
 package ta.nemahuta.neo4j.query.vertex;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
 import ta.nemahuta.neo4j.query.MatchPredicate;
+import ta.nemahuta.neo4j.query.OrderPredicate;
+import ta.nemahuta.neo4j.query.QueryUtils;
 import ta.nemahuta.neo4j.query.UniqueParamNameGenerator;
 import ta.nemahuta.neo4j.query.WherePredicate;
+import ta.nemahuta.neo4j.query.predicate.OrderByOperandPredicate;
+import ta.nemahuta.neo4j.query.predicate.PredicateTranslator;
+import ta.nemahuta.neo4j.query.predicate.WhereComparisonPredicate;
+import ta.nemahuta.neo4j.query.predicate.WhereExactLabelsPredicate;
 import ta.nemahuta.neo4j.query.predicate.WhereIdInPredicate;
+import ta.nemahuta.neo4j.query.predicate.WhereLacksIdPredicate;
+import ta.nemahuta.neo4j.query.predicate.WhereRowIdPredicate;
 import ta.nemahuta.neo4j.query.vertex.predicate.MatchAllVertexLabelsPredicate;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 
@@ -30,6 +43,14 @@ public abstract class VertexQueryPredicateFactory {
     @Nonnull
     protected abstract Neo4JGraphPartition getPartition();
 
+    /**
+     * @return the strategy for the identifiers of the vertices
+     */
+    @Nonnull
+    protected Neo4JVertexIdStrategy getIdStrategy() {
+        return NativeVertexIdStrategy.INSTANCE;
+    }
+
     /**
      * Construct a predicate matching the vertex id in a where clause.
      *
@@ -38,7 +59,7 @@ public abstract class VertexQueryPredicateFactory {
      */
     @Nonnull
     public WherePredicate idsInSet(@Nonnull final Set<Long> ids) {
-        return ids.isEmpty() ? WherePredicate.EMPTY : new WhereIdInPredicate(ids, getAlias(), getParamNameGenerator().generate("vertexId"));
+        return ids.isEmpty() ? WherePredicate.EMPTY : new WhereIdInPredicate(ids, getIdStrategy().idOperand(getAlias()), getParamNameGenerator().generate("vertexId"));
     }
 
     /**
@@ -52,6 +73,75 @@ public abstract class VertexQueryPredicateFactory {
         return idsInSet(Collections.singleton(id));
     }
 
+    /**
+     * Construct a predicate matching the vertex id to the one of the current row of an UNWIND clause.
+     *
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate rowId() {
+        return rowId(AbstractQueryBuilder.ROW_ID);
+    }
+
+    /**
+     * Construct a predicate matching the vertex id to a value of the current row of an UNWIND clause.
+     *
+     * @param rowKey the key of the id in the row
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate rowId(@Nonnull final String rowKey) {
+        return new WhereRowIdPredicate(getIdStrategy().idOperand(getAlias()), rowKey);
+    }
+
+    /**
+     * Construct a predicate matching the vertices with an id greater than the provided one in a where clause.
+     *
+     * @param id the id to be exceeded
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate idGreaterThan(final long id) {
+        return new WhereComparisonPredicate(getIdStrategy().idOperand(getAlias()), ">", id, getParamNameGenerator().generate("vertexIdAfter"));
+    }
+
+    /**
+     * Construct a predicate matching the vertices with an id up to the provided one in a where clause.
+     *
+     * @param id the greatest id to be matched
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate idAtMost(final long id) {
+        return new WhereComparisonPredicate(getIdStrategy().idOperand(getAlias()), "<=", id, getParamNameGenerator().generate("vertexIdUpTo"));
+    }
+
+    /**
+     * Construct a predicate matching a random sample of the vertices in a where clause.
+     *
+     * @param ratio the probability of each vertex to be matched
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate sampled(final double ratio) {
+        return new WhereComparisonPredicate("rand()", "<", ratio, getParamNameGenerator().generate("vertexSample"));
+    }
+
+    /**
+     * Construct a predicate matching the vertices lacking a client generated identifier in a where clause. The query has
+     * to use the internal identifiers, so its partition is not restricted to the vertices having one.
+     *
+     * @param clientIdStrategy the strategy generating the identifiers on the client
+     * @return the predicate
+     * @throws IllegalArgumentException in case the identifiers are not generated on the client
+     */
+    @Nonnull
+    public WherePredicate lacksId(@Nonnull final Neo4JVertexIdStrategy clientIdStrategy) {
+        final String label = clientIdStrategy.getLabel()
+                .orElseThrow(() -> new IllegalArgumentException("The internal identifiers are assigned to all vertices."));
+        return new WhereLacksIdPredicate(getAlias(), label, clientIdStrategy.idOperand(getAlias()));
+    }
+
     /**
      * Construct a predicate matching the orLabelsAnd provided.
      *
@@ -63,6 +153,56 @@ public abstract class VertexQueryPredicateFactory {
         return new MatchAllVertexLabelsPredicate(labels, getPartition(), getAlias());
     }
 
+    /**
+     * Construct a predicate matching vertices which have exactly one of the provided label sets in a where clause.
+     *
+     * @param labelAlternatives the alternative label sets to be matched (one of them is enough)
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate whereLabels(@Nonnull final Collection<Set<String>> labelAlternatives) {
+        final WherePredicate result = labelAlternatives.stream()
+                .map(labels -> (WherePredicate) new WhereExactLabelsPredicate(labels, getPartition(), getAlias()))
+                .reduce(WherePredicate.EMPTY, WherePredicate::orOp);
+        return labelAlternatives.size() > 1 ? result.inBrackets() : result;
+    }
+
+    /**
+     * Construct a predicate testing the property of the vertex in a where clause.
+     *
+     * @param key       the key of the property
+     * @param predicate the predicate to be applied, which has to be {@link PredicateTranslator#isTranslatable(P) translatable}
+     * @return the predicate
+     */
+    @Nonnull
+    public WherePredicate whereProperty(@Nonnull final String key, @Nonnull final P<?> predicate) {
+        return PredicateTranslator.translate(QueryUtils.propertyOperand(getAlias(), key), predicate,
+                () -> getParamNameGenerator().generate("vertexProperty"));
+    }
+
+    /**
+     * Construct a predicate ordering the vertices by a property in an ORDER BY clause.
+     *
+     * @param key        the key of the property
+     * @param descending {@code true} for a descending order, {@code false} for an ascending one
+     * @return the predicate
+     */
+    @Nonnull
+    public OrderPredicate orderByProperty(@Nonnull final String key, final boolean descending) {
+        return new OrderByOperandPredicate(QueryUtils.propertyOperand(getAlias(), key), descending);
+    }
+
+    /**
+     * Construct a predicate ordering the vertices by their id in an ORDER BY clause.
+     *
+     * @param descending {@code true} for a descending order, {@code false} for an ascending one
+     * @return the predicate
+     */
+    @Nonnull
+    public OrderPredicate orderById(final boolean descending) {
+        return new OrderByOperandPredicate(getIdStrategy().idOperand(getAlias()), descending);
+    }
+
     /**
      * @return the parameter name generator
      */
@@ -0,0 +1,48 @@
+package ta.nemahuta.neo4j.query.vertex.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link VertexOperation} which creates a {@link ta.nemahuta.neo4j.structure.Neo4JVertex} for each row of an UNWIND clause,
+ * returning the ids in the order of the rows.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class CreateRowVertexOperation implements VertexOperation {
+
+    /**
+     * the labels for the new vertices
+     */
+    @NonNull
+    private final Set<String> labels;
+    /**
+     * the alias of the vertex
+     */
+    @NonNull
+    private final String alias;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("CREATE (").append(alias);
+        QueryUtils.appendLabels(queryBuilder, labels);
+        queryBuilder.append(") SET ").append(alias).append("=")
+                .append(AbstractQueryBuilder.ROW).append(".").append(AbstractQueryBuilder.ROW_PROPERTIES)
+                .append(" RETURN ID(").append(alias).append(")");
+    }
+
+}
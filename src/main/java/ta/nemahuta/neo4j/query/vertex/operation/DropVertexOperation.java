@@ -0,0 +1,63 @@
+package ta.nemahuta.neo4j.query.vertex.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * {@link VertexOperation} which deletes a limited number of the matched vertices together with their relations, returning
+ * the id of each deleted vertex, the ids of its deleted relations and the ids of the vertices adjacent to those relations.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class DropVertexOperation implements VertexOperation {
+
+    /**
+     * the alias of the vertex from the MATCH clause
+     */
+    @NonNull
+    private final String alias;
+
+    /**
+     * the strategy providing the identifiers of the vertices
+     */
+    @NonNull
+    private final Neo4JVertexIdStrategy idStrategy;
+
+    /**
+     * the maximum number of vertices to be deleted
+     */
+    private final long limit;
+
+    /**
+     * the name of the parameter for the limit
+     */
+    @NonNull
+    private final String limitParamName;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        // The ids have to be collected before the deletion, as the properties of deleted vertices cannot be accessed
+        queryBuilder.append("WITH ").append(alias).append(" LIMIT {").append(limitParamName).append("} ")
+                .append("OPTIONAL MATCH (").append(alias).append(")-[r]-(m) ")
+                .append("WITH ").append(alias).append(", ").append(idStrategy.idOperand(alias)).append(" AS vertexId, ")
+                .append("collect(").append(QueryUtils.idOperand("r")).append(") AS edgeIds, ")
+                .append("collect(").append(idStrategy.idOperand("m")).append(") AS adjacentIds ")
+                .append("DETACH DELETE ").append(alias).append(" ")
+                .append("RETURN vertexId, edgeIds, adjacentIds");
+        parameters.put(limitParamName, limit);
+    }
+
+}
@@ -0,0 +1,83 @@
+package ta.nemahuta.neo4j.query.vertex.operation;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
+import ta.nemahuta.neo4j.query.QueryUtils;
+import ta.nemahuta.neo4j.query.vertex.VertexOperation;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link VertexOperation} which returns the complete vertex and, for vertices not exceeding a maximum degree,
+ * the type, id and direction of all of its relations in a second column.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@RequiredArgsConstructor
+public class ReturnVertexWithRelationsOperation implements VertexOperation {
+
+    /**
+     * the key of the relation type in the maps of the second column
+     */
+    public static final String TYPE = "type";
+
+    /**
+     * the key of the relation id in the maps of the second column
+     */
+    public static final String ID = "id";
+
+    /**
+     * the key of the flag in the maps of the second column, which is {@code true} for relations starting at the vertex
+     */
+    public static final String OUT = "out";
+
+    /**
+     * the key of the flag in the maps of the second column, which is {@code true} for relations ending at the vertex
+     */
+    public static final String IN = "in";
+
+    /**
+     * the alias of the vertex from the MATCH clause
+     */
+    @NonNull
+    private final String alias;
+
+    /**
+     * the partition the adjacent vertices have to be in
+     */
+    @NonNull
+    private final Neo4JGraphPartition partition;
+
+    /**
+     * the maximum degree of a vertex for its relations to be returned
+     */
+    private final long maxDegree;
+
+    /**
+     * the name of the parameter for the maximum degree
+     */
+    @NonNull
+    private final String maxDegreeParamName;
+
+    @Override
+    public boolean isNeedsStatement() {
+        return true;
+    }
+
+    @Override
+    public void append(@Nonnull final StringBuilder queryBuilder,
+                       @Nonnull final Map<String, Object> parameters) {
+        queryBuilder.append("RETURN ").append(alias)
+                .append(", CASE WHEN size((").append(alias).append(")--()) <= {").append(maxDegreeParamName).append("} THEN [(")
+                .append(alias).append(")-[r]-(m");
+        QueryUtils.appendLabels(queryBuilder, partition.ensurePartitionLabelsSet(Collections.emptySet()));
+        queryBuilder.append(") | {").append(TYPE).append(": type(r), ").append(ID).append(": ID(r), ")
+                .append(OUT).append(": startNode(r) = ").append(alias).append(", ")
+                .append(IN).append(": endNode(r) = ").append(alias).append("}] END");
+        parameters.put(maxDegreeParamName, maxDegree);
+    }
+
+}
@@ -1,30 +1,45 @@
 package ta.nemahuta.neo4j.scope;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Pair;
 import ta.nemahuta.neo4j.cache.HierarchicalCache;
 import ta.nemahuta.neo4j.handler.Neo4JElementStateHandler;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.StatementBuilder;
+import ta.nemahuta.neo4j.session.WriteBehindBuffer;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -42,7 +57,29 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
     private final Neo4JElementStateHandler<S, Q> remoteElementHandler;
 
     @NonNull
-    private final IdCache<Long> idCache;
+    private final IdCache idCache;
+
+    /**
+     * the buffer deciding when the pending changes are sent to the session
+     */
+    @NonNull
+    private final WriteBehindBuffer writeBehind;
+
+    /**
+     * the updates which have not been sent to the session yet, as pairs of the state in the session and the new state
+     */
+    private final Map<Long, Pair<S, S>> pendingUpdates = new LinkedHashMap<>();
+
+    /**
+     * the deletions which have not been sent to the session yet
+     */
+    private final Set<Long> pendingDeletes = new LinkedHashSet<>();
+
+    public DefaultNeo4JElementStateScope(@Nonnull final HierarchicalCache<Long, S> hierarchicalCache,
+                                         @Nonnull final Neo4JElementStateHandler<S, Q> remoteElementHandler,
+                                         @Nonnull final IdCache idCache) {
+        this(hierarchicalCache, remoteElementHandler, idCache, WriteBehindBuffer.disabled());
+    }
 
     @Override
     public void update(final long id, @Nonnull final S newState) {
@@ -54,7 +91,16 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
             if (!Objects.equals(newState, state)) {
                 log.trace("Change detected for element with id: {}", id);
                 hierarchicalCache.put(id, newState);
-                remoteElementHandler.update(id, state, newState);
+                if (writeBehind.isEnabled()) {
+                    synchronized (pendingUpdates) {
+                        // Keep the state of the session for the update, dropping it if the element has been changed back
+                        pendingUpdates.merge(id, new Pair<>(state, newState), (pending, update) ->
+                                Objects.equals(pending.getValue0(), newState) ? null : pending.setAt1(newState));
+                    }
+                    writeBehind.buffered();
+                } else {
+                    remoteElementHandler.update(id, state, newState);
+                }
             }
             return null;
         });
@@ -69,7 +115,39 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
             log.trace("Deleting element with id temporary: {}", id);
             idCache.localRemoval(id);
             hierarchicalCache.remove(id);
-            remoteElementHandler.delete(id);
+            if (writeBehind.isEnabled()) {
+                synchronized (pendingUpdates) {
+                    pendingUpdates.remove(id);
+                    pendingDeletes.add(id);
+                }
+                writeBehind.buffered();
+            } else {
+                remoteElementHandler.delete(id);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean refreshKnownIds() {
+        return locked(ReadWriteLock::readLock, () -> idCache.refresh(remoteElementHandler::retrieveIdsAfter, remoteElementHandler::countAll));
+    }
+
+    @Override
+    public void deletedInSession(@Nonnull final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        locked(ReadWriteLock::writeLock, () -> {
+            log.trace("Removing {} elements deleted in the session", ids.size());
+            synchronized (pendingUpdates) {
+                pendingUpdates.keySet().removeAll(ids);
+                pendingDeletes.removeAll(ids);
+            }
+            ids.forEach(id -> {
+                idCache.localRemoval(id);
+                hierarchicalCache.remove(id);
+            });
             return null;
         });
     }
@@ -85,6 +163,19 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
         });
     }
 
+    @Nonnull
+    @Override
+    public List<Long> createAll(@Nonnull final List<S> states) {
+        return locked(ReadWriteLock::writeLock, () -> {
+            final List<Long> result = remoteElementHandler.createAll(states);
+            for (int i = 0; i < result.size(); i++) {
+                hierarchicalCache.put(result.get(i), states.get(i));
+                idCache.localCreation(result.get(i));
+            }
+            return result;
+        });
+    }
+
     @Nullable
     @Override
     public S get(final long id) {
@@ -98,21 +189,21 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
 
             log.trace("Retrieving {} items", ids.isEmpty() ? "all" : ids.size());
             final Map<Long, S> results = new ConcurrentHashMap<>();
-            final Set<Long> remainingIds = knownIdsForSelector(ids);
+            final Set<Long> knownIds = knownIdsForSelector(ids);
 
-            log.trace("Trying {} elements from cache", remainingIds.size());
-            putAllFromCache(remainingIds, results);
+            log.trace("Trying {} elements from cache", knownIds.size());
+            final Set<Long> uncachedIds = putAllFromCache(knownIds, results);
             log.trace("Got {} elements from cache", results.size());
 
-            log.trace("Loading {} elements from the session.", remainingIds.size());
-            loadFromSession(remainingIds, results);
+            log.trace("Loading {} elements from the session.", uncachedIds.size());
+            final Set<Long> remainingIds = loadFromSession(uncachedIds, results);
 
             if (!remainingIds.isEmpty()) {
-                if (knownIdsForSelector(remainingIds).size() == remainingIds.size()) {
+                if (idCache.filterKnown(remainingIds).size() == remainingIds.size()) {
                     throw new NoSuchElementException("Could not retrieve the items with the following ids: " +
                             String.join(",", Joiner.on(",").join(remainingIds)));
                 } else {
-                    log.debug("Elements which have been deleted by a parallel transaction: {}", remainingIds);
+                    log.debug("Elements which do not exist or have been deleted by a parallel transaction: {}", remainingIds);
                 }
             }
 
@@ -120,12 +211,57 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
         });
     }
 
+    @Nonnull
+    @Override
+    public CompletionStage<Map<Long, S>> getAllAsync(@Nonnull final Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(getAll(ids));
+        }
+        final Map<Long, S> results = new ConcurrentHashMap<>();
+        final Set<Long> uncachedIds = locked(ReadWriteLock::readLock, () -> putAllFromCache(knownIdsForSelector(ids), results));
+        if (uncachedIds.isEmpty()) {
+            return CompletableFuture.completedFuture(results);
+        }
+        log.trace("Loading {} elements from the session asynchronously.", uncachedIds.size());
+        return remoteElementHandler.getAllAsync(uncachedIds).thenApply(loaded -> {
+            // The states may have been changed or deleted in the scope while loading, so they are merged exclusively
+            locked(ReadWriteLock::writeLock, () -> {
+                loaded.forEach((k, v) -> {
+                    if (idCache.isRemoved(k)) {
+                        return;
+                    }
+                    // Buffered changes are flushed before every statement, so a state cached meanwhile is at least as recent
+                    final S cached = hierarchicalCache.get(k);
+                    if (cached == null) {
+                        hierarchicalCache.putLoaded(k, v);
+                    }
+                    results.put(k, cached != null ? cached : v);
+                });
+                return null;
+            });
+            final Set<Long> remainingIds = Sets.difference(uncachedIds, loaded.keySet());
+            if (!remainingIds.isEmpty()) {
+                if (idCache.filterKnown(remainingIds).size() == remainingIds.size()) {
+                    throw new NoSuchElementException("Could not retrieve the items with the following ids: " +
+                            Joiner.on(",").join(remainingIds));
+                } else {
+                    log.debug("Elements which do not exist or have been deleted by a parallel transaction: {}", remainingIds);
+                }
+            }
+            return results;
+        });
+    }
+
     private Set<Long> knownIdsForSelector(@Nonnull final Collection<Long> ids) {
         if (ids.isEmpty()) {
             log.debug("Loading complete graph...");
+            if (idCache.isRefreshDue()) {
+                idCache.refresh(remoteElementHandler::retrieveIdsAfter, remoteElementHandler::countAll);
+            }
+            // The snapshot is immutable and compressed, so it is used as it is instead of copying all the ids
             return idCache.getAll(remoteElementHandler::retrieveAllIds);
         } else {
-            return idCache.filterExisting(ids, remoteElementHandler::retrieveAllIds);
+            return idCache.filterExisting(ids);
         }
     }
 
@@ -133,32 +269,88 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
     public Map<Long, S> queryAndCache(@Nonnull final Function<Q, Q> query) {
         final Map<Long, S> queried = remoteElementHandler.query(query);
         for (final Map.Entry<Long, S> entry : queried.entrySet()) {
-            hierarchicalCache.put(entry.getKey(), entry.getValue());
+            hierarchicalCache.putLoaded(entry.getKey(), entry.getValue());
         }
         return ImmutableMap.copyOf(queried);
     }
 
-    private void loadFromSession(final Set<Long> ids, final Map<Long, S> results) {
+    @Nonnull
+    @Override
+    public Stream<Long> queryAndCacheInOrder(@Nonnull final StatementBuilder statementBuilder) {
+        return remoteElementHandler.queryInOrder(statementBuilder).map(entry -> {
+            // Buffered changes are flushed before the query is run, so a cached state is at least as recent as the queried one
+            if (hierarchicalCache.get(entry.getValue0()) == null) {
+                hierarchicalCache.putLoaded(entry.getValue0(), entry.getValue1());
+            }
+            return entry.getValue0();
+        });
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Long> scanAndCache(@Nonnull final LongFunction<StatementBuilder> pageQuery, final long afterId, final int pageSize) {
+        return new AbstractIterator<Long>() {
+
+            private Iterator<Long> page = Collections.emptyIterator();
+            private long lastId = afterId;
+            private boolean lastPage = false;
+
+            @Override
+            protected Long computeNext() {
+                while (!page.hasNext()) {
+                    if (lastPage) {
+                        return endOfData();
+                    }
+                    // Consume the page completely, so the result is closed before the elements are processed
+                    final List<Long> ids = queryAndCacheInOrder(pageQuery.apply(lastId)).collect(Collectors.toList());
+                    log.trace("Scanned {} elements after id {}", ids.size(), lastId);
+                    lastPage = ids.size() < pageSize;
+                    if (!ids.isEmpty()) {
+                        lastId = ids.get(ids.size() - 1);
+                    }
+                    page = ids.stream().filter(id -> !idCache.isRemoved(id)).iterator();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    /**
+     * Load the states from the session.
+     *
+     * @param ids     the ids of the states to be loaded
+     * @param results the map to put the loaded states to
+     * @return the ids which have not been found
+     */
+    private Set<Long> loadFromSession(final Set<Long> ids, final Map<Long, S> results) {
         if (ids.isEmpty()) {
-            return;
+            return Collections.emptySet();
         }
-        remoteElementHandler.getAll(ids).forEach((k, v) -> {
-            hierarchicalCache.put(k, v);
-            results.put(k, v);
+        remoteElementHandler.streamAll(ids).forEach(entry -> {
+            hierarchicalCache.putLoaded(entry.getValue0(), entry.getValue1());
+            results.put(entry.getValue0(), entry.getValue1());
         });
-        ids.removeAll(results.keySet());
+        return Sets.difference(ids, results.keySet());
     }
 
-    private void putAllFromCache(final Collection<Long> ids, final Map<Long, S> results) {
+    /**
+     * Get the cached states, leaving the ids untouched, as they may be the immutable snapshot of the known ids.
+     *
+     * @param ids     the ids of the states
+     * @param results the map to put the cached states to
+     * @return the ids which are not cached
+     */
+    private Set<Long> putAllFromCache(final Collection<Long> ids, final Map<Long, S> results) {
         if (ids.isEmpty()) {
-            return;
+            return Collections.emptySet();
         }
         ids.parallelStream().forEach(k ->
                 Optional.ofNullable(this.hierarchicalCache.get(k)).ifPresent(v -> {
                     results.put(k, v);
                 })
         );
-        ids.removeAll(results.keySet());
+        return results.isEmpty() && ids instanceof Set ? (Set<Long>) ids :
+                LongIdSet.of(ids.stream().filter(k -> !results.containsKey(k)).mapToLong(Long::longValue));
     }
 
     private <S> S locked(@Nonnull final Function<ReadWriteLock, Lock> lockFunction, @Nonnull final Supplier<S> fun) {
@@ -171,6 +363,26 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
         }
     }
 
+    @Override
+    public void flush() {
+        final Map<Long, Pair<S, S>> updates;
+        final Set<Long> deletes;
+        synchronized (pendingUpdates) {
+            updates = ImmutableMap.copyOf(pendingUpdates);
+            deletes = ImmutableSet.copyOf(pendingDeletes);
+            pendingUpdates.clear();
+            pendingDeletes.clear();
+        }
+        if (!updates.isEmpty()) {
+            log.debug("Flushing {} updated elements", updates.size());
+            remoteElementHandler.updateAll(updates);
+        }
+        if (!deletes.isEmpty()) {
+            log.debug("Flushing {} deleted elements", deletes.size());
+            remoteElementHandler.deleteAll(deletes);
+        }
+    }
+
     @Override
     public void commit() {
         this.hierarchicalCache.commit();
@@ -180,6 +392,10 @@ public class DefaultNeo4JElementStateScope<S extends Neo4JElementState, Q extend
 
     @Override
     public void rollback() {
+        synchronized (pendingUpdates) {
+            pendingUpdates.clear();
+            pendingDeletes.clear();
+        }
         this.hierarchicalCache.clear();
         this.idCache.rollback();
     }
@@ -9,62 +9,147 @@ import ta.nemahuta.neo4j.session.RollbackAndCommit;
 import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Slf4j
-public class IdCache<K> implements RollbackAndCommit {
+public class IdCache implements RollbackAndCommit {
 
+    /**
+     * the ids known to all sessions, {@code null} if they have not been retrieved yet
+     */
+    @NonNull
+    private final AtomicReference<LongIdSet> global;
+
+    /**
+     * the {@link System#nanoTime()} of the last retrieval or refresh of the known ids, shared by all sessions
+     */
     @NonNull
-    private final AtomicReference<Set<K>> global;
+    private final AtomicLong refreshedAt;
 
-    private final Set<K> added = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<K> removed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    /**
+     * the number of milliseconds after which the known ids are refreshed before a full scan, {@code 0} to disable it
+     */
+    private final long refreshInterval;
+
+    private final Set<Long> added = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<Long> removed = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     /**
-     * @return the selector to load all identifiers, in case the identifiers are not known, returns {@link Collections#emptySet()}
+     * Create a cache for the known ids, which are not refreshed periodically.
+     *
+     * @param global the ids known to all sessions
+     */
+    public IdCache(@Nonnull final AtomicReference<LongIdSet> global) {
+        this(global, new AtomicLong(), 0);
+    }
+
+    /**
+     * @return the immutable set of all identifiers, including the local changes
      */
     @Nonnull
-    public Set<K> getAll(@Nonnull final Supplier<Set<K>> retrieval) {
-        final Set<K> result = new HashSet<>(this.global.updateAndGet(source -> {
+    public Set<Long> getAll(@Nonnull final Supplier<Set<Long>> retrieval) {
+        return snapshot(retrieval).withChanges(added, removed);
+    }
+
+    @Nonnull
+    private LongIdSet snapshot(@Nonnull final Supplier<Set<Long>> retrieval) {
+        return this.global.updateAndGet(source -> {
             if (source == null) {
                 // Ids are not present, retrieve them
-                return retrieval.get();
+                refreshedAt.set(System.nanoTime());
+                return LongIdSet.copyOf(retrieval.get());
             } else {
                 return source;
             }
-        }));
-        result.addAll(added);
-        result.removeAll(removed);
-        return result;
+        });
     }
 
     /**
-     * Filter the source id's for known ids only.
+     * Filter the source ids for the ones which may exist. The known ids are used only if they have been retrieved already,
+     * otherwise only the local removals are filtered and loading the elements decides whether they exist, so a lookup of
+     * a few ids does not retrieve all ids.
      *
-     * @param source    the source to be filtered
-     * @param retrieval the retrieval function if the known ids are not loaded
+     * @param source the source to be filtered
      * @return the filtered collection as a set
      */
     @Nonnull
-    public Set<K> filterExisting(@Nonnull final Collection<K> source, @Nonnull final Supplier<Set<K>> retrieval) {
-        final Set<K> knownIds = getAll(retrieval);
+    public Set<Long> filterExisting(@Nonnull final Collection<Long> source) {
+        final LongIdSet knownIds = this.global.get();
+        return source.stream()
+                .filter(e -> !removed.contains(e) && (knownIds == null || added.contains(e) || knownIds.contains(e)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Filter the source ids for the ones which are known to exist, without retrieving the known ids.
+     *
+     * @param source the source to be filtered
+     * @return the ids which have been created locally or are contained in the retrieved known ids
+     */
+    @Nonnull
+    public Set<Long> filterKnown(@Nonnull final Collection<Long> source) {
+        final LongIdSet knownIds = this.global.get();
         return source.stream()
-                .filter(e -> !removed.contains(e) && (added.contains(e) || knownIds.contains(e)))
+                .filter(e -> !removed.contains(e) && (added.contains(e) || (knownIds != null && knownIds.contains(e))))
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * @return {@code true} if the known ids have been retrieved and the refresh interval has elapsed since the last refresh
+     */
+    public boolean isRefreshDue() {
+        return refreshInterval > 0 && global.get() != null &&
+                System.nanoTime() - refreshedAt.get() >= TimeUnit.MILLISECONDS.toNanos(refreshInterval);
+    }
+
+    /**
+     * Refresh the known ids incrementally, in case they have been retrieved already: the ids greater than the greatest
+     * known id (the watermark) are added. Afterwards the number of ids is compared to the number of elements, and if they
+     * differ (elements have been deleted by other processes or ids have been reused), the known ids are dropped so they
+     * are retrieved completely when needed.
+     *
+     * @param retrieveAfter the function retrieving the ids greater than the provided one
+     * @param count         the supplier of the number of elements
+     * @return {@code true} if the known ids have been refreshed, {@code false} if they are not known (anymore)
+     */
+    public boolean refresh(@Nonnull final LongFunction<Set<Long>> retrieveAfter, @Nonnull final LongSupplier count) {
+        final LongIdSet current = global.get();
+        if (current == null) {
+            return false;
+        }
+        refreshedAt.set(System.nanoTime());
+        final long watermark = current.isEmpty() ? -1 : current.max();
+        // Ids created in this transaction must not be visible to other sessions before the commit
+        final Set<Long> newIds = retrieveAfter.apply(watermark).stream().filter(id -> !added.contains(id)).collect(Collectors.toSet());
+        final LongIdSet refreshed = global.updateAndGet(source -> source == null ? null : source.withChanges(newIds, Collections.emptySet()));
+        if (refreshed == null) {
+            return false;
+        }
+        final long expected = count.getAsLong();
+        if (refreshed.withChanges(added, removed).size() != expected) {
+            log.debug("Known ids drifted from the number of elements ({} instead of {}), dropping them", refreshed.size(), expected);
+            global.compareAndSet(refreshed, null);
+            return false;
+        }
+        log.debug("Refreshed the known ids after {} with {} new ids", watermark, newIds.size());
+        return true;
+    }
+
     /**
      * Notify a creation of an element.
      *
      * @param id the id of the element
      */
-    public void localCreation(final K id) {
+    public void localCreation(final Long id) {
         added.add(id);
         removed.remove(id);
     }
@@ -74,13 +159,13 @@ public class IdCache<K> implements RollbackAndCommit {
      *
      * @param id the id of the element
      */
-    public void localRemoval(final K id) {
+    public void localRemoval(final Long id) {
         if (!added.remove(id)) {
             removed.add(id);
         }
     }
 
-    boolean isRemoved(final K id) {
+    boolean isRemoved(final Long id) {
         return removed.contains(id);
     }
 
@@ -90,10 +175,7 @@ public class IdCache<K> implements RollbackAndCommit {
             if (source == null) {
                 return null;
             } else {
-                final Set<K> updated = new HashSet<>(source);
-                updated.addAll(added);
-                updated.removeAll(removed);
-                return updated;
+                return source.withChanges(added, removed);
             }
         });
         resetLocalScope();
@@ -110,7 +192,7 @@ public class IdCache<K> implements RollbackAndCommit {
         removed.clear();
     }
 
-    public ImmutableSet<K> getRemoved() {
+    public ImmutableSet<Long> getRemoved() {
         return ImmutableSet.copyOf(this.removed);
     }
 }
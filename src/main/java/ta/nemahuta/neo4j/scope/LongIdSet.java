@@ -0,0 +1,353 @@
+package ta.nemahuta.neo4j.scope;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable set of primitive long ids, compressed like a Roaring bitmap: the ids are grouped by their upper 48 bits and
+ * the lower 16 bits of each group are held either as a sorted array (sparse groups) or as a bitmap (dense groups).
+ * Changes create a new set which shares all groups not being touched, so applying a delta to a large set only copies the
+ * references to the groups and the touched groups themselves.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public final class LongIdSet extends AbstractSet<Long> {
+
+    /**
+     * the empty set
+     */
+    public static final LongIdSet EMPTY = new LongIdSet(new long[0], new Object[0], new int[0], 0);
+
+    /**
+     * groups with more ids are held as bitmaps, others as sorted arrays
+     */
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /**
+     * the sorted upper bits of the groups
+     */
+    private final long[] keys;
+
+    /**
+     * the lower bits of each group, either a sorted {@code char[]} or a {@code long[]} bitmap
+     */
+    private final Object[] containers;
+
+    /**
+     * the number of ids in each group
+     */
+    private final int[] counts;
+
+    private final int size;
+
+    private LongIdSet(@Nonnull final long[] keys, @Nonnull final Object[] containers, @Nonnull final int[] counts, final int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    /**
+     * Create a set from ids.
+     *
+     * @param ids the ids
+     * @return the set containing the ids
+     */
+    @Nonnull
+    public static LongIdSet of(@Nonnull final LongStream ids) {
+        return fromSorted(ids.sorted().distinct().toArray());
+    }
+
+    /**
+     * Create a set from ids, which returns the ids themselves if they are a {@link LongIdSet} already.
+     *
+     * @param ids the ids
+     * @return the set containing the ids
+     */
+    @Nonnull
+    public static LongIdSet copyOf(@Nonnull final Collection<Long> ids) {
+        if (ids instanceof LongIdSet) {
+            return (LongIdSet) ids;
+        }
+        return of(ids.stream().mapToLong(Long::longValue));
+    }
+
+    @Nonnull
+    private static LongIdSet fromSorted(@Nonnull final long[] ids) {
+        if (ids.length == 0) {
+            return EMPTY;
+        }
+        int groups = 1;
+        for (int i = 1; i < ids.length; i++) {
+            if (high(ids[i]) != high(ids[i - 1])) {
+                groups++;
+            }
+        }
+        final Builder builder = new Builder(groups);
+        int start = 0;
+        for (int i = 1; i <= ids.length; i++) {
+            if (i == ids.length || high(ids[i]) != high(ids[start])) {
+                final int count = i - start;
+                if (count > MAX_ARRAY_SIZE) {
+                    final long[] bitmap = new long[BITMAP_WORDS];
+                    for (int j = start; j < i; j++) {
+                        setBit(bitmap, low(ids[j]));
+                    }
+                    builder.add(high(ids[start]), bitmap, count);
+                } else {
+                    final char[] lows = new char[count];
+                    for (int j = start; j < i; j++) {
+                        lows[j - start] = (char) low(ids[j]);
+                    }
+                    builder.add(high(ids[start]), lows, count);
+                }
+                start = i;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a new set with ids being added and removed, sharing all groups which are not affected by the change.
+     *
+     * @param added   the ids to be added
+     * @param removed the ids to be removed, which takes precedence over added ones
+     * @return the new set, or this if nothing is changed
+     */
+    @Nonnull
+    public LongIdSet withChanges(@Nonnull final Collection<Long> added, @Nonnull final Collection<Long> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+        final long[] addedIds = added.stream().mapToLong(Long::longValue).sorted().toArray();
+        final long[] removedIds = removed.stream().mapToLong(Long::longValue).sorted().toArray();
+        final long[] changedKeys = LongStream.concat(Arrays.stream(addedIds), Arrays.stream(removedIds))
+                .map(LongIdSet::high).sorted().distinct().toArray();
+        final Builder builder = new Builder(keys.length + changedKeys.length);
+        int index = 0, addedIndex = 0, removedIndex = 0;
+        for (final long key : changedKeys) {
+            while (index < keys.length && keys[index] < key) {
+                builder.add(keys[index], containers[index], counts[index]);
+                index++;
+            }
+            final long[] bitmap = new long[BITMAP_WORDS];
+            if (index < keys.length && keys[index] == key) {
+                fill(bitmap, containers[index]);
+                index++;
+            }
+            for (; addedIndex < addedIds.length && high(addedIds[addedIndex]) == key; addedIndex++) {
+                setBit(bitmap, low(addedIds[addedIndex]));
+            }
+            for (; removedIndex < removedIds.length && high(removedIds[removedIndex]) == key; removedIndex++) {
+                final int low = low(removedIds[removedIndex]);
+                bitmap[low >>> 6] &= ~(1L << low);
+            }
+            final int count = Arrays.stream(bitmap).mapToInt(Long::bitCount).sum();
+            if (count > 0) {
+                builder.add(key, compact(bitmap, count), count);
+            }
+        }
+        for (; index < keys.length; index++) {
+            builder.add(keys[index], containers[index], counts[index]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param id the id
+     * @return {@code true} if the set contains the id
+     */
+    public boolean contains(final long id) {
+        final int index = Arrays.binarySearch(keys, high(id));
+        if (index < 0) {
+            return false;
+        }
+        final Object container = containers[index];
+        final int low = low(id);
+        if (container instanceof char[]) {
+            return Arrays.binarySearch((char[]) container, (char) low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * @return the greatest id of the set
+     * @throws NoSuchElementException if the set is empty
+     */
+    public long max() {
+        if (keys.length == 0) {
+            throw new NoSuchElementException();
+        }
+        final int last = keys.length - 1;
+        final Object container = containers[last];
+        int low = 0;
+        if (container instanceof char[]) {
+            low = ((char[]) container)[((char[]) container).length - 1];
+        } else {
+            final long[] bitmap = (long[]) container;
+            for (int word = bitmap.length - 1; word >= 0; word--) {
+                if (bitmap[word] != 0) {
+                    low = (word << 6) + 63 - Long.numberOfLeadingZeros(bitmap[word]);
+                    break;
+                }
+            }
+        }
+        return (keys[last] << 16) | low;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+
+            private int index = 0;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Object container = containers[index];
+                final long high = keys[index] << 16;
+                final long result;
+                if (container instanceof char[]) {
+                    result = high | ((char[]) container)[position++];
+                    if (position >= ((char[]) container).length) {
+                        index++;
+                        position = 0;
+                    }
+                } else {
+                    final long[] bitmap = (long[]) container;
+                    while ((bitmap[position >>> 6] & (-1L << position)) == 0) {
+                        position = ((position >>> 6) + 1) << 6;
+                    }
+                    final int low = (position & ~63) + Long.numberOfTrailingZeros(bitmap[position >>> 6] & (-1L << position));
+                    result = high | low;
+                    position = low + 1;
+                    if (position >= BITMAP_WORDS * 64 || !hasBitFrom(bitmap, position)) {
+                        index++;
+                        position = 0;
+                    }
+                }
+                return result;
+            }
+
+        };
+    }
+
+    private static boolean hasBitFrom(@Nonnull final long[] bitmap, final int position) {
+        if ((bitmap[position >>> 6] & (-1L << position)) != 0) {
+            return true;
+        }
+        for (int word = (position >>> 6) + 1; word < bitmap.length; word++) {
+            if (bitmap[word] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long high(final long id) {
+        return id >> 16;
+    }
+
+    private static int low(final long id) {
+        return (int) (id & 0xFFFF);
+    }
+
+    private static void setBit(@Nonnull final long[] bitmap, final int low) {
+        bitmap[low >>> 6] |= 1L << low;
+    }
+
+    private static void fill(@Nonnull final long[] bitmap, @Nonnull final Object container) {
+        if (container instanceof char[]) {
+            for (final char low : (char[]) container) {
+                setBit(bitmap, low);
+            }
+        } else {
+            System.arraycopy(container, 0, bitmap, 0, BITMAP_WORDS);
+        }
+    }
+
+    @Nonnull
+    private static Object compact(@Nonnull final long[] bitmap, final int count) {
+        if (count > MAX_ARRAY_SIZE) {
+            return bitmap;
+        }
+        final char[] result = new char[count];
+        int i = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                result[i++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LongIdSet(size=" + size + ", groups=" + keys.length + ")";
+    }
+
+    /**
+     * Collects the groups of a new set in the order of their keys.
+     */
+    private static class Builder {
+
+        private final long[] keys;
+        private final Object[] containers;
+        private final int[] counts;
+        private int length, size;
+
+        private Builder(final int capacity) {
+            this.keys = new long[capacity];
+            this.containers = new Object[capacity];
+            this.counts = new int[capacity];
+        }
+
+        private void add(final long key, @Nonnull final Object container, final int count) {
+            keys[length] = key;
+            containers[length] = container;
+            counts[length] = count;
+            length++;
+            size += count;
+        }
+
+        @Nonnull
+        private LongIdSet build() {
+            if (length == 0) {
+                return EMPTY;
+            } else if (length == keys.length) {
+                return new LongIdSet(keys, containers, counts, size);
+            }
+            return new LongIdSet(Arrays.copyOf(keys, length), Arrays.copyOf(containers, length), Arrays.copyOf(counts, length), size);
+        }
+
+    }
+
+}
@@ -1,14 +1,20 @@
 package ta.nemahuta.neo4j.scope;
 
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.StatementBuilder;
 import ta.nemahuta.neo4j.session.RollbackAndCommit;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
 
 public interface Neo4JElementStateScope<S extends Neo4JElementState, Q extends AbstractQueryBuilder> extends RollbackAndCommit {
 
@@ -29,6 +35,25 @@ public interface Neo4JElementStateScope<S extends Neo4JElementState, Q extends A
      */
     void delete(long id);
 
+    /**
+     * Removes the elements which have already been deleted in the session by a statement, without sending any further statement.
+     *
+     * @param ids the identifiers of the deleted elements
+     */
+    void deletedInSession(@Nonnull Collection<Long> ids);
+
+    /**
+     * Refreshes the ids known to all sessions incrementally, adding the elements created by other processes.
+     *
+     * @return {@code true} if the known ids have been refreshed, {@code false} if they are not known (anymore)
+     */
+    boolean refreshKnownIds();
+
+    /**
+     * Sends the updates and deletions which have been buffered by the scope to the session.
+     */
+    void flush();
+
     /**
      * Create a new entry for the provided state returning the identifier
      *
@@ -37,6 +62,15 @@ public interface Neo4JElementStateScope<S extends Neo4JElementState, Q extends A
      */
     long create(@Nonnull S state);
 
+    /**
+     * Create new entries for the provided states returning the identifiers
+     *
+     * @param states the states which to create
+     * @return the identifiers in the order of the states
+     */
+    @Nonnull
+    List<Long> createAll(@Nonnull List<S> states);
+
     /**
      * Get the state of a single element.
      *
@@ -55,6 +89,15 @@ public interface Neo4JElementStateScope<S extends Neo4JElementState, Q extends A
     @Nonnull
     Map<Long, S> getAll(@Nonnull Collection<Long> ids);
 
+    /**
+     * Get the elements with the provided ids, loading the ones which are not cached without blocking the calling thread.
+     *
+     * @param ids the identifiers to get the elements for, all elements are retrieved synchronously if empty
+     * @return the stage providing the elements which have been found for the ids
+     */
+    @Nonnull
+    CompletionStage<Map<Long, S>> getAllAsync(@Nonnull Collection<Long> ids);
+
     /**
      * Queries elements using the provided query function.
      *
@@ -63,4 +106,27 @@ public interface Neo4JElementStateScope<S extends Neo4JElementState, Q extends A
      */
     Map<Long, S> queryAndCache(@Nonnull final Function<Q, Q> query);
 
+    /**
+     * Queries elements using a statement which returns the element in the first column of each record.
+     * Elements which are already known to the scope keep their current state.
+     *
+     * @param statementBuilder the builder for the statement to be processed
+     * @return the identifiers of the elements in the order of the records, the elements are cached while the stream is consumed
+     */
+    @Nonnull
+    Stream<Long> queryAndCacheInOrder(@Nonnull StatementBuilder statementBuilder);
+
+    /**
+     * Scans the elements page by page, using the id of the last element of a page as the key for the next one, so
+     * neither the complete set of ids nor all the states have to be held in memory.
+     *
+     * @param pageQuery the function providing the statement for the page after the provided id, which has to return
+     *                  the elements in the first column ordered by their id and at most {@code pageSize} records
+     * @param afterId   the id after which the scan starts, {@code -1} to start with the first element
+     * @param pageSize  the maximum number of elements in a page
+     * @return the identifiers of the elements in ascending order, the pages are queried and cached lazily while iterating
+     */
+    @Nonnull
+    Iterator<Long> scanAndCache(@Nonnull LongFunction<StatementBuilder> pageQuery, long afterId, int pageSize);
+
 }
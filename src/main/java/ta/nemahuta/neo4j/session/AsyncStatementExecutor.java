@@ -0,0 +1,34 @@
+package ta.nemahuta.neo4j.session;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResultCursor;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Interface for an executor which is able to execute a {@link Statement} without blocking the calling thread,
+ * providing a {@link StatementResultCursor} once the statement has been executed.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public interface AsyncStatementExecutor extends StatementExecutor {
+
+    /**
+     * Execute a statement asynchronously.
+     *
+     * @param statement the statement to be executed
+     * @return the stage providing the cursor for the result of the execution
+     */
+    @Nonnull
+    CompletionStage<StatementResultCursor> executeStatementAsync(@Nonnull Statement statement);
+
+    @Nonnull
+    @Override
+    default CompletionStage<List<Record>> retrieveRecordsAsync(@Nonnull final Statement statement) {
+        return executeStatementAsync(statement).thenCompose(StatementResultCursor::listAsync);
+    }
+
+}
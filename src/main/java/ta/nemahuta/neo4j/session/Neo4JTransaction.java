@@ -1,11 +1,13 @@
 package ta.nemahuta.neo4j.session;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadedTransaction;
 import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +16,7 @@ import ta.nemahuta.neo4j.structure.Neo4JGraph;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Gremlin based wrapper for wrapping the transactions of a {@link Session}.
@@ -21,7 +24,7 @@ import java.util.Optional;
  * @author Christian Heike (christian.heike@icloud.com)
  */
 @Slf4j
-public class Neo4JTransaction extends AbstractThreadedTransaction implements StatementExecutor {
+public class Neo4JTransaction extends AbstractThreadedTransaction implements AsyncStatementExecutor {
 
     private final Session session;
     private Transaction wrapped;
@@ -29,10 +32,23 @@ public class Neo4JTransaction extends AbstractThreadedTransaction implements Sta
     private static final Logger statementLogger = LoggerFactory.getLogger(Neo4JTransaction.class.getPackage().getName() + ".Statement");
     private boolean modification = false;
 
+    /**
+     * the buffer for the changes which are sent to the session before any other statement or the commit
+     */
+    @Getter
+    private final WriteBehindBuffer writeBehind;
+
     public Neo4JTransaction(@Nonnull final Neo4JGraph g,
                             @Nonnull final Session session) {
+        this(g, session, WriteBehindBuffer.disabled());
+    }
+
+    public Neo4JTransaction(@Nonnull final Neo4JGraph g,
+                            @Nonnull final Session session,
+                            @Nonnull final WriteBehindBuffer writeBehind) {
         super(g);
         this.session = session;
+        this.writeBehind = writeBehind;
     }
 
     /**
@@ -50,8 +66,7 @@ public class Neo4JTransaction extends AbstractThreadedTransaction implements Sta
     @Override
     protected void doCommit() throws TransactionException {
         log.debug("Committing all entities in session scope of transaction {} in session {}", transactionHashCode(), session.hashCode());
-
-        log.debug("Committing all entities in session scope of transaction {} in session {}", transactionHashCode(), session.hashCode());
+        writeBehind.flush();
         Optional.ofNullable(wrapped)
                 .orElseThrow(org.apache.tinkerpop.gremlin.structure.Transaction.Exceptions::transactionMustBeOpenToReadWrite)
                 .success();
@@ -69,6 +84,8 @@ public class Neo4JTransaction extends AbstractThreadedTransaction implements Sta
     protected void doRollback() throws TransactionException {
         log.debug("Rolling back all entities in sessions scope of transaction {} in session {}", transactionHashCode(), session.hashCode());
 
+        writeBehind.rollback();
+
         Optional.ofNullable(wrapped)
                 .orElseThrow(org.apache.tinkerpop.gremlin.structure.Transaction.Exceptions::transactionMustBeOpenToReadWrite)
                 .failure();
@@ -95,10 +112,20 @@ public class Neo4JTransaction extends AbstractThreadedTransaction implements Sta
     @Override
     public StatementResult executeStatement(@Nonnull final Statement statement) {
         readWrite();
+        writeBehind.flush();
         statementLogger.debug("Execution in transaction {} for session {}: '{}' with {}", transactionHashCode(), session.hashCode(), statement.text(), statement.parameters());
         return wrapped.run(statement);
     }
 
+    @Nonnull
+    @Override
+    public CompletionStage<StatementResultCursor> executeStatementAsync(@Nonnull final Statement statement) {
+        readWrite();
+        writeBehind.flush();
+        statementLogger.debug("Asynchronous execution in transaction {} for session {}: '{}' with {}", transactionHashCode(), session.hashCode(), statement.text(), statement.parameters());
+        return wrapped.runAsync(statement);
+    }
+
     private Integer transactionHashCode() {
         return Optional.ofNullable(wrapped).map(Object::hashCode).orElse(null);
     }
@@ -1,13 +1,18 @@
 package ta.nemahuta.neo4j.session;
 
+import com.google.common.collect.ImmutableList;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -42,4 +47,18 @@ public interface StatementExecutor {
                 ), true);
     }
 
+    /**
+     * Retrieve the records of a statement execution without blocking the calling thread, if supported by the executor.
+     * Executors which are not able to execute statements asynchronously retrieve the records before returning.
+     *
+     * @param statement the statement to retrieve the records for
+     * @return the stage providing all the records of the result
+     */
+    @Nonnull
+    default CompletionStage<List<Record>> retrieveRecordsAsync(@Nonnull final Statement statement) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(executeStatement(statement))
+                .<List<Record>>map(ImmutableList::copyOf)
+                .orElseGet(ImmutableList::of));
+    }
+
 }
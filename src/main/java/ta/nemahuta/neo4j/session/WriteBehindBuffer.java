@@ -0,0 +1,93 @@
+package ta.nemahuta.neo4j.session;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffer for the changes of a transaction which are not sent to the session immediately. The participants holding the
+ * changes are flushed in the order of their registration, either once the number of buffered changes reaches the threshold
+ * or before any other statement is executed in the transaction.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@Slf4j
+public class WriteBehindBuffer {
+
+    private final int threshold;
+
+    private final List<Runnable> participants = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    private boolean flushing = false;
+
+    /**
+     * Create a new buffer.
+     *
+     * @param threshold the number of buffered changes which causes a flush, {@code 0} to send all changes immediately
+     */
+    public WriteBehindBuffer(final int threshold) {
+        this.threshold = Math.max(0, threshold);
+    }
+
+    /**
+     * @return a buffer which does not buffer any changes
+     */
+    public static WriteBehindBuffer disabled() {
+        return new WriteBehindBuffer(0);
+    }
+
+    /**
+     * @return {@code true} if changes should be buffered, {@code false} if they should be sent to the session immediately
+     */
+    public boolean isEnabled() {
+        return threshold > 0;
+    }
+
+    /**
+     * Register a participant flushing its buffered changes to the session.
+     *
+     * @param flush the function flushing the changes
+     */
+    public void register(@Nonnull final Runnable flush) {
+        participants.add(flush);
+    }
+
+    /**
+     * Notify the buffer about a change being buffered by a participant, flushing all participants if the threshold is reached.
+     */
+    public void buffered() {
+        if (buffered.incrementAndGet() >= threshold) {
+            flush();
+        }
+    }
+
+    /**
+     * Flush the buffered changes of all participants to the session.
+     */
+    public synchronized void flush() {
+        if (flushing || buffered.get() == 0) {
+            // Statements issued by the participants while flushing must not flush again
+            return;
+        }
+        flushing = true;
+        try {
+            log.debug("Flushing {} buffered changes", buffered.getAndSet(0));
+            participants.forEach(Runnable::run);
+        } finally {
+            flushing = false;
+        }
+    }
+
+    /**
+     * Discard the number of buffered changes, after the participants discarded their changes.
+     */
+    public void rollback() {
+        buffered.set(0);
+    }
+
+}
@@ -26,4 +26,11 @@ public abstract class Neo4JElementState implements Serializable {
 
     public abstract Neo4JElementState withProperties(@Nonnull ImmutableMap<String, Object> properties);
 
+    /**
+     * @return the {@link Neo4JStateExternalForm} replacing the state in the serialized form
+     */
+    protected final Object writeReplace() {
+        return new Neo4JStateExternalForm(this);
+    }
+
 }
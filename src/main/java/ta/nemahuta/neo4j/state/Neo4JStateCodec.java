@@ -0,0 +1,418 @@
+package ta.nemahuta.neo4j.state;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Versioned binary encoding of {@link Neo4JVertexState}s and {@link Neo4JEdgeState}s, which is used instead of the default
+ * Java serialization. Labels and property keys are written once per state to a dictionary and referenced by their index,
+ * ids are written as variable length integers (the edge ids of a vertex as deltas in ascending order) and property values
+ * are tagged with their type. Values of types which are not known to the codec fall back to Java serialization.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Neo4JStateCodec {
+
+    /**
+     * the version of the encoding, which is written first
+     */
+    public static final int VERSION = 1;
+
+    private static final int KIND_VERTEX = 1, KIND_EDGE = 2;
+
+    private static final int TAG_NULL = 0, TAG_STRING = 1, TAG_LONG = 2, TAG_INTEGER = 3, TAG_DOUBLE = 4, TAG_FLOAT = 5,
+            TAG_TRUE = 6, TAG_FALSE = 7, TAG_BYTES = 8, TAG_LIST = 9, TAG_MAP = 10, TAG_SERIALIZED = 11;
+
+    private static final int REFERENCES_RESOLVED = 1;
+
+    /**
+     * Encode a state to bytes.
+     *
+     * @param state the state to be encoded
+     * @return the encoded state
+     */
+    @Nonnull
+    public static byte[] encode(@Nonnull final Neo4JElementState state) {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(128);
+        try {
+            write(new DataOutputStream(result), state);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Decode a state from bytes.
+     *
+     * @param bytes the encoded state
+     * @return the decoded state
+     * @throws IllegalArgumentException in case the bytes are not a supported encoding of a state
+     */
+    @Nonnull
+    public static Neo4JElementState decode(@Nonnull final byte[] bytes) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Could not decode the state.", e);
+        }
+    }
+
+    /**
+     * Write the encoding of a state.
+     *
+     * @param out   the output to write to
+     * @param state the state to be encoded
+     * @throws IOException in case the output cannot be written
+     */
+    public static void write(@Nonnull final DataOutput out, @Nonnull final Neo4JElementState state) throws IOException {
+        writeVarLong(out, VERSION);
+        final Dictionary dictionary = new Dictionary();
+        if (state instanceof Neo4JVertexState) {
+            final Neo4JVertexState vertexState = (Neo4JVertexState) state;
+            out.writeByte(KIND_VERTEX);
+            vertexState.getLabels().forEach(dictionary::add);
+            vertexState.getIncomingEdgeIds().getEdgeIdsPerLabel().keySet().forEach(dictionary::add);
+            vertexState.getOutgoingEdgeIds().getEdgeIdsPerLabel().keySet().forEach(dictionary::add);
+            state.getProperties().keySet().forEach(dictionary::add);
+            dictionary.write(out);
+            writeVarLong(out, vertexState.getLabels().size());
+            for (final String label : vertexState.getLabels()) {
+                writeVarLong(out, dictionary.indexOf(label));
+            }
+            writeProperties(out, dictionary, state.getProperties());
+            writeReferences(out, dictionary, vertexState.getIncomingEdgeIds());
+            writeReferences(out, dictionary, vertexState.getOutgoingEdgeIds());
+        } else if (state instanceof Neo4JEdgeState) {
+            final Neo4JEdgeState edgeState = (Neo4JEdgeState) state;
+            out.writeByte(KIND_EDGE);
+            dictionary.add(edgeState.getLabel());
+            state.getProperties().keySet().forEach(dictionary::add);
+            dictionary.write(out);
+            writeVarLong(out, dictionary.indexOf(edgeState.getLabel()));
+            writeVarLong(out, zigZag(edgeState.getInVertexId()));
+            writeVarLong(out, zigZag(edgeState.getOutVertexId()));
+            writeProperties(out, dictionary, state.getProperties());
+        } else {
+            throw new IllegalArgumentException("Cannot encode state: " + state.getClass().getName());
+        }
+    }
+
+    /**
+     * Read the encoding of a state.
+     *
+     * @param in the input to read from
+     * @return the decoded state
+     * @throws IOException in case the input cannot be read or is not a supported encoding of a state
+     */
+    @Nonnull
+    public static Neo4JElementState read(@Nonnull final DataInput in) throws IOException {
+        final long version = readVarLong(in);
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of the state encoding: " + version);
+        }
+        final int kind = in.readByte();
+        final List<String> dictionary = readDictionary(in);
+        switch (kind) {
+            case KIND_VERTEX:
+                final int labelCount = readSize(in);
+                final ImmutableSet.Builder<String> labels = ImmutableSet.builder();
+                for (int i = 0; i < labelCount; i++) {
+                    labels.add(dictionary.get(readSize(in)));
+                }
+                final ImmutableMap<String, Object> vertexProperties = readProperties(in, dictionary);
+                final VertexEdgeReferences incoming = readReferences(in, dictionary);
+                return new Neo4JVertexState(labels.build(), vertexProperties, incoming, readReferences(in, dictionary));
+            case KIND_EDGE:
+                final String label = dictionary.get(readSize(in));
+                final long inVertexId = unZigZag(readVarLong(in));
+                final long outVertexId = unZigZag(readVarLong(in));
+                return new Neo4JEdgeState(label, readProperties(in, dictionary), inVertexId, outVertexId);
+            default:
+                throw new IOException("Unknown kind of state: " + kind);
+        }
+    }
+
+    private static void writeProperties(@Nonnull final DataOutput out,
+                                        @Nonnull final Dictionary dictionary,
+                                        @Nonnull final Map<String, Object> properties) throws IOException {
+        writeVarLong(out, properties.size());
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            writeVarLong(out, dictionary.indexOf(entry.getKey()));
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    @Nonnull
+    private static ImmutableMap<String, Object> readProperties(@Nonnull final DataInput in,
+                                                               @Nonnull final List<String> dictionary) throws IOException {
+        final int size = readSize(in);
+        final ImmutableMap.Builder<String, Object> result = ImmutableMap.builder();
+        for (int i = 0; i < size; i++) {
+            result.put(dictionary.get(readSize(in)), readValue(in));
+        }
+        return result.build();
+    }
+
+    private static void writeReferences(@Nonnull final DataOutput out,
+                                        @Nonnull final Dictionary dictionary,
+                                        @Nonnull final VertexEdgeReferences references) throws IOException {
+        // The resolved labels are the labels of the edge ids, so a flag is sufficient
+        out.writeByte(references.getLabels() != null ? REFERENCES_RESOLVED : 0);
+        writeVarLong(out, references.getEdgeIdsPerLabel().size());
+        for (final Map.Entry<String, ImmutableSet<Long>> entry : references.getEdgeIdsPerLabel().entrySet()) {
+            writeVarLong(out, dictionary.indexOf(entry.getKey()));
+            writeVarLong(out, entry.getValue().size());
+            long previous = 0;
+            for (final long id : entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray()) {
+                writeVarLong(out, zigZag(id - previous));
+                previous = id;
+            }
+        }
+    }
+
+    @Nonnull
+    private static VertexEdgeReferences readReferences(@Nonnull final DataInput in,
+                                                       @Nonnull final List<String> dictionary) throws IOException {
+        final boolean resolved = (in.readByte() & REFERENCES_RESOLVED) != 0;
+        final int size = readSize(in);
+        final ImmutableMap.Builder<String, ImmutableSet<Long>> edgeIdsPerLabel = ImmutableMap.builder();
+        for (int i = 0; i < size; i++) {
+            final String label = dictionary.get(readSize(in));
+            final int count = readSize(in);
+            final ImmutableSet.Builder<Long> ids = ImmutableSet.builder();
+            long id = 0;
+            for (int j = 0; j < count; j++) {
+                id += unZigZag(readVarLong(in));
+                ids.add(id);
+            }
+            edgeIdsPerLabel.put(label, ids.build());
+        }
+        final ImmutableMap<String, ImmutableSet<Long>> result = edgeIdsPerLabel.build();
+        return new VertexEdgeReferences(resolved ? result.keySet() : null, result);
+    }
+
+    private static void writeValue(@Nonnull final DataOutput out, @Nullable final Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof List) {
+            out.writeByte(TAG_LIST);
+            writeVarLong(out, ((List<?>) value).size());
+            for (final Object element : (List<?>) value) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map && ((Map<?, ?>) value).keySet().stream().allMatch(String.class::isInstance)) {
+            out.writeByte(TAG_MAP);
+            writeVarLong(out, ((Map<?, ?>) value).size());
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeString(out, (String) entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            out.writeByte(TAG_SERIALIZED);
+            writeBytes(out, serialize(value));
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@Nonnull final DataInput in) throws IOException {
+        final int tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_LONG:
+                return unZigZag(readVarLong(in));
+            case TAG_INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_LIST:
+                final int listSize = readSize(in);
+                final List<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(in));
+                }
+                return Collections.unmodifiableList(list);
+            case TAG_MAP:
+                final int mapSize = readSize(in);
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapSize; i++) {
+                    map.put(readString(in), readValue(in));
+                }
+                return Collections.unmodifiableMap(map);
+            case TAG_SERIALIZED:
+                return deserialize(readBytes(in));
+            default:
+                throw new IOException("Unknown type of value: " + tag);
+        }
+    }
+
+    @Nonnull
+    private static byte[] serialize(@Nonnull final Object value) throws IOException {
+        if (!(value instanceof Serializable)) {
+            throw new IOException("Cannot encode value of type: " + value.getClass().getName());
+        }
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(result)) {
+            out.writeObject(value);
+        }
+        return result.toByteArray();
+    }
+
+    @Nonnull
+    private static Object deserialize(@Nonnull final byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (final ClassNotFoundException e) {
+            throw new IOException("Cannot decode value.", e);
+        }
+    }
+
+    @Nonnull
+    private static List<String> readDictionary(@Nonnull final DataInput in) throws IOException {
+        final int size = readSize(in);
+        final List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readString(in));
+        }
+        return result;
+    }
+
+    private static void writeString(@Nonnull final DataOutput out, @Nonnull final String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull final DataInput in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(@Nonnull final DataOutput out, @Nonnull final byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    @Nonnull
+    private static byte[] readBytes(@Nonnull final DataInput in) throws IOException {
+        final byte[] result = new byte[readSize(in)];
+        in.readFully(result);
+        return result;
+    }
+
+    private static void writeVarLong(@Nonnull final DataOutput out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(@Nonnull final DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed variable length integer.");
+    }
+
+    private static int readSize(@Nonnull final DataInput in) throws IOException {
+        final long result = readVarLong(in);
+        if (result < 0 || result > Integer.MAX_VALUE) {
+            throw new IOException("Invalid size: " + result);
+        }
+        return (int) result;
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The strings of a state which are written once and referenced by their index.
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+        private void add(@Nonnull final String value) {
+            indices.putIfAbsent(value, indices.size());
+        }
+
+        private int indexOf(@Nonnull final String value) {
+            return indices.get(value);
+        }
+
+        private void write(@Nonnull final DataOutput out) throws IOException {
+            final Set<String> values = indices.keySet();
+            writeVarLong(out, values.size());
+            for (final String value : values) {
+                writeString(out, value);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package ta.nemahuta.neo4j.state;
+
+import javax.annotation.Nonnull;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Serialization proxy for {@link Neo4JElementState}s, writing them using the {@link Neo4JStateCodec} instead of the
+ * default serialization of their object graph.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+class Neo4JStateExternalForm implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Neo4JElementState state;
+
+    /**
+     * Constructor used by the deserialization.
+     */
+    public Neo4JStateExternalForm() {
+    }
+
+    Neo4JStateExternalForm(@Nonnull final Neo4JElementState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        Neo4JStateCodec.write(out, state);
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException {
+        this.state = Neo4JStateCodec.read(in);
+    }
+
+    private Object readResolve() {
+        return state;
+    }
+
+}
@@ -22,13 +22,14 @@ import java.util.stream.Stream;
 
 @EqualsAndHashCode
 @ToString
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class VertexEdgeReferences implements Serializable {
 
     @Getter
     @Nullable
     private final ImmutableSet<String> labels;
 
+    @Getter(AccessLevel.PACKAGE)
     @NonNull
     @Nonnull
     private final ImmutableMap<String, ImmutableSet<Long>> edgeIdsPerLabel;
@@ -0,0 +1,40 @@
+package ta.nemahuta.neo4j.structure;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Map;
+
+/**
+ * Specification of an edge to be created by {@link Neo4JGraph#addEdges(java.util.List)}.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@Getter
+@RequiredArgsConstructor
+public class EdgeSpec {
+
+    /**
+     * the label of the edge
+     */
+    @NonNull
+    private final String label;
+    /**
+     * the outbound vertex
+     */
+    @NonNull
+    private final Vertex outVertex;
+    /**
+     * the inbound vertex
+     */
+    @NonNull
+    private final Vertex inVertex;
+    /**
+     * the properties to be set for the edge
+     */
+    @NonNull
+    private final Map<String, Object> properties;
+
+}
@@ -0,0 +1,91 @@
+package ta.nemahuta.neo4j.structure;
+
+/**
+ * A map of primitive long keys to long ids using open addressing, which avoids boxing the entries when mapping a large
+ * number of ids.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+class LongIdMap {
+
+    /**
+     * the value returned for keys which are not mapped
+     */
+    static final long NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Map a key to an id, replacing any id mapped before.
+     *
+     * @param key the key
+     * @param id  the id to be mapped
+     */
+    void put(final long key, final long id) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        final int slot = slotOf(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        ids[slot] = id;
+    }
+
+    /**
+     * @param key the key
+     * @return the id mapped for the key, {@link #NO_ID} if the key is not mapped
+     */
+    long get(final long key) {
+        final int slot = slotOf(key);
+        return used[slot] ? ids[slot] : NO_ID;
+    }
+
+    /**
+     * @return the number of keys being mapped
+     */
+    int size() {
+        return size;
+    }
+
+    private int slotOf(final long key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys, oldIds = ids;
+        final boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        ids = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldIds[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongIdMap(size=" + size + ", capacity=" + keys.length + ")";
+    }
+
+}
@@ -4,8 +4,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -14,25 +16,41 @@ import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactoryClass;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.javatuples.Triplet;
 import org.neo4j.driver.v1.Session;
 import ta.nemahuta.neo4j.cache.HierarchicalCache;
 import ta.nemahuta.neo4j.cache.SessionCache;
 import ta.nemahuta.neo4j.cache.SessionCacheManager;
 import ta.nemahuta.neo4j.config.Neo4JConfiguration;
 import ta.nemahuta.neo4j.features.Neo4JFeatures;
+import ta.nemahuta.neo4j.handler.AdaptiveChunkSize;
 import ta.nemahuta.neo4j.handler.DefaultRelationHandler;
 import ta.nemahuta.neo4j.handler.Neo4JEdgeStateHandler;
 import ta.nemahuta.neo4j.handler.Neo4JVertexStateHandler;
 import ta.nemahuta.neo4j.handler.RelationHandler;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
+import ta.nemahuta.neo4j.id.SnowflakeVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
 import ta.nemahuta.neo4j.partition.Neo4JLabelGraphPartition;
+import ta.nemahuta.neo4j.process.strategy.Neo4JCountStrategy;
+import ta.nemahuta.neo4j.process.strategy.Neo4JDropStrategy;
+import ta.nemahuta.neo4j.process.strategy.Neo4JGraphStepStrategy;
+import ta.nemahuta.neo4j.process.strategy.Neo4JOrderAndRangeStrategy;
+import ta.nemahuta.neo4j.process.strategy.Neo4JPropertiesStrategy;
+import ta.nemahuta.neo4j.process.strategy.Neo4JVertexStepStrategy;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.WherePredicate;
 import ta.nemahuta.neo4j.query.edge.EdgeQueryBuilder;
+import ta.nemahuta.neo4j.query.edge.EdgeQueryFactory;
 import ta.nemahuta.neo4j.query.vertex.VertexQueryBuilder;
+import ta.nemahuta.neo4j.query.vertex.VertexQueryFactory;
 import ta.nemahuta.neo4j.scope.DefaultNeo4JElementStateScope;
 import ta.nemahuta.neo4j.scope.IdCache;
 import ta.nemahuta.neo4j.scope.Neo4JElementStateScope;
 import ta.nemahuta.neo4j.session.Neo4JTransaction;
+import ta.nemahuta.neo4j.session.WriteBehindBuffer;
 import ta.nemahuta.neo4j.state.Neo4JEdgeState;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 import ta.nemahuta.neo4j.state.Neo4JVertexState;
@@ -43,10 +61,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -60,6 +81,19 @@ import java.util.stream.Stream;
 @GraphFactoryClass(Neo4JGraphFactory.class)
 public class Neo4JGraph implements Graph {
 
+    static {
+        TraversalStrategies.GlobalCache.registerStrategies(Neo4JGraph.class,
+                TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone()
+                        .addStrategies(Neo4JGraphStepStrategy.instance(), Neo4JVertexStepStrategy.instance(),
+                                Neo4JCountStrategy.instance(), Neo4JOrderAndRangeStrategy.instance(),
+                                Neo4JPropertiesStrategy.instance(), Neo4JDropStrategy.instance()));
+    }
+
+    /**
+     * the number of vertices deleted per statement when dropping vertices, if not configured
+     */
+    public static final int DEFAULT_DROP_CHUNK_SIZE = 10000;
+
     private final Session session;
 
     private final Neo4JTransaction transaction;
@@ -77,6 +111,7 @@ public class Neo4JGraph implements Graph {
     private final RelationHandler relationHandler;
     private final Neo4JVertexStateHandler vertexStateHandler;
     private final Neo4JEdgeStateHandler edgeStateHandler;
+    private final Neo4JVertexIdStrategy vertexIdStrategy;
 
     public Neo4JGraph(@Nonnull final Session session,
                       @Nonnull final SessionCacheManager sessionCacheManager,
@@ -93,14 +128,19 @@ public class Neo4JGraph implements Graph {
         this.session = session;
         this.cache = sessionCache;
         this.partition = partition;
-        this.transaction = new Neo4JTransaction(this, session);
+        this.transaction = new Neo4JTransaction(this, session, new WriteBehindBuffer(configuration.getWriteBehindThreshold()));
         this.transaction.addTransactionListener(this::handleTransaction);
-        this.vertexStateHandler = new Neo4JVertexStateHandler(transaction, partition);
-        this.edgeStateHandler = new Neo4JEdgeStateHandler(transaction, partition);
-        this.edgeScope = new DefaultNeo4JElementStateScope<>(sessionCache.getEdgeCache(), edgeStateHandler, sessionCache.getKnownEdgeIds());
+        this.vertexIdStrategy = createVertexIdStrategy(configuration);
+        this.vertexStateHandler = new Neo4JVertexStateHandler(transaction, partition, configuration.getEagerRelationsMaxDegree(),
+                new AdaptiveChunkSize(configuration.getLoadChunkSize()), vertexIdStrategy);
+        this.edgeStateHandler = new Neo4JEdgeStateHandler(transaction, partition, new AdaptiveChunkSize(configuration.getLoadChunkSize()),
+                vertexIdStrategy);
+        this.edgeScope = new DefaultNeo4JElementStateScope<>(sessionCache.getEdgeCache(), edgeStateHandler, sessionCache.getKnownEdgeIds(),
+                transaction.getWriteBehind());
         final HierarchicalCache<Long, Neo4JVertexState> vertexCache = sessionCache.getVertexCache();
-        final IdCache<Long> knownVertexIds = sessionCache.getKnownVertexIds();
-        this.vertexScope = new DefaultNeo4JElementStateScope<Neo4JVertexState, VertexQueryBuilder>(vertexCache, vertexStateHandler, knownVertexIds) {
+        final IdCache knownVertexIds = sessionCache.getKnownVertexIds();
+        this.vertexScope = new DefaultNeo4JElementStateScope<Neo4JVertexState, VertexQueryBuilder>(vertexCache, vertexStateHandler, knownVertexIds,
+                transaction.getWriteBehind()) {
             @Override
             public void delete(long id) {
                 final Set<Long> edgeIds = knownVertexIds.getRemoved().contains(id)
@@ -112,25 +152,61 @@ public class Neo4JGraph implements Graph {
                                 Stream.concat(state.getIncomingEdgeIds().getAllKnown(), state.getOutgoingEdgeIds().getAllKnown())
                                         .collect(ImmutableSet.toImmutableSet()))
                         .orElseGet(() -> ImmutableSet.of());
+                // Only the adjacent vertices reference those edges, which are known from the edge states (loading the uncached ones)
+                final Set<Long> adjacentIds = edgeIds.isEmpty() ? ImmutableSet.of() : edgeScope.getAll(edgeIds).values().stream()
+                        .flatMap(edge -> Stream.of(edge.getOutVertexId(), edge.getInVertexId()))
+                        .filter(vertexId -> vertexId != id)
+                        .collect(ImmutableSet.toImmutableSet());
                 // Make sure the known edges are marked deleted, so the cache is not out of sync
                 edgeIds.forEach(edgeScope::delete);
-                // Make sure to remove all the references for those edges in all the states
-                vertexCache.getKeys().forEach(key -> {
-                    Optional.ofNullable(vertexCache.get(key)).ifPresent(state -> {
-                        final Neo4JVertexState newState = state.withRemovedEdges(edgeIds);
-                        if (newState != state) {
-                            vertexCache.put(key, newState);
-                        }
-                    });
-                });
+                // Make sure to remove the references for those edges in the states of the adjacent vertices
+                removeEdgeReferences(adjacentIds, edgeIds);
                 // Finally delegate the deletion
                 super.delete(id);
             }
         };
+        // Edges have to be flushed first, as the deletion of a vertex requires its edges to be deleted
+        this.transaction.getWriteBehind().register(edgeScope::flush);
+        this.transaction.getWriteBehind().register(vertexScope::flush);
         this.relationHandler = new DefaultRelationHandler(vertexScope, sessionCache.getVertexCache(), edgeScope);
         this.configuration = configuration;
     }
 
+    /**
+     * Create the strategy for the vertex ids, which are generated on the client if a property for them is configured.
+     *
+     * @param configuration the configuration of the graph
+     * @return the strategy
+     */
+    @Nonnull
+    static Neo4JVertexIdStrategy createVertexIdStrategy(@Nonnull final Neo4JConfiguration configuration) {
+        return Optional.ofNullable(configuration.getVertexIdProperty())
+                .filter(idProperty -> !idProperty.isEmpty())
+                .<Neo4JVertexIdStrategy>map(idProperty -> new SnowflakeVertexIdStrategy(idProperty,
+                        Optional.ofNullable(configuration.getVertexIdLabel()).filter(label -> !label.isEmpty())
+                                .orElse(SnowflakeVertexIdStrategy.DEFAULT_LABEL),
+                        configuration.getVertexIdWorker()))
+                .orElse(NativeVertexIdStrategy.INSTANCE);
+    }
+
+    /**
+     * Remove the references to deleted edges from the cached states of the vertices adjacent to them.
+     *
+     * @param vertexIds the ids of the vertices adjacent to the edges
+     * @param edgeIds   the ids of the deleted edges
+     */
+    private void removeEdgeReferences(@Nonnull final Set<Long> vertexIds,
+                                      @Nonnull final Set<Long> edgeIds) {
+        final HierarchicalCache<Long, Neo4JVertexState> vertexCache = cache.getVertexCache();
+        vertexIds.forEach(vertexId ->
+                Optional.ofNullable(vertexCache.get(vertexId)).ifPresent(state -> {
+                    final Neo4JVertexState newState = state.withRemovedEdges(edgeIds);
+                    if (newState != state) {
+                        vertexCache.put(vertexId, newState);
+                    }
+                }));
+    }
+
     private void handleTransaction(final Transaction.Status status) {
         switch (status) {
             case COMMIT:
@@ -146,25 +222,52 @@ public class Neo4JGraph implements Graph {
 
     @Override
     public Vertex addVertex(Object... keyValues) {
+        final long id = vertexScope.create(newVertexState(keyValues));
+        return getOrCreateVertex(id);
+    }
+
+    /**
+     * Add multiple vertices at once, creating all the vertices with the same labels using a single statement.
+     *
+     * @param vertices the properties of each of the vertices, including the label using the key {@link T#label}
+     * @return the new vertices in the order of the provided properties
+     */
+    @Nonnull
+    public List<Vertex> addVertices(@Nonnull final List<? extends Map<?, ?>> vertices) {
+        final List<Neo4JVertexState> states = vertices.stream()
+                .map(properties -> newVertexState(asKeyValues(properties)))
+                .collect(ImmutableList.toImmutableList());
+        return vertexScope.createAll(states).stream()
+                .map(this::getOrCreateVertex)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    @Nonnull
+    private Neo4JVertexState newVertexState(@Nonnull final Object... keyValues) {
         ElementHelper.legalPropertyKeyValueArray(keyValues);
 
         if (ElementHelper.getIdValue(keyValues).isPresent())
             throw Vertex.Exceptions.userSuppliedIdsNotSupported();
 
         final ImmutableSet<String> labels = ImmutableSet.copyOf(
-                partition.ensurePartitionLabelsNotSet(
+                vertexIdStrategy.restrict(partition).ensurePartitionLabelsNotSet(
                         Arrays.asList(ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL).split(Neo4JVertex.LABEL_DELIMITER))
                 )
         );
         final ImmutableMap<String, Object> properties =
                 ImmutableMap.copyOf(Maps.filterKeys(ElementHelper.asMap(keyValues), k -> !Objects.equals("label", k)));
 
-        final long id = vertexScope.create(new Neo4JVertexState(labels, properties,
+        return new Neo4JVertexState(labels, properties,
                 new VertexEdgeReferences().withAllResolvedEdges(Collections.emptyMap()),
                 new VertexEdgeReferences().withAllResolvedEdges(Collections.emptyMap())
-        ));
+        );
+    }
 
-        return getOrCreateVertex(id);
+    @Nonnull
+    private static Object[] asKeyValues(@Nonnull final Map<?, ?> properties) {
+        return properties.entrySet().stream()
+                .flatMap(e -> Stream.of(e.getKey(), e.getValue()))
+                .toArray();
     }
 
     @Override
@@ -179,14 +282,279 @@ public class Neo4JGraph implements Graph {
 
     @Override
     public Iterator<Vertex> vertices(@Nonnull final Object... vertexIds) {
+        if (vertexIds.length == 0 && configuration.getScanPageSize() > 0) {
+            return scanVertices(configuration.getScanPageSize());
+        }
         return loadAndReturnFoundElementsOnly(vertexScope, id -> getOrCreateVertex(id), vertexIds);
     }
 
     @Override
     public Iterator<Edge> edges(@Nonnull final Object... edgeIds) {
+        if (edgeIds.length == 0 && configuration.getScanPageSize() > 0) {
+            return scanEdges(configuration.getScanPageSize());
+        }
         return loadAndReturnFoundElementsOnly(edgeScope, id -> getOrCreateEdge(id), edgeIds);
     }
 
+    /**
+     * Retrieves the vertices with the provided ids, loading the ones which are not cached without blocking the calling thread.
+     *
+     * @param vertexIds the ids of the vertices
+     * @return the stage providing the vertices which have been found
+     */
+    @Nonnull
+    public CompletionStage<Iterator<Vertex>> verticesAsync(@Nonnull final Object... vertexIds) {
+        return loadAndReturnFoundElementsOnlyAsync(vertexScope, id -> getOrCreateVertex(id), vertexIds);
+    }
+
+    /**
+     * Retrieves the edges with the provided ids, loading the ones which are not cached without blocking the calling thread.
+     *
+     * @param edgeIds the ids of the edges
+     * @return the stage providing the edges which have been found
+     */
+    @Nonnull
+    public CompletionStage<Iterator<Edge>> edgesAsync(@Nonnull final Object... edgeIds) {
+        return loadAndReturnFoundElementsOnlyAsync(edgeScope, id -> getOrCreateEdge(id), edgeIds);
+    }
+
+    /**
+     * Scans all the vertices of the partition in pages ordered by their id, so the memory needed is bounded by the page size.
+     *
+     * @param pageSize the number of vertices to be queried per page
+     * @return the vertices, lazily loaded page by page
+     */
+    @Nonnull
+    public Iterator<Vertex> scanVertices(final int pageSize) {
+        return scanVertices(-1, Long.MAX_VALUE, pageSize);
+    }
+
+    /**
+     * Scans the vertices of the partition in an id range in pages ordered by their id.
+     *
+     * @param afterId  the id after which the range starts, {@code -1} to start with the first vertex
+     * @param upToId   the greatest id in the range
+     * @param pageSize the number of vertices to be queried per page
+     * @return the vertices, lazily loaded page by page
+     */
+    @Nonnull
+    public Iterator<Vertex> scanVertices(final long afterId, final long upToId, final int pageSize) {
+        return IteratorUtils.map(vertexScope.scanAndCache(lastId -> new VertexQueryBuilder(partition, vertexIdStrategy)
+                .match(v -> v.labelsMatch(Collections.emptySet()))
+                .where(v -> v.idGreaterThan(lastId).and(upToId < Long.MAX_VALUE ? v.idAtMost(upToId) : WherePredicate.EMPTY))
+                .orderBy(v -> v.orderById(false))
+                .limit(pageSize)
+                .andThen(VertexQueryFactory::returnVertex), afterId, pageSize), this::getOrCreateVertex);
+    }
+
+    /**
+     * Scans all the edges of the partition in pages ordered by their id, so the memory needed is bounded by the page size.
+     *
+     * @param pageSize the number of edges to be queried per page
+     * @return the edges, lazily loaded page by page
+     */
+    @Nonnull
+    public Iterator<Edge> scanEdges(final int pageSize) {
+        return scanEdges(-1, Long.MAX_VALUE, pageSize);
+    }
+
+    /**
+     * Scans the edges of the partition in an id range in pages ordered by their id.
+     *
+     * @param afterId  the id after which the range starts, {@code -1} to start with the first edge
+     * @param upToId   the greatest id in the range
+     * @param pageSize the number of edges to be queried per page
+     * @return the edges, lazily loaded page by page
+     */
+    @Nonnull
+    public Iterator<Edge> scanEdges(final long afterId, final long upToId, final int pageSize) {
+        return IteratorUtils.map(edgeScope.scanAndCache(lastId -> new EdgeQueryBuilder(partition, vertexIdStrategy)
+                .direction(Direction.OUT)
+                .where(e -> e.whereIdGreaterThan(lastId).and(upToId < Long.MAX_VALUE ? e.whereIdAtMost(upToId) : WherePredicate.EMPTY))
+                .orderBy(e -> e.orderById(false))
+                .limit(pageSize)
+                .andThen(EdgeQueryFactory::returnEdge), afterId, pageSize), id -> (Edge) getOrCreateEdge(id));
+    }
+
+    /**
+     * Refreshes the vertex and edge ids known to all sessions, adding the elements which have been created by other
+     * processes since the ids have been retrieved. In case the number of elements does not match the known ids anymore,
+     * they are dropped and retrieved completely when needed.
+     *
+     * @return {@code true} if both the vertex and the edge ids have been refreshed
+     */
+    public boolean refreshKnownIds() {
+        final boolean vertices = vertexScope.refreshKnownIds();
+        return edgeScope.refreshKnownIds() && vertices;
+    }
+
+    /**
+     * @return the greatest id of the vertices in the partition, {@code 0} if there are none
+     */
+    public long maxVertexId() {
+        return vertexStateHandler.maxId();
+    }
+
+    /**
+     * @return the greatest id of the edges in the partition, {@code 0} if there are none
+     */
+    public long maxEdgeId() {
+        return edgeStateHandler.maxId();
+    }
+
+    /**
+     * Splits the ids of the vertices in the partition into ranges holding about the same number of vertices.
+     *
+     * @param parts the number of ranges
+     * @return the ascending inclusive upper bounds of the ranges, the last one being {@link Long#MAX_VALUE}
+     */
+    @Nonnull
+    public List<Long> splitVertexIds(final int parts) {
+        return vertexStateHandler.splitIds(parts);
+    }
+
+    /**
+     * Splits the ids of the edges in the partition into ranges holding about the same number of edges.
+     *
+     * @param parts the number of ranges
+     * @return the ascending inclusive upper bounds of the ranges, the last one being {@link Long#MAX_VALUE}
+     */
+    @Nonnull
+    public List<Long> splitEdgeIds(final int parts) {
+        return edgeStateHandler.splitIds(parts);
+    }
+
+    /**
+     * Queries the vertices matching the provided query on the server side.
+     *
+     * @param query the function which sets the MATCH, WHERE, ORDER BY, SKIP and LIMIT clauses on the query builder
+     * @return the vertices which have been found, lazily loaded in the order of the query
+     */
+    @Nonnull
+    public Iterator<Vertex> queryVertices(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query) {
+        return vertexScope.queryAndCacheInOrder(query.apply(new VertexQueryBuilder(partition, vertexIdStrategy)).andThen(VertexQueryFactory::returnVertex))
+                .map(this::getOrCreateVertex)
+                .iterator();
+    }
+
+    /**
+     * Queries the edges matching the provided query on the server side.
+     *
+     * @param query the function which sets the MATCH, WHERE, ORDER BY, SKIP and LIMIT clauses on the query builder
+     * @return the edges which have been found, lazily loaded in the order of the query
+     */
+    @Nonnull
+    public Iterator<Edge> queryEdges(@Nonnull final Function<EdgeQueryBuilder, EdgeQueryBuilder> query) {
+        return edgeScope.queryAndCacheInOrder(query.apply(new EdgeQueryBuilder(partition, vertexIdStrategy)).andThen(EdgeQueryFactory::returnEdge))
+                .map(id -> (Edge) getOrCreateEdge(id))
+                .iterator();
+    }
+
+    /**
+     * Counts the vertices matching the provided query on the server side, without loading them.
+     *
+     * @param query the function which sets the MATCH and WHERE clauses on the query builder
+     * @param low   the number of matches to be skipped
+     * @param high  the index after the last match to be counted, or a negative value for no limit
+     * @return the number of vertices
+     */
+    public long countVertices(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query,
+                              final long low, final long high) {
+        return vertexStateHandler.count(query.andThen(q -> q.andThen(v -> v.returnCount(low, high))));
+    }
+
+    /**
+     * Counts the relations matching the provided query on the server side, without loading them.
+     *
+     * @param query the function which sets the MATCH and WHERE clauses on the query builder
+     * @param low   the number of matches to be skipped
+     * @param high  the index after the last match to be counted, or a negative value for no limit
+     * @return the number of relations
+     */
+    public long countEdges(@Nonnull final Function<EdgeQueryBuilder, EdgeQueryBuilder> query,
+                           final long low, final long high) {
+        return edgeStateHandler.count(query.andThen(q -> q.andThen(e -> e.returnCount(low, high))));
+    }
+
+    /**
+     * Deletes the vertices matching the provided query together with their relations on the server side, without loading
+     * them. The vertices are deleted in chunks, each using a single statement which returns the ids of the deleted elements,
+     * so the caches are updated in bulk.
+     *
+     * @param query the function which sets the MATCH and WHERE clauses on the query builder
+     * @return the number of deleted vertices
+     */
+    public long dropVertices(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query) {
+        final int chunkSize = configuration.getDropChunkSize() > 0 ? configuration.getDropChunkSize() : DEFAULT_DROP_CHUNK_SIZE;
+        long dropped = 0;
+        Triplet<Set<Long>, Set<Long>, Set<Long>> chunk;
+        do {
+            chunk = vertexStateHandler.drop(query, chunkSize);
+            final Set<Long> vertexIds = chunk.getValue0(), edgeIds = chunk.getValue1();
+            edgeScope.deletedInSession(edgeIds);
+            vertexScope.deletedInSession(vertexIds);
+            removeEdgeReferences(Sets.difference(chunk.getValue2(), vertexIds), edgeIds);
+            dropped += vertexIds.size();
+        } while (chunk.getValue0().size() >= chunkSize);
+        return dropped;
+    }
+
+    /**
+     * Queries only the requested properties of the vertices matching the provided query on the server side. The vertices are
+     * neither loaded nor cached, so partial reads do not end up as incomplete states in the caches.
+     *
+     * @param query the function which sets the MATCH, WHERE, ORDER BY, SKIP and LIMIT clauses on the query builder
+     * @param keys  the keys of the properties to be returned, all properties are returned if empty
+     * @return the property maps for each vertex in the order of the query, missing properties are mapped to {@code null}
+     */
+    @Nonnull
+    public Iterator<Map<String, Object>> queryVertexProperties(@Nonnull final Function<VertexQueryBuilder, VertexQueryBuilder> query,
+                                                               @Nonnull final Collection<String> keys) {
+        return vertexStateHandler.queryProperties(query.andThen(q -> q.andThen(v -> v.returnProperties(keys)))).iterator();
+    }
+
+    /**
+     * Queries only the requested properties of the edges matching the provided query on the server side. The edges are
+     * neither loaded nor cached, so partial reads do not end up as incomplete states in the caches.
+     *
+     * @param query the function which sets the relation, WHERE, ORDER BY, SKIP and LIMIT clauses on the query builder
+     * @param keys  the keys of the properties to be returned, all properties are returned if empty
+     * @return the property maps for each edge in the order of the query, missing properties are mapped to {@code null}
+     */
+    @Nonnull
+    public Iterator<Map<String, Object>> queryEdgeProperties(@Nonnull final Function<EdgeQueryBuilder, EdgeQueryBuilder> query,
+                                                             @Nonnull final Collection<String> keys) {
+        return edgeStateHandler.queryProperties(query.andThen(q -> q.andThen(e -> e.returnProperties(keys)))).iterator();
+    }
+
+    /**
+     * Queries the vertices on the rhs of the relations matching the provided query on the server side,
+     * using a single query for the relations and the adjacent vertices.
+     *
+     * @param query the function which sets the relation, WHERE, ORDER BY, SKIP and LIMIT clauses on the query builder
+     * @return the adjacent vertices, once for each relation leading to them, lazily loaded in the order of the query
+     */
+    @Nonnull
+    public Iterator<Vertex> queryAdjacentVertices(@Nonnull final Function<EdgeQueryBuilder, EdgeQueryBuilder> query) {
+        return vertexScope.queryAndCacheInOrder(query.apply(new EdgeQueryBuilder(partition, vertexIdStrategy)).andThen(EdgeQueryFactory::returnRhs))
+                .map(this::getOrCreateVertex)
+                .iterator();
+    }
+
+    /**
+     * Resolves the relations of multiple vertices at once, using a single query per direction, so the edges of
+     * those vertices can be retrieved from the cache afterwards.
+     *
+     * @param vertexIds the ids of the vertices
+     * @param direction the direction of the relations
+     * @param labels    the labels of the relations to be resolved (or an empty set if all are being resolved)
+     */
+    public void resolveRelationsOf(@Nonnull final Set<Long> vertexIds,
+                                   @Nonnull final Direction direction,
+                                   @Nonnull final Set<String> labels) {
+        relationHandler.resolveRelationsOf(vertexIds, direction, labels);
+    }
+
     /**
      * Creates an index for a vertex property using the provided labels to match them.
      *
@@ -198,6 +566,24 @@ public class Neo4JGraph implements Graph {
         vertexStateHandler.createIndex(label, propertyNames);
     }
 
+    /**
+     * Creates the unique constraint for the client generated ids of the vertices on the label all of those vertices have,
+     * which also indexes the ids. The {@link Neo4JGraphFactory} creates it when it is started.
+     *
+     * @throws IllegalStateException in case the vertex ids are not generated on the client
+     */
+    public void createVertexIdConstraint() {
+        vertexStateHandler.createIdConstraint();
+    }
+
+    /**
+     * @return {@code true} if there are vertices in the partition lacking a client generated id, which cannot be read
+     * @throws IllegalArgumentException in case the vertex ids are not generated on the client
+     */
+    public boolean hasVerticesWithoutId() {
+        return vertexStateHandler.hasVerticesWithoutId();
+    }
+
     /**
      * Creates an index for a edge property using the provided label to match them.
      *
@@ -223,20 +609,70 @@ public class Neo4JGraph implements Graph {
                 .iterator();
     }
 
+
+    private <R, S extends Neo4JElementState> CompletionStage<Iterator<R>> loadAndReturnFoundElementsOnlyAsync(@Nonnull final Neo4JElementStateScope<S, ? extends AbstractQueryBuilder> scope,
+                                                                                                          @Nonnull final Function<Long, R> accessor,
+                                                                                                          @Nonnull final Object... ids) {
+        final Collection<Long> idCollection = Stream.of(ids).filter(Long.class::isInstance).map(l -> (Long) l).collect(ImmutableList.toImmutableList());
+        return scope.getAllAsync(idCollection).thenApply(loaded ->
+                (!idCollection.isEmpty() ? idCollection.stream() : loaded.keySet().stream())
+                        .filter(loaded::containsKey)
+                        .map(accessor::apply)
+                        .iterator());
+    }
+
     Neo4JEdge addEdge(@Nonnull final String label,
                       @Nonnull final Neo4JVertex outVertex,
                       @Nonnull final Neo4JVertex inVertex, final Object... keyValues) {
+        final long id = edgeScope.create(newEdgeState(label, outVertex, inVertex, keyValues));
+        relationHandler.registerEdge(outVertex.id, Direction.OUT, label, id);
+        relationHandler.registerEdge(inVertex.id, Direction.IN, label, id);
+        return getOrCreateEdge(id);
+    }
 
+    /**
+     * Add multiple edges at once, creating all the edges with the same label using a single statement.
+     *
+     * @param edges the specifications of the edges
+     * @return the new edges in the order of the specifications
+     */
+    @Nonnull
+    public List<Edge> addEdges(@Nonnull final List<EdgeSpec> edges) {
+        final List<Neo4JEdgeState> states = edges.stream()
+                .map(spec -> newEdgeState(spec.getLabel(), asNeo4JVertex(spec.getOutVertex()), asNeo4JVertex(spec.getInVertex()),
+                        asKeyValues(spec.getProperties())))
+                .collect(ImmutableList.toImmutableList());
+        final List<Long> ids = edgeScope.createAll(states);
+        final Map<Long, Neo4JEdgeState> created = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            created.put(ids.get(i), states.get(i));
+        }
+        relationHandler.registerEdges(created);
+        return ids.stream()
+                .map(this::getOrCreateEdge)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    @Nonnull
+    private Neo4JEdgeState newEdgeState(@Nonnull final String label,
+                                        @Nonnull final Neo4JVertex outVertex,
+                                        @Nonnull final Neo4JVertex inVertex, final Object... keyValues) {
         ElementHelper.validateLabel(label);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
 
         final ImmutableMap<String, Object> properties =
                 ImmutableMap.copyOf(Maps.filterKeys(ElementHelper.asMap(keyValues), k -> !Objects.equals(T.label, k)));
 
-        final long id = edgeScope.create(new Neo4JEdgeState(label, properties, inVertex.id(), outVertex.id()));
-        relationHandler.registerEdge(outVertex.id, Direction.OUT, label, id);
-        relationHandler.registerEdge(inVertex.id, Direction.IN, label, id);
-        return getOrCreateEdge(id);
+        return new Neo4JEdgeState(label, properties, inVertex.id(), outVertex.id());
+    }
+
+    @Nonnull
+    private static Neo4JVertex asNeo4JVertex(@Nonnull final Vertex vertex) {
+        if (!(vertex instanceof Neo4JVertex)) {
+            throw new IllegalArgumentException("Cannot connect a " + vertex.getClass().getSimpleName() + " using a " +
+                    Neo4JGraph.class.getSimpleName());
+        }
+        return (Neo4JVertex) vertex;
     }
 
     @Override
@@ -267,7 +703,7 @@ public class Neo4JGraph implements Graph {
         return Neo4JFeatures.INSTANCE;
     }
 
-    private Vertex getOrCreateVertex(final long id) {
+    Vertex getOrCreateVertex(final long id) {
         return vertices.getOrCreate(id, () -> {
             final Neo4JVertex newVertex = new Neo4JVertex(this, id, vertexScope, relationHandler);
             return newVertex;
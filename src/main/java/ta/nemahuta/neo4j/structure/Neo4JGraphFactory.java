@@ -1,7 +1,10 @@
 package ta.nemahuta.neo4j.structure;
 
 import lombok.Getter;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.neo4j.driver.v1.AccessMode;
 import org.neo4j.driver.v1.Config;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.GraphDatabase;
@@ -12,9 +15,16 @@ import ta.nemahuta.neo4j.config.Neo4JConfiguration;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.cache.Caching;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Factory for {@link Neo4JGraph}.
@@ -24,6 +34,11 @@ import java.util.function.Supplier;
  */
 public class Neo4JGraphFactory implements AutoCloseable, Supplier<Graph> {
 
+    /**
+     * the number of elements per page for a parallel scan, unless configured otherwise
+     */
+    public static final int DEFAULT_SCAN_PAGE_SIZE = 1000;
+
     private final SessionCacheManager cacheManager;
 
     @Getter
@@ -34,11 +49,39 @@ public class Neo4JGraphFactory implements AutoCloseable, Supplier<Graph> {
         this(new JCacheSessionCacheManager(Caching.getCachingProvider(), configuration), configuration);
     }
 
+    /**
+     * Create a new factory. In case the vertex ids are generated on the client, the unique constraint for them is created
+     * and the vertices of the partition are checked to have one.
+     *
+     * @param cacheManager  the manager for the global and the session caches
+     * @param configuration the configuration of the graphs
+     * @throws IllegalStateException in case there are vertices lacking a client generated id
+     */
     public Neo4JGraphFactory(@Nonnull final SessionCacheManager cacheManager,
                              @Nonnull final Neo4JConfiguration configuration) {
         this.cacheManager = cacheManager;
         this.configuration = configuration;
         this.driver = createDriver();
+        if (Neo4JGraph.createVertexIdStrategy(configuration).isClientGenerated()) {
+            try {
+                prepareVertexIds();
+            } catch (final RuntimeException e) {
+                driver.close();
+                throw e;
+            }
+        }
+    }
+
+    private void prepareVertexIds() {
+        // Schema changes cannot be mixed with other statements, so the constraint is created in a transaction of its own
+        inSession(AccessMode.WRITE, graph -> {
+            graph.createVertexIdConstraint();
+            return null;
+        });
+        if (inSession(AccessMode.READ, Neo4JGraph::hasVerticesWithoutId)) {
+            throw new IllegalStateException("There are vertices without an id in the property '" + configuration.getVertexIdProperty() +
+                    "', which cannot be read. Set a unique id and the label of the ids on each of them before using client generated ids.");
+        }
     }
 
     @Nonnull
@@ -47,6 +90,85 @@ public class Neo4JGraphFactory implements AutoCloseable, Supplier<Graph> {
         return new Neo4JGraph(driver.session(), cacheManager, configuration);
     }
 
+    /**
+     * Scans all the vertices read-only in parallel, using a separate session for each part of the id range. The parts are
+     * split on the boundaries of a sample of the ids, so they hold about the same number of vertices even if the ids are
+     * not distributed evenly. The pages are decoded on a {@link ForkJoinPool} and the loaded states are merged into the
+     * global caches of the factory.
+     *
+     * @param sessions the number of sessions to be used in parallel
+     * @param consumer the thread-safe consumer for the vertices
+     */
+    public void parallelScanVertices(final int sessions, @Nonnull final Consumer<? super Vertex> consumer) {
+        parallelScan(sessions, Neo4JGraph::splitVertexIds, Neo4JGraph::scanVertices, consumer);
+    }
+
+    /**
+     * Scans all the edges read-only in parallel, using a separate session for each part of the id range. The parts are
+     * split on the boundaries of a sample of the ids, so they hold about the same number of edges even if the ids are
+     * not distributed evenly. The pages are decoded on a {@link ForkJoinPool} and the loaded states are merged into the
+     * global caches of the factory.
+     *
+     * @param sessions the number of sessions to be used in parallel
+     * @param consumer the thread-safe consumer for the edges
+     */
+    public void parallelScanEdges(final int sessions, @Nonnull final Consumer<? super Edge> consumer) {
+        parallelScan(sessions, Neo4JGraph::splitEdgeIds, Neo4JGraph::scanEdges, consumer);
+    }
+
+    private <E> void parallelScan(final int sessions,
+                                  @Nonnull final BiFunction<Neo4JGraph, Integer, List<Long>> split,
+                                  @Nonnull final RangeScan<E> scan,
+                                  @Nonnull final Consumer<? super E> consumer) {
+        if (sessions < 1) {
+            throw new IllegalArgumentException("At least one session is required for a scan, got: " + sessions);
+        }
+        final List<Long> upperBounds = inSession(AccessMode.READ, graph -> split.apply(graph, sessions));
+        final int pageSize = configuration.getScanPageSize() > 0 ? configuration.getScanPageSize() : DEFAULT_SCAN_PAGE_SIZE;
+        final ForkJoinPool pool = new ForkJoinPool(sessions);
+        try {
+            pool.submit(() -> IntStream.range(0, upperBounds.size()).parallel().forEach(part -> inSession(AccessMode.READ, graph -> {
+                // The ranges are (afterId, upToId], so the first one has to start before the id 0
+                final long afterId = part > 0 ? upperBounds.get(part - 1) : -1;
+                scan.scan(graph, afterId, upperBounds.get(part), pageSize).forEachRemaining(consumer);
+                return null;
+            }))).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning in parallel.", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Could not scan in parallel.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Applies a function to a graph on a new session, committing the transaction if it succeeds, so the states
+     * loaded are merged into the global caches.
+     */
+    private <R> R inSession(@Nonnull final AccessMode mode, @Nonnull final Function<Neo4JGraph, R> function) {
+        final Neo4JGraph graph = new Neo4JGraph(driver.session(mode), cacheManager, configuration);
+        try {
+            final R result = function.apply(graph);
+            graph.tx().commit();
+            return result;
+        } catch (final RuntimeException e) {
+            graph.tx().rollback();
+            throw e;
+        } finally {
+            graph.tx().close();
+            graph.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<E> {
+
+        Iterator<E> scan(Neo4JGraph graph, long afterId, long upToId, int pageSize);
+
+    }
+
     @Nonnull
     protected Driver createDriver() {
         final Config config = createAdditionalConfiguration(configuration.getAdditionConfiguration());
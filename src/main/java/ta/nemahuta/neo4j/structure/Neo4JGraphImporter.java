@@ -0,0 +1,405 @@
+package ta.nemahuta.neo4j.structure;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk importer for a {@link Neo4JGraph}, which streams the input and creates the vertices and edges in batches using
+ * {@link Neo4JGraph#addVertices(List)} and {@link Neo4JGraph#addEdges(List)} instead of a statement per element. The
+ * transaction is committed periodically to bound its memory. The ids of the source are mapped to the ids of the created
+ * vertices, numeric ones using a primitive map. Edges referencing vertices which have not been read yet are deferred
+ * until the end of the input.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+@Slf4j
+public class Neo4JGraphImporter {
+
+    /**
+     * the number of vertices or edges created per statement, unless configured otherwise
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * the number of elements created per transaction, unless configured otherwise
+     */
+    public static final int DEFAULT_COMMIT_SIZE = 20000;
+
+    private static final String GRAPHML_KEY = "key", GRAPHML_NODE = "node", GRAPHML_EDGE = "edge", GRAPHML_DATA = "data",
+            GRAPHML_ID = "id", GRAPHML_SOURCE = "source", GRAPHML_TARGET = "target", GRAPHML_LABEL = "label",
+            GRAPHML_ATTR_NAME = "attr.name", GRAPHML_ATTR_TYPE = "attr.type", GRAPHML_LABEL_V = "labelV", GRAPHML_LABEL_E = "labelE";
+
+    private final Neo4JGraph graph;
+
+    private final int batchSize;
+
+    private final int commitSize;
+
+    private final LongIdMap numericIds = new LongIdMap();
+
+    private final Map<Object, Long> otherIds = new HashMap<>();
+
+    private final List<Object> pendingVertexIds = new ArrayList<>();
+
+    private final List<Map<Object, Object>> pendingVertices = new ArrayList<>();
+
+    private final List<PendingEdge> pendingEdges = new ArrayList<>();
+
+    private final List<PendingEdge> deferredEdges = new ArrayList<>();
+
+    private int uncommitted = 0;
+
+    /**
+     * the number of vertices created so far
+     */
+    @Getter
+    private long importedVertices = 0;
+
+    /**
+     * the number of edges created so far
+     */
+    @Getter
+    private long importedEdges = 0;
+
+    public Neo4JGraphImporter(@Nonnull final Neo4JGraph graph) {
+        this(graph, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_SIZE);
+    }
+
+    /**
+     * Create a new importer.
+     *
+     * @param graph      the graph to import into
+     * @param batchSize  the number of vertices or edges to be created per statement
+     * @param commitSize the number of elements created per transaction, {@code 0} to commit at the end of the import only
+     */
+    public Neo4JGraphImporter(@Nonnull final Neo4JGraph graph, final int batchSize, final int commitSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("At least one element has to be created per statement, got: " + batchSize);
+        }
+        this.graph = graph;
+        this.batchSize = batchSize;
+        this.commitSize = Math.max(0, commitSize);
+    }
+
+    /**
+     * Read a GraphML document, streaming its nodes and edges into the graph, and {@link #finish()} the import.
+     *
+     * @param input the stream providing the document
+     * @throws IOException in case the document cannot be read
+     */
+    public void readGraphML(@Nonnull final InputStream input) throws IOException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            final XMLStreamReader reader = factory.createXMLStreamReader(input);
+            try {
+                readGraphML(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException("Could not read the GraphML document.", e);
+        }
+        finish();
+    }
+
+    private void readGraphML(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        // The key ids mapped to the name and the type of the attribute
+        final Map<String, String[]> keys = new HashMap<>();
+        GraphMLElement element = null;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case GRAPHML_KEY:
+                        keys.put(reader.getAttributeValue(null, GRAPHML_ID), new String[]{
+                                reader.getAttributeValue(null, GRAPHML_ATTR_NAME), reader.getAttributeValue(null, GRAPHML_ATTR_TYPE)});
+                        break;
+                    case GRAPHML_NODE:
+                        element = new GraphMLElement(reader.getAttributeValue(null, GRAPHML_ID), null, null, Vertex.DEFAULT_LABEL);
+                        break;
+                    case GRAPHML_EDGE:
+                        element = new GraphMLElement(reader.getAttributeValue(null, GRAPHML_ID),
+                                reader.getAttributeValue(null, GRAPHML_SOURCE), reader.getAttributeValue(null, GRAPHML_TARGET),
+                                Optional.ofNullable(reader.getAttributeValue(null, GRAPHML_LABEL)).orElse(Edge.DEFAULT_LABEL));
+                        break;
+                    case GRAPHML_DATA:
+                        if (element != null) {
+                            final String key = reader.getAttributeValue(null, GRAPHML_KEY);
+                            final String text = reader.getElementText();
+                            if (GRAPHML_LABEL_V.equals(key) || GRAPHML_LABEL_E.equals(key)) {
+                                element.label = text;
+                            } else {
+                                final String[] attribute = keys.getOrDefault(key, new String[]{key, null});
+                                element.properties.put(Optional.ofNullable(attribute[0]).orElse(key), typeCast(text, attribute[1]));
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && element != null) {
+                if (GRAPHML_NODE.equals(reader.getLocalName())) {
+                    addVertex(element.id, element.label, element.properties);
+                    element = null;
+                } else if (GRAPHML_EDGE.equals(reader.getLocalName())) {
+                    addEdge(element.label, element.source, element.target, element.properties);
+                    element = null;
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    private static Object typeCast(@Nonnull final String value, final String type) {
+        switch (Optional.ofNullable(type).orElse("string")) {
+            case "int":
+                return Integer.valueOf(value);
+            case "long":
+                return Long.valueOf(value);
+            case "float":
+                return Float.valueOf(value);
+            case "double":
+                return Double.valueOf(value);
+            case "boolean":
+                return Boolean.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Read a GraphSON adjacency list using the default reader, streaming its vertices and outgoing edges line by line into the
+     * graph, and {@link #finish()} the import.
+     *
+     * @param input the stream providing the adjacency list
+     * @throws IOException in case the input cannot be read
+     */
+    public void readGraphSON(@Nonnull final InputStream input) throws IOException {
+        readGraphSON(input, GraphSONReader.build().create());
+    }
+
+    /**
+     * Read a GraphSON adjacency list, streaming its vertices and outgoing edges line by line into the graph, and
+     * {@link #finish()} the import.
+     *
+     * @param input  the stream providing the adjacency list
+     * @param reader the reader for the version of GraphSON used by the input
+     * @throws IOException in case the input cannot be read
+     */
+    public void readGraphSON(@Nonnull final InputStream input, @Nonnull final GraphSONReader reader) throws IOException {
+        reader.readVertices(input, attachable -> {
+            final Vertex vertex = attachable.get();
+            addVertex(vertex.id(), vertex.label(), propertiesOf(vertex));
+            return vertex;
+        }, attachable -> {
+            final Edge edge = attachable.get();
+            addEdge(edge.label(), edge.outVertex().id(), edge.inVertex().id(), propertiesOf(edge));
+            return edge;
+        }, Direction.OUT).forEachRemaining(vertex -> {
+            // The vertices are imported while being read
+        });
+        finish();
+    }
+
+    @Nonnull
+    private static Map<String, Object> propertiesOf(@Nonnull final Element element) {
+        return IteratorUtils.stream(element.properties())
+                .collect(Collectors.toMap(p -> p.key(), p -> p.value(), (first, second) -> second));
+    }
+
+    /**
+     * Add a vertex, which is created once the batch is complete.
+     *
+     * @param sourceId   the id of the vertex in the source
+     * @param label      the label of the vertex
+     * @param properties the properties of the vertex
+     */
+    public void addVertex(@Nonnull final Object sourceId,
+                          @Nonnull final String label,
+                          @Nonnull final Map<String, ?> properties) {
+        final Map<Object, Object> keyValues = new HashMap<>(properties);
+        keyValues.put(T.label, label);
+        pendingVertexIds.add(sourceId);
+        pendingVertices.add(keyValues);
+        if (pendingVertices.size() >= batchSize) {
+            flushVertices();
+        }
+    }
+
+    /**
+     * Add an edge, which is created once the batch is complete and both of its vertices have been created.
+     *
+     * @param label       the label of the edge
+     * @param outSourceId the id of the outbound vertex in the source
+     * @param inSourceId  the id of the inbound vertex in the source
+     * @param properties  the properties of the edge
+     */
+    public void addEdge(@Nonnull final String label,
+                        @Nonnull final Object outSourceId,
+                        @Nonnull final Object inSourceId,
+                        @Nonnull final Map<String, ?> properties) {
+        pendingEdges.add(new PendingEdge(label, outSourceId, inSourceId, ImmutableMap.copyOf(properties)));
+        if (pendingEdges.size() >= batchSize) {
+            flushEdges();
+        }
+    }
+
+    /**
+     * Resolve the id of an imported vertex.
+     *
+     * @param sourceId the id of the vertex in the source
+     * @return the {@link Optional} of the id of the vertex in the graph, empty if it has not been created (yet)
+     */
+    @Nonnull
+    public Optional<Long> getVertexId(@Nonnull final Object sourceId) {
+        final long id = resolve(sourceId);
+        return id == LongIdMap.NO_ID ? Optional.empty() : Optional.of(id);
+    }
+
+    /**
+     * Create all the pending vertices and edges, including the deferred ones, and commit the transaction.
+     *
+     * @throws IllegalStateException in case edges reference vertices which have not been imported
+     */
+    public void finish() {
+        flushEdges();
+        // All the vertices have been created, so the deferred edges can be resolved now
+        pendingEdges.addAll(deferredEdges);
+        deferredEdges.clear();
+        flushEdges();
+        if (!deferredEdges.isEmpty()) {
+            throw new IllegalStateException(deferredEdges.size() + " edges reference vertices which have not been imported, e.g. " +
+                    deferredEdges.get(0));
+        }
+        graph.tx().commit();
+        uncommitted = 0;
+        log.debug("Imported {} vertices and {} edges", importedVertices, importedEdges);
+    }
+
+    private void flushVertices() {
+        if (pendingVertices.isEmpty()) {
+            return;
+        }
+        final List<Vertex> created = graph.addVertices(ImmutableList.copyOf(pendingVertices));
+        for (int i = 0; i < created.size(); i++) {
+            mapId(pendingVertexIds.get(i), (Long) created.get(i).id());
+        }
+        pendingVertexIds.clear();
+        pendingVertices.clear();
+        importedVertices += created.size();
+        created(created.size());
+    }
+
+    private void flushEdges() {
+        // The vertices of the edges may still be pending
+        flushVertices();
+        while (!pendingEdges.isEmpty()) {
+            final List<PendingEdge> batch = pendingEdges.subList(0, Math.min(batchSize, pendingEdges.size()));
+            final List<EdgeSpec> specs = new ArrayList<>(batch.size());
+            for (final PendingEdge edge : batch) {
+                final long outId = resolve(edge.outSourceId), inId = resolve(edge.inSourceId);
+                if (outId == LongIdMap.NO_ID || inId == LongIdMap.NO_ID) {
+                    deferredEdges.add(edge);
+                } else {
+                    specs.add(new EdgeSpec(edge.label, graph.getOrCreateVertex(outId), graph.getOrCreateVertex(inId), edge.properties));
+                }
+            }
+            batch.clear();
+            if (!specs.isEmpty()) {
+                graph.addEdges(specs);
+                importedEdges += specs.size();
+                created(specs.size());
+            }
+        }
+    }
+
+    private void created(final int count) {
+        uncommitted += count;
+        if (commitSize > 0 && uncommitted >= commitSize) {
+            log.debug("Committing {} imported elements", uncommitted);
+            graph.tx().commit();
+            uncommitted = 0;
+        }
+    }
+
+    private void mapId(@Nonnull final Object sourceId, final long id) {
+        final Long numericId = numericIdOf(sourceId);
+        if (numericId != null) {
+            numericIds.put(numericId, id);
+        } else {
+            otherIds.put(sourceId, id);
+        }
+    }
+
+    private long resolve(@Nonnull final Object sourceId) {
+        final Long numericId = numericIdOf(sourceId);
+        return numericId != null ? numericIds.get(numericId) : otherIds.getOrDefault(sourceId, LongIdMap.NO_ID);
+    }
+
+    private static Long numericIdOf(@Nonnull final Object sourceId) {
+        if (sourceId instanceof Long || sourceId instanceof Integer || sourceId instanceof Short || sourceId instanceof Byte) {
+            return ((Number) sourceId).longValue();
+        }
+        return sourceId instanceof String ? Longs.tryParse((String) sourceId) : null;
+    }
+
+    @AllArgsConstructor
+    private static class GraphMLElement {
+
+        private final String id;
+        private final String source;
+        private final String target;
+        private String label;
+        private final Map<String, Object> properties = new HashMap<>();
+
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingEdge {
+
+        @NonNull
+        private final String label;
+        @NonNull
+        private final Object outSourceId;
+        @NonNull
+        private final Object inSourceId;
+        @NonNull
+        private final Map<String, Object> properties;
+
+        @Override
+        public String toString() {
+            return label + "(" + outSourceId + " -> " + inSourceId + ")";
+        }
+
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -66,6 +67,21 @@ public class Neo4JVertex extends Neo4JElement<Neo4JVertexState, VertexProperty>
                 .iterator();
     }
 
+    /**
+     * Provides the ids of the adjacent vertices, once for each relation leading to them, without loading the vertices themselves.
+     *
+     * @param direction  the direction of the relations
+     * @param edgeLabels the labels of the relations, or none for all of them
+     * @return the ids of the adjacent vertices
+     */
+    @Nonnull
+    public Stream<Long> adjacentVertexIds(@Nonnull final Direction direction,
+                                          @Nonnull final String... edgeLabels) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(edges(direction, edgeLabels), Spliterator.ORDERED), false)
+                .map(e -> ((Neo4JEdge) e).getState())
+                .map(e -> e.getInVertexId() == id ? e.getOutVertexId() : e.getInVertexId());
+    }
+
 
     @Override
     public String label() {
@@ -0,0 +1,97 @@
+package ta.nemahuta.neo4j.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedChildCacheTest {
+
+    private final BoundedChildCache<String, String> sut = new BoundedChildCache<>(10, String::length);
+
+    @Test
+    void evictsLeastRecentlyUsedByWeight() {
+        // when: 'putting values exceeding the maximum weight, accessing the first one in between'
+        sut.put("a", "xxxx");
+        sut.put("b", "xxxx");
+        sut.get("a", k -> null);
+        sut.put("c", "xxxx");
+        // then: 'the least recently used value is evicted'
+        assertEquals(ImmutableSet.of("b"), sut.getEvictedKeys());
+        assertEquals(8, sut.getWeight());
+        assertEquals(1, sut.getEvictionCount());
+        // and: 'the evicted value is neither returned nor taken from the fallback'
+        assertNull(sut.get("b", k -> "outdated"));
+    }
+
+    @Test
+    void evictsLoadedValuesWithoutRememberingThem() {
+        // when: 'loaded values exceed the maximum weight'
+        sut.putLoaded("a", "xxxx");
+        sut.putLoaded("b", "xxxx");
+        sut.putLoaded("c", "xxxx");
+        // then: 'the evicted value is taken from the fallback again'
+        assertEquals(ImmutableSet.of(), sut.getEvictedKeys());
+        assertEquals("parent", sut.get("a", k -> "parent"));
+    }
+
+    @Test
+    void loadedValueStaysDirty() {
+        // setup: 'a changed value'
+        sut.put("a", "xxxx");
+        // when: 'loading the value again and evicting it for a more frequently used one'
+        sut.putLoaded("a", "xxxx");
+        sut.putLoaded("b", "xxxxxxxx");
+        sut.putLoaded("b", "xxxxxxxx");
+        // then: 'the evicted value is remembered as it has been changed'
+        assertEquals(ImmutableSet.of("a"), sut.getEvictedKeys());
+        assertNull(sut.get("a", k -> "outdated"));
+    }
+
+    @Test
+    void rejectsLessFrequentValues() {
+        // setup: 'a frequently used value'
+        sut.put("a", "xxxxxx");
+        for (int i = 0; i < 5; i++) {
+            sut.get("a", k -> null);
+        }
+        // when: 'putting a new value exceeding the maximum weight'
+        sut.put("b", "xxxxxx");
+        // then: 'the new value is not admitted'
+        assertEquals(ImmutableSet.of("b"), sut.getEvictedKeys());
+        assertEquals("xxxxxx", sut.get("a", k -> null));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        sut.put("a", "x");
+        assertEquals("x", sut.get("a", k -> null));
+        assertEquals("y", sut.get("b", k -> "y"));
+        assertEquals(1, sut.getHitCount());
+        assertEquals(1, sut.getMissCount());
+    }
+
+    @Test
+    void putReplacesWeightAndEviction() {
+        sut.put("a", "xxxxxxxx");
+        sut.put("b", "xxxxxxxx");
+        // when: 'putting an evicted key again'
+        sut.put("a", "x");
+        // then: 'the key is no longer evicted and the weight is updated'
+        assertEquals(ImmutableList.of("b", "a"), sut.getKeys());
+        assertEquals(9, sut.getWeight());
+    }
+
+    @Test
+    void clearReturnsValues() {
+        sut.put("a", "x");
+        sut.put("b", "xxxxxxxxxx");
+        assertEquals(ImmutableMap.of("b", "xxxxxxxxxx"), sut.clear());
+        assertEquals(0, sut.getWeight());
+        assertEquals(ImmutableSet.of(), sut.getEvictedKeys());
+    }
+
+}
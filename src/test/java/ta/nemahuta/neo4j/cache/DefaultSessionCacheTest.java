@@ -18,7 +18,7 @@ class DefaultSessionCacheTest {
     @Mock
     private HierarchicalCache<Long, Neo4JVertexState> vertexCache;
     @Mock
-    private IdCache<Long> edgeIds, vertexIds;
+    private IdCache edgeIds, vertexIds;
 
     @Test
     void returnsCaches() {
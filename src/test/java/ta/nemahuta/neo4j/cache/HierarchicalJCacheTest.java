@@ -1,5 +1,6 @@
 package ta.nemahuta.neo4j.cache;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,13 +11,11 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import javax.cache.Cache;
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,44 +24,52 @@ class HierarchicalJCacheTest {
 
     @Mock
     private Cache<String, String> parentCacheMock;
-    @Mock
-    private Map<String, Reference<String>> childCacheMock;
 
     @Mock
     private Cache.Entry<String, String> cacheEntryMock1;
 
-    @Mock
-    private Map.Entry<String, Reference<String>> cacheEntryMock2;
+    private final BoundedChildCache<String, String> child = new BoundedChildCache<>(2, v -> 1);
 
     private HierarchicalCache<String, String> sut;
 
     @BeforeEach
     void setupSut() {
-        this.sut = new HierarchicalJCache<>(parentCacheMock, childCacheMock);
+        this.sut = new HierarchicalJCache<>(parentCacheMock, child);
         when(parentCacheMock.iterator()).then(i -> ImmutableSet.of(cacheEntryMock1).iterator());
-        when(childCacheMock.keySet()).then(i -> ImmutableSet.of("y"));
         when(cacheEntryMock1.getKey()).thenReturn("a");
         when(cacheEntryMock1.getValue()).thenReturn("b");
-        when(childCacheMock.entrySet()).thenReturn(ImmutableSet.of(cacheEntryMock2));
-        when(cacheEntryMock2.getKey()).thenReturn("x");
-        when(cacheEntryMock2.getValue()).thenReturn(new SoftReference<>("y"));
     }
 
     @Test
     void commit() {
+        // setup: 'an element in the child cache'
+        sut.put("x", "y");
         // when: 'committing the cache'
         sut.commit();
         // then: 'the element of the child cache has been put to the parent cache'
-        verify(parentCacheMock, times(1)).put(eq("x"), eq("y"));
-        verify(childCacheMock, times(1)).remove(eq("x"));
-        verify(childCacheMock, times(1)).entrySet();
-        verifyNoMoreInteractions(parentCacheMock, childCacheMock);
+        verify(parentCacheMock, times(1)).putAll(ImmutableMap.of("x", "y"));
+        verify(parentCacheMock, times(1)).removeAll(ImmutableSet.of());
+        // and: 'the child cache is empty'
+        assertEquals(0, child.getKeys().size());
+    }
+
+    @Test
+    void commitRemovesEvictedFromParent() {
+        // setup: 'more elements than the child cache can hold'
+        sut.put("x", "1");
+        sut.put("y", "2");
+        sut.put("z", "3");
+        // when: 'committing the cache'
+        sut.commit();
+        // then: 'the evicted element is removed from the parent cache, as it may be outdated'
+        verify(parentCacheMock, times(1)).putAll(ImmutableMap.of("y", "2", "z", "3"));
+        verify(parentCacheMock, times(1)).removeAll(ImmutableSet.of("x"));
     }
 
     @Test
     void getChildItem() {
-        // setup: 'stubbing of the get on the child cache'
-        when(childCacheMock.get("x")).thenReturn(new SoftReference<>("y"));
+        // setup: 'an element in the child cache'
+        sut.put("x", "y");
         // when: 'querying the cache'
         assertEquals("y", sut.get("x"));
         // then: 'no interaction was made with the parent'
@@ -71,12 +78,51 @@ class HierarchicalJCacheTest {
 
     @Test
     void getMissChildItem() {
-        // setup: 'stubbing of the get on the child cache'
+        // setup: 'stubbing of the get on the parent cache'
         when(parentCacheMock.get("x")).thenReturn("y");
         // when: 'querying the cache'
         assertEquals("y", sut.get("x"));
-        // then: 'no interaction was made with the parent'
-        verify(childCacheMock).get("x");
+        // then: 'the miss has been counted'
+        assertEquals(1, child.getMissCount());
+    }
+
+    @Test
+    void getEvictedItem() {
+        // setup: 'an element being evicted from the child cache'
+        when(parentCacheMock.get("x")).thenReturn("outdated");
+        sut.put("x", "1");
+        sut.put("y", "2");
+        sut.put("z", "3");
+        // when: 'querying the cache'
+        assertNull(sut.get("x"));
+        // then: 'the parent is not used'
+        verify(parentCacheMock, never()).get("x");
+    }
+
+    @Test
+    void getEvictedLoadedItem() {
+        // setup: 'a loaded element being evicted from the child cache'
+        when(parentCacheMock.get("x")).thenReturn("1");
+        sut.putLoaded("x", "1");
+        sut.putLoaded("y", "2");
+        sut.putLoaded("z", "3");
+        // when: 'querying the cache'
+        assertEquals("1", sut.get("x"));
+        // then: 'the parent is used'
+        verify(parentCacheMock, times(1)).get("x");
+    }
+
+    @Test
+    void commitKeepsEvictedLoadedInParent() {
+        // setup: 'more loaded elements than the child cache can hold'
+        sut.putLoaded("x", "1");
+        sut.putLoaded("y", "2");
+        sut.putLoaded("z", "3");
+        // when: 'committing the cache'
+        sut.commit();
+        // then: 'nothing is removed from the parent cache'
+        verify(parentCacheMock, times(1)).putAll(ImmutableMap.of("y", "2", "z", "3"));
+        verify(parentCacheMock, times(1)).removeAll(ImmutableSet.of());
     }
 
     @Test
@@ -84,26 +130,30 @@ class HierarchicalJCacheTest {
         // when: 'putting an element to the cache'
         sut.put("x", "y");
         // then: 'the element is put to the child cache only'
-        verify(childCacheMock, times(1)).put(eq("x"), argThat(i -> i.get().equals("y")));
+        assertEquals(1, child.getWeight());
         verifyNoMoreInteractions(parentCacheMock);
     }
 
     @Test
     void remove() {
+        // setup: 'an element in the child cache'
+        sut.put("x", "y");
         // when: 'removing a key on the cache'
-        sut.remove("x");
+        assertEquals(true, sut.remove("x"));
         // then: 'the remove is only issued on the child cache'
-        verify(childCacheMock, times(1)).remove("x");
+        assertEquals(0, child.getWeight());
         verifyNoMoreInteractions(parentCacheMock);
     }
 
 
     @Test
     void clear() {
-        // when: 'putting elements to the cache'
+        // setup: 'an element in the child cache'
+        sut.put("x", "y");
+        // when: 'clearing the cache'
         sut.clear();
         // then: 'the clear has been invoked on the child cache only'
-        verify(childCacheMock, times(1)).clear();
+        assertEquals(0, child.getKeys().size());
         verifyNoMoreInteractions(parentCacheMock);
     }
 
@@ -118,12 +168,13 @@ class HierarchicalJCacheTest {
 
     @Test
     void getKeys() {
+        // setup: 'an element in the child cache'
+        sut.put("y", "z");
         // when: 'requesting the iterator'
         final Stream<String> keys = sut.getKeys();
         // then: 'the result is unique by their keys'
         assertEquals(ImmutableSet.copyOf(keys.iterator()), ImmutableSet.of("a", "y"));
-        // and: 'both caches are queried'
-        verify(childCacheMock, times(1)).keySet();
+        // and: 'the parent is queried'
         verify(parentCacheMock, times(1)).iterator();
     }
-}
\ No newline at end of file
+}
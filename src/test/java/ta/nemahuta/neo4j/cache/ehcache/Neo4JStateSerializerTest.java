@@ -0,0 +1,40 @@
+package ta.nemahuta.neo4j.cache.ehcache;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.ehcache.spi.serialization.SerializerException;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Neo4JStateSerializerTest {
+
+    private final Neo4JVertexStateSerializer vertexSerializer = new Neo4JVertexStateSerializer(getClass().getClassLoader());
+    private final Neo4JEdgeStateSerializer edgeSerializer = new Neo4JEdgeStateSerializer(getClass().getClassLoader());
+
+    private final Neo4JVertexState vertexState = new Neo4JVertexState(ImmutableSet.of("A"), ImmutableMap.of("x", 1l));
+    private final Neo4JEdgeState edgeState = new Neo4JEdgeState("X", ImmutableMap.of("y", "z"), 1l, 2l);
+
+    @Test
+    void serializeAndRead() {
+        // when: 'serializing and reading the states'
+        final ByteBuffer vertexBytes = vertexSerializer.serialize(vertexState);
+        final ByteBuffer edgeBytes = edgeSerializer.serialize(edgeState);
+        // then: 'the states are equal'
+        assertTrue(vertexSerializer.equals(vertexState, vertexBytes.duplicate()));
+        assertEquals(vertexState, vertexSerializer.read(vertexBytes));
+        assertEquals(edgeState, edgeSerializer.read(edgeBytes));
+    }
+
+    @Test
+    void readWrongType() {
+        // when: 'reading an edge using the vertex serializer'
+        // then: 'an exception is thrown'
+        assertThrows(SerializerException.class, () -> vertexSerializer.read(edgeSerializer.serialize(edgeState)));
+    }
+
+}
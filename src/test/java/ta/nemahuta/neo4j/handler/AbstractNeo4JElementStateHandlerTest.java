@@ -1,7 +1,9 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,13 +24,18 @@ import ta.nemahuta.neo4j.session.StatementExecutor;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -40,7 +47,7 @@ class AbstractNeo4JElementStateHandlerTest {
     private Neo4JElementState state;
 
     @Mock
-    private Statement deleteStmt, createStmt, updateStmt, loadStmt, createIndexStmt, queryStmt, loadIdsStmt;
+    private Statement deleteStmt, createStmt, updateStmt, loadStmt, createIndexStmt, queryStmt, loadIdsStmt, loadIdsAfterStmt, countAllStmt, maxIdStmt, sampleIdsStmt, bulkUpdateStmt, bulkDeleteStmt, bulkInsertStmt;
 
     @Mock(answer = Answers.CALLS_REAL_METHODS)
     private StatementExecutor statementExecutor;
@@ -59,9 +66,33 @@ class AbstractNeo4JElementStateHandlerTest {
 
     private AbstractNeo4JElementStateHandler<Neo4JElementState, AbstractQueryBuilder> sut;
 
+    private final List<Set<Long>> loadedIds = new ArrayList<>();
+
+    private final List<Double> sampleRatios = new ArrayList<>();
+
+    private final List<List<Map<String, Object>>> updatedRows = new ArrayList<>();
+
     @BeforeEach
     void stubStatements() {
-        sut = new AbstractNeo4JElementStateHandler<Neo4JElementState, AbstractQueryBuilder>(statementExecutor) {
+        sut = createSut(AdaptiveChunkSize.disabled());
+        when(statementExecutor.executeStatement(any())).then(i -> {
+            final Iterator<Record> iter = Stream.of(record).iterator();
+            final StatementResult result = mock(StatementResult.class);
+            when(result.hasNext()).then(ii -> iter.hasNext());
+            when(result.next()).then(ii -> iter.next());
+            return result;
+        });
+        when(queryBuilder.build()).thenReturn(Optional.of(queryStmt));
+        when(record.get(0)).thenReturn(value);
+        when(type.constructor()).thenReturn(TypeConstructor.NUMBER);
+        when(value.type()).thenReturn(type);
+        when(value.asNumber()).thenReturn(2l);
+        when(record.size()).thenReturn(1);
+        when(state.getProperties()).thenReturn(ImmutableMap.of("x", "y"));
+    }
+
+    private AbstractNeo4JElementStateHandler<Neo4JElementState, AbstractQueryBuilder> createSut(final AdaptiveChunkSize chunkSize) {
+        return new AbstractNeo4JElementStateHandler<Neo4JElementState, AbstractQueryBuilder>(statementExecutor, chunkSize) {
 
             @Nonnull
             @Override
@@ -87,6 +118,27 @@ class AbstractNeo4JElementStateHandlerTest {
                 return updateStmt;
             }
 
+            @Nonnull
+            @Override
+            protected Statement createBulkUpdateCommand(@Nonnull final Neo4JElementState currentState,
+                                                        @Nonnull final Neo4JElementState newState,
+                                                        @Nonnull final List<Map<String, Object>> rows) {
+                updatedRows.add(rows);
+                return bulkUpdateStmt;
+            }
+
+            @Nonnull
+            @Override
+            protected Statement createBulkDeleteCommand(@Nonnull final Set<Long> ids) {
+                return bulkDeleteStmt;
+            }
+
+            @Nonnull
+            @Override
+            protected Statement createBulkInsertCommand(@Nonnull final List<Neo4JElementState> states) {
+                return bulkInsertStmt;
+            }
+
             @Nonnull
             @Override
             protected Statement createInsertCommand(@Nonnull final Neo4JElementState state) {
@@ -96,6 +148,7 @@ class AbstractNeo4JElementStateHandlerTest {
             @Nonnull
             @Override
             protected Statement createLoadCommand(@Nonnull final Set<Long> ids) {
+                loadedIds.add(ids);
                 return loadStmt;
             }
 
@@ -105,6 +158,31 @@ class AbstractNeo4JElementStateHandlerTest {
                 return loadIdsStmt;
             }
 
+            @Nonnull
+            @Override
+            protected Statement createLoadIdsAfterCommand(final long afterId) {
+                return loadIdsAfterStmt;
+            }
+
+            @Nonnull
+            @Override
+            protected Statement createCountAllCommand() {
+                return countAllStmt;
+            }
+
+            @Nonnull
+            @Override
+            protected Statement createMaxIdCommand() {
+                return maxIdStmt;
+            }
+
+            @Nonnull
+            @Override
+            protected Statement createSampleIdsCommand(final double ratio) {
+                sampleRatios.add(ratio);
+                return sampleIdsStmt;
+            }
+
             @Nonnull
             @Override
             protected Statement createCreateIndexCommand(@Nonnull final String label, final Set<String> propertyNames) {
@@ -117,19 +195,6 @@ class AbstractNeo4JElementStateHandlerTest {
                 return queryBuilder;
             }
         };
-        when(statementExecutor.executeStatement(any())).then(i -> {
-            final Iterator<Record> iter = Stream.of(record).iterator();
-            final StatementResult result = mock(StatementResult.class);
-            when(result.hasNext()).then(ii -> iter.hasNext());
-            when(result.next()).then(ii -> iter.next());
-            return result;
-        });
-        when(queryBuilder.build()).thenReturn(Optional.of(queryStmt));
-        when(record.get(0)).thenReturn(value);
-        when(type.constructor()).thenReturn(TypeConstructor.NUMBER);
-        when(value.type()).thenReturn(type);
-        when(value.asNumber()).thenReturn(2l);
-        when(record.size()).thenReturn(1);
     }
 
     @AfterEach
@@ -146,6 +211,93 @@ class AbstractNeo4JElementStateHandlerTest {
         verify(statementExecutor, times(1)).retrieveRecords(loadStmt);
     }
 
+    @Test
+    void getAllAsync() {
+        // when: 'requesting elements asynchronously'
+        assertEquals(ImmutableMap.of(1l, state), sut.getAllAsync(ImmutableSet.of(1l, 2l)).toCompletableFuture().join());
+        // then: 'the load command was invoked'
+        verify(statementExecutor, times(1)).executeStatement(loadStmt);
+        verify(statementExecutor, times(1)).retrieveRecordsAsync(loadStmt);
+    }
+
+    @Test
+    void streamAllInChunks() {
+        sut = createSut(new AdaptiveChunkSize(2));
+        // when: 'streaming five elements in chunks of two'
+        final Iterator<Pair<Long, Neo4JElementState>> actual = sut.streamAll(ImmutableSet.of(1l, 2l, 3l, 4l, 5l)).iterator();
+        actual.next();
+        // then: 'the second chunk is sent while the first one is being received'
+        verify(statementExecutor, times(2)).executeStatement(loadStmt);
+        // and: 'all of the chunks are loaded'
+        actual.forEachRemaining(p -> assertEquals(state, p.getValue1()));
+        verify(statementExecutor, times(3)).executeStatement(loadStmt);
+        assertEquals(ImmutableList.of(ImmutableSet.of(1l, 2l), ImmutableSet.of(3l, 4l), ImmutableSet.of(5l)), loadedIds);
+    }
+
+    @Test
+    void streamAllWithEmptyChunk() {
+        sut = createSut(new AdaptiveChunkSize(2));
+        // setup: 'none of the ids of the second chunk exist'
+        final AtomicInteger chunks = new AtomicInteger();
+        when(statementExecutor.executeStatement(loadStmt)).then(i -> {
+            final Iterator<Record> iter = (chunks.incrementAndGet() == 2 ? Stream.<Record>empty() : Stream.of(record)).iterator();
+            final StatementResult result = mock(StatementResult.class);
+            when(result.hasNext()).then(ii -> iter.hasNext());
+            when(result.next()).then(ii -> iter.next());
+            return result;
+        });
+        // when: 'streaming five elements in chunks of two'
+        final long actual = sut.streamAll(ImmutableSet.of(1l, 2l, 3l, 4l, 5l)).count();
+        // then: 'the chunk after the empty one is loaded as well'
+        assertEquals(2, actual);
+        verify(statementExecutor, times(3)).executeStatement(loadStmt);
+        assertEquals(ImmutableList.of(ImmutableSet.of(1l, 2l), ImmutableSet.of(3l, 4l), ImmutableSet.of(5l)), loadedIds);
+    }
+
+    @Test
+    void retrieveIdsAfterAndCountAll() {
+        // setup: 'the id of the record'
+        when(value.asLong()).thenReturn(2l);
+        // expect: 'the ids after the watermark and the count to be retrieved'
+        assertEquals(ImmutableSet.of(2l), sut.retrieveIdsAfter(1l));
+        assertEquals(2l, sut.countAll());
+        verify(statementExecutor, times(1)).retrieveRecords(loadIdsAfterStmt);
+        verify(statementExecutor, times(1)).retrieveRecords(countAllStmt);
+        verify(statementExecutor, times(1)).executeStatement(loadIdsAfterStmt);
+        verify(statementExecutor, times(1)).executeStatement(countAllStmt);
+    }
+
+    @Test
+    void maxId() {
+        // expect: 'the greatest id to be retrieved'
+        assertEquals(2l, sut.maxId());
+        verify(statementExecutor, times(1)).retrieveRecords(maxIdStmt);
+        verify(statementExecutor, times(1)).executeStatement(maxIdStmt);
+    }
+
+    @Test
+    void splitIds() {
+        // setup: 'a sample of unevenly distributed ids'
+        doReturn(Stream.of(9l, 1l, 1000l, 3l).map(this::idRecord)).when(statementExecutor).retrieveRecords(sampleIdsStmt);
+        // when: 'splitting the ids into three ranges'
+        final List<Long> actual = sut.splitIds(3);
+        // then: 'the ranges are split on the sampled ids and the last one is open'
+        assertEquals(ImmutableList.of(1l, 3l, Long.MAX_VALUE), actual);
+        // and: 'all of the ids have been sampled for the small graph'
+        assertEquals(ImmutableList.of(1d), sampleRatios);
+        verify(statementExecutor, times(1)).retrieveRecords(countAllStmt);
+        verify(statementExecutor, times(1)).executeStatement(countAllStmt);
+        verify(statementExecutor, times(1)).retrieveRecords(sampleIdsStmt);
+    }
+
+    private Record idRecord(final long id) {
+        final Value idValue = mock(Value.class);
+        when(idValue.asLong()).thenReturn(id);
+        final Record result = mock(Record.class);
+        when(result.get(0)).thenReturn(idValue);
+        return result;
+    }
+
     @Test
     void update() {
         // when: 'updating an element'
@@ -162,6 +314,27 @@ class AbstractNeo4JElementStateHandlerTest {
         verify(statementExecutor, times(1)).executeStatement(deleteStmt);
     }
 
+    @Test
+    void updateAll() {
+        // when: 'updating two elements of the same shape'
+        sut.updateAll(ImmutableMap.of(1l, new Pair<>(state, state), 2l, new Pair<>(state, state)));
+        // then: 'a single statement updates both of them, using the changed properties only'
+        verify(statementExecutor, times(1)).executeStatement(bulkUpdateStmt);
+        assertEquals(ImmutableList.of(ImmutableList.of(
+                ImmutableMap.of(AbstractQueryBuilder.ROW_ID, 1l, AbstractQueryBuilder.ROW_PROPERTIES, ImmutableMap.of()),
+                ImmutableMap.of(AbstractQueryBuilder.ROW_ID, 2l, AbstractQueryBuilder.ROW_PROPERTIES, ImmutableMap.of()))), updatedRows);
+    }
+
+    @Test
+    void deleteAll() {
+        // when: 'deleting two elements'
+        sut.deleteAll(ImmutableSet.of(1l, 2l));
+        // then: 'a single statement deletes both of them'
+        verify(statementExecutor, times(1)).executeStatement(bulkDeleteStmt);
+        // and: 'nothing is executed for no elements'
+        sut.deleteAll(ImmutableSet.of());
+    }
+
     @Test
     void create() {
         // when: 'creating an element'
@@ -171,6 +344,24 @@ class AbstractNeo4JElementStateHandlerTest {
         verify(statementExecutor, times(1)).retrieveRecords(createStmt);
     }
 
+    @Test
+    void createAll() {
+        // when: 'creating a single element in bulk'
+        assertEquals(ImmutableList.of(2l), sut.createAll(ImmutableList.of(state)));
+        // then: 'the bulk insert command was invoked'
+        verify(statementExecutor, times(1)).executeStatement(bulkInsertStmt);
+        verify(statementExecutor, times(1)).retrieveRecords(bulkInsertStmt);
+    }
+
+    @Test
+    void createAllRequiresAnIdForEachElement() {
+        // when: 'creating two elements, but receiving a single id'
+        assertThrows(IllegalStateException.class, () -> sut.createAll(ImmutableList.of(state, state)));
+        // then: 'a single statement was used'
+        verify(statementExecutor, times(1)).executeStatement(bulkInsertStmt);
+        verify(statementExecutor, times(1)).retrieveRecords(bulkInsertStmt);
+    }
+
     @Test
     void createIndex() {
         // when: ''
@@ -0,0 +1,65 @@
+package ta.nemahuta.neo4j.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveChunkSizeTest {
+
+    private static final long FAST = AdaptiveChunkSize.TARGET_LATENCY_NANOS / 4, SLOW = AdaptiveChunkSize.TARGET_LATENCY_NANOS * 2;
+
+    @Test
+    void disabled() {
+        final AdaptiveChunkSize sut = AdaptiveChunkSize.disabled();
+        // when: 'recording a slow chunk'
+        sut.record(100, SLOW);
+        // then: 'all the ids are loaded at once'
+        assertFalse(sut.isEnabled());
+        assertEquals(Integer.MAX_VALUE, sut.get());
+    }
+
+    @Test
+    void growsForFastChunks() {
+        final AdaptiveChunkSize sut = new AdaptiveChunkSize(100);
+        // when: 'recording fast chunks'
+        sut.record(100, FAST);
+        sut.record(200, FAST);
+        // then: 'the chunk size is doubled for each of them'
+        assertTrue(sut.isEnabled());
+        assertEquals(400, sut.get());
+    }
+
+    @Test
+    void shrinksForSlowChunksDownToTheMinimum() {
+        final AdaptiveChunkSize sut = new AdaptiveChunkSize(32);
+        // when: 'recording many slow chunks'
+        for (int i = 0; i < 10; i++) {
+            sut.record(sut.get(), SLOW);
+        }
+        // then: 'the chunk size is limited by a 16th of the initial size'
+        assertEquals(2, sut.get());
+    }
+
+    @Test
+    void growsUpToTheMaximum() {
+        final AdaptiveChunkSize sut = new AdaptiveChunkSize(3);
+        // when: 'recording many fast chunks'
+        for (int i = 0; i < 10; i++) {
+            sut.record(sut.get(), FAST);
+        }
+        // then: 'the chunk size is limited by 16 times the initial size'
+        assertEquals(48, sut.get());
+    }
+
+    @Test
+    void ignoresIncompleteChunks() {
+        final AdaptiveChunkSize sut = new AdaptiveChunkSize(100);
+        // when: 'recording the remainder of the ids'
+        sut.record(10, SLOW);
+        // then: 'the chunk size is not changed'
+        assertEquals(100, sut.get());
+    }
+
+}
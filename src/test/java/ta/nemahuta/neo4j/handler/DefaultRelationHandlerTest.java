@@ -131,4 +131,91 @@ class DefaultRelationHandlerTest {
 
 
     }
+
+    @Nested
+    @DisplayName("registerEdges()")
+    class RegisterEdges {
+
+        private final Neo4JVertexState resolved = new Neo4JVertexState(ImmutableSet.of("x"), ImmutableMap.of(),
+                new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of()),
+                new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of()));
+
+        @Test
+        void updatesEachVertexOnce() {
+            // setup: 'two vertices with resolved relations'
+            when(vertexCache.get(1l)).thenReturn(resolved);
+            when(vertexCache.get(2l)).thenReturn(resolved);
+            // when: 'registering two edges from vertex 1 to vertex 2 and a loop of vertex 1'
+            sut.registerEdges(ImmutableMap.of(
+                    3l, new Neo4JEdgeState("a", ImmutableMap.of(), 2l, 1l),
+                    4l, new Neo4JEdgeState("a", ImmutableMap.of(), 2l, 1l),
+                    5l, new Neo4JEdgeState("b", ImmutableMap.of(), 1l, 1l)));
+            // then: 'each vertex is updated once with all its new edges'
+            verify(vertexScope, times(1)).update(1l, resolved
+                    .withEdgeIds(Direction.OUT, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("a", ImmutableSet.of(3l, 4l), "b", ImmutableSet.of(5l))))
+                    .withEdgeIds(Direction.IN, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("b", ImmutableSet.of(5l)))));
+            verify(vertexScope, times(1)).update(2l, resolved
+                    .withEdgeIds(Direction.IN, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("a", ImmutableSet.of(3l, 4l)))));
+        }
+
+        @Test
+        void noStateNoInvocation() {
+            // when: 'registering an edge for vertices which are not cached'
+            sut.registerEdges(ImmutableMap.of(3l, new Neo4JEdgeState("a", ImmutableMap.of(), 2l, 1l)));
+            // then: 'no update is expected'
+            verify(vertexScope, never()).update(anyLong(), any());
+        }
+
+    }
+
+    @Nested
+    @DisplayName("resolveRelationsOf()")
+    class ResolveRelationsOf {
+
+        private final Neo4JVertexState unresolved = new Neo4JVertexState(ImmutableSet.of("x"), ImmutableMap.of());
+
+        @Test
+        void resolvesAllVerticesInOneQuery() {
+            // setup: 'two vertices without known relations, one of them without any relation labeled a'
+            when(vertexScope.getAll(ImmutableSet.of(1l, 2l))).thenReturn(ImmutableMap.of(1l, unresolved, 2l, unresolved));
+            when(edgeScope.queryAndCache(any())).thenReturn(ImmutableMap.of(3l, new Neo4JEdgeState("a", ImmutableMap.of(), 5l, 1l)));
+            // when: 'resolving the outgoing relations'
+            sut.resolveRelationsOf(ImmutableSet.of(1l, 2l), Direction.OUT, ImmutableSet.of("a"));
+            // then: 'a single query is used and both of the vertices know their relations'
+            verify(edgeScope, times(1)).queryAndCache(any());
+            verify(vertexScope).update(1l, unresolved.withEdgeIds(Direction.OUT,
+                    new VertexEdgeReferences().withPartialResolvedEdges(ImmutableMap.of("a", ImmutableSet.of(3l)))));
+            verify(vertexScope).update(2l, unresolved.withEdgeIds(Direction.OUT,
+                    new VertexEdgeReferences().withPartialResolvedEdges(ImmutableMap.of("a", ImmutableSet.of()))));
+        }
+
+        @Test
+        void resolvesBothDirectionsInOneQuery() {
+            // setup: 'a vertex with an incoming and an outgoing relation'
+            when(vertexScope.getAll(ImmutableSet.of(1l))).thenReturn(ImmutableMap.of(1l, unresolved));
+            when(edgeScope.queryAndCache(any())).thenReturn(ImmutableMap.of(
+                    3l, new Neo4JEdgeState("a", ImmutableMap.of(), 1l, 5l),
+                    4l, new Neo4JEdgeState("b", ImmutableMap.of(), 6l, 1l)));
+            // when: 'resolving the relations of both directions'
+            sut.resolveRelationsOf(ImmutableSet.of(1l), Direction.BOTH, ImmutableSet.of());
+            // then: 'a single query is used and the vertex state is updated once with the split up relations'
+            verify(edgeScope, times(1)).queryAndCache(any());
+            verify(vertexScope, times(1)).update(anyLong(), any());
+            verify(vertexScope).update(1l, unresolved
+                    .withEdgeIds(Direction.IN, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("a", ImmutableSet.of(3l))))
+                    .withEdgeIds(Direction.OUT, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("b", ImmutableSet.of(4l)))));
+        }
+
+        @Test
+        void skipsResolvedVertices() {
+            // setup: 'a vertex with all of its incoming relations known'
+            final Neo4JVertexState resolved = unresolved.withEdgeIds(Direction.IN, new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of()));
+            when(vertexScope.getAll(ImmutableSet.of(1l))).thenReturn(ImmutableMap.of(1l, resolved));
+            // when: 'resolving the incoming relations'
+            sut.resolveRelationsOf(ImmutableSet.of(1l), Direction.IN, ImmutableSet.of());
+            // then: 'nothing is queried'
+            verify(edgeScope, never()).queryAndCache(any());
+            verify(vertexScope, never()).update(anyLong(), any());
+        }
+    }
 }
\ No newline at end of file
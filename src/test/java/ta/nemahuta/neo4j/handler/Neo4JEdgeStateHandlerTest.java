@@ -1,5 +1,6 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.javatuples.Pair;
@@ -20,6 +21,7 @@ import ta.nemahuta.neo4j.state.Neo4JEdgeState;
 import ta.nemahuta.neo4j.testutils.MockUtils;
 
 import java.util.Collections;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
@@ -63,6 +65,20 @@ class Neo4JEdgeStateHandlerTest extends AbstractStatementBuilderTest {
         assertEquals(new Pair<>(id, this.state), state);
     }
 
+    @Test
+    void createLoadIdsAfterCommand() {
+        assertStatement("MATCH (n:`graphLabel`)-[r]->(m:`graphLabel`) WHERE ID(r) > {edgeIdAfter1} RETURN ID(r)",
+                ImmutableMap.of("edgeIdAfter1", 5l),
+                sut.createLoadIdsAfterCommand(5l));
+    }
+
+    @Test
+    void createCountAllCommand() {
+        assertStatement("MATCH (n:`graphLabel`)-[r]->(m:`graphLabel`) RETURN count(r)",
+                ImmutableMap.of(),
+                sut.createCountAllCommand());
+    }
+
     @Test
     void createDeleteCommand() {
         assertStatement("MATCH (n:`graphLabel`)-[r]-(m:`graphLabel`) WHERE ID(r) IN {edgeId1} DETACH DELETE r",
@@ -72,11 +88,26 @@ class Neo4JEdgeStateHandlerTest extends AbstractStatementBuilderTest {
 
     @Test
     void createUpdateCommand() {
-        assertStatement("MATCH (n:`graphLabel`)-[r]-(m:`graphLabel`) WHERE ID(r) IN {edgeId1} SET r={edgeProps1}",
+        assertStatement("MATCH (n:`graphLabel`)-[r]-(m:`graphLabel`) WHERE ID(r) IN {edgeId1} SET r+={edgeProps1} REMOVE r.`a`",
                 ImmutableMap.of("edgeId1", Collections.singleton(id), "edgeProps1", newProperties),
                 sut.createUpdateCommand(id, state, newState));
     }
 
+    @Test
+    void createBulkUpdateCommand() {
+        final ImmutableList<Map<String, Object>> rows = ImmutableList.of(ImmutableMap.of("id", id, "properties", newProperties));
+        assertStatement("UNWIND {unwindRows} AS row MATCH (n:`graphLabel`)-[r]->(m:`graphLabel`) WHERE ID(r) = row.id SET r+=row.properties",
+                ImmutableMap.of("unwindRows", rows),
+                sut.createBulkUpdateCommand(state, newState, rows));
+    }
+
+    @Test
+    void createBulkDeleteCommand() {
+        assertStatement("MATCH (n:`graphLabel`)-[r]->(m:`graphLabel`) WHERE ID(r) IN {edgeId1} DETACH DELETE r",
+                ImmutableMap.of("edgeId1", ImmutableSet.of(4l, 5l)),
+                sut.createBulkDeleteCommand(ImmutableSet.of(4l, 5l)));
+    }
+
     @Test
     void createInsertCommand() {
         assertStatement("MATCH (n:`graphLabel`), (m:`graphLabel`) WHERE ID(n) IN {vertexId1} AND ID(m) IN {vertexId2} CREATE (n)-[r:`yay`]->(m) SET r={edgeProps1} RETURN ID(r)",
@@ -84,6 +115,16 @@ class Neo4JEdgeStateHandlerTest extends AbstractStatementBuilderTest {
                 sut.createInsertCommand(state));
     }
 
+    @Test
+    void createBulkInsertCommand() {
+        assertStatement("UNWIND {unwindRows} AS row MATCH (n:`graphLabel`), (m:`graphLabel`) WHERE ID(n) = row.outId AND ID(m) = row.inId " +
+                        "CREATE (n)-[r:`yay`]->(m) SET r=row.properties RETURN ID(r)",
+                ImmutableMap.of("unwindRows", ImmutableList.of(
+                        ImmutableMap.of("outId", startNodeId, "inId", endNodeId, "properties", properties),
+                        ImmutableMap.of("outId", startNodeId, "inId", endNodeId, "properties", newProperties))),
+                sut.createBulkInsertCommand(ImmutableList.of(state, newState)));
+    }
+
     @Test
     void createLoadCommand() {
         assertStatement("MATCH (n:`graphLabel`)-[r]->(m:`graphLabel`) WHERE ID(r) IN {edgeId1} RETURN r",
@@ -1,5 +1,6 @@
 package ta.nemahuta.neo4j.handler;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.javatuples.Pair;
@@ -12,17 +13,25 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.id.Neo4JVertexIdStrategy;
+import ta.nemahuta.neo4j.id.SnowflakeVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JGraphPartition;
 import ta.nemahuta.neo4j.partition.Neo4JLabelGraphPartition;
 import ta.nemahuta.neo4j.query.AbstractStatementBuilderTest;
 import ta.nemahuta.neo4j.session.StatementExecutor;
 import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.state.VertexEdgeReferences;
 import ta.nemahuta.neo4j.testutils.MockUtils;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
 
 import java.util.Collections;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -62,6 +71,45 @@ class Neo4JVertexStateHandlerTest extends AbstractStatementBuilderTest {
         assertEquals(new Pair<>(id, this.state), state);
     }
 
+    @Test
+    void convertToStateWithRelations() {
+        // setup: 'stubbing the node and its relations, including a self loop'
+        when(node.asMap()).thenReturn(properties);
+        when(node.labels()).thenReturn(partition.ensurePartitionLabelsSet(labels));
+        final Value relations = MockUtils.mockValue(Value::asList, null, ImmutableList.of(
+                ImmutableMap.of("type", "x", "id", 2l, "out", true, "in", false),
+                ImmutableMap.of("type", "y", "id", 3l, "out", false, "in", true),
+                ImmutableMap.of("type", "x", "id", 4l, "out", true, "in", true)));
+        // when: 'converting the state'
+        final Neo4JVertexState converted = sut.convertToState(MockUtils.mockRecord(MockUtils.mockValue(Value::asNode, null, node), relations));
+        // then: 'the relations are resolved completely'
+        assertEquals(new Neo4JVertexState(labels, properties,
+                new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("y", ImmutableSet.of(3l), "x", ImmutableSet.of(4l))),
+                new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("x", ImmutableSet.of(2l, 4l)))), converted);
+    }
+
+    @Test
+    void createLoadCommandWithRelations() {
+        assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} RETURN v, CASE WHEN size((v)--()) <= {maxDegree1} " +
+                        "THEN [(v)-[r]-(m:`graphLabel`) | {type: type(r), id: ID(r), out: startNode(r) = v, in: endNode(r) = v}] END",
+                ImmutableMap.of("vertexId1", ImmutableSet.of(2l), "maxDegree1", 100l),
+                new Neo4JVertexStateHandler(executor, partition, 100).createLoadCommand(ImmutableSet.of(2l)));
+    }
+
+    @Test
+    void createLoadIdsAfterCommand() {
+        assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) > {vertexIdAfter1} RETURN ID(v)",
+                ImmutableMap.of("vertexIdAfter1", 5l),
+                sut.createLoadIdsAfterCommand(5l));
+    }
+
+    @Test
+    void createCountAllCommand() {
+        assertStatement("MATCH (v:`graphLabel`) RETURN count(v)",
+                ImmutableMap.of(),
+                sut.createCountAllCommand());
+    }
+
     @Test
     void createDeleteCommand() {
         assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} DETACH DELETE v",
@@ -71,11 +119,26 @@ class Neo4JVertexStateHandlerTest extends AbstractStatementBuilderTest {
 
     @Test
     void createUpdateCommand() {
-        assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} SET v:`graphLabel`:`c`:`d` REMOVE v:`a`:`b` SET v={vertexProps1}",
+        assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} SET v:`graphLabel`:`c`:`d` REMOVE v:`a`:`b` SET v+={vertexProps1} REMOVE v.`a`",
                 ImmutableMap.of("vertexId1", Collections.singleton(id), "vertexProps1", newProperties),
                 sut.createUpdateCommand(1l, state, newState));
     }
 
+    @Test
+    void createBulkUpdateCommand() {
+        final ImmutableList<Map<String, Object>> rows = ImmutableList.of(ImmutableMap.of("id", id, "properties", newProperties));
+        assertStatement("UNWIND {unwindRows} AS row MATCH (v:`graphLabel`) WHERE ID(v) = row.id SET v:`graphLabel`:`c`:`d` REMOVE v:`a`:`b` SET v+=row.properties",
+                ImmutableMap.of("unwindRows", rows),
+                sut.createBulkUpdateCommand(state, newState, rows));
+    }
+
+    @Test
+    void createBulkDeleteCommand() {
+        assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} DETACH DELETE v",
+                ImmutableMap.of("vertexId1", ImmutableSet.of(1l, 2l)),
+                sut.createBulkDeleteCommand(ImmutableSet.of(1l, 2l)));
+    }
+
     @Test
     void createInsertCommand() {
         assertStatement("CREATE (v:`a`:`b`:`graphLabel`) SET v={vertexProps1} RETURN ID(v)",
@@ -83,6 +146,59 @@ class Neo4JVertexStateHandlerTest extends AbstractStatementBuilderTest {
                 sut.createInsertCommand(state));
     }
 
+    @Test
+    void createBulkInsertCommand() {
+        assertStatement("UNWIND {unwindRows} AS row CREATE (v:`a`:`b`:`graphLabel`) SET v=row.properties RETURN ID(v)",
+                ImmutableMap.of("unwindRows", ImmutableList.of(ImmutableMap.of("properties", properties), ImmutableMap.of("properties", newProperties))),
+                sut.createBulkInsertCommand(ImmutableList.of(state, new Neo4JVertexState(labels, newProperties))));
+    }
+
+    @Test
+    void createWithClientGeneratedId() {
+        final Neo4JVertexIdStrategy idStrategy = spy(new SnowflakeVertexIdStrategy("_id", 0));
+        doReturn(5l).when(idStrategy).generateId();
+        sut = new Neo4JVertexStateHandler(executor, partition, 0, AdaptiveChunkSize.disabled(), idStrategy);
+        // when: 'creating a vertex'
+        final long created = sut.create(state);
+        // then: 'the generated id is returned without waiting for the result of the statement'
+        assertEquals(5l, created);
+        verify(executor).executeStatement(argThat(s -> s.parameters().get("vertexProps1").asMap().equals(ImmutableMap.of("a", "b", "_id", 5l))));
+        // and: 'the vertex gets the label of the ids'
+        verify(executor).executeStatement(argThat(s -> s.text().contains(":`Neo4JVertex`")));
+        verify(executor, never()).retrieveRecords(any());
+    }
+
+    @Test
+    void createIdConstraint() {
+        // when: 'creating the constraint for client generated ids'
+        new Neo4JVertexStateHandler(executor, partition, 0, AdaptiveChunkSize.disabled(), new SnowflakeVertexIdStrategy("_id", 0)).createIdConstraint();
+        // then: 'the constraint is created on the label of the ids'
+        verify(executor).executeStatement(argThat(s -> s.text().equals("CREATE CONSTRAINT ON (c:`Neo4JVertex`) ASSERT c.`_id` IS UNIQUE")));
+    }
+
+    @Test
+    void hasVerticesWithoutId() {
+        // setup: 'a vertex of the partition without the label of the ids'
+        final StatementExecutorStub stub = new StatementExecutorStub();
+        stub.stubCount("MATCH (v:`graphLabel`) WHERE (NOT v:`Neo4JVertex` OR NOT exists(v.`_id`)) WITH v LIMIT {countLimit1} RETURN count(v)",
+                ImmutableMap.of("countLimit1", 1), 1l);
+        // expect: 'the vertex to be found by a query which is not restricted to the label of the ids'
+        assertTrue(new Neo4JVertexStateHandler(stub, partition, 0, AdaptiveChunkSize.disabled(), new SnowflakeVertexIdStrategy("_id", 0))
+                .hasVerticesWithoutId());
+    }
+
+    @Test
+    void convertToStateWithoutLabelOfIds() {
+        // setup: 'a node with the label and the property of the ids'
+        when(node.asMap()).thenReturn(ImmutableMap.of("a", "b", "_id", 5l));
+        when(node.labels()).thenReturn(ImmutableSet.of("a", "graphLabel", "Neo4JVertex"));
+        // when: 'converting the state'
+        final Neo4JVertexState actual = new Neo4JVertexStateHandler(executor, partition, 0, AdaptiveChunkSize.disabled(),
+                new SnowflakeVertexIdStrategy("_id", 0)).convertToState(MockUtils.mockRecord(MockUtils.mockValue(Value::asNode, null, node)));
+        // then: 'neither the label nor the property of the ids are exposed'
+        assertEquals(new Neo4JVertexState(ImmutableSet.of("a"), ImmutableMap.of("a", "b")), actual);
+    }
+
     @Test
     void createLoadCommand() {
         assertStatement("MATCH (v:`graphLabel`) WHERE ID(v) IN {vertexId1} RETURN v",
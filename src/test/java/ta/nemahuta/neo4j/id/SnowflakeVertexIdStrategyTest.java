@@ -0,0 +1,81 @@
+package ta.nemahuta.neo4j.id;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.types.Node;
+import ta.nemahuta.neo4j.partition.Neo4JLabelGraphPartition;
+import ta.nemahuta.neo4j.testutils.MockUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnowflakeVertexIdStrategyTest {
+
+    private final AtomicLong now = new AtomicLong(SnowflakeVertexIdStrategy.EPOCH + 1);
+
+    private final SnowflakeVertexIdStrategy sut = new SnowflakeVertexIdStrategy("_id", SnowflakeVertexIdStrategy.DEFAULT_LABEL, 3, now::get, new AtomicLong());
+
+    @Test
+    void generateIdFromTimestampWorkerAndSequence() {
+        // when: 'generating two ids within the same millisecond'
+        final long first = sut.generateId(), second = sut.generateId();
+        // then: 'the ids consist of the timestamp, the worker and the sequence'
+        assertEquals((1L << 22) | (3L << 12), first);
+        assertEquals(first + 1, second);
+    }
+
+    @Test
+    void generateIdOverflowsIntoTheNextMillisecond() {
+        // when: 'exhausting the sequence of a millisecond'
+        long last = 0;
+        for (int i = 0; i <= 4096; i++) {
+            last = sut.generateId();
+        }
+        // then: 'the last id uses the next millisecond'
+        assertEquals((2L << 22) | (3L << 12), last);
+        // and: 'the ids stay ascending when the clock catches up'
+        now.incrementAndGet();
+        assertTrue(sut.generateId() > last);
+    }
+
+    @Test
+    void idOperand() {
+        assertEquals("v.`_id`", sut.idOperand("v"));
+    }
+
+    @Test
+    void idOf() {
+        final Node node = mock(Node.class);
+        final Value value = MockUtils.mockValue(Value::asLong, null, 42L);
+        when(node.get("_id")).thenReturn(value);
+        assertEquals(42L, sut.idOf(node));
+    }
+
+    @Test
+    void idOfNodeWithoutProperty() {
+        // setup: 'a node created before the ids were generated on the client'
+        final Node node = mock(Node.class);
+        when(node.get("_id")).thenReturn(Values.NULL);
+        // expect: 'reading its id to fail'
+        assertThrows(IllegalStateException.class, () -> sut.idOf(node));
+    }
+
+    @Test
+    void restrictsPartitionToLabel() {
+        assertEquals(ImmutableSet.of("x", SnowflakeVertexIdStrategy.DEFAULT_LABEL),
+                sut.restrict(Neo4JLabelGraphPartition.allLabelsOf("x")).ensurePartitionLabelsSet(ImmutableSet.of()));
+    }
+
+    @Test
+    void invalidWorker() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeVertexIdStrategy("_id", SnowflakeVertexIdStrategy.MAX_WORKERS));
+    }
+
+}
@@ -0,0 +1,49 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.testutils.MockedGraph;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Neo4JCountGlobalStepTest {
+
+    private final MockedGraph graph = new MockedGraph();
+
+    private final StatementExecutorStub stub = graph.stub;
+
+    private final GraphTraversalSource g = graph.traversal();
+
+    @Test
+    void countsVertices() {
+        stub.stubCount("MATCH (v:`x`) RETURN count(v)", ImmutableMap.of(), 3l);
+        assertEquals(ImmutableList.of(3l), g.V().count().toList());
+    }
+
+    @Test
+    void countsEdgesWithPredicates() {
+        stub.stubCount("MATCH (n:`x`)-[r]->(m:`x`) WHERE type(r) = {edgeLabel1} RETURN count(r)", ImmutableMap.of("edgeLabel1", "a"), 2l);
+        assertEquals(ImmutableList.of(2l), g.E().hasLabel("a").count().toList());
+    }
+
+    @Test
+    void countsDegree() {
+        stub.stubCount("MATCH (n:`x`)-[r:`a`]->(m:`x`) WHERE ID(n) IN {vertexId1} RETURN count(r)",
+                ImmutableMap.of("vertexId1", Collections.singleton(1)), 4l);
+        assertEquals(ImmutableList.of(4l), g.V(1l).outE("a").count().toList());
+    }
+
+    @Test
+    void checksExistence() {
+        stub.stubCount("MATCH (v:`x`) WHERE (v:`b`:`x` AND size(labels(v)) = 2) WITH v LIMIT {countLimit1} RETURN count(v)",
+                ImmutableMap.of("countLimit1", 1), 1l);
+        assertEquals(ImmutableList.of(1l), g.V().hasLabel("b").count().is(P.gt(0)).toList());
+    }
+
+}
@@ -0,0 +1,65 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.v1.Values;
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.state.VertexEdgeReferences;
+import ta.nemahuta.neo4j.testutils.MockedGraph;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockRecord;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockStatementResult;
+
+class Neo4JDropStepTest {
+
+    private final MockedGraph graph = new MockedGraph();
+
+    private final StatementExecutorStub stub = graph.stub;
+
+    private GraphTraversalSource g;
+
+    @BeforeEach
+    void setupGraph() {
+        when(graph.configuration.getDropChunkSize()).thenReturn(2);
+        this.g = graph.traversal();
+    }
+
+    @Test
+    void dropsVerticesInChunks() {
+        // setup: 'an adjacent vertex referencing an edge of a dropped vertex'
+        final VertexEdgeReferences incoming = new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("a", ImmutableSet.of(5l)));
+        when(graph.vertexCache.get(3l)).thenReturn(new Neo4JVertexState(ImmutableSet.of("y"), ImmutableMap.of(), incoming, new VertexEdgeReferences()));
+        // and: 'the first chunk being full, so the second one is requested'
+        stub.stubStatementExecution("MATCH (v:`x`) WHERE (v:`b`:`x` AND size(labels(v)) = 2) WITH v LIMIT {dropLimit1} " +
+                        "OPTIONAL MATCH (v)-[r]-(m) WITH v, ID(v) AS vertexId, collect(ID(r)) AS edgeIds, collect(ID(m)) AS adjacentIds " +
+                        "DETACH DELETE v RETURN vertexId, edgeIds, adjacentIds",
+                ImmutableMap.of("dropLimit1", 2l),
+                mockStatementResult(
+                        mockRecord(Values.value(1l), Values.value(ImmutableList.of(5l)), Values.value(ImmutableList.of(3l))),
+                        mockRecord(Values.value(2l), Values.value(Collections.emptyList()), Values.value(Collections.emptyList()))));
+        // when: 'dropping the vertices of a label'
+        assertEquals(ImmutableList.of(), g.V().hasLabel("b").drop().toList());
+        // then: 'the dropped elements are removed from the caches'
+        verify(graph.vertexCache, times(1)).remove(1l);
+        verify(graph.vertexCache, times(1)).remove(2l);
+        verify(graph.edgeCache, times(1)).remove(5l);
+        verify(graph.knownVertexIds, times(1)).localRemoval(1l);
+        verify(graph.knownEdgeIds, times(1)).localRemoval(5l);
+        // and: 'the references of the adjacent vertex are updated'
+        verify(graph.vertexCache, times(1)).put(eq(3l), argThat(state -> !state.getIncomingEdgeIds().getAllKnown().findAny().isPresent()));
+    }
+
+}
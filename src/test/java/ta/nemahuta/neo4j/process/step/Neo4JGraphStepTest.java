@@ -0,0 +1,93 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.testutils.MockedGraph;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import java.util.Collections;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockStatementResult;
+
+class Neo4JGraphStepTest {
+
+    private final MockedGraph graph = new MockedGraph();
+
+    private final StatementExecutorStub stub = graph.stub;
+
+    private final GraphTraversalSource g = graph.traversal();
+
+    @Test
+    void pushesDownVertexLabelsAndProperties() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE (v:`a`:`x` AND size(labels(v)) = 2) AND v.`x` = {vertexProperty1} RETURN v",
+                ImmutableMap.of("vertexProperty1", "y"), 1L);
+        assertEquals(1, g.V().hasLabel("a").has("x", "y").toList().size());
+    }
+
+    @Test
+    void pushesDownVertexLabelAlternatives() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE ((v:`a`:`x` AND size(labels(v)) = 2) OR (v:`b`:`c`:`x` AND size(labels(v)) = 3)) RETURN v",
+                ImmutableMap.of(), 1L);
+        assertEquals(1, g.V().hasLabel("a", "b::c").toList().size());
+    }
+
+    @Test
+    void pushesDownTextAndRangePredicates() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE v.`x` STARTS WITH {vertexProperty1} AND (v.`n` < {vertexProperty2} OR v.`n` > {vertexProperty3}) RETURN v",
+                ImmutableMap.of("vertexProperty1", "y", "vertexProperty2", 1L, "vertexProperty3", 5L), 1L);
+        assertEquals(1, g.V().has("x", TextP.startingWith("y")).has("n", P.outside(1L, 5L)).toList().size());
+    }
+
+    @Test
+    void filtersRemainingOnTheClient() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE v.`x` IN {vertexProperty1} RETURN v",
+                ImmutableMap.of("vertexProperty1", Collections.singletonList("y")), 1L);
+        assertEquals(0, g.V().has("x", P.within("y")).has("x", new P<>((a, b) -> !Objects.equals(a, b), "y")).toList().size());
+    }
+
+    @Test
+    void filtersOnTheClientForIds() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} RETURN v", ImmutableMap.of("vertexId1", Collections.singleton(1)), 1L);
+        assertEquals(0, g.V(1L).has("x", "z").toList().size());
+    }
+
+    @Test
+    void pushesDownOrderAndRange() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE (v:`Order`:`x` AND size(labels(v)) = 2) RETURN v ORDER BY v.`ts` DESC SKIP {querySkip} LIMIT {queryLimit}",
+                ImmutableMap.of("querySkip", 5l, "queryLimit", 20l), 1L);
+        assertEquals(1, g.V().hasLabel("Order").order().by("ts", Order.desc).range(5, 25).toList().size());
+    }
+
+    @Test
+    void scansAllVerticesInPages() {
+        final String page = "MATCH (v:`x`) WHERE ID(v) > {vertexIdAfter1} RETURN v ORDER BY ID(v) ASC LIMIT {queryLimit}";
+        when(graph.configuration.getScanPageSize()).thenReturn(1);
+        stub.stubVertexLoad(page, ImmutableMap.of("vertexIdAfter1", -1L, "queryLimit", 1L), 1L);
+        stub.stubVertexLoad(page, ImmutableMap.of("vertexIdAfter1", 1L, "queryLimit", 1L), 2L);
+        stub.stubStatementExecution(page, ImmutableMap.of("vertexIdAfter1", 2L, "queryLimit", 1L), mockStatementResult());
+        assertEquals(2, g.V().toList().size());
+    }
+
+    @Test
+    void scansAllEdgesInPages() {
+        final String page = "MATCH (n:`x`)-[r]->(m:`x`) WHERE ID(r) > {edgeIdAfter1} RETURN r ORDER BY ID(r) ASC LIMIT {queryLimit}";
+        when(graph.configuration.getScanPageSize()).thenReturn(2);
+        stub.stubEdgeLoad(page, ImmutableMap.of("edgeIdAfter1", -1L, "queryLimit", 2L), 1L, 2L, 3L);
+        assertEquals(1, g.E().toList().size());
+    }
+
+    @Test
+    void pushesDownEdgeLabelsAndProperties() {
+        stub.stubEdgeLoad("MATCH (n:`x`)-[r]->(m:`x`) WHERE type(r) = {edgeLabel1} AND r.`x` = {edgeProperty1} RETURN r",
+                ImmutableMap.of("edgeLabel1", "remote", "edgeProperty1", "y"), 1L, 2L, 3L);
+        assertEquals(1, g.E().hasLabel("remote").has("x", "y").toList().size());
+    }
+
+}
@@ -0,0 +1,82 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.testutils.MockedGraph;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class Neo4JPropertiesStepTest {
+
+    private final MockedGraph graph = new MockedGraph();
+
+    private final StatementExecutorStub stub = graph.stub;
+
+    private final GraphTraversalSource g = graph.traversal();
+
+    @Test
+    void queriesValuesWithoutLoadingVertices() {
+        stub.stubProperties("MATCH (v:`x`) WHERE (v:`a`:`x` AND size(labels(v)) = 2) RETURN v {.`name`, .`age`}", ImmutableMap.of(),
+                props("name", "a", "age", 1l), props("name", "b", "age", null));
+        // when: 'querying the values of the vertices'
+        final Object result = g.V().hasLabel("a").values("name", "age").toList();
+        // then: 'the existing values are returned in the order of the keys and no vertex is cached'
+        assertEquals(ImmutableList.of("a", 1l, "b"), result);
+        verify(graph.vertexCache, never()).put(any(), any());
+    }
+
+    @Test
+    void queriesVertexValueMaps() {
+        stub.stubProperties("MATCH (v:`x`) RETURN v {.`name`} ORDER BY v.`name` DESC LIMIT {queryLimit}", ImmutableMap.of("queryLimit", 1l),
+                props("name", "b"));
+        // when: 'querying the value maps of the ordered vertices'
+        final Object result = g.V().order().by("name", Order.decr).limit(1).valueMap("name").toList();
+        // then: 'the values are provided as lists'
+        assertEquals(ImmutableList.of(ImmutableMap.of("name", ImmutableList.of("b"))), result);
+    }
+
+    @Test
+    void queriesAllEdgeProperties() {
+        stub.stubProperties("MATCH (n:`x`)-[r]->(m:`x`) WHERE type(r) = {edgeLabel1} RETURN properties(r)", ImmutableMap.of("edgeLabel1", "a"),
+                props("w", 2l));
+        // when: 'querying the value maps of the edges'
+        final Object result = g.E().hasLabel("a").valueMap().toList();
+        // then: 'the values are provided as they are'
+        assertEquals(ImmutableList.of(ImmutableMap.of("w", 2l)), result);
+        verify(graph.edgeCache, never()).put(any(), any());
+    }
+
+    @Test
+    void queriesPropertiesWithoutClientGeneratedId() {
+        when(graph.configuration.getVertexIdProperty()).thenReturn("_id");
+        final GraphTraversalSource g = graph.traversal();
+        stub.stubProperties("MATCH (v:`x`:`Neo4JVertex`) RETURN properties(v)", ImmutableMap.of(), props("_id", 5l, "name", "a"));
+        stub.stubProperties("MATCH (v:`x`:`Neo4JVertex`) RETURN v {.`_id`, .`name`}", ImmutableMap.of(), props("_id", 5l, "name", "a"));
+        // when: 'querying all properties and the id property explicitly'
+        final Object all = g.V().valueMap().toList();
+        final Object explicit = g.V().values("_id", "name").toList();
+        // then: 'the id property is not returned'
+        assertEquals(ImmutableList.of(ImmutableMap.of("name", ImmutableList.of("a"))), all);
+        assertEquals(ImmutableList.of("a"), explicit);
+    }
+
+    private static Map<String, Object> props(final Object... keyValues) {
+        final Map<String, Object> result = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            result.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return result;
+    }
+
+}
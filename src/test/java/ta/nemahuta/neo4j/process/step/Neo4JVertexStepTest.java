@@ -0,0 +1,89 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import ta.nemahuta.neo4j.testutils.MockedGraph;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ta.nemahuta.neo4j.testutils.MockUtils.*;
+
+class Neo4JVertexStepTest {
+
+    private final MockedGraph graph = new MockedGraph();
+
+    private final StatementExecutorStub stub = graph.stub;
+
+    private final GraphTraversalSource g = graph.traversal();
+
+    @BeforeEach
+    void stubVertex() {
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} RETURN v", ImmutableMap.of("vertexId1", Collections.singleton(1)), 1L);
+    }
+
+    @Test
+    void queriesAdjacentVerticesWithPredicates() {
+        stub.stubVertexLoad("MATCH (n:`x`)-[r:`a`]->(m:`x`) WHERE ID(n) IN {vertexId1} AND (m:`b`:`x` AND size(labels(m)) = 2) AND m.`x` = {vertexProperty1} RETURN m",
+                ImmutableMap.of("vertexId1", Collections.singleton(1), "vertexProperty1", "y"), 2L);
+        final List<Vertex> actual = g.V(1L).out("a").hasLabel("b").has("x", "y").toList();
+        assertEquals(ImmutableList.of(2L), actual.stream().map(Vertex::id).collect(ImmutableList.toImmutableList()));
+    }
+
+    @Test
+    void queriesAdjacentVerticesInBothDirections() {
+        stub.stubVertexLoad("MATCH (n:`x`)-[r]-(m:`x`) WHERE ID(n) IN {vertexId1} RETURN m",
+                ImmutableMap.of("vertexId1", Collections.singleton(1)), 2L);
+        assertEquals(1, g.V(1L).both().toList().size());
+    }
+
+    @Test
+    void limitsAdjacentVertices() {
+        stub.stubVertexLoad("MATCH (n:`x`)-[r]->(m:`x`) WHERE ID(n) IN {vertexId1} RETURN m LIMIT {queryLimit}",
+                ImmutableMap.of("vertexId1", Collections.singleton(1), "queryLimit", 1), 2L);
+        assertEquals(1, g.V(1L).out().limit(1).toList().size());
+    }
+
+    @Test
+    void filtersRemainingOnTheClient() {
+        stub.stubVertexLoad("MATCH (n:`x`)<-[r]-(m:`x`) WHERE ID(n) IN {vertexId1} RETURN m",
+                ImmutableMap.of("vertexId1", Collections.singleton(1)), 2L);
+        assertEquals(0, g.V(1L).in().has("x", new P<>((a, b) -> !Objects.equals(a, b), "y")).toList().size());
+    }
+
+    @Test
+    void queriesAdjacentVerticesForBatch() {
+        stub.stubStatementExecution("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} RETURN v", ImmutableMap.of("vertexId1", ImmutableSet.of(1, 3)),
+                mockStatementResult(nodeRecord(1l), nodeRecord(3l)));
+        stub.stubStatementExecution("MATCH (n:`x`)-[r:`a`]->(m:`x`) WHERE ID(n) IN {vertexId1} RETURN r", ImmutableMap.of("vertexId1", ImmutableSet.of(1, 3)),
+                mockStatementResult(relationRecord(10l, 2l, 1l), relationRecord(11l, 4l, 3l)));
+        ImmutableList.of(1, 3).forEach(id -> stub.stubStatementExecution("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} SET v:`x`",
+                ImmutableMap.of("vertexId1", Collections.singleton(id)), mockStatementResult()));
+        stub.stubVertexLoad("MATCH (n:`x`)-[r:`a`]->(m:`x`) WHERE ID(n) IN {vertexId1} AND m.`x` = {vertexProperty1} RETURN m",
+                ImmutableMap.of("vertexId1", ImmutableSet.of(1, 3), "vertexProperty1", "y"), 2L);
+        // when: 'querying the adjacent vertices of multiple vertices'
+        final List<Vertex> actual = g.V(1L, 3L).out("a").has("x", "y").toList();
+        // then: 'the relations and the matching vertices are queried once for all of them'
+        assertEquals(ImmutableList.of(2L), actual.stream().map(Vertex::id).collect(ImmutableList.toImmutableList()));
+    }
+
+    private static Record nodeRecord(final long id) {
+        return mockRecord(mockValue(Value::asNode, null, mockNode(id, ImmutableSet.of("x"), ImmutableMap.of())));
+    }
+
+    private static Record relationRecord(final long id, final long inId, final long outId) {
+        return mockRecord(mockValue(Value::asRelationship, null, mockRelationship(id, "a", ImmutableMap.of(), inId, outId)));
+    }
+
+}
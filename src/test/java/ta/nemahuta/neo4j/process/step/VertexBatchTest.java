@@ -0,0 +1,81 @@
+package ta.nemahuta.neo4j.process.step;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ExpandableStepIterator;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import ta.nemahuta.neo4j.structure.Neo4JVertex;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VertexBatchTest {
+
+    @Mock
+    private Step<Vertex, Vertex> hostStep, previousStep;
+
+    @Mock
+    private Neo4JVertex vertex, otherVertex;
+
+    @Mock
+    private Vertex foreignVertex;
+
+    private ExpandableStepIterator<Vertex> starts;
+
+    @BeforeEach
+    void setupStarts() {
+        when(hostStep.getPreviousStep()).thenReturn((Step) previousStep);
+        when(vertex.id()).thenReturn(1l);
+        when(otherVertex.id()).thenReturn(2l);
+        starts = new ExpandableStepIterator<>(hostStep);
+    }
+
+    @Test
+    void takeIsBoundedForRepeatedVertices() {
+        // setup: 'an upstream which never ends and always emits the same vertex'
+        when(previousStep.hasNext()).thenReturn(true);
+        when(previousStep.next()).then(i -> traverser(vertex));
+        // when: 'taking a batch'
+        final Set<Long> actual = VertexBatch.take(vertex, starts, 10);
+        // then: 'the batch contains the vertex once and only the traversers for the batch have been pulled'
+        assertEquals(ImmutableSet.of(1l), actual);
+        verify(previousStep, times(9)).next();
+    }
+
+    @Test
+    void takePutsBackTheTraversers() {
+        // setup: 'an upstream with vertices of this graph and another one'
+        when(previousStep.hasNext()).thenReturn(false);
+        starts.add(traverser(otherVertex));
+        starts.add(traverser(foreignVertex));
+        starts.add(traverser(vertex));
+        // when: 'taking a batch'
+        final Set<Long> actual = VertexBatch.take(vertex, starts, 10);
+        // then: 'the batch contains the ids of the vertices of this graph and the traversers are still available'
+        assertEquals(ImmutableSet.of(1l, 2l), actual);
+        assertEquals(otherVertex, starts.next().get());
+        assertEquals(foreignVertex, starts.next().get());
+        assertEquals(vertex, starts.next().get());
+        assertFalse(starts.hasNext());
+    }
+
+    private static Traverser.Admin<Vertex> traverser(final Vertex vertex) {
+        final Traverser.Admin<Vertex> result = mock(Traverser.Admin.class);
+        when(result.get()).thenReturn(vertex);
+        return result;
+    }
+
+}
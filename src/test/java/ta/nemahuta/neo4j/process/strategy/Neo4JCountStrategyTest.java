@@ -0,0 +1,61 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JCountGlobalStep;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JCountStrategyTest {
+
+    @Test
+    void replacesVertexCount() {
+        // when: 'applying the strategies to a vertex count'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().hasLabel("a").count().as("c"));
+        // then: 'the traversal is replaced with the count step'
+        assertEquals(1, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JCountGlobalStep);
+        assertTrue(traversal.getStartStep().getLabels().contains("c"));
+    }
+
+    @Test
+    void replacesDegreeCount() {
+        // when: 'applying the strategies to a degree count followed by other steps'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V(1l).outE("a").limit(2).count().is(2l));
+        // then: 'the prefix of the traversal is replaced with the count step'
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JCountGlobalStep);
+    }
+
+    @Test
+    void keepsLabeledSteps() {
+        // when: 'applying the strategies to a count of labeled elements'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().as("a").count());
+        // then: 'the count is not replaced'
+        assertTrue(traversal.getEndStep() instanceof CountGlobalStep);
+    }
+
+    @Test
+    void keepsClientSidePredicates() {
+        // when: 'applying the strategies to a count with a predicate which cannot be pushed down'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().has("x", new P<>((a, b) -> Objects.equals(a, b), "y")).count());
+        // then: 'the count is not replaced'
+        assertTrue(traversal.getEndStep() instanceof CountGlobalStep);
+    }
+
+    private static Traversal.Admin<?, ?> apply(final GraphTraversal<?, ?> graphTraversal) {
+        final Traversal.Admin<?, ?> traversal = graphTraversal.asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JVertexStepStrategy.instance().apply(traversal);
+        Neo4JCountStrategy.instance().apply(traversal);
+        return traversal;
+    }
+
+}
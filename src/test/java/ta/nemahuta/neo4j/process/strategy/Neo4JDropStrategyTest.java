@@ -0,0 +1,50 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DropStep;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JDropStep;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JDropStrategyTest {
+
+    @Test
+    void replacesVertexDrop() {
+        // when: 'applying the strategies to a vertex drop'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().hasLabel("a").drop());
+        // then: 'the traversal is replaced with the drop step'
+        assertEquals(1, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JDropStep);
+    }
+
+    @Test
+    void keepsEdgeDrops() {
+        // when: 'applying the strategies to an edge drop'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().E().hasLabel("a").drop());
+        // then: 'the drop is not replaced'
+        assertTrue(traversal.getEndStep() instanceof DropStep);
+    }
+
+    @Test
+    void keepsClientSidePredicates() {
+        // when: 'applying the strategies to a drop with a predicate which cannot be pushed down'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().has("x", new P<>((a, b) -> Objects.equals(a, b), "y")).drop());
+        // then: 'the drop is not replaced'
+        assertTrue(traversal.getEndStep() instanceof DropStep);
+    }
+
+    private static Traversal.Admin<?, ?> apply(final GraphTraversal<?, ?> graphTraversal) {
+        final Traversal.Admin<?, ?> traversal = graphTraversal.asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JDropStrategy.instance().apply(traversal);
+        return traversal;
+    }
+
+}
@@ -0,0 +1,57 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JGraphStepStrategyTest {
+
+    @Test
+    void foldsHasStepsIntoGraphStep() {
+        // setup: 'a traversal with has steps after the graph step'
+        final Traversal.Admin<?, ?> traversal = EmptyGraph.instance().traversal().V().hasLabel("a").has("x", "y").out().asAdmin();
+        // when: 'applying the strategy'
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // then: 'the graph step has been replaced and holds the has containers'
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JGraphStep);
+        assertEquals(ImmutableList.of(new HasContainer(T.label.getAccessor(), P.eq("a")), new HasContainer("x", P.eq("y"))).toString(),
+                ((Neo4JGraphStep<?, ?>) traversal.getStartStep()).getHasContainers().toString());
+        // and: 'the following steps are untouched'
+        assertTrue(traversal.getEndStep() instanceof VertexStep);
+    }
+
+    @Test
+    void movesIdsToGraphStep() {
+        // setup: 'a traversal filtering ids'
+        final Traversal.Admin<?, ?> traversal = EmptyGraph.instance().traversal().E().hasId(1L, 2L).asAdmin();
+        // when: 'applying the strategy'
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // then: 'the ids are set on the graph step'
+        final Neo4JGraphStep<?, ?> step = (Neo4JGraphStep<?, ?>) traversal.getStartStep();
+        assertArrayEquals(new Object[]{1L, 2L}, step.getIds());
+        assertTrue(step.getHasContainers().isEmpty());
+    }
+
+    @Test
+    void splitsConjunctions() {
+        // setup: 'a traversal having a conjunction'
+        final Traversal.Admin<?, ?> traversal = EmptyGraph.instance().traversal().V().has("x", P.gt(1).and(P.lt(3))).asAdmin();
+        // when: 'applying the strategy'
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        // then: 'the conjunction is split into separate containers'
+        assertEquals(ImmutableList.of(new HasContainer("x", P.gt(1)), new HasContainer("x", P.lt(3))).toString(),
+                ((Neo4JGraphStep<?, ?>) traversal.getStartStep()).getHasContainers().toString());
+    }
+
+}
@@ -0,0 +1,55 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JGraphStep;
+
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JOrderAndRangeStrategyTest {
+
+    @Test
+    void foldsOrderAndRangeIntoGraphStep() {
+        // when: 'applying the strategies to an ordered and limited traversal'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().hasLabel("a").order().by("ts", Order.desc).limit(20));
+        // then: 'only the graph step remains'
+        assertEquals(1, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JGraphStep);
+    }
+
+    @Test
+    void keepsUntranslatableOrders() {
+        // when: 'applying the strategies to a traversal with a custom comparator'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().order().by("ts", Comparator.<String>reverseOrder()).limit(20));
+        // then: 'the order and range steps remain'
+        assertEquals(3, traversal.getSteps().size());
+        assertTrue(traversal.getSteps().get(1) instanceof OrderGlobalStep);
+        assertTrue(traversal.getSteps().get(2) instanceof RangeGlobalStep);
+    }
+
+    @Test
+    void keepsRangeAfterVertexStep() {
+        // when: 'applying the strategies to a limited vertex step'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().out().limit(20));
+        // then: 'the range step remains, as it applies to all traversers'
+        assertTrue(traversal.getEndStep() instanceof RangeGlobalStep);
+    }
+
+    private static Traversal.Admin<?, ?> apply(final GraphTraversal<?, ?> graphTraversal) {
+        final Traversal.Admin<?, ?> traversal = graphTraversal.asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JVertexStepStrategy.instance().apply(traversal);
+        Neo4JCountStrategy.instance().apply(traversal);
+        Neo4JOrderAndRangeStrategy.instance().apply(traversal);
+        return traversal;
+    }
+
+}
@@ -0,0 +1,84 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JPropertiesStep;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JPropertiesStrategyTest {
+
+    @Test
+    void replacesValues() {
+        // when: 'applying the strategies to the values of vertices followed by other steps'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().hasLabel("a").values("name").as("n").dedup());
+        // then: 'the prefix of the traversal is replaced with the properties step'
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JPropertiesStep);
+        assertTrue(traversal.getStartStep().getLabels().contains("n"));
+    }
+
+    @Test
+    void replacesOrderedValueMap() {
+        // when: 'applying the strategies to an ordered and limited value map of edges'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().E().order().by("ts").limit(2).valueMap("a", "b"));
+        // then: 'the traversal is replaced with the properties step'
+        assertEquals(1, traversal.getSteps().size());
+        assertTrue(traversal.getStartStep() instanceof Neo4JPropertiesStep);
+    }
+
+    @Test
+    void keepsValueMapWithTokens() {
+        // when: 'applying the strategies to a value map including the tokens'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().valueMap(true, "a"));
+        // then: 'the value map is not replaced'
+        assertTrue(traversal.getEndStep() instanceof PropertyMapStep);
+    }
+
+    @Test
+    void keepsModulatedValueMap() {
+        // when: 'applying the strategies to a modulated value map'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().valueMap("a").by(__.unfold()));
+        // then: 'the value map is not replaced'
+        assertTrue(traversal.getEndStep() instanceof PropertyMapStep);
+    }
+
+    @Test
+    void keepsProperties() {
+        // when: 'applying the strategies to the properties of vertices'
+        final Traversal.Admin<?, ?> traversal = apply(EmptyGraph.instance().traversal().V().properties("a"));
+        // then: 'the properties are not replaced'
+        assertTrue(traversal.getEndStep() instanceof PropertiesStep);
+    }
+
+    @Test
+    void keepsIdsLabelsAndClientSidePredicates() {
+        // when: 'applying the strategies to the values of elements which cannot be queried on the server side completely'
+        final Traversal.Admin<?, ?> ids = apply(EmptyGraph.instance().traversal().V(1l).values("a"));
+        final Traversal.Admin<?, ?> labeled = apply(EmptyGraph.instance().traversal().V().as("v").values("a"));
+        final Traversal.Admin<?, ?> predicates = apply(EmptyGraph.instance().traversal().V()
+                .has("x", new P<>((a, b) -> Objects.equals(a, b), "y")).values("a"));
+        // then: 'the values are not replaced'
+        assertTrue(ids.getEndStep() instanceof PropertiesStep);
+        assertTrue(labeled.getEndStep() instanceof PropertiesStep);
+        assertTrue(predicates.getEndStep() instanceof PropertiesStep);
+    }
+
+    private static Traversal.Admin<?, ?> apply(final GraphTraversal<?, ?> graphTraversal) {
+        final Traversal.Admin<?, ?> traversal = graphTraversal.asAdmin();
+        Neo4JGraphStepStrategy.instance().apply(traversal);
+        Neo4JOrderAndRangeStrategy.instance().apply(traversal);
+        Neo4JPropertiesStrategy.instance().apply(traversal);
+        return traversal;
+    }
+
+}
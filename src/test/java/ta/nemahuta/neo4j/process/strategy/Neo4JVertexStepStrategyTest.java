@@ -0,0 +1,50 @@
+package ta.nemahuta.neo4j.process.strategy;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.process.step.Neo4JEdgeStep;
+import ta.nemahuta.neo4j.process.step.Neo4JVertexStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Neo4JVertexStepStrategyTest {
+
+    @Test
+    void foldsHasStepsIntoVertexStep() {
+        // setup: 'a traversal with has steps after the vertex step'
+        final Traversal.Admin<?, ?> traversal = EmptyGraph.instance().traversal().V().out("a").has("x", "y").as("b").asAdmin();
+        // when: 'applying the strategy'
+        Neo4JVertexStepStrategy.instance().apply(traversal);
+        // then: 'the vertex step has been replaced and holds the has containers'
+        assertEquals(2, traversal.getSteps().size());
+        final Neo4JVertexStep step = (Neo4JVertexStep) traversal.getEndStep();
+        assertEquals(ImmutableList.of(new HasContainer("x", P.eq("y"))).toString(), step.getHasContainers().toString());
+        // and: 'the labels of the has step are retained'
+        assertTrue(step.getLabels().contains("b"));
+    }
+
+    @Test
+    void batchesVertexStepsReturningEdges() {
+        // setup: 'a traversal with a vertex step returning edges'
+        final Traversal.Admin<?, ?> traversal = EmptyGraph.instance().traversal().V().outE("a").as("e").has("x", "y").asAdmin();
+        // when: 'applying the strategy'
+        Neo4JVertexStepStrategy.instance().apply(traversal);
+        // then: 'the vertex step has been replaced, keeping its labels and the has step'
+        assertEquals(3, traversal.getSteps().size());
+        final Step<?, ?> vertexStep = traversal.getSteps().get(1);
+        assertTrue(vertexStep instanceof Neo4JEdgeStep);
+        assertEquals(Direction.OUT, ((VertexStep<?>) vertexStep).getDirection());
+        assertTrue(vertexStep.getLabels().contains("e"));
+        assertTrue(traversal.getEndStep() instanceof HasStep);
+    }
+
+}
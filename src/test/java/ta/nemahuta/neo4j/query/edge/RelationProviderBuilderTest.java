@@ -99,8 +99,8 @@ class RelationProviderBuilderTest extends AbstractStatementBuilderTest {
 
     @Test
     void updatePropertiesWithId() {
-        assertBuildsStatement("MATCH (n:`graphLabel`)-[r]-(m:`graphLabel`) WHERE ID(n) IN {vertexId1} AND ID(m) IN {vertexId2} AND ID(r) IN {edgeId1} SET r={edgeProps1}",
-                ImmutableMap.of("vertexId1", Collections.singleton(1l), "vertexId2", Collections.singleton(2l), "edgeId1", Collections.singleton(3l), "edgeProps1", ImmutableMap.of("a", "c", "e", "f", "u", "v")),
+        assertBuildsStatement("MATCH (n:`graphLabel`)-[r]-(m:`graphLabel`) WHERE ID(n) IN {vertexId1} AND ID(m) IN {vertexId2} AND ID(r) IN {edgeId1} SET r+={edgeProps1} REMOVE r.`x`",
+                ImmutableMap.of("vertexId1", Collections.singleton(1l), "vertexId2", Collections.singleton(2l), "edgeId1", Collections.singleton(3l), "edgeProps1", ImmutableMap.of("a", "c", "e", "f")),
                 query()
                         .where(b -> b.getLhs().id(1l)
                                 .and(b.getRhs().id(2l).and(b.whereId(3l))))
@@ -2,13 +2,15 @@ package ta.nemahuta.neo4j.query.edge.operation;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.id.NativeVertexIdStrategy;
+import ta.nemahuta.neo4j.id.SnowflakeVertexIdStrategy;
 import ta.nemahuta.neo4j.query.AbstractStatementBuilderTest;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ReturnEdgeOperationTest extends AbstractStatementBuilderTest {
 
-    private final ReturnEdgeOperation sut = new ReturnEdgeOperation("n", "r", "m");
+    private final ReturnEdgeOperation sut = new ReturnEdgeOperation("n", "r", "m", NativeVertexIdStrategy.INSTANCE);
 
     @Test
     void isNeedsStatement() {
@@ -19,4 +21,10 @@ class ReturnEdgeOperationTest extends AbstractStatementBuilderTest {
     void append() {
         assertBuildsStatement("RETURN r", ImmutableMap.of(), sut);
     }
+
+    @Test
+    void appendWithClientGeneratedIds() {
+        assertBuildsStatement("RETURN r, startNode(r).`_id`, endNode(r).`_id`", ImmutableMap.of(),
+                new ReturnEdgeOperation("n", "r", "m", new SnowflakeVertexIdStrategy("_id", 0)));
+    }
 }
\ No newline at end of file
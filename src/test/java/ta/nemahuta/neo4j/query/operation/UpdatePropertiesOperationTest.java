@@ -0,0 +1,44 @@
+package ta.nemahuta.neo4j.query.operation;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.query.AbstractStatementBuilderTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UpdatePropertiesOperationTest extends AbstractStatementBuilderTest {
+
+    private final ImmutableMap<String, Object> committed = ImmutableMap.of("a", "b", "c", "d", "e", "f");
+
+    @Test
+    void isNeedsStatement() {
+        assertFalse(new UpdatePropertiesOperation(committed, committed, "v", "props").isNeedsStatement());
+    }
+
+    @Test
+    void appendChangedAndRemoved() {
+        assertBuildsStatement("SET v+={props} REMOVE v.`c`, v.`e`",
+                ImmutableMap.of("props", ImmutableMap.of("a", "x", "g", "h")),
+                new UpdatePropertiesOperation(committed, ImmutableMap.of("a", "x", "g", "h"), "v", "props"));
+    }
+
+    @Test
+    void appendRemovedOnly() {
+        assertBuildsStatement("REMOVE v.`a`",
+                ImmutableMap.of(),
+                new UpdatePropertiesOperation(committed, ImmutableMap.of("c", "d", "e", "f"), "v", "props"));
+    }
+
+    @Test
+    void delta() {
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("a", "x");
+        expected.put("c", null);
+        assertEquals(expected, UpdatePropertiesOperation.delta(committed, ImmutableMap.of("a", "x", "e", "f")));
+    }
+
+}
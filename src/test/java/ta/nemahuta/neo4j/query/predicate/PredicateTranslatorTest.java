@@ -0,0 +1,98 @@
+package ta.nemahuta.neo4j.query.predicate;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.query.AbstractStatementBuilderTest;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PredicateTranslatorTest extends AbstractStatementBuilderTest {
+
+    @Test
+    void translateEquals() {
+        assertTrue(PredicateTranslator.isTranslatable(P.eq("a")));
+        assertBuildsStatement("x.`y` = {p}", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", P.eq("a"), () -> "p"));
+    }
+
+    @Test
+    void translateWithin() {
+        final P<?> within = P.within(1L, 2L);
+        assertTrue(PredicateTranslator.isTranslatable(within));
+        assertBuildsStatement("x.`y` IN {p}", ImmutableMap.of("p", within.getValue()),
+                PredicateTranslator.translate("x.`y`", within, () -> "p"));
+    }
+
+    @Test
+    void translateComparisons() {
+        assertBuildsStatement("x.`y` <> {p}", ImmutableMap.of("p", 1L), PredicateTranslator.translate("x.`y`", P.neq(1L), () -> "p"));
+        assertBuildsStatement("x.`y` < {p}", ImmutableMap.of("p", 1L), PredicateTranslator.translate("x.`y`", P.lt(1L), () -> "p"));
+        assertBuildsStatement("x.`y` <= {p}", ImmutableMap.of("p", 1L), PredicateTranslator.translate("x.`y`", P.lte(1L), () -> "p"));
+        assertBuildsStatement("x.`y` > {p}", ImmutableMap.of("p", 1L), PredicateTranslator.translate("x.`y`", P.gt(1L), () -> "p"));
+        assertBuildsStatement("x.`y` >= {p}", ImmutableMap.of("p", 1L), PredicateTranslator.translate("x.`y`", P.gte(1L), () -> "p"));
+    }
+
+    @Test
+    void translateRanges() {
+        final Iterator<String> params = Stream.of("p1", "p2", "p3", "p4", "p5", "p6").iterator();
+        assertBuildsStatement("(x.`y` > {p1} AND x.`y` < {p2})", ImmutableMap.of("p1", 1L, "p2", 5L),
+                PredicateTranslator.translate("x.`y`", P.inside(1L, 5L), params::next));
+        assertBuildsStatement("(x.`y` < {p3} OR x.`y` > {p4})", ImmutableMap.of("p3", 1L, "p4", 5L),
+                PredicateTranslator.translate("x.`y`", P.outside(1L, 5L), params::next));
+        assertBuildsStatement("(x.`y` >= {p5} AND x.`y` < {p6})", ImmutableMap.of("p5", 1L, "p6", 5L),
+                PredicateTranslator.translate("x.`y`", P.between(1L, 5L), params::next));
+    }
+
+    @Test
+    void translateWithout() {
+        final P<?> without = P.without("a", "b");
+        assertTrue(PredicateTranslator.isTranslatable(without));
+        assertBuildsStatement("NOT (x.`y` IN {p})", ImmutableMap.of("p", without.getValue()),
+                PredicateTranslator.translate("x.`y`", without, () -> "p"));
+    }
+
+    @Test
+    void translateTexts() {
+        assertBuildsStatement("x.`y` STARTS WITH {p}", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.startingWith("a"), () -> "p"));
+        assertBuildsStatement("x.`y` ENDS WITH {p}", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.endingWith("a"), () -> "p"));
+        assertBuildsStatement("x.`y` CONTAINS {p}", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.containing("a"), () -> "p"));
+        assertBuildsStatement("NOT (x.`y` STARTS WITH {p})", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.notStartingWith("a"), () -> "p"));
+        assertBuildsStatement("NOT (x.`y` ENDS WITH {p})", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.notEndingWith("a"), () -> "p"));
+        assertBuildsStatement("NOT (x.`y` CONTAINS {p})", ImmutableMap.of("p", "a"),
+                PredicateTranslator.translate("x.`y`", TextP.notContaining("a"), () -> "p"));
+    }
+
+    @Test
+    void translateNegatedConnectives() {
+        final Iterator<String> params = Stream.of("p1", "p2").iterator();
+        assertBuildsStatement("(x.`y` <= {p1} OR x.`y` >= {p2})", ImmutableMap.of("p1", 1L, "p2", 5L),
+                PredicateTranslator.translate("x.`y`", P.not(P.inside(1L, 5L)), params::next));
+    }
+
+    @Test
+    void rejectNonTextValues() {
+        assertFalse(PredicateTranslator.isTranslatable(new P(Text.containing, 1L)));
+        assertFalse(PredicateTranslator.isTranslatable(P.inside(1L, new Object())));
+    }
+
+    @Test
+    void rejectNonParameterValues() {
+        assertFalse(PredicateTranslator.isTranslatable(P.eq(new Object())));
+        assertFalse(PredicateTranslator.isTranslatable(P.eq(null)));
+        assertThrows(IllegalArgumentException.class, () -> PredicateTranslator.translate("x", P.eq(new Object()), () -> "p"));
+    }
+
+}
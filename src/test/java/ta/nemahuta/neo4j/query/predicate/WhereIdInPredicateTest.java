@@ -10,7 +10,7 @@ class WhereIdInPredicateTest extends AbstractStatementBuilderTest {
     @Test
     void idsPresent() {
         assertBuildsStatement("ID(x) IN {ids}", ImmutableMap.of("ids", ImmutableSet.of(1l, 2l, 3l)),
-                new WhereIdInPredicate(ImmutableSet.of(1l, 2l, 3l), "x", "ids"));
+                new WhereIdInPredicate(ImmutableSet.of(1l, 2l, 3l), "ID(x)", "ids"));
     }
 
 }
\ No newline at end of file
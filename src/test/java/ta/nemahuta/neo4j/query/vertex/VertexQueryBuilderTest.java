@@ -1,8 +1,11 @@
 package ta.nemahuta.neo4j.query.vertex;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.junit.jupiter.api.Test;
+import ta.nemahuta.neo4j.id.SnowflakeVertexIdStrategy;
 import ta.nemahuta.neo4j.partition.Neo4JLabelGraphPartition;
 import ta.nemahuta.neo4j.query.AbstractStatementBuilderTest;
 
@@ -21,6 +24,37 @@ class VertexQueryBuilderTest extends AbstractStatementBuilderTest {
         );
     }
 
+    @Test
+    void buildWhereClientGeneratedIdReturnVertex() {
+        assertBuildsStatement("MATCH (v:`Neo4JVertex`) WHERE v.`_id` IN {vertexId1} RETURN v",
+                ImmutableMap.of("vertexId1", ImmutableSet.of(1l)),
+                new VertexQueryBuilder(Neo4JLabelGraphPartition.anyLabel(), new SnowflakeVertexIdStrategy("_id", 0))
+                        .match(q -> q.labelsMatch(Collections.emptySet()))
+                        .where(q -> q.id(1l))
+                        .andThen(q -> q.returnVertex())
+        );
+    }
+
+    @Test
+    void buildClientGeneratedIdWithPartition() {
+        assertBuildsStatement("MATCH (v:`a`:`x`:`Neo4JVertex`) WHERE v.`_id` IN {vertexId1} RETURN v",
+                ImmutableMap.of("vertexId1", ImmutableSet.of(1l)),
+                new VertexQueryBuilder(Neo4JLabelGraphPartition.allLabelsOf("x"), new SnowflakeVertexIdStrategy("_id", 0))
+                        .match(q -> q.labelsMatch(ImmutableSet.of("a")))
+                        .where(q -> q.id(1l))
+                        .andThen(q -> q.returnVertex())
+        );
+    }
+
+    @Test
+    void createVertexWithClientGeneratedId() {
+        assertBuildsStatement("CREATE (v:`a`:`Neo4JVertex`) SET v={vertexProps1} RETURN ID(v)",
+                ImmutableMap.of("vertexProps1", ImmutableMap.of("_id", 1l)),
+                new VertexQueryBuilder(Neo4JLabelGraphPartition.anyLabel(), new SnowflakeVertexIdStrategy("_id", 0))
+                        .andThen(q -> q.create(ImmutableSet.of("a"), ImmutableMap.of("_id", 1l)))
+        );
+    }
+
     @Test
     void createVertexAndReturnId() {
         assertBuildsStatement("CREATE (v:`x`:`y`) SET v={vertexProps1} RETURN ID(v)",
@@ -41,6 +75,18 @@ class VertexQueryBuilderTest extends AbstractStatementBuilderTest {
         );
     }
 
+    @Test
+    void dropVerticesInChunk() {
+        assertBuildsStatement("MATCH (v:`Neo4JVertex`) WITH v LIMIT {dropLimit1} OPTIONAL MATCH (v)-[r]-(m) " +
+                        "WITH v, v.`_id` AS vertexId, collect(ID(r)) AS edgeIds, collect(m.`_id`) AS adjacentIds " +
+                        "DETACH DELETE v RETURN vertexId, edgeIds, adjacentIds",
+                ImmutableMap.of("dropLimit1", 10l),
+                new VertexQueryBuilder(Neo4JLabelGraphPartition.anyLabel(), new SnowflakeVertexIdStrategy("_id", 0))
+                        .match(v -> v.labelsMatch(Collections.emptySet()))
+                        .andThen(q -> q.drop(10))
+        );
+    }
+
     @Test
     void returnVertexById() {
         assertBuildsStatement("MATCH (v) WHERE ID(v) IN {vertexId1} RETURN v",
@@ -64,7 +110,7 @@ class VertexQueryBuilderTest extends AbstractStatementBuilderTest {
 
     @Test
     void updateVertexById() {
-        assertBuildsStatement("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} SET v:`y`:`z` REMOVE v:`x` SET v={vertexProps1}",
+        assertBuildsStatement("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} SET v:`y`:`z` REMOVE v:`x` SET v+={vertexProps1} REMOVE v.`u`",
                 ImmutableMap.of("vertexId1", Collections.singleton(1l), "vertexProps1", ImmutableMap.of("a", "c", "e", "f")),
                 query()
                         .match(b -> b.labelsMatch(ImmutableSet.of("x")))
@@ -78,6 +124,32 @@ class VertexQueryBuilderTest extends AbstractStatementBuilderTest {
     }
 
 
+    @Test
+    void returnVertexByExactLabelsAndProperty() {
+        assertBuildsStatement("MATCH (v) WHERE ((v:`a` AND size(labels(v)) = 1) OR (v:`b`:`c` AND size(labels(v)) = 2)) AND v.`x``y` = {vertexProperty1} RETURN v",
+                ImmutableMap.of("vertexProperty1", 1l),
+                query()
+                        .match(v -> v.labelsMatch(Collections.emptySet()))
+                        .where(v -> v.whereLabels(ImmutableList.of(ImmutableSet.of("a"), ImmutableSet.of("b", "c")))
+                                .and(v.whereProperty("x`y", P.eq(1l))))
+                        .andThen(q -> q.returnVertex())
+        );
+    }
+
+    @Test
+    void returnVertexOrderedInRange() {
+        assertBuildsStatement("MATCH (v) RETURN v ORDER BY v.`ts` DESC, ID(v) ASC SKIP {querySkip} LIMIT {queryLimit}",
+                ImmutableMap.of("querySkip", 10l, "queryLimit", 20l),
+                query()
+                        .match(v -> v.labelsMatch(Collections.emptySet()))
+                        .orderBy(v -> v.orderByProperty("ts", true))
+                        .orderBy(v -> v.orderById(false))
+                        .skip(10)
+                        .limit(20)
+                        .andThen(q -> q.returnVertex())
+        );
+    }
+
     private VertexQueryBuilder query() {
         return new VertexQueryBuilder(Neo4JLabelGraphPartition.anyLabel());
     }
@@ -1,7 +1,9 @@
 package ta.nemahuta.neo4j.scope;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,13 +16,27 @@ import org.mockito.quality.Strictness;
 import ta.nemahuta.neo4j.cache.HierarchicalCache;
 import ta.nemahuta.neo4j.handler.Neo4JElementStateHandler;
 import ta.nemahuta.neo4j.query.AbstractQueryBuilder;
+import ta.nemahuta.neo4j.query.StatementBuilder;
+import ta.nemahuta.neo4j.session.WriteBehindBuffer;
 import ta.nemahuta.neo4j.state.Neo4JElementState;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,10 +50,10 @@ class DefaultNeo4JElementStateScopeTest {
     private Neo4JElementStateHandler<Neo4JElementState, ? extends AbstractQueryBuilder> handler;
 
     @Mock(answer = Answers.RETURNS_DEEP_STUBS)
-    private IdCache<Long> idCache;
+    private IdCache idCache;
 
     @Mock
-    private Neo4JElementState state, modifiedState;
+    private Neo4JElementState state, modifiedState, otherState;
 
     private Neo4JElementStateScope<Neo4JElementState, ? extends AbstractQueryBuilder> sut;
 
@@ -50,7 +66,7 @@ class DefaultNeo4JElementStateScopeTest {
     @Test
     void update() {
         // given: 'the vertex is already known'
-        when(idCache.filterExisting(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(i ->
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
                 new HashSet<Long>(i.getArgument(0))
         );
         // when: 'updating the state'
@@ -59,7 +75,7 @@ class DefaultNeo4JElementStateScopeTest {
         verify(cache, times(1)).put(1l, modifiedState);
         verify(handler, times(1)).update(1l, state, modifiedState);
         verify(idCache, times(1)).isRemoved(1l);
-        verify(idCache, times(1)).filterExisting(ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(idCache, times(1)).filterExisting(ArgumentMatchers.any());
         verifyNoMoreInteractions(idCache);
     }
 
@@ -74,6 +90,71 @@ class DefaultNeo4JElementStateScopeTest {
         verify(idCache, times(1)).localRemoval(1l);
     }
 
+    @Test
+    void bufferedUpdatesAreCoalesced() {
+        // given: 'the vertex is already known and changes are buffered'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
+                new HashSet<Long>(i.getArgument(0))
+        );
+        this.sut = new DefaultNeo4JElementStateScope<>(cache, handler, idCache, new WriteBehindBuffer(10));
+        // when: 'updating the state twice'
+        sut.update(1l, modifiedState);
+        when(cache.get(1l)).thenReturn(modifiedState);
+        sut.update(1l, otherState);
+        // then: 'the cache is notified but the handler is not'
+        verify(cache, times(1)).put(1l, otherState);
+        verify(handler, never()).update(anyLong(), any(), any());
+        // when: 'flushing the scope'
+        sut.flush();
+        // then: 'a single update from the state in the session to the latest state is sent'
+        verify(handler, times(1)).updateAll(ImmutableMap.of(1l, new Pair<>(state, otherState)));
+        verify(handler, never()).deleteAll(any());
+    }
+
+    @Test
+    void bufferedUpdatesChangedBackAreDiscarded() {
+        // given: 'the vertex is already known and changes are buffered'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
+                new HashSet<Long>(i.getArgument(0))
+        );
+        this.sut = new DefaultNeo4JElementStateScope<>(cache, handler, idCache, new WriteBehindBuffer(10));
+        // when: 'updating the state and changing it back'
+        sut.update(1l, modifiedState);
+        when(cache.get(1l)).thenReturn(modifiedState);
+        sut.update(1l, state);
+        sut.flush();
+        // then: 'nothing is sent to the session'
+        verify(handler, never()).updateAll(any());
+    }
+
+    @Test
+    void bufferedDeleteReplacesUpdate() {
+        // given: 'the vertex is already known and changes are buffered'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
+                new HashSet<Long>(i.getArgument(0))
+        );
+        this.sut = new DefaultNeo4JElementStateScope<>(cache, handler, idCache, new WriteBehindBuffer(10));
+        // when: 'updating and deleting the state'
+        sut.update(1l, modifiedState);
+        sut.delete(1l);
+        sut.flush();
+        // then: 'only the deletion is sent to the session'
+        verify(handler, never()).updateAll(any());
+        verify(handler, never()).delete(anyLong());
+        verify(handler, times(1)).deleteAll(ImmutableSet.of(1l));
+    }
+
+    @Test
+    void rollbackDiscardsBufferedChanges() {
+        this.sut = new DefaultNeo4JElementStateScope<>(cache, handler, idCache, new WriteBehindBuffer(10));
+        // when: 'deleting the state and rolling back'
+        sut.delete(1l);
+        sut.rollback();
+        sut.flush();
+        // then: 'nothing is sent to the session'
+        verify(handler, never()).deleteAll(any());
+    }
+
     @Test
     void create() {
         when(handler.create(modifiedState)).thenReturn(2l);
@@ -85,10 +166,23 @@ class DefaultNeo4JElementStateScopeTest {
         verify(idCache, times(1)).localCreation(2l);
     }
 
+    @Test
+    void createAll() {
+        when(handler.createAll(ImmutableList.of(state, modifiedState))).thenReturn(ImmutableList.of(2l, 3l));
+        // when: 'creating two elements'
+        assertEquals(ImmutableList.of(2l, 3l), sut.createAll(ImmutableList.of(state, modifiedState)));
+        // then: 'the states are put to the cache by the ids from the handler'
+        verify(cache, times(1)).put(2l, state);
+        verify(cache, times(1)).put(3l, modifiedState);
+
+        verify(idCache, times(1)).localCreation(2l);
+        verify(idCache, times(1)).localCreation(3l);
+    }
+
     @Test
     void get() {
         // given: 'the vertex is already known'
-        when(idCache.filterExisting(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(i -> {
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i -> {
             final Set<Long> result = new HashSet<>();
             result.add(1L);
             return result;
@@ -98,6 +192,30 @@ class DefaultNeo4JElementStateScopeTest {
         assertNull(sut.get(2l));
     }
 
+    @Test
+    void getUnknownIdDoesNotLoadAllIds() {
+        // given: 'the known ids have not been retrieved and the element does not exist'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(idCache.filterKnown(ArgumentMatchers.any())).thenReturn(new HashSet<>());
+        when(handler.streamAll(ImmutableSet.of(2l))).thenReturn(Stream.empty());
+        // expect: 'the element is not found'
+        assertNull(sut.get(2l));
+        // and: 'only the element has been loaded, not all ids'
+        verify(handler, times(1)).streamAll(ImmutableSet.of(2l));
+        verify(handler, never()).retrieveAllIds();
+        verify(idCache, never()).getAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    void getKnownIdWhichCannotBeLoaded() {
+        // given: 'the element is known but cannot be loaded'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(idCache.filterKnown(ArgumentMatchers.any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(handler.streamAll(ImmutableSet.of(2l))).thenReturn(Stream.empty());
+        // expect: 'an exception is thrown'
+        assertThrows(NoSuchElementException.class, () -> sut.get(2l));
+    }
+
     @Test
     void getAllSelectedIds() {
         // given: 'all ids are completely known'
@@ -112,6 +230,108 @@ class DefaultNeo4JElementStateScopeTest {
         verify(idCache, times(1)).getAll(ArgumentMatchers.any());
     }
 
+    @Test
+    void getAllKnownIdsFromSnapshot() {
+        // given: 'the known ids are an immutable snapshot and only one of them is cached'
+        when(idCache.getAll(ArgumentMatchers.any())).thenReturn(LongIdSet.of(LongStream.of(1l, 2l, 3l)));
+        when(handler.streamAll(ImmutableSet.of(2l, 3l))).thenReturn(Stream.of(new Pair<>(2l, modifiedState), new Pair<>(3l, otherState)));
+        // when: 'loading all items'
+        final Map<Long, Neo4JElementState> actual = sut.getAll(ImmutableSet.of());
+        // then: 'the cached state and the loaded ones are provided'
+        assertEquals(ImmutableMap.of(1l, state, 2l, modifiedState, 3l, otherState), actual);
+        // and: 'only the missing states were loaded'
+        verify(handler, times(1)).streamAll(ImmutableSet.of(2l, 3l));
+    }
+
+    @Test
+    void getAllAsync() {
+        // given: 'both vertices are known, but only one is cached'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
+                new HashSet<Long>(i.getArgument(0))
+        );
+        when(handler.getAllAsync(ImmutableSet.of(2l))).thenReturn(CompletableFuture.completedFuture(ImmutableMap.of(2l, modifiedState)));
+        // when: 'loading the items asynchronously'
+        final Map<Long, Neo4JElementState> actual = sut.getAllAsync(ImmutableSet.of(1l, 2l)).toCompletableFuture().join();
+        // then: 'the cached state and the loaded one are provided'
+        assertEquals(ImmutableMap.of(1l, state, 2l, modifiedState), actual);
+        // and: 'only the missing state was loaded and cached'
+        verify(handler, times(1)).getAllAsync(ImmutableSet.of(2l));
+        verify(cache, times(1)).putLoaded(2l, modifiedState);
+    }
+
+    @Test
+    void getAllAsyncKeepsUpdateWhileLoading() {
+        // given: 'a cache keeping the states and a pending load of the vertex'
+        final Map<Long, Neo4JElementState> cached = new HashMap<>(ImmutableMap.of(1l, state));
+        when(cache.get(anyLong())).then(i -> cached.get(i.<Long>getArgument(0)));
+        doAnswer(i -> cached.put(i.getArgument(0), i.getArgument(1))).when(cache).put(anyLong(), any());
+        doAnswer(i -> cached.put(i.getArgument(0), i.getArgument(1))).when(cache).putLoaded(anyLong(), any());
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(handler.streamAll(ImmutableSet.of(2l))).then(i -> Stream.of(new Pair<>(2l, otherState)));
+        final CompletableFuture<Map<Long, Neo4JElementState>> pending = new CompletableFuture<>();
+        when(handler.getAllAsync(ImmutableSet.of(2l))).thenReturn(pending);
+        final CompletableFuture<Map<Long, Neo4JElementState>> actual = sut.getAllAsync(ImmutableSet.of(1l, 2l)).toCompletableFuture();
+        // when: 'the vertex is updated before the load completes with the previous state'
+        sut.update(2l, modifiedState);
+        pending.complete(ImmutableMap.of(2l, otherState));
+        // then: 'the updated state is provided and kept in the cache'
+        assertEquals(ImmutableMap.of(1l, state, 2l, modifiedState), actual.join());
+        assertEquals(modifiedState, cached.get(2l));
+        // and: 'only the state loaded for the update has been put as loaded'
+        verify(cache, times(1)).putLoaded(2l, otherState);
+    }
+
+    @Test
+    void getAllAsyncKeepsDeletionWhileLoading() {
+        // given: 'a pending load of the vertex'
+        when(idCache.filterExisting(ArgumentMatchers.any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        final CompletableFuture<Map<Long, Neo4JElementState>> pending = new CompletableFuture<>();
+        when(handler.getAllAsync(ImmutableSet.of(2l))).thenReturn(pending);
+        final CompletableFuture<Map<Long, Neo4JElementState>> actual = sut.getAllAsync(ImmutableSet.of(1l, 2l)).toCompletableFuture();
+        // when: 'the vertex is deleted before the load completes'
+        sut.delete(2l);
+        when(idCache.isRemoved(2l)).thenReturn(true);
+        pending.complete(ImmutableMap.of(2l, otherState));
+        // then: 'the deleted state is neither provided nor cached again'
+        assertEquals(ImmutableMap.of(1l, state), actual.join());
+        verify(cache, never()).putLoaded(anyLong(), any());
+    }
+
+    @Test
+    void queryAndCacheInOrder() {
+        final StatementBuilder statementBuilder = Optional::empty;
+        when(handler.queryInOrder(statementBuilder)).thenReturn(Stream.of(
+                new Pair<>(2l, modifiedState), new Pair<>(1l, modifiedState), new Pair<>(2l, modifiedState)
+        ));
+        // when: 'querying the states in order'
+        final List<Long> actual = sut.queryAndCacheInOrder(statementBuilder).collect(Collectors.toList());
+        // then: 'the ids are returned in order of the records'
+        assertEquals(ImmutableList.of(2l, 1l, 2l), actual);
+        // and: 'only the unknown state is put into the cache'
+        verify(cache, times(2)).putLoaded(2l, modifiedState);
+        verify(cache, never()).putLoaded(eq(1l), any());
+    }
+
+    @Test
+    void scanAndCache() {
+        final StatementBuilder firstPage = Optional::empty, secondPage = Optional::empty;
+        when(handler.queryInOrder(firstPage)).thenReturn(Stream.of(new Pair<>(1l, state), new Pair<>(2l, state)));
+        when(handler.queryInOrder(secondPage)).thenReturn(Stream.of(new Pair<>(3l, state)));
+        final List<Long> requestedAfter = new ArrayList<>();
+        // when: 'scanning the states in pages of two'
+        final Iterator<Long> actual = sut.scanAndCache(lastId -> {
+            requestedAfter.add(lastId);
+            return lastId < 2l ? firstPage : secondPage;
+        }, -1l, 2);
+        // then: 'no page is queried before iterating'
+        assertEquals(ImmutableList.of(), requestedAfter);
+        // and: 'all the ids are returned in order'
+        assertEquals(ImmutableList.of(1l, 2l, 3l), ImmutableList.copyOf(actual));
+        // and: 'the pages are requested after the last id of the previous page, stopping at the incomplete page'
+        assertEquals(ImmutableList.of(-1l, 2l), requestedAfter);
+        verify(cache, times(1)).putLoaded(3l, state);
+    }
+
     @Test
     void commit() {
         sut.delete(1l);
@@ -0,0 +1,110 @@
+package ta.nemahuta.neo4j.scope;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdCacheTest {
+
+    private final AtomicReference<LongIdSet> global = new AtomicReference<>(null);
+
+    private final IdCache sut = new IdCache(global);
+
+    @Test
+    void getAllRetrievesOnce() {
+        // when: 'requesting all ids twice'
+        assertEquals(ImmutableSet.of(1l, 2l), sut.getAll(() -> ImmutableSet.of(1l, 2l)));
+        // then: 'the ids are retrieved only the first time'
+        assertEquals(ImmutableSet.of(1l, 2l), sut.getAll(() -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    void commitAppliesLocalChanges() {
+        // setup: 'known ids and local changes'
+        global.set(LongIdSet.of(LongStream.of(1l, 2l)));
+        sut.localCreation(3l);
+        sut.localRemoval(1l);
+        // expect: 'the changes to be visible locally only'
+        assertEquals(ImmutableSet.of(2l, 3l), sut.getAll(ImmutableSet::of));
+        assertEquals(ImmutableSet.of(3l), sut.filterExisting(ImmutableList.of(1l, 3l, 4l)));
+        assertEquals(ImmutableSet.of(1l, 2l), global.get());
+        // when: 'committing the changes'
+        sut.commit();
+        // then: 'the changes are applied to the known ids'
+        assertEquals(ImmutableSet.of(2l, 3l), global.get());
+        assertTrue(sut.getRemoved().isEmpty());
+    }
+
+    @Test
+    void filterWithoutKnownIds() {
+        // setup: 'local changes without known ids'
+        sut.localCreation(3l);
+        sut.localRemoval(1l);
+        // expect: 'only removed ids are filtered and only local creations are known'
+        assertEquals(ImmutableSet.of(2l, 3l), sut.filterExisting(ImmutableList.of(1l, 2l, 3l)));
+        assertEquals(ImmutableSet.of(3l), sut.filterKnown(ImmutableList.of(1l, 2l, 3l)));
+        // and: 'the known ids have not been retrieved'
+        assertNull(global.get());
+    }
+
+    @Test
+    void refreshAddsIdsAfterWatermark() {
+        // setup: 'known ids and a local creation'
+        global.set(LongIdSet.of(LongStream.of(1l, 5l)));
+        sut.localCreation(8l);
+        // when: 'refreshing with ids created by another process'
+        final boolean actual = sut.refresh(afterId -> {
+            assertEquals(5l, afterId);
+            return ImmutableSet.of(7l, 8l);
+        }, () -> 4l);
+        // then: 'the new ids are known except the local creation'
+        assertTrue(actual);
+        assertEquals(ImmutableSet.of(1l, 5l, 7l), global.get());
+    }
+
+    @Test
+    void refreshDropsIdsOnDrift() {
+        // setup: 'known ids'
+        global.set(LongIdSet.of(LongStream.of(1l, 5l)));
+        // when: 'refreshing while another process deleted an element'
+        final boolean actual = sut.refresh(afterId -> ImmutableSet.of(), () -> 1l);
+        // then: 'the known ids are dropped'
+        assertFalse(actual);
+        assertNull(global.get());
+    }
+
+    @Test
+    void refreshDue() {
+        // setup: 'a cache refreshed periodically'
+        final AtomicLong refreshedAt = new AtomicLong();
+        final IdCache periodic = new IdCache(global, refreshedAt, 1000);
+        // expect: 'no refresh as long as the ids are not known'
+        assertFalse(periodic.isRefreshDue());
+        // when: 'the ids have been retrieved'
+        periodic.getAll(() -> ImmutableSet.of(1l));
+        // then: 'the refresh is due after the interval only'
+        assertFalse(periodic.isRefreshDue());
+        refreshedAt.addAndGet(-TimeUnit.SECONDS.toNanos(2));
+        assertTrue(periodic.isRefreshDue());
+        assertFalse(sut.isRefreshDue());
+    }
+
+    @Test
+    void commitWithoutKnownIds() {
+        // when: 'committing without known ids'
+        sut.localCreation(3l);
+        sut.commit();
+        // then: 'the ids are still unknown'
+        assertNull(global.get());
+    }
+
+}
@@ -0,0 +1,87 @@
+package ta.nemahuta.neo4j.scope;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIdSetTest {
+
+    @Test
+    void ofSparseAndDenseIds() {
+        // setup: 'sparse, dense and negative ids'
+        final TreeSet<Long> expected = LongStream.concat(LongStream.range(0, 10000), LongStream.of(-5l, 1l << 40, Long.MAX_VALUE, Long.MIN_VALUE))
+                .boxed().collect(Collectors.toCollection(TreeSet::new));
+        // when: 'creating a set from the ids'
+        final LongIdSet actual = LongIdSet.copyOf(expected);
+        // then: 'the set contains the ids in ascending order'
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected), ImmutableList.copyOf(actual));
+        assertTrue(actual.contains(9999l));
+        assertTrue(actual.contains(Long.MIN_VALUE));
+        assertFalse(actual.contains(10000l));
+        assertFalse(actual.contains("1"));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void withChangesSharesUntouchedGroups() {
+        // setup: 'a set'
+        final LongIdSet source = LongIdSet.of(LongStream.range(0, 200000));
+        // when: 'adding and removing ids'
+        final LongIdSet actual = source.withChanges(ImmutableSet.of(300000l, 5l), ImmutableSet.of(1l, 2l, 300001l));
+        // then: 'the new set contains the changes and the source is not changed'
+        assertEquals(200000 - 2 + 1, actual.size());
+        assertFalse(actual.contains(1l));
+        assertTrue(actual.contains(300000l));
+        assertTrue(source.contains(1l));
+        assertFalse(source.contains(300000l));
+        assertEquals(200000, source.size());
+    }
+
+    @Test
+    void withChangesRemovingGroups() {
+        // when: 'removing all ids of a set'
+        final LongIdSet actual = LongIdSet.of(LongStream.of(1l, 2l)).withChanges(ImmutableSet.of(), ImmutableSet.of(1l, 2l));
+        // then: 'the empty set is returned'
+        assertSame(LongIdSet.EMPTY, actual);
+        assertFalse(actual.iterator().hasNext());
+    }
+
+    @Test
+    void max() {
+        // expect: 'the greatest id of array and bitmap groups'
+        assertEquals(1l << 40, LongIdSet.of(LongStream.of(3l, 1l << 40, -2l)).max());
+        assertEquals(99999l, LongIdSet.of(LongStream.range(60000, 100000)).max());
+        assertThrows(NoSuchElementException.class, LongIdSet.EMPTY::max);
+    }
+
+    @Test
+    void withChangesMatchesHashSet() {
+        // setup: 'random changes applied to a set and a reference set'
+        final Random random = new Random(42);
+        final TreeSet<Long> expected = new TreeSet<>();
+        LongIdSet actual = LongIdSet.EMPTY;
+        for (int round = 0; round < 20; round++) {
+            final List<Long> added = random.longs(3000, 0, 1 << 18).boxed().collect(Collectors.toList());
+            final List<Long> removed = random.longs(1000, 0, 1 << 18).boxed().collect(Collectors.toList());
+            // when: 'applying the changes'
+            actual = actual.withChanges(added, removed);
+            expected.addAll(added);
+            expected.removeAll(removed);
+            // then: 'the sets are equal'
+            assertEquals(expected.size(), actual.size());
+            assertEquals(new ArrayList<>(expected), ImmutableList.copyOf(actual));
+        }
+    }
+
+}
@@ -3,15 +3,21 @@ package ta.nemahuta.neo4j.session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
 import ta.nemahuta.neo4j.cache.SessionCache;
 import ta.nemahuta.neo4j.structure.Neo4JGraph;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -97,4 +103,36 @@ class Neo4JTransactionTest {
         verify(session, times(1)).beginTransaction();
     }
 
-}
\ No newline at end of file
+    @Test
+    void executeStatementFlushesBufferedChanges() {
+        // setup: 'a transaction with a buffered change'
+        final WriteBehindBuffer writeBehind = new WriteBehindBuffer(10);
+        final Runnable flush = mock(Runnable.class);
+        writeBehind.register(flush);
+        writeBehind.buffered();
+        this.sut = new Neo4JTransaction(graph, session, writeBehind);
+        when(session.beginTransaction()).thenReturn(transaction);
+        // when: 'executing a statement'
+        sut.executeStatement(statement);
+        // then: 'the buffered change is sent before the statement'
+        final InOrder inOrder = inOrder(flush, transaction);
+        inOrder.verify(flush, times(1)).run();
+        inOrder.verify(transaction, times(1)).run(statement);
+    }
+
+    @Test
+    void executeStatementAsync() {
+        // setup: 'stub the transaction'
+        when(session.beginTransaction()).thenReturn(transaction);
+        final CompletionStage<StatementResultCursor> cursor = CompletableFuture.completedFuture(mock(StatementResultCursor.class));
+        when(transaction.runAsync(statement)).thenReturn(cursor);
+        // when: 'executing the statement asynchronously'
+        final CompletionStage<StatementResultCursor> actual = sut.executeStatementAsync(statement);
+        // then: 'the execution is delegated'
+        assertSame(cursor, actual);
+        verify(transaction, never()).run(statement);
+        // and: 'a new transaction was requested'
+        verify(session, times(1)).beginTransaction();
+    }
+
+}
@@ -12,9 +12,12 @@ import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -60,4 +63,17 @@ class StatementExecutorTest {
         assertEquals(ImmutableList.of(record1, record2), ImmutableList.copyOf(records.iterator()));
     }
 
-}
\ No newline at end of file
+    @Test
+    void retrieveRecordsAsync() {
+        // setup: 'a result with two records'
+        final Iterator<Record> iter = Stream.of(record1, record2).iterator();
+        when(statementResult.hasNext()).then(i -> iter.hasNext());
+        when(statementResult.next()).then(i -> iter.next());
+        // when: 'retrieving the records asynchronously'
+        final CompletableFuture<List<Record>> records = sut.retrieveRecordsAsync(statement).toCompletableFuture();
+        // then: 'the records are provided at once, since the statement is executed synchronously'
+        assertTrue(records.isDone());
+        assertEquals(ImmutableList.of(record1, record2), records.join());
+    }
+
+}
@@ -0,0 +1,84 @@
+package ta.nemahuta.neo4j.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindBufferTest {
+
+    @Mock
+    private Runnable first, second;
+
+    private WriteBehindBuffer sut;
+
+    @BeforeEach
+    void createSut() {
+        this.sut = new WriteBehindBuffer(2);
+        sut.register(first);
+        sut.register(second);
+    }
+
+    @Test
+    void disabled() {
+        assertFalse(WriteBehindBuffer.disabled().isEnabled());
+        assertTrue(sut.isEnabled());
+    }
+
+    @Test
+    void flushesAtTheThreshold() {
+        // when: 'buffering a change'
+        sut.buffered();
+        // then: 'nothing is flushed'
+        verify(first, never()).run();
+        // when: 'buffering the second change'
+        sut.buffered();
+        // then: 'the participants are flushed in the order of their registration'
+        final InOrder inOrder = inOrder(first, second);
+        inOrder.verify(first, times(1)).run();
+        inOrder.verify(second, times(1)).run();
+    }
+
+    @Test
+    void flushesOnlyBufferedChanges() {
+        // when: 'flushing without changes'
+        sut.flush();
+        // then: 'no participant is flushed'
+        verify(first, never()).run();
+    }
+
+    @Test
+    void doesNotFlushWhileFlushing() {
+        // setup: 'a participant issuing a statement while being flushed'
+        doAnswer(i -> {
+            sut.buffered();
+            sut.flush();
+            return null;
+        }).when(first).run();
+        sut.buffered();
+        // when: 'flushing the changes'
+        sut.flush();
+        // then: 'the participants are flushed only once'
+        verify(first, times(1)).run();
+        verify(second, times(1)).run();
+    }
+
+    @Test
+    void rollback() {
+        // setup: 'a buffered change'
+        sut.buffered();
+        // when: 'rolling back the changes'
+        sut.rollback();
+        sut.flush();
+        // then: 'nothing is flushed'
+        verify(first, never()).run();
+    }
+
+}
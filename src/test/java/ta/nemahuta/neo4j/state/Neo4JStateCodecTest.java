@@ -0,0 +1,104 @@
+package ta.nemahuta.neo4j.state;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Neo4JStateCodecTest {
+
+    private final ImmutableMap<String, Object> properties = ImmutableMap.<String, Object>builder()
+            .put("string", "äöü")
+            .put("long", -42l)
+            .put("int", Integer.MAX_VALUE)
+            .put("double", 1.5d)
+            .put("float", 2.5f)
+            .put("true", true)
+            .put("false", false)
+            .put("list", ImmutableList.of(1l, "x", ImmutableList.of()))
+            .put("map", ImmutableMap.of("a", 1l, "b", "c"))
+            .put("decimal", new BigDecimal("1.23"))
+            .build();
+
+    private final Neo4JVertexState vertexState = new Neo4JVertexState(ImmutableSet.of("A", "B"), properties,
+            new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("X", new HashSet<>(Arrays.asList(3l, 1l, 2l)), "Y", ImmutableSet.of())),
+            new VertexEdgeReferences().withPartialResolvedEdges(ImmutableMap.of("A", ImmutableSet.of(Long.MAX_VALUE, 0l))));
+
+    private final Neo4JEdgeState edgeState = new Neo4JEdgeState("X", properties, 1l, Long.MIN_VALUE);
+
+    @Test
+    void encodeAndDecodeVertex() {
+        // when: 'encoding and decoding the vertex state'
+        final Neo4JVertexState actual = (Neo4JVertexState) Neo4JStateCodec.decode(Neo4JStateCodec.encode(vertexState));
+        // then: 'the state is the same'
+        assertEquals(vertexState, actual);
+        assertEquals(ImmutableSet.of("X", "Y"), actual.getIncomingEdgeIds().getLabels());
+        assertNull(actual.getOutgoingEdgeIds().getLabels());
+        assertEquals(ImmutableSet.of(0l, Long.MAX_VALUE), actual.getOutgoingEdgeIds().get("A"));
+    }
+
+    @Test
+    void encodeAndDecodeEdge() {
+        // when: 'encoding and decoding the edge state'
+        final Neo4JEdgeState actual = (Neo4JEdgeState) Neo4JStateCodec.decode(Neo4JStateCodec.encode(edgeState));
+        // then: 'the state is the same'
+        assertEquals(edgeState, actual);
+    }
+
+    @Test
+    void encodeAndDecodeBytes() {
+        // when: 'encoding and decoding a state with a byte array property'
+        final Neo4JEdgeState actual = (Neo4JEdgeState) Neo4JStateCodec.decode(Neo4JStateCodec.encode(
+                edgeState.withProperties(ImmutableMap.of("bytes", new byte[]{1, 2, 3}))));
+        // then: 'the bytes are the same'
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) actual.getProperties().get("bytes"));
+    }
+
+    @Test
+    void decodeUnsupportedVersion() {
+        // when: 'decoding bytes of another version'
+        // then: 'an exception is thrown'
+        assertThrows(IllegalArgumentException.class, () -> Neo4JStateCodec.decode(new byte[]{2, 1, 0}));
+    }
+
+    @Test
+    void encodeUnserializableValue() {
+        // when: 'encoding a value which cannot be serialized'
+        // then: 'an exception is thrown'
+        assertThrows(RuntimeException.class, () -> Neo4JStateCodec.encode(edgeState.withProperties(ImmutableMap.of("x", new Object()))));
+    }
+
+    @Test
+    void javaSerializationUsesCodec() throws IOException, ClassNotFoundException {
+        // setup: 'a vertex with many edges'
+        final Neo4JVertexState state = new Neo4JVertexState(ImmutableSet.of("A"), ImmutableMap.of("name", "x"),
+                new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("X", LongStream.range(0, 1000).boxed().collect(Collectors.toSet()))),
+                new VertexEdgeReferences());
+        // when: 'serializing and deserializing the state'
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        final Object actual;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            actual = in.readObject();
+        }
+        // then: 'the state is the same and the serialized form is close to the size of the encoding'
+        assertEquals(state, actual);
+        assertTrue(bytes.size() < Neo4JStateCodec.encode(state).length + 128);
+    }
+
+}
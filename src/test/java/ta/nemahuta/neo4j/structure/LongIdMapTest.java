@@ -0,0 +1,35 @@
+package ta.nemahuta.neo4j.structure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIdMapTest {
+
+    private final LongIdMap sut = new LongIdMap();
+
+    @Test
+    void putAndGetBeyondTheInitialCapacity() {
+        // when: 'mapping more keys than fit into the initial capacity'
+        for (long key = 0; key < 5000; key++) {
+            sut.put(key * 31, key);
+        }
+        // then: 'all the keys are mapped'
+        assertEquals(5000, sut.size());
+        for (long key = 0; key < 5000; key++) {
+            assertEquals(key, sut.get(key * 31));
+        }
+    }
+
+    @Test
+    void replaceAndMiss() {
+        // when: 'mapping a key twice'
+        sut.put(-7, 1);
+        sut.put(-7, 2);
+        // then: 'the last id is mapped and unknown keys are not'
+        assertEquals(1, sut.size());
+        assertEquals(2, sut.get(-7));
+        assertEquals(LongIdMap.NO_ID, sut.get(7));
+    }
+
+}
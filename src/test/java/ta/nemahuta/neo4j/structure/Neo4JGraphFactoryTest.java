@@ -0,0 +1,159 @@
+package ta.nemahuta.neo4j.structure;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.neo4j.driver.v1.AccessMode;
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.Value;
+import ta.nemahuta.neo4j.cache.HierarchicalCache;
+import ta.nemahuta.neo4j.cache.SessionCache;
+import ta.nemahuta.neo4j.cache.SessionCacheManager;
+import ta.nemahuta.neo4j.config.Neo4JConfiguration;
+import ta.nemahuta.neo4j.scope.IdCache;
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static ta.nemahuta.neo4j.testutils.MockUtils.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class Neo4JGraphFactoryTest {
+
+    @Mock
+    private Driver driver;
+
+    @Mock
+    private SessionCacheManager cacheManager;
+
+    @Mock
+    private SessionCache sessionCache;
+
+    @Mock
+    private HierarchicalCache<Long, Neo4JEdgeState> edgeCache;
+
+    @Mock
+    private HierarchicalCache<Long, Neo4JVertexState> vertexCache;
+
+    @Mock
+    private IdCache knownEdgeIds, knownVertexIds;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Neo4JConfiguration configuration;
+
+    private static final String WITHOUT_ID =
+            "MATCH (v:`x`) WHERE (NOT v:`Neo4JVertex` OR NOT exists(v.`_id`)) WITH v LIMIT {countLimit1} RETURN count(v)";
+
+    private final StatementExecutorStub stub = new StatementExecutorStub();
+
+    private final Map<Long, Neo4JVertexState> vertexStates = new ConcurrentHashMap<>();
+
+    private Neo4JGraphFactory sut;
+
+    @BeforeEach
+    void createSut() {
+        doAnswer(i -> vertexStates.put(i.getArgument(0), i.getArgument(1))).when(vertexCache).put(any(), any());
+        doAnswer(i -> vertexStates.put(i.getArgument(0), i.getArgument(1))).when(vertexCache).putLoaded(any(), any());
+        when(vertexCache.get(any())).then(i -> vertexStates.get(i.getArgument(0)));
+        when(sessionCache.getVertexCache()).thenReturn(vertexCache);
+        when(sessionCache.getKnownVertexIds()).thenReturn(knownVertexIds);
+        when(sessionCache.getEdgeCache()).thenReturn(edgeCache);
+        when(sessionCache.getKnownEdgeIds()).thenReturn(knownEdgeIds);
+        when(cacheManager.createSessionCache(any())).thenReturn(sessionCache);
+        when(configuration.getGraphName()).thenReturn("x");
+        when(configuration.getScanPageSize()).thenReturn(10);
+        when(driver.session(any(AccessMode.class))).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(transaction.run(any(Statement.class))).then(i -> stub.executeStatement(i.getArgument(0)));
+        this.sut = createFactory();
+    }
+
+    @Nonnull
+    private Neo4JGraphFactory createFactory() {
+        return new Neo4JGraphFactory(cacheManager, configuration) {
+            @Nonnull
+            @Override
+            protected Driver createDriver() {
+                return driver;
+            }
+        };
+    }
+
+    @Test
+    void createsVertexIdConstraintOnStartup() {
+        // setup: 'client generated vertex ids and no vertex without one'
+        when(configuration.getVertexIdProperty()).thenReturn("_id");
+        stub.stubStatementExecution("CREATE CONSTRAINT ON (c:`Neo4JVertex`) ASSERT c.`_id` IS UNIQUE", ImmutableMap.of(), mockStatementResult());
+        stub.stubCount(WITHOUT_ID, ImmutableMap.of("countLimit1", 1), 0L);
+        // when: 'starting the factory'
+        createFactory();
+        // then: 'the constraint has been created in a write session of its own'
+        verify(driver, times(1)).session(AccessMode.WRITE);
+        verify(transaction, times(1)).run(argThat((Statement s) -> s.text().startsWith("CREATE CONSTRAINT")));
+        verify(transaction, times(2)).success();
+    }
+
+    @Test
+    void failsOnStartupForVerticesWithoutId() {
+        // setup: 'client generated vertex ids and a vertex created before'
+        when(configuration.getVertexIdProperty()).thenReturn("_id");
+        stub.stubStatementExecution("CREATE CONSTRAINT ON (c:`Neo4JVertex`) ASSERT c.`_id` IS UNIQUE", ImmutableMap.of(), mockStatementResult());
+        stub.stubCount(WITHOUT_ID, ImmutableMap.of("countLimit1", 1), 1L);
+        // expect: 'starting the factory to fail and to close the driver'
+        assertThrows(IllegalStateException.class, this::createFactory);
+        verify(driver, times(1)).close();
+    }
+
+    @Test
+    void parallelScanVertices() {
+        final String page = "MATCH (v:`x`) WHERE ID(v) > {vertexIdAfter1} AND ID(v) <= {vertexIdUpTo1} RETURN v ORDER BY ID(v) ASC LIMIT {queryLimit}";
+        stub.stubCount("MATCH (v:`x`) RETURN count(v)", ImmutableMap.of(), 2L);
+        stub.stubStatementExecution("MATCH (v:`x`) WHERE rand() < {vertexSample1} RETURN ID(v)", ImmutableMap.of("vertexSample1", 1d),
+                mockStatementResult(mockRecord(mockValue(Value::asLong, null, 3L)), mockRecord(mockValue(Value::asLong, null, 1L))));
+        stub.stubVertexLoad(page, ImmutableMap.of("vertexIdAfter1", -1L, "vertexIdUpTo1", 1L, "queryLimit", 10L), 1L);
+        stub.stubVertexLoad("MATCH (v:`x`) WHERE ID(v) > {vertexIdAfter1} RETURN v ORDER BY ID(v) ASC LIMIT {queryLimit}",
+                ImmutableMap.of("vertexIdAfter1", 1L, "queryLimit", 10L), 3L);
+        final Set<Object> scanned = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        // when: 'scanning the vertices with two sessions'
+        sut.parallelScanVertices(2, v -> scanned.add(v.id()));
+        // then: 'each of the id ranges split on the sampled ids has been scanned'
+        assertEquals(ImmutableSet.of(1L, 3L), scanned);
+        // and: 'the loaded states are merged into the global caches'
+        verify(vertexCache, times(3)).commit();
+        verify(session, times(3)).close();
+    }
+
+    @Test
+    void parallelScanRequiresSessions() {
+        assertThrows(IllegalArgumentException.class, () -> sut.parallelScanEdges(0, Element::id));
+    }
+
+}
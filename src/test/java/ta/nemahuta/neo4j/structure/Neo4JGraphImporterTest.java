@@ -0,0 +1,126 @@
+package ta.nemahuta.neo4j.structure;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class Neo4JGraphImporterTest {
+
+    private static final String GRAPHML = "<?xml version='1.0' encoding='UTF-8'?>" +
+            "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">" +
+            "<key id=\"name\" for=\"node\" attr.name=\"name\" attr.type=\"string\"/>" +
+            "<key id=\"weight\" for=\"edge\" attr.name=\"weight\" attr.type=\"int\"/>" +
+            "<graph id=\"G\" edgedefault=\"directed\">" +
+            "<node id=\"1\"><data key=\"labelV\">person</data><data key=\"name\">a</data></node>" +
+            "<edge id=\"0\" source=\"1\" target=\"2\" label=\"knows\"><data key=\"weight\">3</data></edge>" +
+            "<node id=\"2\"><data key=\"name\">b</data></node>" +
+            "</graph></graphml>";
+
+    @Mock
+    private Neo4JGraph graph;
+
+    @Mock
+    private Transaction transaction;
+
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    private final List<List<? extends Map<?, ?>>> createdVertices = new ArrayList<>();
+
+    private final List<List<EdgeSpec>> createdEdges = new ArrayList<>();
+
+    @BeforeEach
+    void stubGraph() {
+        when(graph.tx()).thenReturn(transaction);
+        when(graph.getOrCreateVertex(anyLong())).then(i -> mockVertex(i.getArgument(0)));
+        when(graph.addVertices(anyList())).then(i -> {
+            final List<? extends Map<?, ?>> vertices = i.getArgument(0);
+            createdVertices.add(vertices);
+            return vertices.stream().map(v -> mockVertex(nextId.getAndIncrement())).collect(Collectors.toList());
+        });
+        when(graph.addEdges(anyList())).then(i -> {
+            createdEdges.add(ImmutableList.copyOf(i.<List<EdgeSpec>>getArgument(0)));
+            return ImmutableList.of();
+        });
+    }
+
+    @Test
+    void readGraphMLDefersForwardReferences() throws Exception {
+        final Neo4JGraphImporter sut = new Neo4JGraphImporter(graph, 1, 0);
+        // when: 'reading a document with an edge preceding its inbound vertex'
+        sut.readGraphML(new ByteArrayInputStream(GRAPHML.getBytes(StandardCharsets.UTF_8)));
+        // then: 'the vertices are created with their typed properties and labels'
+        assertEquals(ImmutableList.of(
+                ImmutableList.of(ImmutableMap.of(T.label, "person", "name", "a")),
+                ImmutableList.of(ImmutableMap.of(T.label, Vertex.DEFAULT_LABEL, "name", "b"))), createdVertices);
+        assertEquals(Optional.of(100l), sut.getVertexId("1"));
+        assertEquals(Optional.of(101l), sut.getVertexId(2l));
+        // and: 'the deferred edge is created between the new vertices'
+        assertEquals(1, createdEdges.size());
+        final EdgeSpec edge = createdEdges.get(0).get(0);
+        assertEquals("knows", edge.getLabel());
+        assertEquals(100l, edge.getOutVertex().id());
+        assertEquals(101l, edge.getInVertex().id());
+        assertEquals(ImmutableMap.of("weight", 3), edge.getProperties());
+        // and: 'the transaction is committed at the end only'
+        verify(transaction, times(1)).commit();
+        assertEquals(2, sut.getImportedVertices());
+        assertEquals(1, sut.getImportedEdges());
+    }
+
+    @Test
+    void batchesAndCommitsPeriodically() {
+        final Neo4JGraphImporter sut = new Neo4JGraphImporter(graph, 2, 2);
+        // when: 'adding three vertices and an edge'
+        sut.addVertex("a", "x", ImmutableMap.of());
+        sut.addVertex("b", "x", ImmutableMap.of());
+        sut.addVertex("c", "x", ImmutableMap.of());
+        sut.addEdge("y", "a", "c", ImmutableMap.of());
+        sut.finish();
+        // then: 'the vertices are created in batches'
+        assertEquals(ImmutableList.of(2, 1), createdVertices.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(1, createdEdges.size());
+        // and: 'the transaction is committed after each two elements and at the end'
+        verify(transaction, times(3)).commit();
+    }
+
+    @Test
+    void finishRejectsUnknownVertices() {
+        final Neo4JGraphImporter sut = new Neo4JGraphImporter(graph, 10, 0);
+        sut.addVertex("a", "x", ImmutableMap.of());
+        sut.addEdge("y", "a", "unknown", ImmutableMap.of());
+        assertThrows(IllegalStateException.class, sut::finish);
+    }
+
+    private static Vertex mockVertex(final long id) {
+        final Vertex vertex = mock(Vertex.class);
+        when(vertex.id()).thenReturn(id);
+        return vertex;
+    }
+
+}
@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,10 +16,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.neo4j.driver.internal.types.TypeConstructor;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.Value;
 import ta.nemahuta.neo4j.cache.HierarchicalCache;
 import ta.nemahuta.neo4j.cache.SessionCache;
 import ta.nemahuta.neo4j.config.Neo4JConfiguration;
@@ -29,15 +32,21 @@ import ta.nemahuta.neo4j.scope.IdCache;
 import ta.nemahuta.neo4j.session.Neo4JTransaction;
 import ta.nemahuta.neo4j.state.Neo4JEdgeState;
 import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.state.VertexEdgeReferences;
 import ta.nemahuta.neo4j.testutils.StatementExecutorStub;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockRecord;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockStatementResult;
+import static ta.nemahuta.neo4j.testutils.MockUtils.mockValue;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -56,7 +65,7 @@ class Neo4JGraphTest {
     private Session session;
 
     @Mock
-    private IdCache<Long> knownEdgeIds, knownVertexIds;
+    private IdCache knownEdgeIds, knownVertexIds;
 
     private final Neo4JGraphPartition graphPartition = Neo4JLabelGraphPartition.allLabelsOf("x");
 
@@ -105,6 +114,35 @@ class Neo4JGraphTest {
         assertTrue(outVertex.addEdge("q", inVertex, "q", "p") instanceof Neo4JEdge);
     }
 
+    @Test
+    void addVertices() {
+        stub.stubStatementExecution("UNWIND {unwindRows} AS row CREATE (v:`z`:`x`) SET v=row.properties RETURN ID(v)",
+                ImmutableMap.of("unwindRows", ImmutableList.of(ImmutableMap.of("properties", ImmutableMap.of("x", "y")), ImmutableMap.of("properties", ImmutableMap.of("x", "z")))),
+                mockStatementResult(mockRecord(mockValue(Value::asNumber, TypeConstructor.NUMBER, 1l)), mockRecord(mockValue(Value::asNumber, TypeConstructor.NUMBER, 2l))));
+        final List<Vertex> vertices = sut.addVertices(ImmutableList.of(ImmutableMap.of(T.label, "z", "x", "y"), ImmutableMap.of(T.label, "z", "x", "z")));
+        assertEquals(ImmutableList.of(1l, 2l), vertices.stream().map(Vertex::id).collect(Collectors.toList()));
+        verify(vertexCache, times(1)).put(eq(2l), argThat(state -> state.getProperties().equals(ImmutableMap.of("x", "z"))));
+    }
+
+    @Test
+    void addEdges() {
+        stub.stubVertexCreate("CREATE (v:`y`:`x`) SET v={vertexProps1} RETURN ID(v)", ImmutableMap.of("vertexProps1", ImmutableMap.of()), 1l);
+        final Vertex outVertex = sut.addVertex(T.label, "y");
+        stub.stubVertexCreate("CREATE (v:`z`:`x`) SET v={vertexProps1} RETURN ID(v)", ImmutableMap.of("vertexProps1", ImmutableMap.of()), 2l);
+        final Vertex inVertex = sut.addVertex(T.label, "z");
+        stub.stubStatementExecution("UNWIND {unwindRows} AS row MATCH (n:`x`), (m:`x`) WHERE ID(n) = row.outId AND ID(m) = row.inId " +
+                        "CREATE (n)-[r:`q`]->(m) SET r=row.properties RETURN ID(r)",
+                ImmutableMap.of("unwindRows", ImmutableList.of(
+                        ImmutableMap.of("inId", 2l, "outId", 1l, "properties", ImmutableMap.of("q", "p")),
+                        ImmutableMap.of("inId", 1l, "outId", 2l, "properties", ImmutableMap.of()))),
+                mockStatementResult(mockRecord(mockValue(Value::asNumber, TypeConstructor.NUMBER, 3l)), mockRecord(mockValue(Value::asNumber, TypeConstructor.NUMBER, 4l))));
+        final List<Edge> edges = sut.addEdges(ImmutableList.of(
+                new EdgeSpec("q", outVertex, inVertex, ImmutableMap.of("q", "p")),
+                new EdgeSpec("q", inVertex, outVertex, ImmutableMap.of())));
+        assertEquals(ImmutableList.of(3l, 4l), edges.stream().map(Edge::id).collect(Collectors.toList()));
+        verify(edgeCache, times(1)).put(eq(4l), argThat(state -> state.getOutVertexId() == 2l && state.getInVertexId() == 1l));
+    }
+
     @Test
     void compute() {
         assertThrows(UnsupportedOperationException.class, () -> sut.compute());
@@ -134,7 +172,7 @@ class Neo4JGraphTest {
     @Test
     void vertices() {
         stub.stubVertexLoad("MATCH (v:`x`) WHERE ID(v) IN {vertexId1} RETURN v", ImmutableMap.of("vertexId1", Collections.singleton(1)), 1l);
-        when(knownVertexIds.filterExisting(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(i ->
+        when(knownVertexIds.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
                 new HashSet<Long>(i.getArgument(0))
         );
         assertEquals(1, ImmutableList.copyOf(sut.vertices(1l)).size());
@@ -153,7 +191,7 @@ class Neo4JGraphTest {
 
     @Test
     void edges() {
-        when(knownEdgeIds.filterExisting(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(i ->
+        when(knownEdgeIds.filterExisting(ArgumentMatchers.any())).thenAnswer(i ->
                 new HashSet<Long>(i.getArgument(0))
         );
         stub.stubEdgeLoad("MATCH (n:`x`)-[r]->(m:`x`) WHERE ID(r) IN {edgeId1} RETURN r", ImmutableMap.of("edgeId1", Collections.singleton(1)), 1l, 1l, 2l);
@@ -203,6 +241,25 @@ class Neo4JGraphTest {
         assertEquals(apacheConfiguration, sut.configuration());
     }
 
+    @Test
+    void removeVertexUpdatesAdjacentVerticesOnly() {
+        when(configuration.getWriteBehindThreshold()).thenReturn(100);
+        when(knownVertexIds.getRemoved()).thenReturn(ImmutableSet.of());
+        when(knownEdgeIds.filterExisting(any())).then(i -> new HashSet<>(i.<Set<Long>>getArgument(0)));
+        final Neo4JGraph graph = new Neo4JGraph(session, sessionCache, graphPartition, configuration);
+        final VertexEdgeReferences outgoing = new VertexEdgeReferences().withAllResolvedEdges(ImmutableMap.of("q", ImmutableSet.of(5l)));
+        when(vertexCache.get(1l)).thenReturn(new Neo4JVertexState(ImmutableSet.of("y"), ImmutableMap.of(), new VertexEdgeReferences(), outgoing));
+        when(vertexCache.get(2l)).thenReturn(new Neo4JVertexState(ImmutableSet.of("z"), ImmutableMap.of(), outgoing, new VertexEdgeReferences()));
+        when(edgeCache.get(5l)).thenReturn(new Neo4JEdgeState("q", ImmutableMap.of(), 2l, 1l));
+        // when: 'removing a vertex with an edge'
+        graph.getOrCreateVertex(1l).remove();
+        // then: 'the reference is removed from the adjacent vertex without scanning the cache'
+        verify(vertexCache, times(1)).put(eq(2l), argThat(state -> !state.getIncomingEdgeIds().getAllKnown().findAny().isPresent()));
+        verify(vertexCache, never()).getKeys();
+        verify(vertexCache, times(1)).remove(1l);
+        verify(edgeCache, times(1)).remove(5l);
+    }
+
     @Test
     void features() {
         assertEquals(Neo4JFeatures.INSTANCE, sut.features());
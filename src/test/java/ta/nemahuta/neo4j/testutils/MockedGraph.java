@@ -0,0 +1,81 @@
+package ta.nemahuta.neo4j.testutils;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Transaction;
+import ta.nemahuta.neo4j.cache.HierarchicalCache;
+import ta.nemahuta.neo4j.cache.SessionCache;
+import ta.nemahuta.neo4j.config.Neo4JConfiguration;
+import ta.nemahuta.neo4j.partition.Neo4JLabelGraphPartition;
+import ta.nemahuta.neo4j.scope.IdCache;
+import ta.nemahuta.neo4j.state.Neo4JEdgeState;
+import ta.nemahuta.neo4j.state.Neo4JVertexState;
+import ta.nemahuta.neo4j.structure.Neo4JGraph;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mocked session, caches and transaction of a {@link Neo4JGraph} in the partition of label {@code x}. The caches keep
+ * the states being put into them and the statements of the transaction are answered by the {@link #stub}.
+ *
+ * @author Christian Heike (christian.heike@icloud.com)
+ */
+public class MockedGraph {
+
+    @SuppressWarnings("unchecked")
+    public final HierarchicalCache<Long, Neo4JEdgeState> edgeCache = mock(HierarchicalCache.class);
+
+    @SuppressWarnings("unchecked")
+    public final HierarchicalCache<Long, Neo4JVertexState> vertexCache = mock(HierarchicalCache.class);
+
+    public final SessionCache sessionCache = mock(SessionCache.class);
+
+    public final Session session = mock(Session.class);
+
+    public final IdCache knownEdgeIds = mock(IdCache.class), knownVertexIds = mock(IdCache.class);
+
+    public final Neo4JConfiguration configuration = mock(Neo4JConfiguration.class);
+
+    public final Transaction transaction = mock(Transaction.class);
+
+    public final StatementExecutorStub stub = new StatementExecutorStub();
+
+    private final Map<Long, Neo4JVertexState> vertexStates = new HashMap<>();
+
+    private final Map<Long, Neo4JEdgeState> edgeStates = new HashMap<>();
+
+    public MockedGraph() {
+        doAnswer(i -> vertexStates.put(i.getArgument(0), i.getArgument(1))).when(vertexCache).put(any(), any());
+        doAnswer(i -> vertexStates.put(i.getArgument(0), i.getArgument(1))).when(vertexCache).putLoaded(any(), any());
+        when(vertexCache.get(any())).then(i -> vertexStates.get(i.getArgument(0)));
+        doAnswer(i -> edgeStates.put(i.getArgument(0), i.getArgument(1))).when(edgeCache).put(any(), any());
+        doAnswer(i -> edgeStates.put(i.getArgument(0), i.getArgument(1))).when(edgeCache).putLoaded(any(), any());
+        when(edgeCache.get(any())).then(i -> edgeStates.get(i.getArgument(0)));
+        when(knownVertexIds.filterExisting(any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(knownEdgeIds.filterExisting(any())).thenAnswer(i -> new HashSet<Long>(i.getArgument(0)));
+        when(sessionCache.getVertexCache()).thenReturn(vertexCache);
+        when(sessionCache.getKnownVertexIds()).thenReturn(knownVertexIds);
+        when(sessionCache.getEdgeCache()).thenReturn(edgeCache);
+        when(sessionCache.getKnownEdgeIds()).thenReturn(knownEdgeIds);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(transaction.run(any(Statement.class))).then(i -> stub.executeStatement(i.getArgument(0)));
+    }
+
+    /**
+     * @return a traversal source of a new graph for the mocks, reading the {@link #configuration} as stubbed by now
+     */
+    @Nonnull
+    public GraphTraversalSource traversal() {
+        return new Neo4JGraph(session, sessionCache, Neo4JLabelGraphPartition.allLabelsOf("x"), configuration).traversal();
+    }
+
+}
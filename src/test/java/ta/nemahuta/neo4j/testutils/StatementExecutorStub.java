@@ -3,6 +3,7 @@ package ta.nemahuta.neo4j.testutils;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.neo4j.driver.internal.types.TypeConstructor;
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.Value;
@@ -14,6 +15,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ta.nemahuta.neo4j.testutils.MockUtils.*;
 
@@ -87,6 +89,18 @@ public class StatementExecutorStub implements StatementExecutor {
         )));
     }
 
+    public void stubCount(final String text, final Map<String, Object> params, final long count) {
+        stubStatementExecution(text, params, mockStatementResult(mockRecord(
+                mockValue(Value::asNumber, TypeConstructor.INTEGER, count)
+        )));
+    }
+
+    public void stubProperties(final String text, final Map<String, Object> params, final Map<String, Object>... rows) {
+        stubStatementExecution(text, params, mockStatementResult(Stream.of(rows)
+                .map(row -> mockRecord(mockValue(Value::asMap, TypeConstructor.MAP, row)))
+                .toArray(Record[]::new)));
+    }
+
     public void stubEdgeCreate(final String text, final Map<String, Object> params, final long id) {
         stubStatementExecution(text, params, mockStatementResult(mockRecord(
                 mockValue(Value::asNumber, TypeConstructor.NUMBER, id)